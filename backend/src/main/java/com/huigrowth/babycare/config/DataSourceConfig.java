@@ -0,0 +1,42 @@
+package com.huigrowth.babycare.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * 数据源配置
+ * 连接池参数（大小、超时、泄漏检测、预编译语句缓存）见 application.properties 的 spring.datasource.hikari.*；
+ * 这里在每个连接池（开启读写分离时为主库和从库两个池）外包一层获取耗时监控
+ *
+ * @author HuiGrowth Team
+ */
+@Configuration
+public class DataSourceConfig {
+
+    /**
+     * 包装 Hikari 连接池；静态方法避免提前初始化本配置类，MeterRegistry 在首次慢获取时才解析。
+     * 只包装物理连接池而不是路由或延迟代理，后者的 getConnection 不真正取连接
+     */
+    @Bean
+    public static BeanPostProcessor monitoredDataSourcePostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                     Environment environment) {
+        Duration slowThreshold = environment.getProperty("app.datasource.slow-acquire-threshold",
+                Duration.class, Duration.ofMillis(200));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    return new MonitoredDataSource(beanName, dataSource, meterRegistry, slowThreshold);
+                }
+                return bean;
+            }
+        };
+    }
+}
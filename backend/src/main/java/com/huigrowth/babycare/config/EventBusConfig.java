@@ -0,0 +1,78 @@
+package com.huigrowth.babycare.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.huigrowth.babycare.event.DomainEventDispatcher;
+import com.huigrowth.babycare.event.InMemoryMessageBroker;
+import com.huigrowth.babycare.event.MessageBroker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 领域事件总线配置
+ * 
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@Configuration
+public class EventBusConfig {
+
+    /**
+     * 领域事件线程池
+     * 有界队列；队列满时由提交线程（即刚提交事务的请求线程）自己执行处理器，
+     * 以降低请求速度作为背压，不丢弃事件（此时分发器在新事务中调用处理器，见 DomainEventDispatcher）
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor domainEventExecutor(
+            @Value("${app.events.executor.core-size:2}") int coreSize,
+            @Value("${app.events.executor.max-size:4}") int maxSize,
+            @Value("${app.events.executor.queue-capacity:1000}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "domain-event-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        Counter callerRuns = Counter.builder("domain.events.caller.runs")
+                .description("线程池饱和、由提交线程执行的事件处理次数")
+                .register(meterRegistry);
+        ThreadPoolExecutor.CallerRunsPolicy callerRunsPolicy = new ThreadPoolExecutor.CallerRunsPolicy();
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(coreSize, maxSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory,
+                (task, pool) -> {
+                    callerRuns.increment();
+                    log.warn("领域事件线程池已满，由提交线程执行: queue={}", pool.getQueue().size());
+                    callerRunsPolicy.rejectedExecution(task, pool);
+                });
+
+        Gauge.builder("domain.events.queue.size", executor, pool -> pool.getQueue().size())
+                .description("等待执行的事件处理任务数")
+                .register(meterRegistry);
+        Gauge.builder("domain.events.active.threads", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * 默认消息代理：进程内投递
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public MessageBroker messageBroker(ObjectMapper objectMapper, DomainEventDispatcher dispatcher) {
+        return new InMemoryMessageBroker(objectMapper, dispatcher);
+    }
+}
@@ -0,0 +1,36 @@
+package com.huigrowth.babycare.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JPA配置
+ *
+ * @author HuiGrowth Team
+ */
+@Configuration
+public class JpaConfig {
+
+    /**
+     * 事务外懒加载检测器，注册到 Hibernate 的集合初始化和实体加载事件上
+     */
+    @Bean
+    public LazyLoadDetector lazyLoadDetector(EntityManagerFactory entityManagerFactory,
+                                             @Value("${app.jpa.lazy-load-detection:log}") LazyLoadDetector.Mode mode,
+                                             MeterRegistry meterRegistry) {
+        LazyLoadDetector detector = new LazyLoadDetector(mode, meterRegistry);
+        if (mode != LazyLoadDetector.Mode.OFF) {
+            EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                    .getServiceRegistry().getService(EventListenerRegistry.class);
+            registry.appendListeners(EventType.INIT_COLLECTION, detector);
+            registry.appendListeners(EventType.LOAD, detector);
+        }
+        return detector;
+    }
+}
@@ -0,0 +1,103 @@
+package com.huigrowth.babycare.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.HibernateException;
+import org.hibernate.LazyInitializationException;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEvent;
+import org.hibernate.event.spi.LoadEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 事务外懒加载检测
+ * 监听 Hibernate 的集合初始化和代理初始化事件，在没有事务时触发的懒加载说明服务方法缺少事务边界或抓取计划。
+ * 关闭 open-in-view 后会话随事务结束，Hibernate 在触发事件之前就会抛出 LazyInitializationException，
+ * 由全局异常处理器转交 {@link #recordDetachedAccess} 记录；重新开启 open-in-view 或手动持有 EntityManager 时，
+ * 由事件监听记录。两条路径都计入 jpa.lazy.load.outside.transaction 指标并记录请求端点，
+ * 监听路径在 FAIL 模式下直接抛出异常，便于在测试环境暴露问题
+ *
+ * @author HuiGrowth Team
+ */
+@Slf4j
+public class LazyLoadDetector implements InitializeCollectionEventListener, LoadEventListener {
+
+    public enum Mode { OFF, LOG, FAIL }
+
+    /**
+     * 从 Hibernate 异常信息中提取集合角色（role: Entity.field）或代理实体（proxy [Entity#id]）
+     */
+    private static final Pattern DETACHED_TARGET = Pattern.compile("role: ([\\w.$]+)|proxy \\[([\\w.$]+)#");
+
+    private final Mode mode;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public LazyLoadDetector(Mode mode, MeterRegistry meterRegistry) {
+        this.mode = mode;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) throws HibernateException {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            report(event.getCollection().getRole());
+        }
+    }
+
+    @Override
+    public void onLoad(LoadEvent event, LoadType loadType) throws HibernateException {
+        // 代理初始化以 IMMEDIATE_LOAD 方式加载，find/查询触发的加载不在此列
+        if (loadType == LoadEventListener.IMMEDIATE_LOAD
+                && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            report(event.getEntityClassName());
+        }
+    }
+
+    /**
+     * 记录会话已关闭时的懒加载（Hibernate 已抛出异常，此处只计数和记录日志）
+     */
+    public void recordDetachedAccess(LazyInitializationException ex) {
+        String message = ex.getMessage() == null ? "" : ex.getMessage();
+        Matcher matcher = DETACHED_TARGET.matcher(message);
+        String target = matcher.find() ? (matcher.group(1) != null ? matcher.group(1) : matcher.group(2)) : "unknown";
+        count(target);
+        log.warn("事务外懒加载（会话已关闭）: target={}, endpoint={}", target, currentEndpoint());
+    }
+
+    private void report(String target) {
+        count(target);
+        String endpoint = currentEndpoint();
+        if (mode == Mode.FAIL) {
+            throw new LazyInitializationException("事务外懒加载: " + target + ", endpoint=" + endpoint);
+        }
+        log.warn("事务外懒加载: target={}, endpoint={}", target, endpoint);
+    }
+
+    private void count(String target) {
+        counters.computeIfAbsent(target, key -> Counter.builder("jpa.lazy.load.outside.transaction")
+                .description("事务外触发的懒加载次数")
+                .tag("target", key)
+                .register(meterRegistry)).increment();
+    }
+
+    private String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            return request.getMethod() + " " + request.getRequestURI();
+        }
+        return Thread.currentThread().getName();
+    }
+}
@@ -0,0 +1,78 @@
+package com.huigrowth.babycare.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 媒体处理配置
+ * 
+ * @author HuiGrowth Team
+ */
+@Configuration
+public class MediaConfig {
+
+    /**
+     * 缩略图线程池
+     * 解码和缩放占用CPU和内存，与领域事件线程池分开；队列满时直接拒绝，
+     * 被拒绝的图片保持待生成状态，由补偿扫描稍后重新提交
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor thumbnailExecutor(
+            @Value("${app.media.thumbnail.executor.size:2}") int size,
+            @Value("${app.media.thumbnail.executor.queue-capacity:500}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "thumbnail-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        };
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("media.thumbnails.queue.size", executor, pool -> pool.getQueue().size())
+                .description("等待生成缩略图的任务数")
+                .register(meterRegistry);
+        Gauge.builder("media.thumbnails.active.threads", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * 时间线导出线程池
+     * 导出以磁盘和网络IO为主，单线程顺序执行即可；队列满时拒绝新任务
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor exportExecutor(
+            @Value("${app.export.executor.size:1}") int size,
+            @Value("${app.export.executor.queue-capacity:20}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "export-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("export.jobs.queue.size", executor, pool -> pool.getQueue().size())
+                .description("排队中的导出任务数")
+                .register(meterRegistry);
+        Gauge.builder("export.jobs.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        return executor;
+    }
+}
@@ -0,0 +1,87 @@
+package com.huigrowth.babycare.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 连接获取监控数据源
+ * 包装连接池，获取连接耗时超过阈值时记录日志和计数，并标明占用连接的接口（请求线程）或线程名（后台任务）；
+ * 连接池自身的活跃数、等待数和获取耗时由 Spring Boot 以 hikaricp.connections.* 指标导出
+ *
+ * @author HuiGrowth Team
+ */
+@Slf4j
+public class MonitoredDataSource extends DelegatingDataSource {
+
+    private static final String BACKGROUND = "background";
+
+    private final String name;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final long slowThresholdNanos;
+    private final Map<String, Counter> slowCounters = new ConcurrentHashMap<>();
+
+    public MonitoredDataSource(String name, DataSource target, ObjectProvider<MeterRegistry> meterRegistry,
+                               Duration slowThreshold) {
+        super(target);
+        this.name = name;
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection();
+        recordIfSlow(System.nanoTime() - start);
+        return connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection(username, password);
+        recordIfSlow(System.nanoTime() - start);
+        return connection;
+    }
+
+    private void recordIfSlow(long elapsedNanos) {
+        if (elapsedNanos < slowThresholdNanos) {
+            return;
+        }
+        String endpoint = BACKGROUND;
+        String detail = Thread.currentThread().getName();
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            // 指标标签只用路由模板，避免路径参数导致标签值无限增长
+            endpoint = request.getMethod() + " " + (pattern != null ? pattern : "UNMAPPED");
+            detail = request.getMethod() + " " + request.getRequestURI();
+        }
+
+        log.warn("获取数据库连接缓慢: dataSource={}, elapsedMs={}, endpoint={}", name, elapsedNanos / 1_000_000, detail);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            slowCounters.computeIfAbsent(endpoint, key -> Counter.builder("datasource.connection.acquire.slow")
+                    .description("获取连接耗时超过阈值的次数")
+                    .tag("dataSource", name)
+                    .tag("endpoint", key)
+                    .register(registry)).increment();
+        }
+    }
+}
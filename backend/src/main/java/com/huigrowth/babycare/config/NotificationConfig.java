@@ -0,0 +1,29 @@
+package com.huigrowth.babycare.config;
+
+import com.huigrowth.babycare.service.AssessmentReminderNotifier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 通知配置
+ * 
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@Configuration
+public class NotificationConfig {
+
+    /**
+     * 默认评估提醒发送器：记录日志
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public AssessmentReminderNotifier assessmentReminderNotifier() {
+        return reminder -> log.info("发育评估提醒: familyId={}, babies={}", reminder.getFamilyId(),
+                reminder.getDueAssessments().stream()
+                        .map(due -> due.getBabyName() + "-" + due.getCategory().getDescription())
+                        .toList());
+    }
+}
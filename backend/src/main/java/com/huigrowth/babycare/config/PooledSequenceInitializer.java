@@ -0,0 +1,73 @@
+package com.huigrowth.babycare.config;
+
+import com.huigrowth.babycare.entity.PooledIdEntity;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.sequence.SequenceSupport;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 序列主键初始化
+ * 高写入量表由自增主键切换为序列分配主键后，序列初始值为1，
+ * 启动时将其推进到现有最大id之后，避免与历史数据主键冲突。
+ * 在所有单例创建完成、Web服务器开始接收请求之前执行；推进失败时启动失败，而不是带着会冲突的序列对外服务
+ *
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PooledSequenceInitializer implements SmartInitializingSingleton {
+
+    private static final List<String> POOLED_TABLES = List.of("ai_chat_messages", "growth_records", "family_posts");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        SequenceSupport sequenceSupport = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport();
+        for (String table : POOLED_TABLES) {
+            try {
+                Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+                // pooled优化器把取到的序列值当作本批id的上界，因此需要额外预留一个分配块
+                long floor = (maxId == null ? 0 : maxId) + PooledIdEntity.ALLOCATION_SIZE + 1;
+                boolean advanced = sequenceSupport.supportsSequences()
+                        ? advanceSequence(sequenceSupport, table + "_seq", floor)
+                        : advanceSequenceTable(table + "_seq", floor);
+                if (advanced) {
+                    log.info("序列已推进: table={}, nextVal={}", table, floor);
+                }
+            } catch (DataAccessException e) {
+                throw new IllegalStateException("序列初始化失败: table=" + table, e);
+            }
+        }
+    }
+
+    /**
+     * 数据库原生序列（H2等）：当前值低于下限时重置
+     */
+    private boolean advanceSequence(SequenceSupport sequenceSupport, String sequence, long floor) {
+        Long next = jdbcTemplate.queryForObject(sequenceSupport.getSequenceNextValString(sequence), Long.class);
+        if (next != null && next >= floor) {
+            return false;
+        }
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + floor);
+        return true;
+    }
+
+    /**
+     * 序列表（MySQL不支持序列，由Hibernate以单行表模拟）
+     */
+    private boolean advanceSequenceTable(String sequenceTable, long floor) {
+        return jdbcTemplate.update("UPDATE " + sequenceTable + " SET next_val = ? WHERE next_val < ?", floor, floor) > 0;
+    }
+}
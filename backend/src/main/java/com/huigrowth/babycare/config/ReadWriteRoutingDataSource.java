@@ -0,0 +1,219 @@
+package com.huigrowth.babycare.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 读写分离路由数据源
+ * 请求线程上的只读事务（@Transactional(readOnly = true)）走从库，其余一律走主库：
+ * 从库延迟超过阈值或不可用时回退主库；用户自己提交写事务后的一段时间内，其只读请求也走主库，保证读到自己的写入。
+ * 后台线程（事件处理、定时任务）多是在处理刚提交的数据，始终走主库。
+ * 需配合 LazyConnectionDataSourceProxy 使用，确保事务的只读标记在真正取连接之前已经设置；
+ * 粘滞记录只在本实例内存中，多实例部署时依赖网关按用户会话保持。
+ * 粘滞只保护写入者本人：家庭共享的进程内缓存不能用从库读到的数据填充，可用 {@link #isReplicaRead()} 判断
+ *
+ * @author HuiGrowth Team
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    /** 粘滞记录超过该数量时清理过期项 */
+    private static final int STICKY_PURGE_THRESHOLD = 10_000;
+
+    /** 当前事务已路由到从库的标记（事务资源键） */
+    private static final Object REPLICA_READ_KEY = new Object();
+
+    enum Route { PRIMARY, REPLICA }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long maxLagMillis;
+    private final long stickyWindowMillis;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+    private final Map<String, Counter> routeCounters = new ConcurrentHashMap<>();
+
+    /** 从库复制延迟（毫秒），-1 表示从库不可用或复制中断 */
+    private volatile long replicaLagMillis = 0;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration maxLag, Duration stickyWindow,
+                                      ObjectProvider<MeterRegistry> meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagMillis = maxLag.toMillis();
+        this.stickyWindowMillis = stickyWindow.toMillis();
+        this.meterRegistry = meterRegistry;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            trackWrite();
+            return route(Route.PRIMARY, "write");
+        }
+        if (RequestContextHolder.getRequestAttributes() == null) {
+            return route(Route.PRIMARY, "background");
+        }
+        long lag = replicaLagMillis;
+        if (lag < 0 || lag > maxLagMillis) {
+            return route(Route.PRIMARY, "lag");
+        }
+        String username = currentUsername();
+        if (username != null && isSticky(username)) {
+            return route(Route.PRIMARY, "sticky");
+        }
+        markReplicaRead();
+        return route(Route.REPLICA, "read");
+    }
+
+    /**
+     * 当前事务的查询是否路由到了从库（可能落后于主库）；未开启读写分离时始终为 false
+     */
+    public static boolean isReplicaRead() {
+        return TransactionSynchronizationManager.hasResource(REPLICA_READ_KEY);
+    }
+
+    /**
+     * 从库取连接失败时回退主库，并标记从库不可用直到下次延迟检测恢复
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target != replica) {
+            return target.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            log.warn("从库连接失败，回退主库: {}", e.getMessage());
+            updateReplicaLag(-1);
+            route(Route.PRIMARY, "unavailable");
+            return primary.getConnection();
+        }
+    }
+
+    /**
+     * 由延迟检测任务更新从库状态
+     *
+     * @param lagMillis 复制延迟毫秒数，-1 表示不可用
+     */
+    public void updateReplicaLag(long lagMillis) {
+        long previous = replicaLagMillis;
+        replicaLagMillis = lagMillis;
+        boolean wasUsable = previous >= 0 && previous <= maxLagMillis;
+        boolean usable = lagMillis >= 0 && lagMillis <= maxLagMillis;
+        if (wasUsable && !usable) {
+            log.warn("从库不可用或延迟过大，只读请求回退主库: lagMs={}", lagMillis);
+        } else if (!wasUsable && usable) {
+            log.info("从库恢复，只读请求重新路由到从库: lagMs={}", lagMillis);
+        }
+    }
+
+    public long getReplicaLagMillis() {
+        return replicaLagMillis;
+    }
+
+    public boolean isReplicaUsable() {
+        long lag = replicaLagMillis;
+        return lag >= 0 && lag <= maxLagMillis;
+    }
+
+    /**
+     * 写事务提交后将当前用户标记为粘滞主库；每个事务只登记一次
+     */
+    private void trackWrite() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        String username = currentUsername();
+        if (username == null) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, username);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                markSticky(username);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReadWriteRoutingDataSource.this);
+            }
+        });
+    }
+
+    private void markReplicaRead() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(REPLICA_READ_KEY)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(REPLICA_READ_KEY, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(REPLICA_READ_KEY);
+            }
+        });
+    }
+
+    private void markSticky(String username) {
+        long now = System.currentTimeMillis();
+        stickyUntil.put(username, now + stickyWindowMillis);
+        if (stickyUntil.size() > STICKY_PURGE_THRESHOLD) {
+            stickyUntil.values().removeIf(until -> until < now);
+        }
+    }
+
+    private boolean isSticky(String username) {
+        Long until = stickyUntil.get(username);
+        if (until == null) {
+            return false;
+        }
+        if (until < System.currentTimeMillis()) {
+            stickyUntil.remove(username, until);
+            return false;
+        }
+        return true;
+    }
+
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private Route route(Route route, String reason) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            routeCounters.computeIfAbsent(route + ":" + reason, key -> Counter.builder("datasource.routing")
+                    .description("读写分离路由次数")
+                    .tag("target", route.name().toLowerCase())
+                    .tag("reason", reason)
+                    .register(registry)).increment();
+        }
+        return route;
+    }
+}
@@ -0,0 +1,110 @@
+package com.huigrowth.babycare.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * 读写分离配置
+ * 开启后主库和从库各一个 Hikari 连接池，应用使用的 dataSource 为“延迟取连接代理 + 读写路由”：
+ * 只读事务走从库，写事务和事务外访问走主库。从库连接池继承 spring.datasource.hikari.* 配置，
+ * 可用 app.datasource.replica.hikari.* 单独覆盖
+ *
+ * @author HuiGrowth Team
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties properties, Environment environment,
+                                              @Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username:}") String username,
+                                              @Value("${app.datasource.replica.password:}") String password) {
+        HikariDataSource replica = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder binder = Binder.get(environment);
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+        binder.bind("app.datasource.replica.hikari", Bindable.ofInstance(replica));
+        replica.setJdbcUrl(url);
+        if (StringUtils.hasText(username)) {
+            replica.setUsername(username);
+            replica.setPassword(password);
+        }
+        replica.setPoolName((replica.getPoolName() != null ? replica.getPoolName() : "HikariPool") + "-replica");
+        // 驱动层只读连接，误路由的写语句直接失败而不是写进从库
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            @Value("${app.datasource.replica.max-lag:PT5S}") Duration maxLag,
+            @Value("${app.datasource.replica.sticky-window:PT10S}") Duration stickyWindow,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, maxLag, stickyWindow,
+                meterRegistry);
+    }
+
+    /**
+     * 应用实际使用的数据源：事务开始时不取连接，等只读标记设置后第一条语句执行时才由路由决定主从
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                               ReadWriteRoutingDataSource routingDataSource,
+                                               @Value("${app.datasource.replica.lag-query:}") String lagQuery,
+                                               MeterRegistry meterRegistry) {
+        Gauge.builder("datasource.replica.lag", routingDataSource,
+                        routing -> routing.getReplicaLagMillis() < 0 ? Double.NaN : routing.getReplicaLagMillis() / 1000.0)
+                .description("从库复制延迟（秒），不可用时为NaN")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.usable", routingDataSource, routing -> routing.isReplicaUsable() ? 1 : 0)
+                .description("从库是否承接只读请求")
+                .register(meterRegistry);
+        return new ReplicaLagMonitor(replicaDataSource, routingDataSource, lagQuery);
+    }
+
+    /**
+     * 事务结束即归还物理连接。默认模式下 Session 会一直持有首次取到的连接，
+     * 同一请求（open-in-view）中先只读后写入时写语句会落到从库连接上
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
@@ -0,0 +1,72 @@
+package com.huigrowth.babycare.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.ResultSetMetaData;
+
+/**
+ * 从库复制延迟检测
+ * 定期在从库执行延迟查询（MySQL 为 SHOW REPLICA STATUS 的 Seconds_Behind_Source），结果交给路由数据源决定是否回退主库：
+ * 查询失败或延迟为空（复制中断）视为不可用；查询无结果（未配置复制的单机替身库）视为无延迟；
+ * 未配置延迟查询时只做 SELECT 1 连通性检测
+ *
+ * @author HuiGrowth Team
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String[] LAG_COLUMNS = {"Seconds_Behind_Source", "Seconds_Behind_Master"};
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final ReadWriteRoutingDataSource routingDataSource;
+    private final String lagQuery;
+
+    public ReplicaLagMonitor(DataSource replica, ReadWriteRoutingDataSource routingDataSource, String lagQuery) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replica);
+        this.replicaJdbcTemplate.setQueryTimeout(2);
+        this.routingDataSource = routingDataSource;
+        this.lagQuery = lagQuery;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval:5000}")
+    public void check() {
+        long lagMillis;
+        try {
+            lagMillis = StringUtils.hasText(lagQuery) ? queryLag() : ping();
+        } catch (Exception e) {
+            log.warn("从库延迟检测失败: {}", e.getMessage());
+            lagMillis = -1;
+        }
+        routingDataSource.updateReplicaLag(lagMillis);
+    }
+
+    private long ping() {
+        replicaJdbcTemplate.queryForObject("SELECT 1", Integer.class);
+        return 0;
+    }
+
+    private long queryLag() {
+        return replicaJdbcTemplate.query(lagQuery, rs -> {
+            if (!rs.next()) {
+                return 0L;
+            }
+            ResultSetMetaData metaData = rs.getMetaData();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                String column = metaData.getColumnLabel(i);
+                for (String lagColumn : LAG_COLUMNS) {
+                    if (lagColumn.equalsIgnoreCase(column)) {
+                        long seconds = rs.getLong(i);
+                        return rs.wasNull() ? -1L : seconds * 1000;
+                    }
+                }
+            }
+            // 自定义查询：取第一列作为延迟秒数
+            long seconds = rs.getLong(1);
+            return rs.wasNull() ? -1L : seconds * 1000;
+        });
+    }
+}
@@ -69,8 +69,11 @@ public class SecurityConfig {
         http.cors(cors -> cors.configurationSource(request -> {
                     var corsConfiguration = new org.springframework.web.cors.CorsConfiguration();
                     corsConfiguration.setAllowedOriginPatterns(java.util.List.of("*"));
-                    corsConfiguration.setAllowedMethods(java.util.List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+                    corsConfiguration.setAllowedMethods(java.util.List.of("GET", "POST", "PUT", "PATCH", "DELETE", "HEAD", "OPTIONS"));
                     corsConfiguration.setAllowedHeaders(java.util.List.of("*"));
+                    // 暴露分片上传和媒体区间读取使用的响应头
+                    corsConfiguration.setExposedHeaders(java.util.List.of("Location", "Upload-Offset", "Upload-Length",
+                            "Accept-Ranges", "Content-Range", "Content-Length", "ETag"));
                     corsConfiguration.setAllowCredentials(true);
                     return corsConfiguration;
                 }))
@@ -88,7 +91,7 @@ public class SecurityConfig {
                         // 监控端点
                         .requestMatchers("/actuator/health").permitAll()
                         
-                        // 静态资源
+                        // 静态资源（仅旧版平铺上传文件，media、tmp 子目录由 WebConfig 的资源解析器拒绝）
                         .requestMatchers("/uploads/**").permitAll()
                         .requestMatchers("/favicon.ico").permitAll()
                         
@@ -1,15 +1,20 @@
 package com.huigrowth.babycare.config;
 
+import com.huigrowth.babycare.service.MediaStorage;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.PathResourceResolver;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 
@@ -27,6 +32,9 @@ public class WebConfig implements WebMvcConfigurer {
     @Value("${app.file.upload-dir:./uploads}")
     private String uploadDir;
 
+    @Autowired
+    private MediaStorage mediaStorage;
+
     /**
      * 配置跨域
      */
@@ -34,7 +42,7 @@ public class WebConfig implements WebMvcConfigurer {
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**")
                 .allowedOriginPatterns("*")
-                .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
+                .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "HEAD", "OPTIONS")
                 .allowedHeaders("*")
                 .allowCredentials(true)
                 .maxAge(3600);
@@ -45,9 +53,18 @@ public class WebConfig implements WebMvcConfigurer {
      */
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // 配置文件上传目录的静态资源映射
+        // 配置文件上传目录的静态资源映射：只暴露旧版平铺文件，内容寻址的媒体文件和上传、导出临时文件须经鉴权接口读取
         registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:" + uploadDir + "/");
+                .addResourceLocations("file:" + uploadDir + "/")
+                .resourceChain(false)
+                .addResolver(new PathResourceResolver() {
+                    @Override
+                    protected Resource getResource(String resourcePath, Resource location) throws IOException {
+                        Resource resource = super.getResource(resourcePath, location);
+                        return resource != null && resource.isFile()
+                                && mediaStorage.isLegacyFile(resource.getFile().toPath()) ? resource : null;
+                    }
+                });
         
         // 配置Swagger UI资源
         registry.addResourceHandler("swagger-ui.html")
@@ -69,10 +86,14 @@ public class WebConfig implements WebMvcConfigurer {
         configuration.setAllowedOriginPatterns(origins);
         
         // 允许的方法
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "HEAD", "OPTIONS"));
         
         // 允许的头部
         configuration.setAllowedHeaders(Arrays.asList("*"));
+
+        // 暴露分片上传和媒体区间读取使用的响应头
+        configuration.setExposedHeaders(Arrays.asList("Location", "Upload-Offset", "Upload-Length",
+                "Accept-Ranges", "Content-Range", "Content-Length", "ETag"));
         
         // 允许认证信息
         configuration.setAllowCredentials(true);
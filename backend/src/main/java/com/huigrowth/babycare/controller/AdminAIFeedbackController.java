@@ -0,0 +1,53 @@
+package com.huigrowth.babycare.controller;
+
+import com.huigrowth.babycare.dto.AIFeedbackStatsResponse;
+import com.huigrowth.babycare.service.AIFeedbackAnalyticsService;
+import com.huigrowth.babycare.util.ApiResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * AI回复反馈统计管理控制器
+ * 
+ * @author HuiGrowth Team
+ */
+@Tag(name = "AI反馈统计", description = "AI回复反馈统计管理接口")
+@RestController
+@RequestMapping("/admin/ai-feedback")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminAIFeedbackController {
+
+    private final AIFeedbackAnalyticsService feedbackAnalyticsService;
+
+    @Operation(summary = "获取反馈统计", description = "按咨询类型、回复模板、日期汇总AI回复的有帮助率")
+    @GetMapping("/stats")
+    public ApiResponse<AIFeedbackStatsResponse> getStats(
+            @Parameter(description = "开始日期") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "结束日期") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        log.info("获取AI反馈统计: startDate={}, endDate={}", startDate, endDate);
+
+        AIFeedbackStatsResponse response = feedbackAnalyticsService.getStats(startDate, endDate);
+
+        return ApiResponse.success("获取成功", response);
+    }
+
+    @Operation(summary = "立即汇总", description = "立即增量汇总新的反馈（通常由定时任务执行）")
+    @PostMapping("/aggregate")
+    public ApiResponse<Long> aggregate() {
+        log.info("手动触发AI反馈统计");
+
+        long processed = feedbackAnalyticsService.aggregate();
+
+        return ApiResponse.success("汇总完成", processed);
+    }
+}
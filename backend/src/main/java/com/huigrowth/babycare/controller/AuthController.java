@@ -1,12 +1,15 @@
 package com.huigrowth.babycare.controller;
 
 import com.huigrowth.babycare.dto.*;
+import com.huigrowth.babycare.security.MediaAccessCookie;
 import com.huigrowth.babycare.service.AuthService;
 import com.huigrowth.babycare.util.ApiResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
@@ -23,26 +26,33 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
+    private final MediaAccessCookie mediaAccessCookie;
 
     @Operation(summary = "用户注册", description = "创建新用户账户")
     @PostMapping("/register")
-    public ApiResponse<JwtResponse> register(@Valid @RequestBody RegisterRequest request) {
+    public ApiResponse<JwtResponse> register(@Valid @RequestBody RegisterRequest request,
+                                             HttpServletResponse servletResponse) {
         JwtResponse response = authService.register(request);
+        setMediaCookie(servletResponse, response);
         return ApiResponse.success("注册成功", response);
     }
 
     @Operation(summary = "用户登录", description = "用户身份验证并返回JWT令牌")
     @PostMapping("/login")
-    public ApiResponse<JwtResponse> login(@Valid @RequestBody LoginRequest request) {
+    public ApiResponse<JwtResponse> login(@Valid @RequestBody LoginRequest request,
+                                          HttpServletResponse servletResponse) {
         JwtResponse response = authService.login(request);
+        setMediaCookie(servletResponse, response);
         return ApiResponse.success("登录成功", response);
     }
 
     @Operation(summary = "刷新令牌", description = "使用有效令牌获取新的JWT令牌")
     @PostMapping("/refresh")
-    public ApiResponse<JwtResponse> refreshToken(@RequestHeader("Authorization") String authHeader) {
+    public ApiResponse<JwtResponse> refreshToken(@RequestHeader("Authorization") String authHeader,
+                                                 HttpServletResponse servletResponse) {
         String token = authHeader.substring(7); // 移除 "Bearer " 前缀
         JwtResponse response = authService.refreshToken(token);
+        setMediaCookie(servletResponse, response);
         return ApiResponse.success("令牌刷新成功", response);
     }
 
@@ -80,9 +90,10 @@ public class AuthController {
 
     @Operation(summary = "用户登出", description = "用户登出（客户端清除令牌）")
     @PostMapping("/logout")
-    public ApiResponse<String> logout() {
+    public ApiResponse<String> logout(HttpServletResponse servletResponse) {
         // JWT是无状态的，登出主要由客户端处理（清除令牌）
         // 这里可以添加令牌黑名单逻辑（如果需要的话）
+        servletResponse.addHeader(HttpHeaders.SET_COOKIE, mediaAccessCookie.clear().toString());
         return ApiResponse.success("登出成功");
     }
 
@@ -99,4 +110,11 @@ public class AuthController {
         // 这里需要在AuthService中添加检查方法
         return ApiResponse.success("邮箱可用", true);
     }
-}
\ No newline at end of file
+
+    /**
+     * 下发媒体访问Cookie，供 img/video 标签直接加载媒体文件
+     */
+    private void setMediaCookie(HttpServletResponse servletResponse, JwtResponse response) {
+        servletResponse.addHeader(HttpHeaders.SET_COOKIE, mediaAccessCookie.issue(response.getToken()).toString());
+    }
+}
@@ -0,0 +1,39 @@
+package com.huigrowth.babycare.controller;
+
+import com.huigrowth.babycare.dto.BabySummaryResponse;
+import com.huigrowth.babycare.service.BabySummaryService;
+import com.huigrowth.babycare.util.ApiResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 宝宝概览控制器
+ * 
+ * @author HuiGrowth Team
+ */
+@Tag(name = "宝宝概览", description = "宝宝首页概览接口")
+@RestController
+@RequestMapping("/baby")
+@RequiredArgsConstructor
+@Slf4j
+public class BabySummaryController {
+
+    private final BabySummaryService babySummaryService;
+
+    @Operation(summary = "获取宝宝概览", description = "一次返回各类成长记录数量、最新记录、进行中的教育计划、最近里程碑和家庭未完成任务数")
+    @GetMapping("/{babyId}/summary")
+    public ApiResponse<BabySummaryResponse> getSummary(
+            @Parameter(description = "宝宝ID") @PathVariable Long babyId,
+            Authentication authentication) {
+        log.info("获取宝宝概览请求: babyId={}", babyId);
+
+        BabySummaryResponse response = babySummaryService.getSummary(authentication.getName(), babyId);
+
+        return ApiResponse.success("获取成功", response);
+    }
+}
@@ -0,0 +1,80 @@
+package com.huigrowth.babycare.controller;
+
+import com.huigrowth.babycare.dto.AssessmentQuestionnaireResponse;
+import com.huigrowth.babycare.dto.AssessmentSubmitRequest;
+import com.huigrowth.babycare.dto.DevelopmentAssessmentResponse;
+import com.huigrowth.babycare.service.DevelopmentAssessmentService;
+import com.huigrowth.babycare.util.ApiResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 发育评估控制器
+ * 
+ * @author HuiGrowth Team
+ */
+@Tag(name = "发育评估", description = "宝宝发育评估接口")
+@RestController
+@RequestMapping("/assessment")
+@RequiredArgsConstructor
+@Slf4j
+public class DevelopmentAssessmentController {
+
+    private final DevelopmentAssessmentService assessmentService;
+
+    @Operation(summary = "获取评估题目", description = "获取适合宝宝当前月龄的评估题目")
+    @GetMapping("/questions")
+    public ApiResponse<AssessmentQuestionnaireResponse> getQuestionnaire(
+            @Parameter(description = "宝宝ID") @RequestParam Long babyId,
+            @Parameter(description = "评估类别") @RequestParam String category,
+            Authentication authentication) {
+        AssessmentQuestionnaireResponse response = assessmentService.getQuestionnaire(
+                authentication.getName(), babyId, category);
+
+        return ApiResponse.success("获取成功", response);
+    }
+
+    @Operation(summary = "提交评估", description = "提交评估答案并获取评估结果")
+    @PostMapping("/submit")
+    public ApiResponse<DevelopmentAssessmentResponse> submitAssessment(
+            @Valid @RequestBody AssessmentSubmitRequest request,
+            Authentication authentication) {
+        log.info("提交发育评估请求: {}", request);
+
+        DevelopmentAssessmentResponse response = assessmentService.submitAssessment(
+                authentication.getName(), request);
+
+        return ApiResponse.success("评估完成", response);
+    }
+
+    @Operation(summary = "获取宝宝评估记录", description = "分页获取宝宝的发育评估记录")
+    @GetMapping("/baby/{babyId}")
+    public ApiResponse<Page<DevelopmentAssessmentResponse>> getBabyAssessments(
+            @Parameter(description = "宝宝ID") @PathVariable Long babyId,
+            @Parameter(description = "页码，从0开始") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "每页大小") @RequestParam(defaultValue = "10") int size,
+            Authentication authentication) {
+        Page<DevelopmentAssessmentResponse> response = assessmentService.getBabyAssessments(
+                authentication.getName(), babyId, page, size);
+
+        return ApiResponse.success("获取成功", response);
+    }
+
+    @Operation(summary = "获取评估详情", description = "获取发育评估详情")
+    @GetMapping("/{assessmentId}")
+    public ApiResponse<DevelopmentAssessmentResponse> getAssessmentDetail(
+            @Parameter(description = "评估ID") @PathVariable Long assessmentId,
+            Authentication authentication) {
+        DevelopmentAssessmentResponse response = assessmentService.getAssessmentDetail(
+                authentication.getName(), assessmentId);
+
+        return ApiResponse.success("获取成功", response);
+    }
+}
@@ -1,5 +1,7 @@
 package com.huigrowth.babycare.controller;
 
+import com.huigrowth.babycare.dto.FamilyTaskBulkRequest;
+import com.huigrowth.babycare.dto.FamilyTaskBulkResponse;
 import com.huigrowth.babycare.dto.FamilyTaskCreateRequest;
 import com.huigrowth.babycare.dto.FamilyTaskResponse;
 import com.huigrowth.babycare.service.FamilyTaskService;
@@ -135,4 +137,18 @@ public class FamilyTaskController {
         
         return ApiResponse.success("任务删除成功");
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "批量操作任务", description = "对同一家庭的多个任务执行开始、完成、取消或删除（START, COMPLETE, CANCEL, DELETE），返回每个任务的结果")
+    @PostMapping("/family/{familyId}/bulk")
+    public ApiResponse<FamilyTaskBulkResponse> bulkOperate(
+            @Parameter(description = "家庭ID") @PathVariable Long familyId,
+            @Valid @RequestBody FamilyTaskBulkRequest request,
+            Authentication authentication) {
+        log.info("批量操作任务: familyId={}, request={}", familyId, request);
+
+        FamilyTaskBulkResponse response = familyTaskService.bulkOperate(
+                authentication.getName(), familyId, request);
+
+        return ApiResponse.success("批量操作完成", response);
+    }
+}
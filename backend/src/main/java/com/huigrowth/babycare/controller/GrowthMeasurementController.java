@@ -0,0 +1,64 @@
+package com.huigrowth.babycare.controller;
+
+import com.huigrowth.babycare.dto.GrowthCurvePoint;
+import com.huigrowth.babycare.dto.GrowthCurveResponse;
+import com.huigrowth.babycare.dto.GrowthMeasurementCreateRequest;
+import com.huigrowth.babycare.service.GrowthMeasurementService;
+import com.huigrowth.babycare.util.ApiResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 生长测量控制器
+ * 
+ * @author HuiGrowth Team
+ */
+@Tag(name = "生长测量", description = "体重、身长、头围测量及生长曲线接口")
+@RestController
+@RequestMapping("/growth-measurement")
+@RequiredArgsConstructor
+@Slf4j
+public class GrowthMeasurementController {
+
+    private final GrowthMeasurementService measurementService;
+
+    @Operation(summary = "添加测量记录", description = "记录宝宝的体重、身长、头围")
+    @PostMapping("/create")
+    public ApiResponse<GrowthCurvePoint> addMeasurement(
+            @Valid @RequestBody GrowthMeasurementCreateRequest request,
+            Authentication authentication) {
+        log.info("添加生长测量请求: {}", request);
+
+        GrowthCurvePoint response = measurementService.addMeasurement(authentication.getName(), request);
+
+        return ApiResponse.success("测量记录添加成功", response);
+    }
+
+    @Operation(summary = "删除测量记录", description = "删除生长测量记录")
+    @DeleteMapping("/{measurementId}")
+    public ApiResponse<String> deleteMeasurement(
+            @Parameter(description = "测量记录ID") @PathVariable Long measurementId,
+            Authentication authentication) {
+        log.info("删除生长测量请求: measurementId={}", measurementId);
+
+        measurementService.deleteMeasurement(authentication.getName(), measurementId);
+
+        return ApiResponse.success("测量记录删除成功");
+    }
+
+    @Operation(summary = "获取生长曲线", description = "获取宝宝全部测量记录及其WHO标准z值和百分位")
+    @GetMapping("/baby/{babyId}/curve")
+    public ApiResponse<GrowthCurveResponse> getGrowthCurve(
+            @Parameter(description = "宝宝ID") @PathVariable Long babyId,
+            Authentication authentication) {
+        GrowthCurveResponse response = measurementService.getGrowthCurve(authentication.getName(), babyId);
+
+        return ApiResponse.success("获取成功", response);
+    }
+}
@@ -1,19 +1,24 @@
 package com.huigrowth.babycare.controller;
 
 import com.huigrowth.babycare.dto.GrowthRecordCreateRequest;
+import com.huigrowth.babycare.dto.GrowthRecordImportResponse;
 import com.huigrowth.babycare.dto.GrowthRecordResponse;
+import com.huigrowth.babycare.service.GrowthRecordImportService;
 import com.huigrowth.babycare.service.GrowthRecordService;
 import com.huigrowth.babycare.util.ApiResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -29,6 +34,7 @@ import java.util.List;
 public class GrowthRecordController {
 
     private final GrowthRecordService growthRecordService;
+    private final GrowthRecordImportService growthRecordImportService;
 
     @Operation(summary = "创建成长记录", description = "为宝宝创建新的成长记录")
     @PostMapping("/create")
@@ -43,6 +49,24 @@ public class GrowthRecordController {
         return ApiResponse.success("成长记录创建成功", response);
     }
 
+    @Operation(summary = "批量导入成长记录",
+            description = "请求体为CSV（text/csv，首行为表头）或JSON对象数组（application/json），流式解析并分块写入，返回逐行错误")
+    @PostMapping(value = "/import/baby/{babyId}", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE})
+    public ApiResponse<GrowthRecordImportResponse> importRecords(
+            @Parameter(description = "宝宝ID") @PathVariable Long babyId,
+            Authentication authentication,
+            HttpServletRequest request) throws IOException {
+        log.info("批量导入成长记录请求: babyId={}, contentType={}", babyId, request.getContentType());
+
+        GrowthRecordImportService.Format format = MediaType.APPLICATION_JSON.isCompatibleWith(
+                MediaType.parseMediaType(request.getContentType()))
+                ? GrowthRecordImportService.Format.JSON : GrowthRecordImportService.Format.CSV;
+        GrowthRecordImportResponse response = growthRecordImportService.importRecords(
+                authentication.getName(), babyId, format, request.getInputStream());
+
+        return ApiResponse.success("成长记录导入完成", response);
+    }
+
     @Operation(summary = "更新成长记录", description = "更新成长记录信息")
     @PutMapping("/{recordId}")
     public ApiResponse<GrowthRecordResponse> updateRecord(
@@ -0,0 +1,179 @@
+package com.huigrowth.babycare.controller;
+
+import com.huigrowth.babycare.entity.MediaFile;
+import com.huigrowth.babycare.service.MediaFileService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * 媒体文件控制器
+ * 支持 Range 断点/拖动播放、强ETag和Last-Modified条件请求；媒体文件写入后内容不再变化，按 immutable 长期缓存。
+ * 容器支持 sendfile 时把文件区间交给 Tomcat 直接发送，否则通过 FileChannel.transferTo 写出
+ *
+ * @author HuiGrowth Team
+ */
+@Tag(name = "媒体文件", description = "媒体文件读取接口")
+@RestController
+@RequestMapping("/media/files")
+@RequiredArgsConstructor
+@Slf4j
+public class MediaFileController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final MediaFileService mediaFileService;
+
+    @Value("${app.media.serving.max-age:P365D}")
+    private Duration maxAge;
+
+    @Value("${app.media.serving.sendfile-threshold:49152}")
+    private long sendfileThreshold;
+
+    @Operation(summary = "读取媒体文件", description = "支持单区间 Range 请求和 If-None-Match / If-Modified-Since / If-Range 条件请求")
+    @RequestMapping(value = "/{fileId}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void getFile(
+            @Parameter(description = "媒体文件ID") @PathVariable Long fileId,
+            Authentication authentication,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        MediaFile file = mediaFileService.getAccessibleFile(authentication.getName(), fileId);
+        Path path = mediaFileService.resolvePath(file);
+
+        serve(request, response, path, file.getSize(), "\"" + file.getSha256() + "\"", file,
+                file.getContentType(), file.getFileName());
+    }
+
+    @Operation(summary = "读取缩略图", description = "宽度取自列表接口返回的 mediaVariants，缓存和条件请求规则与原文件相同")
+    @RequestMapping(value = "/{fileId}/variants/{width}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void getVariant(
+            @Parameter(description = "媒体文件ID") @PathVariable Long fileId,
+            @Parameter(description = "缩略图宽度") @PathVariable int width,
+            Authentication authentication,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        MediaFile file = mediaFileService.getAccessibleFile(authentication.getName(), fileId);
+        Path path = mediaFileService.resolveVariantPath(file, width);
+
+        serve(request, response, path, Files.size(path), "\"" + file.getSha256() + "-w" + width + "\"", file,
+                "image/jpeg", null);
+    }
+
+    /**
+     * 输出文件：条件请求、单区间 Range、sendfile 或 transferTo
+     */
+    private void serve(HttpServletRequest request, HttpServletResponse response, Path path, long size,
+                       String etag, MediaFile file, String contentType, String fileName) throws IOException {
+        long lastModified = file.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        // 权限相关的内容只允许浏览器私有缓存
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                CacheControl.maxAge(maxAge).cachePrivate().immutable().getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        response.setContentType(contentType);
+        if (fileName != null) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                    .filename(fileName, StandardCharsets.UTF_8).build().toString());
+        }
+
+        long start = 0;
+        long end = size - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && isRangeApplicable(request, etag, lastModified)) {
+            HttpRange range = parseSingleRange(rangeHeader);
+            if (range != null) {
+                start = range.getRangeStart(size);
+                end = range.getRangeEnd(size);
+                if (start >= size || start > end) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if (HttpMethod.HEAD.matches(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (count >= sendfileThreshold && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try {
+            mediaFileService.transfer(path, start, count, Channels.newChannel(response.getOutputStream()));
+        } catch (IOException e) {
+            // 拖动进度条时客户端会频繁中断旧请求，不视为错误
+            log.debug("媒体文件传输中断: fileId={}, range={}-{}, reason={}", file.getId(), start, end, e.getMessage());
+        }
+    }
+
+    /**
+     * If-Range 与当前版本不一致时忽略 Range，返回完整内容
+     */
+    private boolean isRangeApplicable(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 只处理单区间请求；多区间或格式错误的 Range 按规范忽略，返回完整内容
+     */
+    private HttpRange parseSingleRange(String rangeHeader) {
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.huigrowth.babycare.controller;
+
+import com.huigrowth.babycare.dto.MediaUploadCreateRequest;
+import com.huigrowth.babycare.dto.MediaUploadResponse;
+import com.huigrowth.babycare.service.MediaUploadService;
+import com.huigrowth.babycare.util.ApiResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * 媒体分片上传控制器
+ * 协议参照tus：POST创建上传，HEAD查询偏移量，PATCH按 Upload-Offset 追加分片，DELETE取消
+ * 
+ * @author HuiGrowth Team
+ */
+@Tag(name = "媒体上传", description = "可续传的分片上传接口")
+@RestController
+@RequestMapping("/media/uploads")
+@RequiredArgsConstructor
+@Slf4j
+public class MediaUploadController {
+
+    private static final String UPLOAD_OFFSET = "Upload-Offset";
+    private static final String UPLOAD_LENGTH = "Upload-Length";
+    private static final String OFFSET_OCTET_STREAM = "application/offset+octet-stream";
+
+    private final MediaUploadService mediaUploadService;
+
+    @Operation(summary = "创建上传", description = "声明文件名、类型、大小（可附整文件SHA-256），返回上传ID")
+    @PostMapping
+    public ResponseEntity<ApiResponse<MediaUploadResponse>> createUpload(
+            @Valid @RequestBody MediaUploadCreateRequest request,
+            Authentication authentication) {
+        MediaUploadResponse response = mediaUploadService.createUpload(authentication.getName(), request);
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header("Location", "/media/uploads/" + response.getUploadId())
+                .header(UPLOAD_OFFSET, String.valueOf(response.getUploadOffset()))
+                .header(UPLOAD_LENGTH, String.valueOf(response.getTotalSize()))
+                .body(ApiResponse.success("上传创建成功", response));
+    }
+
+    @Operation(summary = "查询上传偏移量", description = "续传前查询服务端已接收的字节数")
+    @RequestMapping(value = "/{uploadId}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> headUpload(
+            @Parameter(description = "上传ID") @PathVariable String uploadId,
+            Authentication authentication) {
+        MediaUploadResponse response = mediaUploadService.getUpload(authentication.getName(), uploadId);
+
+        return ResponseEntity.ok()
+                .header(UPLOAD_OFFSET, String.valueOf(response.getUploadOffset()))
+                .header(UPLOAD_LENGTH, String.valueOf(response.getTotalSize()))
+                .header("Cache-Control", "no-store")
+                .build();
+    }
+
+    @Operation(summary = "获取上传详情", description = "获取上传进度和完成后的媒体地址")
+    @GetMapping("/{uploadId}")
+    public ApiResponse<MediaUploadResponse> getUpload(
+            @Parameter(description = "上传ID") @PathVariable String uploadId,
+            Authentication authentication) {
+        MediaUploadResponse response = mediaUploadService.getUpload(authentication.getName(), uploadId);
+
+        return ApiResponse.success("获取成功", response);
+    }
+
+    @Operation(summary = "上传分片", description = "请求体为分片原始字节，Upload-Offset 必须等于服务端当前偏移量；" +
+            "可选 Upload-Checksum: sha256 <Base64摘要> 校验本分片")
+    @PatchMapping(value = "/{uploadId}", consumes = OFFSET_OCTET_STREAM)
+    public ResponseEntity<ApiResponse<MediaUploadResponse>> appendChunk(
+            @Parameter(description = "上传ID") @PathVariable String uploadId,
+            @RequestHeader(UPLOAD_OFFSET) long offset,
+            @RequestHeader(value = "Upload-Checksum", required = false) String checksum,
+            HttpServletRequest request,
+            Authentication authentication) throws IOException {
+        MediaUploadResponse response = mediaUploadService.appendChunk(authentication.getName(), uploadId, offset,
+                request.getContentLengthLong(), checksum, request.getInputStream());
+
+        return ResponseEntity.ok()
+                .header(UPLOAD_OFFSET, String.valueOf(response.getUploadOffset()))
+                .body(ApiResponse.success(response.getMediaFileId() != null ? "上传完成" : "分片上传成功", response));
+    }
+
+    @Operation(summary = "取消上传", description = "取消未完成的上传并删除已接收的数据")
+    @DeleteMapping("/{uploadId}")
+    public ApiResponse<String> cancelUpload(
+            @Parameter(description = "上传ID") @PathVariable String uploadId,
+            Authentication authentication) {
+        mediaUploadService.cancelUpload(authentication.getName(), uploadId);
+
+        return ApiResponse.success("上传已取消");
+    }
+}
@@ -0,0 +1,98 @@
+package com.huigrowth.babycare.controller;
+
+import com.huigrowth.babycare.dto.MilestoneChecklistResponse;
+import com.huigrowth.babycare.dto.MilestoneCreateRequest;
+import com.huigrowth.babycare.dto.MilestoneResponse;
+import com.huigrowth.babycare.dto.PresetMilestoneResponse;
+import com.huigrowth.babycare.service.MilestoneService;
+import com.huigrowth.babycare.util.ApiResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 里程碑控制器
+ * 
+ * @author HuiGrowth Team
+ */
+@Tag(name = "成长里程碑", description = "宝宝成长里程碑接口")
+@RestController
+@RequestMapping("/milestone")
+@RequiredArgsConstructor
+@Slf4j
+public class MilestoneController {
+
+    private final MilestoneService milestoneService;
+
+    @Operation(summary = "记录里程碑", description = "记录宝宝达成的里程碑，可关联预设里程碑")
+    @PostMapping("/create")
+    public ApiResponse<MilestoneResponse> recordMilestone(
+            @Valid @RequestBody MilestoneCreateRequest request,
+            Authentication authentication) {
+        log.info("记录里程碑请求: {}", request);
+
+        MilestoneResponse response = milestoneService.recordMilestone(authentication.getName(), request);
+
+        return ApiResponse.success("里程碑记录成功", response);
+    }
+
+    @Operation(summary = "删除里程碑", description = "删除已记录的里程碑")
+    @DeleteMapping("/{milestoneId}")
+    public ApiResponse<String> deleteMilestone(
+            @Parameter(description = "里程碑ID") @PathVariable Long milestoneId,
+            Authentication authentication) {
+        log.info("删除里程碑请求: milestoneId={}", milestoneId);
+
+        milestoneService.deleteMilestone(authentication.getName(), milestoneId);
+
+        return ApiResponse.success("里程碑删除成功");
+    }
+
+    @Operation(summary = "获取宝宝里程碑", description = "获取宝宝已记录的里程碑")
+    @GetMapping("/baby/{babyId}")
+    public ApiResponse<List<MilestoneResponse>> getBabyMilestones(
+            @Parameter(description = "宝宝ID") @PathVariable Long babyId,
+            Authentication authentication) {
+        List<MilestoneResponse> response = milestoneService.getBabyMilestones(authentication.getName(), babyId);
+
+        return ApiResponse.success("获取成功", response);
+    }
+
+    @Operation(summary = "获取里程碑清单", description = "获取宝宝当前月龄的预设里程碑清单及达成情况")
+    @GetMapping("/baby/{babyId}/checklist")
+    public ApiResponse<MilestoneChecklistResponse> getChecklist(
+            @Parameter(description = "宝宝ID") @PathVariable Long babyId,
+            Authentication authentication) {
+        MilestoneChecklistResponse response = milestoneService.getChecklist(authentication.getName(), babyId);
+
+        return ApiResponse.success("获取成功", response);
+    }
+
+    @Operation(summary = "获取接下来的里程碑", description = "获取宝宝接下来预期达成的里程碑")
+    @GetMapping("/baby/{babyId}/upcoming")
+    public ApiResponse<List<PresetMilestoneResponse>> getUpcomingMilestones(
+            @Parameter(description = "宝宝ID") @PathVariable Long babyId,
+            @Parameter(description = "向后查看的月数") @RequestParam(required = false) Integer months,
+            Authentication authentication) {
+        List<PresetMilestoneResponse> response = milestoneService.getUpcomingMilestones(
+                authentication.getName(), babyId, months);
+
+        return ApiResponse.success("获取成功", response);
+    }
+
+    @Operation(summary = "获取预设里程碑", description = "获取预设里程碑目录，可按月龄过滤")
+    @GetMapping("/presets")
+    public ApiResponse<List<PresetMilestoneResponse>> getPresets(
+            @Parameter(description = "月龄") @RequestParam(required = false) Integer ageInMonths) {
+        List<PresetMilestoneResponse> response = milestoneService.getPresets(ageInMonths);
+
+        return ApiResponse.success("获取成功", response);
+    }
+}
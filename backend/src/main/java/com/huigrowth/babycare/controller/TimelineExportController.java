@@ -0,0 +1,72 @@
+package com.huigrowth.babycare.controller;
+
+import com.huigrowth.babycare.dto.ExportJobResponse;
+import com.huigrowth.babycare.service.TimelineExportService;
+import com.huigrowth.babycare.util.ApiResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+
+/**
+ * 时间线导出控制器
+ * 创建导出任务后轮询进度，完成后下载ZIP归档（支持 Range 续传）
+ * 
+ * @author HuiGrowth Team
+ */
+@Tag(name = "时间线导出", description = "宝宝照片和成长记录打包导出接口")
+@RestController
+@RequestMapping("/exports")
+@RequiredArgsConstructor
+@Slf4j
+public class TimelineExportController {
+
+    private final TimelineExportService timelineExportService;
+
+    @Operation(summary = "创建导出任务", description = "后台打包宝宝的全部成长记录和媒体文件")
+    @PostMapping("/baby/{babyId}")
+    public ApiResponse<ExportJobResponse> createExport(
+            @Parameter(description = "宝宝ID") @PathVariable Long babyId,
+            Authentication authentication) {
+        log.info("创建时间线导出请求: babyId={}", babyId);
+
+        ExportJobResponse response = timelineExportService.createExport(authentication.getName(), babyId);
+
+        return ApiResponse.success("导出任务已创建", response);
+    }
+
+    @Operation(summary = "查询导出进度", description = "完成后返回下载地址")
+    @GetMapping("/{jobId}")
+    public ApiResponse<ExportJobResponse> getExport(
+            @Parameter(description = "导出任务ID") @PathVariable String jobId,
+            Authentication authentication) {
+        ExportJobResponse response = timelineExportService.getExport(authentication.getName(), jobId);
+
+        return ApiResponse.success("获取成功", response);
+    }
+
+    @Operation(summary = "下载导出归档")
+    @GetMapping("/{jobId}/download")
+    public ResponseEntity<Resource> download(
+            @Parameter(description = "导出任务ID") @PathVariable String jobId,
+            Authentication authentication) {
+        Path archive = timelineExportService.getArchive(authentication.getName(), jobId);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("timeline-" + jobId + ".zip").build().toString())
+                .body(new FileSystemResource(archive));
+    }
+}
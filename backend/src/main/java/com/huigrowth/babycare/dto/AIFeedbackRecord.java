@@ -0,0 +1,26 @@
+package com.huigrowth.babycare.dto;
+
+import com.huigrowth.babycare.entity.AIChatSession;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * AI回复反馈记录（统计任务使用的查询投影）
+ * 
+ * @author HuiGrowth Team
+ */
+@Data
+@AllArgsConstructor
+public class AIFeedbackRecord {
+    private Long messageId;
+    private LocalDateTime feedbackAt;
+    private Boolean isHelpful;
+    private Boolean countedHelpful;
+    private LocalDate countedDate;
+    private String replyTemplate;
+    private LocalDateTime createdAt;
+    private AIChatSession.ConsultationType consultationType;
+}
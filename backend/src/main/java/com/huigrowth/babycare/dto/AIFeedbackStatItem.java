@@ -0,0 +1,16 @@
+package com.huigrowth.babycare.dto;
+
+import lombok.Data;
+
+/**
+ * AI回复反馈统计项DTO
+ * 
+ * @author HuiGrowth Team
+ */
+@Data
+public class AIFeedbackStatItem {
+    private String key;
+    private long helpfulCount;
+    private long unhelpfulCount;
+    private double helpfulRate;
+}
@@ -0,0 +1,21 @@
+package com.huigrowth.babycare.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * AI回复反馈统计响应DTO
+ * 
+ * @author HuiGrowth Team
+ */
+@Data
+public class AIFeedbackStatsResponse {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private AIFeedbackStatItem total;
+    private List<AIFeedbackStatItem> byConsultationType;
+    private List<AIFeedbackStatItem> byReplyTemplate;
+    private List<AIFeedbackStatItem> byDay;
+}
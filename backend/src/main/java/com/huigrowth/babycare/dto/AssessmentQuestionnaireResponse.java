@@ -0,0 +1,21 @@
+package com.huigrowth.babycare.dto;
+
+import com.huigrowth.babycare.entity.DevelopmentAssessment;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 发育评估题目响应DTO
+ * 
+ * @author HuiGrowth Team
+ */
+@Data
+public class AssessmentQuestionnaireResponse {
+    private Long babyId;
+    private DevelopmentAssessment.AssessmentCategory category;
+    private Integer ageInMonths;
+    private String bankId; // 提交答案时回传，用于校验题库未发生变化
+    private List<String> questions;
+    private List<String> options; // 各题共用的选项，答案取选项下标
+}
@@ -0,0 +1,18 @@
+package com.huigrowth.babycare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 家庭评估提醒（同一家庭的到期评估合并为一条提醒）
+ * 
+ * @author HuiGrowth Team
+ */
+@Data
+@AllArgsConstructor
+public class AssessmentReminder {
+    private Long familyId;
+    private List<DueAssessmentRecord> dueAssessments;
+}
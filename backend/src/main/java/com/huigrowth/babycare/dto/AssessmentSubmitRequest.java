@@ -0,0 +1,32 @@
+package com.huigrowth.babycare.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 提交发育评估请求DTO
+ * 
+ * @author HuiGrowth Team
+ */
+@Data
+public class AssessmentSubmitRequest {
+
+    @NotNull(message = "宝宝ID不能为空")
+    private Long babyId;
+
+    @NotBlank(message = "评估类别不能为空")
+    private String category; // MOTOR_GROSS, MOTOR_FINE, LANGUAGE, COGNITIVE, SOCIAL, EMOTIONAL, ADAPTIVE, COMPREHENSIVE
+
+    private String bankId;
+
+    @NotEmpty(message = "答案不能为空")
+    private List<Integer> answers;
+
+    @Size(max = 100, message = "评估标题长度不能超过100个字符")
+    private String title;
+}
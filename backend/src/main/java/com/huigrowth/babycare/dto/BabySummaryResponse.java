@@ -0,0 +1,68 @@
+package com.huigrowth.babycare.dto;
+
+import com.huigrowth.babycare.entity.EducationPlan;
+import com.huigrowth.babycare.entity.GrowthRecord;
+import com.huigrowth.babycare.entity.Milestone;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 宝宝概览响应DTO
+ * 
+ * @author HuiGrowth Team
+ */
+@Data
+public class BabySummaryResponse {
+    private Long babyId;
+    private Map<GrowthRecord.RecordType, Long> recordCounts;
+    private Long totalRecords;
+    private LatestRecord latestRecord;
+    private List<ActivePlan> activePlans;
+    private List<RecentMilestone> recentMilestones;
+    private Long pendingTaskCount;
+    private LocalDateTime updatedAt;
+
+    /**
+     * 最新成长记录
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LatestRecord {
+        private Long id;
+        private String title;
+        private GrowthRecord.RecordType type;
+        private LocalDateTime createdAt;
+    }
+
+    /**
+     * 进行中的教育计划
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ActivePlan {
+        private Long id;
+        private String name;
+        private EducationPlan.EducationCategory category;
+        private Integer progressPercentage;
+    }
+
+    /**
+     * 最近达成的里程碑
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RecentMilestone {
+        private Long id;
+        private String title;
+        private Milestone.MilestoneCategory category;
+        private LocalDateTime achievedAt;
+    }
+}
@@ -0,0 +1,31 @@
+package com.huigrowth.babycare.dto;
+
+import com.huigrowth.babycare.entity.DevelopmentAssessment;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 发育评估响应DTO
+ * 
+ * @author HuiGrowth Team
+ */
+@Data
+public class DevelopmentAssessmentResponse {
+    private Long id;
+    private Long babyId;
+    private String title;
+    private DevelopmentAssessment.AssessmentCategory category;
+    private LocalDate assessmentDate;
+    private Integer babyAgeMonths;
+    private Integer score;
+    private Integer maxScore;
+    private Integer percentile;
+    private String level;
+    private DevelopmentAssessment.AssessmentStatus status;
+    private String recommendations;
+    private LocalDate nextAssessmentDate;
+    private String createdBy;
+    private LocalDateTime createdAt;
+}
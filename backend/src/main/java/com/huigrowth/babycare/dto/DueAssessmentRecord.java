@@ -0,0 +1,23 @@
+package com.huigrowth.babycare.dto;
+
+import com.huigrowth.babycare.entity.DevelopmentAssessment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * 到期评估记录（评估提醒任务使用的查询投影）
+ * 
+ * @author HuiGrowth Team
+ */
+@Data
+@AllArgsConstructor
+public class DueAssessmentRecord {
+    private Long assessmentId;
+    private Long babyId;
+    private String babyName;
+    private Long familyId;
+    private DevelopmentAssessment.AssessmentCategory category;
+    private LocalDate nextAssessmentDate;
+}
@@ -0,0 +1,28 @@
+package com.huigrowth.babycare.dto;
+
+import com.huigrowth.babycare.entity.ExportJob;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 导出任务响应DTO
+ * 
+ * @author HuiGrowth Team
+ */
+@Data
+public class ExportJobResponse {
+    private String jobId;
+    private Long babyId;
+    private ExportJob.ExportStatus status;
+    private Long totalRecords;
+    private Long processedRecords;
+    private Long mediaCount;
+    private Integer progress; // 进度百分比
+    private Long archiveSize;
+    private String downloadUrl; // 完成后可用
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime expiresAt;
+}
@@ -5,6 +5,7 @@ import lombok.Data;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 家庭动态响应DTO
@@ -22,6 +23,7 @@ public class FamilyPostResponse {
     private String content;
     private List<String> images;
     private List<String> videos;
+    private Map<String, Map<Integer, String>> mediaVariants; // 原图地址 -> {宽度: 缩略图地址}
     private Integer likeCount;
     private Integer commentCount;
     private Integer viewCount;
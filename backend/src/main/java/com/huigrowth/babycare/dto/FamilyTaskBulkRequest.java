@@ -0,0 +1,27 @@
+package com.huigrowth.babycare.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量操作家庭任务请求DTO
+ * 
+ * @author HuiGrowth Team
+ */
+@Data
+public class FamilyTaskBulkRequest {
+
+    @NotEmpty(message = "任务ID列表不能为空")
+    @Size(max = 200, message = "单次最多操作200个任务")
+    private List<Long> taskIds;
+
+    @NotBlank(message = "操作类型不能为空")
+    private String operation; // START, COMPLETE, CANCEL, DELETE
+
+    @Size(max = 500, message = "完成备注不能超过500个字符")
+    private String completionNotes; // 仅COMPLETE时使用
+}
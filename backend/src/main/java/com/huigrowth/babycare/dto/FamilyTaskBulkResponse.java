@@ -0,0 +1,34 @@
+package com.huigrowth.babycare.dto;
+
+import com.huigrowth.babycare.entity.FamilyTask;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量操作家庭任务结果DTO
+ * 
+ * @author HuiGrowth Team
+ */
+@Data
+public class FamilyTaskBulkResponse {
+    private Long familyId;
+    private String operation;
+    private Integer succeeded;
+    private Integer failed;
+    private List<TaskResult> results = new ArrayList<>(); // 与请求中的任务ID顺序一致（去重后）
+
+    /**
+     * 单个任务的操作结果，status为操作后的状态，删除成功时为空
+     */
+    @Data
+    @AllArgsConstructor
+    public static class TaskResult {
+        private Long taskId;
+        private Boolean success;
+        private FamilyTask.TaskStatus status;
+        private String message;
+    }
+}
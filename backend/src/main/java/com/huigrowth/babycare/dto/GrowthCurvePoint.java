@@ -0,0 +1,27 @@
+package com.huigrowth.babycare.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * 生长曲线数据点DTO（测量值及其WHO标准z值、百分位）
+ * 
+ * @author HuiGrowth Team
+ */
+@Data
+public class GrowthCurvePoint {
+    private Long id;
+    private LocalDate measuredAt;
+    private Integer ageInDays;
+    private Integer weight; // 克
+    private Double weightZScore;
+    private Double weightPercentile;
+    private Double height; // 厘米
+    private Double heightZScore;
+    private Double heightPercentile;
+    private Double headCircumference; // 厘米
+    private Double headCircumferenceZScore;
+    private Double headCircumferencePercentile;
+    private String note;
+}
@@ -0,0 +1,18 @@
+package com.huigrowth.babycare.dto;
+
+import com.huigrowth.babycare.entity.Baby;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 生长曲线响应DTO
+ * 
+ * @author HuiGrowth Team
+ */
+@Data
+public class GrowthCurveResponse {
+    private Long babyId;
+    private Baby.Gender gender;
+    private List<GrowthCurvePoint> points;
+}
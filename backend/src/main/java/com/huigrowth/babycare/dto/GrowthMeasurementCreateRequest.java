@@ -0,0 +1,43 @@
+package com.huigrowth.babycare.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PastOrPresent;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * 创建生长测量请求DTO
+ * 
+ * @author HuiGrowth Team
+ */
+@Data
+public class GrowthMeasurementCreateRequest {
+
+    @NotNull(message = "宝宝ID不能为空")
+    private Long babyId;
+
+    @NotNull(message = "测量日期不能为空")
+    @PastOrPresent(message = "测量日期不能晚于今天")
+    private LocalDate measuredAt;
+
+    @Min(value = 300, message = "体重不能小于300克")
+    @Max(value = 100000, message = "体重不能大于100000克")
+    private Integer weight; // 克
+
+    @DecimalMin(value = "20.0", message = "身长不能小于20厘米")
+    @DecimalMax(value = "200.0", message = "身长不能大于200厘米")
+    private Double height; // 厘米
+
+    @DecimalMin(value = "15.0", message = "头围不能小于15厘米")
+    @DecimalMax(value = "70.0", message = "头围不能大于70厘米")
+    private Double headCircumference; // 厘米
+
+    @Size(max = 200, message = "备注长度不能超过200个字符")
+    private String note;
+}
@@ -0,0 +1,33 @@
+package com.huigrowth.babycare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 成长记录导入结果DTO
+ * 
+ * @author HuiGrowth Team
+ */
+@Data
+public class GrowthRecordImportResponse {
+    private Long babyId;
+    private Long totalRows;
+    private Long importedRows;
+    private Long failedRows;
+    private Long durationMs;
+    private List<RowError> errors = new ArrayList<>();
+    private Boolean errorsTruncated; // 错误数超过上限时只返回前面的部分
+
+    /**
+     * 行级错误，行号从1开始，不含CSV表头
+     */
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+        private Long row;
+        private String message;
+    }
+}
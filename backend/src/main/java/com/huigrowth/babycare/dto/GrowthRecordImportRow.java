@@ -0,0 +1,24 @@
+package com.huigrowth.babycare.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 成长记录导入行DTO
+ * JSON导入时每个数组元素绑定为一行；CSV导入时按表头列名填充，mediaUrls 和 tags 以 | 分隔
+ * 
+ * @author HuiGrowth Team
+ */
+@Data
+public class GrowthRecordImportRow {
+    private String type; // PHOTO, VIDEO, DIARY, MILESTONE, VOICE，也接受中文名称
+    private String title;
+    private String content;
+    private List<String> mediaUrls;
+    private List<String> tags;
+    private String location;
+    private String weather;
+    private String mood;
+    private String createdAt; // 原记录时间，yyyy-MM-dd'T'HH:mm:ss、yyyy-MM-dd HH:mm:ss 或 yyyy-MM-dd；为空时取导入时间
+}
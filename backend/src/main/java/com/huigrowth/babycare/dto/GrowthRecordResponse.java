@@ -5,6 +5,7 @@ import lombok.Data;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 成长记录响应DTO
@@ -20,6 +21,7 @@ public class GrowthRecordResponse {
     private String title;
     private String content;
     private List<String> mediaUrls;
+    private Map<String, Map<Integer, String>> mediaVariants; // 原图地址 -> {宽度: 缩略图地址}
     private List<String> tags;
     private String location;
     private String weather;
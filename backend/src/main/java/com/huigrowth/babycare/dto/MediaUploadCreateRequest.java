@@ -0,0 +1,35 @@
+package com.huigrowth.babycare.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * 创建分片上传请求DTO
+ * 
+ * @author HuiGrowth Team
+ */
+@Data
+public class MediaUploadCreateRequest {
+
+    @NotNull(message = "家庭ID不能为空")
+    private Long familyId;
+
+    @NotBlank(message = "文件名不能为空")
+    @Size(max = 255, message = "文件名长度不能超过255个字符")
+    private String fileName;
+
+    @NotBlank(message = "文件类型不能为空")
+    @Size(max = 100, message = "文件类型长度不能超过100个字符")
+    private String contentType;
+
+    @NotNull(message = "文件大小不能为空")
+    @Min(value = 1, message = "文件大小必须大于0")
+    private Long totalSize;
+
+    @Pattern(regexp = "^[0-9a-fA-F]{64}$", message = "SHA-256格式错误")
+    private String sha256; // 可选，整文件SHA-256（十六进制）
+}
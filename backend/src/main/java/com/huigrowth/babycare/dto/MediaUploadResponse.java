@@ -0,0 +1,24 @@
+package com.huigrowth.babycare.dto;
+
+import com.huigrowth.babycare.entity.MediaUpload;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 分片上传响应DTO
+ * 
+ * @author HuiGrowth Team
+ */
+@Data
+public class MediaUploadResponse {
+    private String uploadId;
+    private String fileName;
+    private String contentType;
+    private Long totalSize;
+    private Long uploadOffset;
+    private MediaUpload.UploadStatus status;
+    private LocalDateTime expiresAt;
+    private Long mediaFileId;
+    private String mediaUrl; // 上传完成后的媒体地址，可写入成长记录或家庭动态
+}
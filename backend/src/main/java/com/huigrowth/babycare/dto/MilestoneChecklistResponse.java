@@ -0,0 +1,20 @@
+package com.huigrowth.babycare.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 里程碑清单响应DTO
+ * 
+ * @author HuiGrowth Team
+ */
+@Data
+public class MilestoneChecklistResponse {
+    private Long babyId;
+    private Integer ageInMonths;
+    private String ageDescription;
+    private Integer achievedCount;
+    private Integer totalCount;
+    private List<PresetMilestoneResponse> items;
+}
@@ -0,0 +1,41 @@
+package com.huigrowth.babycare.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PastOrPresent;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 记录里程碑请求DTO
+ * 记录预设里程碑时只需传 presetMilestoneId，标题和类别取自预设目录
+ * 
+ * @author HuiGrowth Team
+ */
+@Data
+public class MilestoneCreateRequest {
+
+    @NotNull(message = "宝宝ID不能为空")
+    private Long babyId;
+
+    private Long presetMilestoneId;
+
+    @Size(max = 100, message = "标题长度不能超过100个字符")
+    private String title;
+
+    @Size(max = 500, message = "描述长度不能超过500个字符")
+    private String description;
+
+    private String category; // MOTOR, FINE_MOTOR, LANGUAGE, COGNITIVE, SOCIAL, SELF_CARE, OTHER
+
+    @NotNull(message = "达成时间不能为空")
+    @PastOrPresent(message = "达成时间不能晚于当前时间")
+    private LocalDateTime achievedAt;
+
+    private List<String> photos;
+
+    @Size(max = 200, message = "庆祝信息长度不能超过200个字符")
+    private String celebrationMessage;
+}
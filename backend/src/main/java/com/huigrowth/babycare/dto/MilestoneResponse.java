@@ -0,0 +1,30 @@
+package com.huigrowth.babycare.dto;
+
+import com.huigrowth.babycare.entity.Milestone;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 里程碑响应DTO
+ * 
+ * @author HuiGrowth Team
+ */
+@Data
+public class MilestoneResponse {
+    private Long id;
+    private Long babyId;
+    private String title;
+    private String description;
+    private LocalDateTime achievedAt;
+    private Milestone.MilestoneCategory category;
+    private List<String> photos;
+    private Integer ageInMonths;
+    private Integer ageInDays;
+    private String ageDescription;
+    private Boolean isPreset;
+    private Long presetMilestoneId;
+    private String celebrationMessage;
+    private LocalDateTime createdAt;
+}
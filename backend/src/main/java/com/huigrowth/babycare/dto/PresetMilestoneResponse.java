@@ -0,0 +1,22 @@
+package com.huigrowth.babycare.dto;
+
+import com.huigrowth.babycare.entity.Milestone;
+import lombok.Data;
+
+/**
+ * 预设里程碑响应DTO
+ * 
+ * @author HuiGrowth Team
+ */
+@Data
+public class PresetMilestoneResponse {
+    private Long id;
+    private String title;
+    private String description;
+    private Milestone.MilestoneCategory category;
+    private Integer startMonth;
+    private Integer endMonth;
+    private String celebrationMessage;
+    private Boolean achieved; // 针对具体宝宝时返回
+    private Boolean overdue; // 已超过典型达成窗口且未达成
+}
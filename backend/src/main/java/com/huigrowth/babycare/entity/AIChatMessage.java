@@ -7,6 +7,9 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
 /**
  * AI聊天消息实体
  * 
@@ -14,13 +17,19 @@ import lombok.ToString;
  */
 @Entity
 @Table(name = "ai_chat_messages", indexes = {
-    @Index(name = "idx_ai_chat_message_session", columnList = "chat_session_id"),
-    @Index(name = "idx_ai_chat_message_created_at", columnList = "created_at")
+    @Index(name = "idx_ai_chat_message_session_created_at", columnList = "chat_session_id, created_at"),
+    @Index(name = "idx_ai_chat_message_created_at", columnList = "created_at"),
+    @Index(name = "idx_ai_chat_message_feedback_at", columnList = "feedback_at, id")
 })
 @Data
 @EqualsAndHashCode(callSuper = true, exclude = {"chatSession"})
 @ToString(exclude = {"chatSession"})
-public class AIChatMessage extends BaseEntity {
+public class AIChatMessage extends PooledIdEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ai_chat_messages_seq")
+    @SequenceGenerator(name = "ai_chat_messages_seq", allocationSize = PooledIdEntity.ALLOCATION_SIZE)
+    private Long id;
 
     @NotNull(message = "聊天会话不能为空")
     @ManyToOne(fetch = FetchType.LAZY)
@@ -45,6 +54,18 @@ public class AIChatMessage extends BaseEntity {
     @Column(name = "feedback", length = 500)
     private String feedback; // 用户反馈
 
+    @Column(name = "reply_template", length = 50)
+    private String replyTemplate; // 生成AI回复所用的模板
+
+    @Column(name = "feedback_at")
+    private LocalDateTime feedbackAt; // 最近一次评价时间，反馈统计任务据此增量处理
+
+    @Column(name = "counted_helpful")
+    private Boolean countedHelpful; // 已计入统计的评价结果，为空表示尚未计入
+
+    @Column(name = "counted_date")
+    private LocalDate countedDate; // 已计入统计的日期（评价日期），修改评价时从该日撤销
+
     /**
      * 消息类型枚举
      */
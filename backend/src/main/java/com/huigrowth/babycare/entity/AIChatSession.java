@@ -7,7 +7,9 @@ import jakarta.validation.constraints.Size;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
 
+import java.time.LocalDateTime;
 import java.util.Set;
 
 /**
@@ -19,9 +21,11 @@ import java.util.Set;
 @Table(name = "ai_chat_sessions", indexes = {
     @Index(name = "idx_ai_chat_session_user", columnList = "user_id"),
     @Index(name = "idx_ai_chat_session_baby", columnList = "baby_id"),
-    @Index(name = "idx_ai_chat_session_created_at", columnList = "created_at")
+    @Index(name = "idx_ai_chat_session_created_at", columnList = "created_at"),
+    @Index(name = "idx_ai_chat_session_user_created_at", columnList = "user_id, created_at")
 })
 @Data
+@DynamicUpdate
 @EqualsAndHashCode(callSuper = true, exclude = {"user", "baby", "messages"})
 @ToString(exclude = {"user", "baby", "messages"})
 public class AIChatSession extends BaseEntity {
@@ -53,11 +57,27 @@ public class AIChatSession extends BaseEntity {
     @Column(name = "summary", columnDefinition = "TEXT")
     private String summary; // 会话摘要
 
+    @Column(name = "context_summary", columnDefinition = "TEXT")
+    private String contextSummary; // 对话上下文摘要（滑出窗口的消息折叠而成，与用户填写的会话摘要分开）
+
+    @Column(name = "context_summarized_at")
+    private LocalDateTime contextSummarizedAt; // 已折叠进摘要的最后一条消息时间
+
     @Column(name = "tags", length = 500)
     private String tags; // 标签，逗号分隔
 
     @Column(name = "message_count", nullable = false)
-    private Integer messageCount = 0;
+    private Integer messageCount = 0; // 由原子UPDATE累加，不通过实体保存修改
+
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version; // 乐观锁版本号
+
+    @Column(name = "last_message_preview", length = 200)
+    private String lastMessagePreview; // 最后一条消息预览（冗余字段，避免列表页逐条查询）
+
+    @Column(name = "last_message_at")
+    private LocalDateTime lastMessageAt; // 最后一条消息时间
 
     @OneToMany(mappedBy = "chatSession", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<AIChatMessage> messages;
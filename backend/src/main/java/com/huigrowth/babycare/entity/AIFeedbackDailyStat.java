@@ -0,0 +1,40 @@
+package com.huigrowth.babycare.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDate;
+
+/**
+ * AI回复反馈日统计实体
+ * 按日期、咨询类型、回复模板汇总的有帮助/无帮助次数
+ * 
+ * @author HuiGrowth Team
+ */
+@Entity
+@Table(name = "ai_feedback_daily_stats",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"stat_date", "consultation_type", "reply_template"}),
+       indexes = {
+           @Index(name = "idx_ai_feedback_stat_date", columnList = "stat_date")
+       })
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class AIFeedbackDailyStat extends BaseEntity {
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "consultation_type", nullable = false)
+    private AIChatSession.ConsultationType consultationType;
+
+    @Column(name = "reply_template", nullable = false, length = 50)
+    private String replyTemplate;
+
+    @Column(name = "helpful_count", nullable = false)
+    private Long helpfulCount = 0L;
+
+    @Column(name = "unhelpful_count", nullable = false)
+    private Long unhelpfulCount = 0L;
+}
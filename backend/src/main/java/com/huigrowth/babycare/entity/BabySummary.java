@@ -0,0 +1,65 @@
+package com.huigrowth.babycare.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+
+/**
+ * 宝宝概览汇总实体
+ * 每个宝宝一行，由各业务服务发布的领域事件增量维护，概览接口只需一次按baby_id的索引读取
+ * 
+ * @author HuiGrowth Team
+ */
+@Entity
+@Table(name = "baby_summaries", indexes = {
+    @Index(name = "idx_baby_summary_family", columnList = "family_id")
+})
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class BabySummary extends BaseEntity {
+
+    @Column(name = "baby_id", nullable = false, unique = true)
+    private Long babyId;
+
+    @Column(name = "family_id", nullable = false)
+    private Long familyId;
+
+    @Column(name = "photo_count", nullable = false)
+    private Long photoCount = 0L;
+
+    @Column(name = "video_count", nullable = false)
+    private Long videoCount = 0L;
+
+    @Column(name = "diary_count", nullable = false)
+    private Long diaryCount = 0L;
+
+    @Column(name = "milestone_record_count", nullable = false)
+    private Long milestoneRecordCount = 0L;
+
+    @Column(name = "voice_count", nullable = false)
+    private Long voiceCount = 0L;
+
+    @Column(name = "latest_record_id")
+    private Long latestRecordId;
+
+    @Column(name = "latest_record_title", length = 100, columnDefinition = "VARCHAR(100) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci")
+    private String latestRecordTitle;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "latest_record_type")
+    private GrowthRecord.RecordType latestRecordType;
+
+    @Column(name = "latest_record_at")
+    private LocalDateTime latestRecordAt;
+
+    @Column(name = "active_plans", columnDefinition = "JSON")
+    private String activePlans; // JSON格式存储进行中的教育计划快照
+
+    @Column(name = "recent_milestones", columnDefinition = "JSON")
+    private String recentMilestones; // JSON格式存储最近达成的里程碑快照
+
+    @Column(name = "pending_task_count", nullable = false)
+    private Long pendingTaskCount = 0L; // 家庭未完成任务数（待处理、进行中、已逾期）
+}
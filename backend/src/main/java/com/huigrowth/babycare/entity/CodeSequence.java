@@ -0,0 +1,24 @@
+package com.huigrowth.babycare.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 编号序列实体
+ * 按名称分配单调递增的计数块，各节点在内存中消费已分配的块
+ * 
+ * @author HuiGrowth Team
+ */
+@Entity
+@Table(name = "code_sequences")
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class CodeSequence extends BaseEntity {
+
+    @Column(name = "name", nullable = false, unique = true, length = 50)
+    private String name;
+
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue = 0L; // 下一个未分配的计数值
+}
@@ -19,7 +19,8 @@ import java.time.LocalDate;
 @Table(name = "development_assessments", indexes = {
     @Index(name = "idx_development_assessment_baby", columnList = "baby_id"),
     @Index(name = "idx_development_assessment_category", columnList = "category"),
-    @Index(name = "idx_development_assessment_date", columnList = "assessment_date")
+    @Index(name = "idx_development_assessment_date", columnList = "assessment_date"),
+    @Index(name = "idx_development_assessment_next_date", columnList = "next_assessment_date, id")
 })
 @Data
 @EqualsAndHashCode(callSuper = true, exclude = {"baby"})
@@ -60,6 +61,12 @@ public class DevelopmentAssessment extends BaseEntity {
     @Column(name = "max_score", nullable = false)
     private Integer maxScore = 100; // 最高得分
 
+    @Column(name = "percentile")
+    private Integer percentile; // 同月龄常模百分位
+
+    @Column(name = "development_level", length = 20)
+    private String developmentLevel; // 发育水平
+
     @NotNull(message = "评估状态不能为空")
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
@@ -0,0 +1,81 @@
+package com.huigrowth.babycare.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * 宝宝时间线导出任务实体
+ * 后台生成包含成长记录索引和媒体文件的ZIP归档，前端轮询进度后下载
+ * 
+ * @author HuiGrowth Team
+ */
+@Entity
+@Table(name = "export_jobs", indexes = {
+    @Index(name = "idx_export_job_baby_status", columnList = "baby_id, status"),
+    @Index(name = "idx_export_job_status_updated", columnList = "status, updated_at")
+})
+@Data
+@EqualsAndHashCode(callSuper = true, exclude = {"owner"})
+@ToString(exclude = {"owner"})
+public class ExportJob extends BaseEntity {
+
+    @Column(name = "job_id", nullable = false, unique = true, length = 36)
+    private String jobId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "owner_id", nullable = false)
+    private User owner;
+
+    @Column(name = "baby_id", nullable = false)
+    private Long babyId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private ExportStatus status = ExportStatus.PENDING;
+
+    @Column(name = "total_records", nullable = false)
+    private Long totalRecords = 0L;
+
+    @Column(name = "processed_records", nullable = false)
+    private Long processedRecords = 0L;
+
+    @Column(name = "media_count", nullable = false)
+    private Long mediaCount = 0L; // 已写入归档的媒体文件数
+
+    @Column(name = "archive_size")
+    private Long archiveSize;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt; // 归档文件的过期时间
+
+    /**
+     * 导出状态枚举
+     */
+    public enum ExportStatus {
+        PENDING("排队中"),
+        RUNNING("导出中"),
+        COMPLETED("已完成"),
+        FAILED("失败"),
+        EXPIRED("已过期");
+
+        private final String description;
+
+        ExportStatus(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+}
@@ -8,7 +8,6 @@ import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
 import java.util.Set;
-import java.util.UUID;
 
 /**
  * 家庭实体
@@ -43,19 +42,4 @@ public class Family extends BaseEntity {
 
     @OneToMany(mappedBy = "family", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<Baby> babies;
-
-    @PrePersist
-    protected void onCreate() {
-        super.onCreate();
-        if (inviteCode == null) {
-            inviteCode = generateInviteCode();
-        }
-    }
-
-    /**
-     * 生成邀请码
-     */
-    private String generateInviteCode() {
-        return UUID.randomUUID().toString().replace("-", "").substring(0, 8).toUpperCase();
-    }
-}
\ No newline at end of file
+}
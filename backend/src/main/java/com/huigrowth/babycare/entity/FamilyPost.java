@@ -22,7 +22,12 @@ import lombok.ToString;
 @Data
 @EqualsAndHashCode(callSuper = true, exclude = {"family", "author"})
 @ToString(exclude = {"family", "author"})
-public class FamilyPost extends BaseEntity {
+public class FamilyPost extends PooledIdEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "family_posts_seq")
+    @SequenceGenerator(name = "family_posts_seq", allocationSize = PooledIdEntity.ALLOCATION_SIZE)
+    private Long id;
 
     @NotNull(message = "家庭不能为空")
     @ManyToOne(fetch = FetchType.LAZY)
@@ -7,11 +7,13 @@ import jakarta.validation.constraints.Size;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 
 /**
  * 家庭任务实体
+ * 状态只通过带原状态条件的UPDATE变更；动态更新保证编辑任务时不会把并发修改过的状态写回旧值
  * 
  * @author HuiGrowth Team
  */
@@ -23,6 +25,7 @@ import java.time.LocalDateTime;
     @Index(name = "idx_family_task_due_date", columnList = "due_date")
 })
 @Data
+@DynamicUpdate
 @EqualsAndHashCode(callSuper = true, exclude = {"family", "assignedBy", "completedBy"})
 @ToString(exclude = {"family", "assignedBy", "completedBy"})
 public class FamilyTask extends BaseEntity {
@@ -0,0 +1,51 @@
+package com.huigrowth.babycare.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+/**
+ * 生长测量实体
+ * 体重、身长、头围的时间序列；按 (baby_id, measured_at) 索引，新测量追加在宝宝序列末尾
+ * 
+ * @author HuiGrowth Team
+ */
+@Entity
+@Table(name = "growth_measurements", indexes = {
+    @Index(name = "idx_growth_measurement_baby_measured_at", columnList = "baby_id, measured_at")
+})
+@Data
+@EqualsAndHashCode(callSuper = true, exclude = {"baby", "createdBy"})
+@ToString(exclude = {"baby", "createdBy"})
+public class GrowthMeasurement extends BaseEntity {
+
+    @NotNull(message = "宝宝不能为空")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "baby_id", nullable = false)
+    private Baby baby;
+
+    @NotNull(message = "测量日期不能为空")
+    @Column(name = "measured_at", nullable = false)
+    private LocalDate measuredAt;
+
+    @Column(name = "weight")
+    private Integer weight; // 体重（克）
+
+    @Column(name = "height")
+    private Double height; // 身长/身高（厘米）
+
+    @Column(name = "head_circumference")
+    private Double headCircumference; // 头围（厘米）
+
+    @Column(name = "note", length = 200, columnDefinition = "VARCHAR(200) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci")
+    private String note;
+
+    @NotNull(message = "创建者不能为空")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "created_by", nullable = false)
+    private User createdBy;
+}
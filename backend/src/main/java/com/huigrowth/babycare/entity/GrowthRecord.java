@@ -31,7 +31,12 @@ import java.util.List;
 @Data
 @EqualsAndHashCode(callSuper = true, exclude = {"baby", "createdBy"})
 @ToString(exclude = {"baby", "createdBy"})
-public class GrowthRecord extends BaseEntity {
+public class GrowthRecord extends PooledIdEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "growth_records_seq")
+    @SequenceGenerator(name = "growth_records_seq", allocationSize = PooledIdEntity.ALLOCATION_SIZE)
+    private Long id;
 
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
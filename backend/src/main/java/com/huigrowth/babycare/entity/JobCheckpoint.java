@@ -0,0 +1,32 @@
+package com.huigrowth.babycare.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+
+/**
+ * 后台任务检查点实体
+ * 记录增量任务已处理到的位置（键集游标），任务重启后从检查点继续
+ * 
+ * @author HuiGrowth Team
+ */
+@Entity
+@Table(name = "job_checkpoints")
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class JobCheckpoint extends BaseEntity {
+
+    @Column(name = "job_name", nullable = false, unique = true, length = 100)
+    private String jobName;
+
+    @Column(name = "last_processed_at")
+    private LocalDateTime lastProcessedAt; // 游标：最后处理记录的时间
+
+    @Column(name = "last_processed_id")
+    private Long lastProcessedId; // 游标：最后处理记录的id
+
+    @Column(name = "processed_count", nullable = false)
+    private Long processedCount = 0L; // 累计处理数量
+}
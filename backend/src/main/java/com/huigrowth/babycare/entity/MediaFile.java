@@ -0,0 +1,131 @@
+package com.huigrowth.babycare.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * 媒体文件实体
+ * 上传完成后登记，业务数据中以 /media/files/{id} 引用；文件内容按SHA-256内容寻址存储，
+ * 同一家庭内相同内容只登记一次，不同家庭的记录共享同一份磁盘文件
+ * refCount 为引用该文件的业务数据数（成长记录、家庭动态、里程碑照片、宝宝和用户头像），
+ * 被引用过（everReferenced）且归零超过宽限期后由后台清理；登记时即纳入引用计数（refTracked）的文件
+ * 即使从未被引用，超过宽限期后同样清理（放弃的上传）。引入引用计数之前登记的旧文件 refTracked 为 false，
+ * 其引用数无法确定，从未被引用时不清理
+ * 
+ * @author HuiGrowth Team
+ */
+@Entity
+@Table(name = "media_files", indexes = {
+    @Index(name = "idx_media_file_family_sha256", columnList = "family_id, sha256"),
+    @Index(name = "idx_media_file_sha256", columnList = "sha256"),
+    @Index(name = "idx_media_file_unreferenced", columnList = "ref_count, updated_at"),
+    @Index(name = "idx_media_file_thumbnail", columnList = "thumbnail_status, updated_at")
+})
+@Data
+@EqualsAndHashCode(callSuper = true, exclude = {"owner"})
+@ToString(exclude = {"owner"})
+public class MediaFile extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "owner_id", nullable = false)
+    private User owner;
+
+    @Column(name = "family_id", nullable = false)
+    private Long familyId;
+
+    @Column(name = "file_name", nullable = false, length = 255, columnDefinition = "VARCHAR(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci")
+    private String fileName;
+
+    @Column(name = "content_type", nullable = false, length = 100)
+    private String contentType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "media_type", nullable = false, length = 20)
+    private MediaType mediaType;
+
+    @Column(name = "size", nullable = false)
+    private Long size;
+
+    @Column(name = "sha256", nullable = false, length = 64)
+    private String sha256;
+
+    @Column(name = "storage_path", nullable = false, length = 255)
+    private String storagePath; // 相对于上传目录的存储路径
+
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount = 0;
+
+    @Column(name = "ever_referenced", nullable = false)
+    private Boolean everReferenced = false; // 引用计数是否曾大于0
+
+    @Column(name = "ref_tracked", nullable = false)
+    private Boolean refTracked = false; // 登记时是否已纳入引用计数
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "thumbnail_status", length = 20)
+    private ThumbnailStatus thumbnailStatus;
+
+    @Column(name = "thumbnail_widths", length = 100)
+    private String thumbnailWidths; // 已生成的缩略图宽度，逗号分隔
+
+    @Column(name = "thumbnail_attempts")
+    private Integer thumbnailAttempts = 0;
+
+    /**
+     * 媒体类型枚举
+     */
+    public enum MediaType {
+        IMAGE("图片"),
+        VIDEO("视频"),
+        AUDIO("音频"),
+        OTHER("其他");
+
+        private final String description;
+
+        MediaType(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public static MediaType of(String contentType) {
+            if (contentType == null) {
+                return OTHER;
+            }
+            if (contentType.startsWith("image/")) {
+                return IMAGE;
+            }
+            if (contentType.startsWith("video/")) {
+                return VIDEO;
+            }
+            if (contentType.startsWith("audio/")) {
+                return AUDIO;
+            }
+            return OTHER;
+        }
+    }
+
+    /**
+     * 缩略图状态枚举
+     */
+    public enum ThumbnailStatus {
+        PENDING("待生成"),
+        READY("已生成"),
+        FAILED("生成失败"),
+        NONE("无缩略图");
+
+        private final String description;
+
+        ThumbnailStatus(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.huigrowth.babycare.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * 分片上传会话实体
+ * 记录可续传上传的已接收偏移量，分片数据直接追加写入临时文件
+ * 
+ * @author HuiGrowth Team
+ */
+@Entity
+@Table(name = "media_uploads", indexes = {
+    @Index(name = "idx_media_upload_status_expires", columnList = "status, expires_at")
+})
+@Data
+@EqualsAndHashCode(callSuper = true, exclude = {"owner"})
+@ToString(exclude = {"owner"})
+public class MediaUpload extends BaseEntity {
+
+    @Column(name = "upload_id", nullable = false, unique = true, length = 36)
+    private String uploadId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "owner_id", nullable = false)
+    private User owner;
+
+    @Column(name = "family_id", nullable = false)
+    private Long familyId;
+
+    @Column(name = "file_name", nullable = false, length = 255, columnDefinition = "VARCHAR(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci")
+    private String fileName;
+
+    @Column(name = "content_type", nullable = false, length = 100)
+    private String contentType;
+
+    @Column(name = "total_size", nullable = false)
+    private Long totalSize;
+
+    @Column(name = "upload_offset", nullable = false)
+    private Long uploadOffset = 0L; // 已接收的字节数
+
+    @Column(name = "expected_sha256", length = 64)
+    private String expectedSha256; // 客户端声明的整文件SHA-256（可选）
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private UploadStatus status = UploadStatus.UPLOADING;
+
+    @Column(name = "media_file_id")
+    private Long mediaFileId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    /**
+     * 上传状态枚举
+     */
+    public enum UploadStatus {
+        UPLOADING("上传中"),
+        COMPLETED("已完成"),
+        CANCELLED("已取消");
+
+        private final String description;
+
+        UploadStatus(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+}
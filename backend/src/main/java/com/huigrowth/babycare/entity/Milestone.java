@@ -16,7 +16,9 @@ import java.time.LocalDateTime;
  * @author HuiGrowth Team
  */
 @Entity
-@Table(name = "milestones", indexes = {
+@Table(name = "milestones",
+       uniqueConstraints = @UniqueConstraint(name = "uk_milestone_baby_preset", columnNames = {"baby_id", "preset_milestone_id"}),
+       indexes = {
     @Index(name = "idx_milestone_baby", columnList = "baby_id"),
     @Index(name = "idx_milestone_category", columnList = "category"),
     @Index(name = "idx_milestone_achieved_at", columnList = "achieved_at")
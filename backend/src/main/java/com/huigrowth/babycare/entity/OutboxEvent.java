@@ -0,0 +1,67 @@
+package com.huigrowth.babycare.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+
+/**
+ * 事务发件箱实体
+ * 与业务变更在同一事务内写入，由发件箱中继批量投递
+ * 
+ * @author HuiGrowth Team
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+    @Index(name = "idx_outbox_status_id", columnList = "status, id"),
+    @Index(name = "idx_outbox_published_at", columnList = "published_at")
+})
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class OutboxEvent extends BaseEntity {
+
+    @Column(name = "idempotency_key", nullable = false, unique = true, length = 191)
+    private String idempotencyKey;
+
+    @Column(name = "event_type", nullable = false, length = 200)
+    private String eventType; // 事件类全名
+
+    @Column(name = "payload", nullable = false, columnDefinition = "JSON")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt; // 最早可投递时间（失败后退避）
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    /**
+     * 发件箱状态枚举
+     */
+    public enum OutboxStatus {
+        PENDING("待投递"),
+        PUBLISHED("已投递"),
+        FAILED("投递失败");
+
+        private final String description;
+
+        OutboxStatus(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.huigrowth.babycare.entity;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 高写入量实体基类
+ * id由每个实体独立的序列（MySQL下为序列表 表名_seq）按块分配（pooled，每次取 {@link #ALLOCATION_SIZE} 个），
+ * Hibernate无需等待插入返回自增主键，多行写入可以合并为JDBC批量语句。
+ * 子类自行声明id字段和 @SequenceGenerator（allocationSize 必须引用本常量，启动时的序列初始化按它预留分配块）
+ * 
+ * @author HuiGrowth Team
+ */
+@EqualsAndHashCode(callSuper = false, onlyExplicitlyIncluded = true)
+@MappedSuperclass
+public abstract class PooledIdEntity extends AuditableEntity {
+
+    public static final int ALLOCATION_SIZE = 50;
+
+    @EqualsAndHashCode.Include
+    public abstract Long getId();
+}
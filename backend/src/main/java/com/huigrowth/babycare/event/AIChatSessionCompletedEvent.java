@@ -0,0 +1,23 @@
+package com.huigrowth.babycare.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * AI育儿会话完成事件
+ * 
+ * @author HuiGrowth Team
+ */
+@Getter
+@AllArgsConstructor
+public class AIChatSessionCompletedEvent implements ReliableEvent {
+
+    private final Long sessionId;
+    private final Long userId;
+    private final Long babyId;
+
+    @Override
+    public String idempotencyKey() {
+        return "AIChatSessionCompleted:" + sessionId;
+    }
+}
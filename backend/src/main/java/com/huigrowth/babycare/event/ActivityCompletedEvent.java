@@ -0,0 +1,19 @@
+package com.huigrowth.babycare.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 教育活动完成事件
+ * 
+ * @author HuiGrowth Team
+ */
+@Getter
+@AllArgsConstructor
+public class ActivityCompletedEvent implements DomainEvent {
+
+    private final Long activityId;
+    private final Long planId;
+    private final Long babyId;
+    private final Integer rating;
+}
@@ -0,0 +1,17 @@
+package com.huigrowth.babycare.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 宝宝创建事件
+ * 
+ * @author HuiGrowth Team
+ */
+@Getter
+@AllArgsConstructor
+public class BabyCreatedEvent implements DomainEvent {
+
+    private final Long babyId;
+    private final Long familyId;
+}
@@ -0,0 +1,18 @@
+package com.huigrowth.babycare.event;
+
+/**
+ * 领域事件标记接口
+ * 业务服务在事务内通过 ApplicationEventPublisher 发布；同步监听器（如汇总维护）在同一事务内执行，
+ * {@link DomainEventHandler} 则在事务提交后由 {@link DomainEventDispatcher} 异步分发
+ * 
+ * @author HuiGrowth Team
+ */
+public interface DomainEvent {
+
+    /**
+     * 事件类型名，用于日志和监控指标
+     */
+    default String eventType() {
+        return getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,170 @@
+package com.huigrowth.babycare.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ResolvableType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 领域事件分发器
+ * 发布方事务提交后（无事务时立即）把事件分发给匹配的 {@link DomainEventHandler}，
+ * 每个处理器作为独立任务提交到有界线程池，按事件类型和处理器记录耗时、失败次数。
+ * 处理器在仍绑定事务资源的线程上执行时（线程池饱和由提交线程执行、或在中继事务内投递），
+ * 在新事务（REQUIRES_NEW）中调用，避免加入已提交或不相关的事务导致写入丢失。
+ * {@link ReliableEvent} 不在提交后直接分发，而是经发件箱中继和消息代理调用 {@link #deliver}，
+ * 在调用线程上同步执行处理器，全部成功才返回；按“处理器+幂等键”去重，重复投递不会重复处理
+ * 
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@Component
+public class DomainEventDispatcher {
+
+    private final List<RegisteredHandler> handlers;
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate handlerTransaction;
+    private final Map<Class<?>, List<RegisteredHandler>> handlersByEventType = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> deliveredKeys;
+
+    public DomainEventDispatcher(ObjectProvider<DomainEventHandler<?>> handlerProvider,
+                                 @Qualifier("domainEventExecutor") ThreadPoolExecutor executor,
+                                 MeterRegistry meterRegistry,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.outbox.consumer.dedupe-size:100000}") int dedupeSize) {
+        this.handlers = handlerProvider.orderedStream()
+                .map(handler -> new RegisteredHandler(handler, resolveEventType(handler),
+                        AopUtils.getTargetClass(handler).getSimpleName()))
+                .collect(Collectors.toList());
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.handlerTransaction = new TransactionTemplate(transactionManager);
+        this.handlerTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.deliveredKeys = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > dedupeSize;
+            }
+        });
+        log.info("注册领域事件处理器: {}", handlers.stream().map(RegisteredHandler::getName).toList());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void dispatch(DomainEvent event) {
+        if (event instanceof ReliableEvent) {
+            return; // 由发件箱中继投递
+        }
+        for (RegisteredHandler handler : matchHandlers(event)) {
+            executor.execute(() -> invoke(handler, event));
+        }
+    }
+
+    /**
+     * 同步投递来自消息代理的可靠事件，同一处理器对同一幂等键只成功处理一次；
+     * 任一处理器失败时抛出异常，由发件箱中继稍后重试，重试时只调用未成功的处理器
+     */
+    public void deliver(ReliableEvent event) {
+        List<String> failedHandlers = new ArrayList<>();
+        for (RegisteredHandler handler : matchHandlers(event)) {
+            String deliveryKey = handler.getName() + ":" + event.idempotencyKey();
+            if (deliveredKeys.containsKey(deliveryKey)) {
+                Counter.builder("domain.events.duplicates")
+                        .tag("event", event.eventType())
+                        .tag("handler", handler.getName())
+                        .register(meterRegistry)
+                        .increment();
+                continue;
+            }
+            if (invoke(handler, event)) {
+                deliveredKeys.put(deliveryKey, Boolean.TRUE);
+            } else {
+                failedHandlers.add(handler.getName());
+            }
+        }
+        if (!failedHandlers.isEmpty()) {
+            throw new IllegalStateException("领域事件处理失败: event=" + event.eventType()
+                    + ", handlers=" + failedHandlers);
+        }
+    }
+
+    private List<RegisteredHandler> matchHandlers(DomainEvent event) {
+        return handlersByEventType.computeIfAbsent(event.getClass(),
+                type -> handlers.stream().filter(handler -> handler.getEventType().isAssignableFrom(type)).toList());
+    }
+
+    /**
+     * 调用处理器，返回是否处理成功
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private boolean invoke(RegisteredHandler handler, DomainEvent event) {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            DomainEventHandler eventHandler = handler.getHandler();
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                handlerTransaction.executeWithoutResult(status -> eventHandler.handle(event));
+            } else {
+                eventHandler.handle(event);
+            }
+        } catch (RuntimeException e) {
+            outcome = "failure";
+            log.error("领域事件处理失败: event={}, handler={}", event.eventType(), handler.getName(), e);
+            Counter.builder("domain.events.handler.failures")
+                    .tag("event", event.eventType())
+                    .tag("handler", handler.getName())
+                    .register(meterRegistry)
+                    .increment();
+        } finally {
+            Timer.builder("domain.events.handler")
+                    .description("领域事件处理耗时")
+                    .tag("event", event.eventType())
+                    .tag("handler", handler.getName())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return "success".equals(outcome);
+    }
+
+    private static Class<?> resolveEventType(DomainEventHandler<?> handler) {
+        Class<?> eventType = ResolvableType.forClass(AopUtils.getTargetClass(handler))
+                .as(DomainEventHandler.class)
+                .resolveGeneric(0);
+        return eventType != null ? eventType : DomainEvent.class;
+    }
+
+    /**
+     * 已注册的处理器
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class RegisteredHandler {
+        private final DomainEventHandler<?> handler;
+        private final Class<?> eventType;
+        private final String name;
+    }
+}
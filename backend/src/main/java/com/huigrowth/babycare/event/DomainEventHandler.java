@@ -0,0 +1,16 @@
+package com.huigrowth.babycare.event;
+
+/**
+ * 领域事件处理器
+ * 声明为Spring Bean即可注册；处理器在事务提交后于事件线程池中执行，不在发布方事务内，
+ * 需要写库时自行开启事务（@Transactional 即可）；在提交线程上执行时分发器会先开启新事务，
+ * 不会加入发布方已提交的事务。处理器抛出的异常只记录日志和失败指标，不影响发布方。
+ * 事件类型从实现类的泛型参数解析，请以具名类实现（lambda无法解析泛型，会收到所有事件）
+ * 
+ * @param <E> 处理的事件类型（含子类型）
+ * @author HuiGrowth Team
+ */
+public interface DomainEventHandler<E extends DomainEvent> {
+
+    void handle(E event);
+}
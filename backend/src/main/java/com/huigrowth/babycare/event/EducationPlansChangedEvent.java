@@ -0,0 +1,16 @@
+package com.huigrowth.babycare.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 教育计划变更事件（创建、更新、删除、状态或进度变化）
+ * 
+ * @author HuiGrowth Team
+ */
+@Getter
+@AllArgsConstructor
+public class EducationPlansChangedEvent implements DomainEvent {
+
+    private final Long babyId;
+}
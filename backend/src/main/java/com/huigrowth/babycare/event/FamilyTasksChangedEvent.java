@@ -0,0 +1,17 @@
+package com.huigrowth.babycare.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 家庭任务变更事件，pendingDelta为未完成任务数的变化量
+ * 
+ * @author HuiGrowth Team
+ */
+@Getter
+@AllArgsConstructor
+public class FamilyTasksChangedEvent implements DomainEvent {
+
+    private final Long familyId;
+    private final int pendingDelta;
+}
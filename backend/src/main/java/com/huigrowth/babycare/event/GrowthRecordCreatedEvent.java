@@ -0,0 +1,23 @@
+package com.huigrowth.babycare.event;
+
+import com.huigrowth.babycare.entity.GrowthRecord;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 成长记录创建事件
+ * 
+ * @author HuiGrowth Team
+ */
+@Getter
+@AllArgsConstructor
+public class GrowthRecordCreatedEvent implements DomainEvent {
+
+    private final Long babyId;
+    private final Long recordId;
+    private final String title;
+    private final GrowthRecord.RecordType type;
+    private final LocalDateTime createdAt;
+}
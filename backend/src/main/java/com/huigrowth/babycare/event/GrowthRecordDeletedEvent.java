@@ -0,0 +1,19 @@
+package com.huigrowth.babycare.event;
+
+import com.huigrowth.babycare.entity.GrowthRecord;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 成长记录删除事件
+ * 
+ * @author HuiGrowth Team
+ */
+@Getter
+@AllArgsConstructor
+public class GrowthRecordDeletedEvent implements DomainEvent {
+
+    private final Long babyId;
+    private final Long recordId;
+    private final GrowthRecord.RecordType type;
+}
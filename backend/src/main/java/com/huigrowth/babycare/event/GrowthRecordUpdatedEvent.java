@@ -0,0 +1,21 @@
+package com.huigrowth.babycare.event;
+
+import com.huigrowth.babycare.entity.GrowthRecord;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 成长记录更新事件
+ * 
+ * @author HuiGrowth Team
+ */
+@Getter
+@AllArgsConstructor
+public class GrowthRecordUpdatedEvent implements DomainEvent {
+
+    private final Long babyId;
+    private final Long recordId;
+    private final String title;
+    private final GrowthRecord.RecordType oldType;
+    private final GrowthRecord.RecordType newType;
+}
@@ -0,0 +1,25 @@
+package com.huigrowth.babycare.event;
+
+import com.huigrowth.babycare.entity.GrowthRecord;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 成长记录批量导入事件
+ * 每个导入块发布一次，携带各类型新增数量和块内最新的一条记录，替代逐条的创建事件
+ * 
+ * @author HuiGrowth Team
+ */
+@Getter
+@AllArgsConstructor
+public class GrowthRecordsImportedEvent implements DomainEvent {
+
+    private final Long babyId;
+    private final long[] typeCounts; // 按 RecordType.ordinal() 索引
+    private final Long latestRecordId;
+    private final String latestTitle;
+    private final GrowthRecord.RecordType latestType;
+    private final LocalDateTime latestCreatedAt;
+}
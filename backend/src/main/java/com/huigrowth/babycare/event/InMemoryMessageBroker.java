@@ -0,0 +1,44 @@
+package com.huigrowth.babycare.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 进程内消息代理
+ * 外部消息队列的替身：把消息还原为事件后交给 {@link DomainEventDispatcher} 在中继线程上同步执行处理器，
+ * 全部处理成功才返回（相当于消费确认），任一处理器失败时抛出异常，事件留在发件箱中退避重试
+ * 
+ * @author HuiGrowth Team
+ */
+@RequiredArgsConstructor
+public class InMemoryMessageBroker implements MessageBroker {
+
+    private final ObjectMapper objectMapper;
+    private final DomainEventDispatcher dispatcher;
+    private final Map<String, Class<? extends ReliableEvent>> eventClasses = new ConcurrentHashMap<>();
+
+    @Override
+    public void send(String eventType, String idempotencyKey, String payload) {
+        ReliableEvent event;
+        try {
+            event = objectMapper.readValue(payload, resolveEventClass(eventType));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("无法解析事件内容: " + eventType, e);
+        }
+        dispatcher.deliver(event);
+    }
+
+    private Class<? extends ReliableEvent> resolveEventClass(String eventType) {
+        return eventClasses.computeIfAbsent(eventType, name -> {
+            try {
+                return Class.forName(name).asSubclass(ReliableEvent.class);
+            } catch (ClassNotFoundException | ClassCastException e) {
+                throw new IllegalStateException("未知的事件类型: " + name, e);
+            }
+        });
+    }
+}
@@ -0,0 +1,19 @@
+package com.huigrowth.babycare.event;
+
+import com.huigrowth.babycare.entity.MediaFile;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 媒体文件登记事件（上传完成并新建媒体文件记录时发布）
+ * 
+ * @author HuiGrowth Team
+ */
+@Getter
+@AllArgsConstructor
+public class MediaFileRegisteredEvent implements DomainEvent {
+
+    private final Long mediaFileId;
+    private final Long familyId;
+    private final MediaFile.MediaType mediaType;
+}
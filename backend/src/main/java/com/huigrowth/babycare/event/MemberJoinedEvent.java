@@ -0,0 +1,17 @@
+package com.huigrowth.babycare.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 家庭成员加入事件
+ * 
+ * @author HuiGrowth Team
+ */
+@Getter
+@AllArgsConstructor
+public class MemberJoinedEvent implements DomainEvent {
+
+    private final Long familyId;
+    private final Long userId;
+}
@@ -0,0 +1,21 @@
+package com.huigrowth.babycare.event;
+
+/**
+ * 消息代理
+ * send 正常返回即表示消息已被确认（外部队列已持久化，或进程内代理的处理器已执行成功），
+ * 中继随后把事件标记为已投递；send 抛出异常时事件保持待投递并退避重试。
+ * 默认实现为进程内代理 {@link InMemoryMessageBroker}，接入外部消息队列时提供该接口的Bean即可替换
+ * 
+ * @author HuiGrowth Team
+ */
+public interface MessageBroker {
+
+    /**
+     * 发送消息
+     *
+     * @param eventType      事件类全名
+     * @param idempotencyKey 幂等键
+     * @param payload        JSON格式的事件内容
+     */
+    void send(String eventType, String idempotencyKey, String payload);
+}
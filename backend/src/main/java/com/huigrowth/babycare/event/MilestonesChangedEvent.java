@@ -0,0 +1,16 @@
+package com.huigrowth.babycare.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 里程碑变更事件（记录或删除）
+ * 
+ * @author HuiGrowth Team
+ */
+@Getter
+@AllArgsConstructor
+public class MilestonesChangedEvent implements DomainEvent {
+
+    private final Long babyId;
+}
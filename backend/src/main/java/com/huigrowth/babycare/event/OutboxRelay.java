@@ -0,0 +1,189 @@
+package com.huigrowth.babycare.event;
+
+import com.huigrowth.babycare.entity.OutboxEvent;
+import com.huigrowth.babycare.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 发件箱中继
+ * 定时以 FOR UPDATE SKIP LOCKED 锁定一批待投递事件，逐条交给消息代理，成功的整批标记为已投递，
+ * 失败的按指数退避推迟重试，超过最大次数标记为失败；一批满载时在同一轮内继续拉取，直到积压清空或达到单轮上限。
+ * 锁定、投递和标记在同一事务内完成，中继在投递后崩溃时该批会被重新投递（至少一次），由消费端按幂等键去重。
+ * 中继在独立的定时任务线程池上运行（spring.task.scheduling.pool.size），不被其他耗时的定时任务阻塞
+ *
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final MessageBroker messageBroker;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter publishedCounter;
+    private final Counter retryCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+    private final Timer lagTimer;
+    private final AtomicLong lastBatchSize = new AtomicLong();
+
+    @Value("${app.outbox.relay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.outbox.relay.max-batches-per-poll:20}")
+    private int maxBatchesPerPoll;
+
+    @Value("${app.outbox.relay.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.relay.retry-backoff:PT5S}")
+    private Duration retryBackoff;
+
+    @Value("${app.outbox.retention:PT72H}")
+    private Duration retention;
+
+    @Value("${app.outbox.cleanup-batch-size:5000}")
+    private int cleanupBatchSize;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, MessageBroker messageBroker,
+                       TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.messageBroker = messageBroker;
+        this.transactionTemplate = transactionTemplate;
+        this.publishedCounter = Counter.builder("outbox.relay.published")
+                .description("已投递的发件箱事件数").register(meterRegistry);
+        this.retryCounter = Counter.builder("outbox.relay.retries")
+                .description("投递失败、等待重试的次数").register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.relay.failed")
+                .description("超过最大重试次数的事件数").register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+                .description("单批锁定、投递和标记耗时").register(meterRegistry);
+        this.lagTimer = Timer.builder("outbox.relay.lag")
+                .description("事件从写入发件箱到投递的延迟").register(meterRegistry);
+        Gauge.builder("outbox.relay.last.batch.size", lastBatchSize, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 定时拉取并投递
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.relay.poll-interval:200}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            relay();
+        } catch (Exception e) {
+            log.error("发件箱中继执行失败", e);
+        }
+    }
+
+    /**
+     * 投递积压的事件，返回本轮投递成功的数量
+     */
+    public long relay() {
+        long total = 0;
+        for (int round = 0; round < maxBatchesPerPoll; round++) {
+            Integer locked = batchTimer.record(() -> transactionTemplate.execute(status -> relayBatch()));
+            if (locked == null || locked == 0) {
+                break;
+            }
+            total += locked;
+            if (locked < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 每小时分批清理保留期之前已投递的事件
+     */
+    @Scheduled(cron = "${app.outbox.cleanup-cron:0 15 * * * *}")
+    public void cleanup() {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        long deleted = 0;
+        int batch;
+        do {
+            Integer count = transactionTemplate.execute(
+                    status -> outboxEventRepository.deletePublishedBefore(before, cleanupBatchSize));
+            batch = count == null ? 0 : count;
+            deleted += batch;
+        } while (batch == cleanupBatchSize);
+
+        if (deleted > 0) {
+            log.info("清理已投递的发件箱事件: before={}, deleted={}", before, deleted);
+        }
+    }
+
+    /**
+     * 锁定并投递一批事件，返回锁定的数量
+     */
+    private int relayBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxEventRepository.lockPending(now, batchSize);
+        lastBatchSize.set(events.size());
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> publishedIds = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            try {
+                messageBroker.send(event.getEventType(), event.getIdempotencyKey(), event.getPayload());
+                publishedIds.add(event.getId());
+                lagTimer.record(Duration.between(event.getCreatedAt(), now));
+            } catch (RuntimeException e) {
+                markFailed(event, e, now);
+            }
+        }
+
+        if (!publishedIds.isEmpty()) {
+            outboxEventRepository.markPublished(publishedIds, now);
+            publishedCounter.increment(publishedIds.size());
+        }
+        return events.size();
+    }
+
+    /**
+     * 记录失败并按指数退避安排重试
+     */
+    private void markFailed(OutboxEvent event, RuntimeException e, LocalDateTime now) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        String message = String.valueOf(e.getMessage());
+        event.setLastError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+
+        if (attempts >= maxAttempts) {
+            event.setStatus(OutboxEvent.OutboxStatus.FAILED);
+            failedCounter.increment();
+            log.error("发件箱事件投递失败且不再重试: id={}, type={}, key={}",
+                    event.getId(), event.getEventType(), event.getIdempotencyKey(), e);
+        } else {
+            event.setAvailableAt(now.plus(retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 10))));
+            retryCounter.increment();
+            log.warn("发件箱事件投递失败，稍后重试: id={}, attempts={}, reason={}",
+                    event.getId(), attempts, message);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.huigrowth.babycare.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.huigrowth.babycare.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 发件箱写入器
+ * 在发布方事务提交前把可靠事件写入 outbox_events，与业务变更一起提交或回滚；
+ * 可靠事件必须在事务内发布。批量操作发布 {@link ReliableEventBatch}，整批一次JDBC批量插入
+ * （MySQL驱动改写为多行INSERT IGNORE）
+ * 
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    private static final String INSERT_IGNORE_SQL = "INSERT IGNORE INTO outbox_events " +
+            "(idempotency_key, event_type, payload, status, attempts, available_at, created_at, updated_at) " +
+            "VALUES (?, ?, ?, 'PENDING', 0, ?, ?, ?)";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void write(ReliableEvent event) {
+        int inserted = outboxEventRepository.insertIgnore(event.idempotencyKey(), event.getClass().getName(),
+                serialize(event), LocalDateTime.now());
+        if (inserted == 0) {
+            log.debug("发件箱已存在相同幂等键的事件: key={}", event.idempotencyKey());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void writeAll(ReliableEventBatch batch) {
+        List<? extends ReliableEvent> events = batch.getEvents();
+        if (events.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = events.stream()
+                .map(event -> new Object[]{event.idempotencyKey(), event.getClass().getName(), serialize(event),
+                        now, now, now})
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT_IGNORE_SQL, rows);
+        log.debug("批量写入发件箱: events={}", events.size());
+    }
+
+    private String serialize(ReliableEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("序列化事件失败: " + event.eventType(), e);
+        }
+    }
+}
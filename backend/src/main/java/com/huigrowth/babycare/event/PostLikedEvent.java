@@ -0,0 +1,24 @@
+package com.huigrowth.babycare.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 家庭动态点赞事件
+ * 
+ * @author HuiGrowth Team
+ */
+@Getter
+@AllArgsConstructor
+public class PostLikedEvent implements ReliableEvent {
+
+    private final Long postId;
+    private final Long familyId;
+    private final Long authorId;
+    private final Long likedBy;
+
+    @Override
+    public String idempotencyKey() {
+        return "PostLiked:" + postId + ":" + likedBy;
+    }
+}
@@ -0,0 +1,16 @@
+package com.huigrowth.babycare.event;
+
+/**
+ * 可靠领域事件
+ * 在发布方事务提交前写入事务发件箱（outbox_events），提交后由 {@link OutboxRelay} 投递，
+ * JVM在提交后崩溃也不会丢失；投递语义为至少一次，消费端按幂等键去重
+ * 
+ * @author HuiGrowth Team
+ */
+public interface ReliableEvent extends DomainEvent {
+
+    /**
+     * 幂等键：同一业务事实重复发布时取值相同，发件箱只保留一条
+     */
+    String idempotencyKey();
+}
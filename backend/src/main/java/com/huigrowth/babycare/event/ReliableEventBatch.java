@@ -0,0 +1,22 @@
+package com.huigrowth.babycare.event;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 可靠事件批次
+ * 批量操作一次发布多条可靠事件，由 {@link OutboxWriter} 在提交前一次批量写入发件箱；
+ * 发件箱中每条事件仍单独一行、单独投递和去重
+ *
+ * @author HuiGrowth Team
+ */
+@Getter
+public class ReliableEventBatch {
+
+    private final List<? extends ReliableEvent> events;
+
+    public ReliableEventBatch(List<? extends ReliableEvent> events) {
+        this.events = List.copyOf(events);
+    }
+}
@@ -0,0 +1,24 @@
+package com.huigrowth.babycare.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 家庭任务完成事件
+ * 
+ * @author HuiGrowth Team
+ */
+@Getter
+@AllArgsConstructor
+public class TaskCompletedEvent implements ReliableEvent {
+
+    private final Long taskId;
+    private final Long familyId;
+    private final Long assignedBy;
+    private final Long completedBy;
+
+    @Override
+    public String idempotencyKey() {
+        return "TaskCompleted:" + taskId;
+    }
+}
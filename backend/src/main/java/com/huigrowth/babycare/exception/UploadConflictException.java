@@ -0,0 +1,21 @@
+package com.huigrowth.babycare.exception;
+
+/**
+ * 上传偏移量冲突异常
+ * 客户端提交的偏移量与服务端已接收的偏移量不一致，或同一上传正在被其他请求写入
+ * 
+ * @author HuiGrowth Team
+ */
+public class UploadConflictException extends RuntimeException {
+
+    private final long currentOffset;
+
+    public UploadConflictException(String message, long currentOffset) {
+        super(message);
+        this.currentOffset = currentOffset;
+    }
+
+    public long getCurrentOffset() {
+        return currentOffset;
+    }
+}
@@ -1,15 +1,22 @@
 package com.huigrowth.babycare.repository;
 
+import com.huigrowth.babycare.dto.AIFeedbackRecord;
 import com.huigrowth.babycare.entity.AIChatMessage;
 import com.huigrowth.babycare.entity.AIChatSession;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * AI聊天消息数据访问层
@@ -19,6 +26,12 @@ import java.util.List;
 @Repository
 public interface AIChatMessageRepository extends JpaRepository<AIChatMessage, Long> {
 
+    /**
+     * 按id查找消息（一并加载所属会话）
+     */
+    @EntityGraph(attributePaths = "chatSession")
+    Optional<AIChatMessage> findWithSessionById(Long id);
+
     /**
      * 查找会话的消息
      */
@@ -38,9 +51,22 @@ public interface AIChatMessageRepository extends JpaRepository<AIChatMessage, Lo
      * 查找最近的消息
      */
     @Query("SELECT m FROM AIChatMessage m WHERE m.chatSession = :session " +
-           "ORDER BY m.createdAt DESC")
+           "ORDER BY m.createdAt DESC, m.id DESC")
     List<AIChatMessage> findRecentMessages(@Param("session") AIChatSession session, Pageable pageable);
 
+    /**
+     * 键集分页：查找指定位置之前的消息（按时间倒序）
+     */
+    @Query("SELECT m FROM AIChatMessage m WHERE m.chatSession.id = :sessionId " +
+           "AND (m.createdAt < :beforeAt OR (m.createdAt = :beforeAt AND m.id < :beforeId)) " +
+           "AND (:afterAt IS NULL OR m.createdAt > :afterAt) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<AIChatMessage> findMessagesBefore(@Param("sessionId") Long sessionId,
+                                           @Param("beforeAt") LocalDateTime beforeAt,
+                                           @Param("beforeId") Long beforeId,
+                                           @Param("afterAt") LocalDateTime afterAt,
+                                           Pageable pageable);
+
     /**
      * 查找有用的AI回复
      */
@@ -48,4 +74,37 @@ public interface AIChatMessageRepository extends JpaRepository<AIChatMessage, Lo
            "AND m.messageType = 'AI' AND m.isHelpful = true " +
            "ORDER BY m.createdAt DESC")
     List<AIChatMessage> findHelpfulAIReplies(@Param("session") AIChatSession session);
-}
\ No newline at end of file
+
+    /**
+     * 键集分页：查找游标之后的反馈记录（按反馈时间、id升序），只投影统计所需字段
+     * 走 (feedback_at, id) 索引，不扫描全表
+     */
+    @Query("SELECT new com.huigrowth.babycare.dto.AIFeedbackRecord(" +
+           "m.id, m.feedbackAt, m.isHelpful, m.countedHelpful, m.countedDate, m.replyTemplate, m.createdAt, " +
+           "s.consultationType) " +
+           "FROM AIChatMessage m JOIN m.chatSession s " +
+           "WHERE (m.feedbackAt > :afterAt OR (m.feedbackAt = :afterAt AND m.id > :afterId)) " +
+           "AND m.feedbackAt < :untilAt " +
+           "ORDER BY m.feedbackAt ASC, m.id ASC")
+    List<AIFeedbackRecord> findFeedbackAfter(@Param("afterAt") LocalDateTime afterAt,
+                                             @Param("afterId") Long afterId,
+                                             @Param("untilAt") LocalDateTime untilAt,
+                                             Pageable pageable);
+
+    /**
+     * 批量回写已计入统计的评价结果及计入日期
+     */
+    @Modifying
+    @Query("UPDATE AIChatMessage m SET m.countedHelpful = :helpful, m.countedDate = :countedDate WHERE m.id IN :ids")
+    int updateCountedHelpful(@Param("ids") Collection<Long> ids, @Param("helpful") Boolean helpful,
+                             @Param("countedDate") LocalDate countedDate);
+
+    /**
+     * 记录用户评价，只更新评价相关字段，不覆盖统计任务回写的 countedHelpful/countedDate
+     */
+    @Modifying
+    @Query("UPDATE AIChatMessage m SET m.isHelpful = :helpful, m.feedback = :feedback, m.feedbackAt = :now, " +
+           "m.updatedAt = :now WHERE m.id = :id")
+    int updateFeedback(@Param("id") Long id, @Param("helpful") Boolean helpful, @Param("feedback") String feedback,
+                       @Param("now") LocalDateTime now);
+}
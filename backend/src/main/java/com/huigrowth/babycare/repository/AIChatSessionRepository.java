@@ -5,12 +5,16 @@ import com.huigrowth.babycare.entity.User;
 import com.huigrowth.babycare.entity.Baby;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * AI聊天会话数据访问层
@@ -21,8 +25,15 @@ import java.util.List;
 public interface AIChatSessionRepository extends JpaRepository<AIChatSession, Long> {
 
     /**
-     * 查找用户的聊天会话
+     * 按id查找会话（一并加载用户和宝宝）
      */
+    @EntityGraph(attributePaths = {"user", "baby"})
+    Optional<AIChatSession> findWithUserAndBabyById(Long id);
+
+    /**
+     * 查找用户的聊天会话（一并加载用户和宝宝，列表页只需一次查询）
+     */
+    @EntityGraph(attributePaths = {"user", "baby"})
     Page<AIChatSession> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
 
     /**
@@ -52,4 +63,32 @@ public interface AIChatSessionRepository extends JpaRepository<AIChatSession, Lo
            "AND s.status = 'ACTIVE' " +
            "ORDER BY s.updatedAt DESC")
     List<AIChatSession> findRecentActiveSessions(@Param("user") User user, Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * 原子累加消息计数并更新最后一条消息（只更新较新的消息，避免并发请求回退）
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE AIChatSession s SET s.messageCount = s.messageCount + :delta, " +
+           "s.lastMessagePreview = CASE WHEN s.lastMessageAt IS NULL OR s.lastMessageAt <= :lastMessageAt " +
+           "THEN :lastMessagePreview ELSE s.lastMessagePreview END, " +
+           "s.lastMessageAt = CASE WHEN s.lastMessageAt IS NULL OR s.lastMessageAt <= :lastMessageAt " +
+           "THEN :lastMessageAt ELSE s.lastMessageAt END, " +
+           "s.updatedAt = :now " +
+           "WHERE s.id = :sessionId")
+    int incrementMessageCount(@Param("sessionId") Long sessionId,
+                              @Param("delta") int delta,
+                              @Param("lastMessagePreview") String lastMessagePreview,
+                              @Param("lastMessageAt") LocalDateTime lastMessageAt,
+                              @Param("now") LocalDateTime now);
+
+    /**
+     * 写回对话上下文摘要（只推进已折叠水位，不修改版本号，避免与会话实体的乐观锁冲突）
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE AIChatSession s SET s.contextSummary = :summary, s.contextSummarizedAt = :summarizedAt " +
+           "WHERE s.id = :sessionId " +
+           "AND (s.contextSummarizedAt IS NULL OR s.contextSummarizedAt < :summarizedAt)")
+    int updateContextSummary(@Param("sessionId") Long sessionId,
+                             @Param("summary") String summary,
+                             @Param("summarizedAt") LocalDateTime summarizedAt);
+}
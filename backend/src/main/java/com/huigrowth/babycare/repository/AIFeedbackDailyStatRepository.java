@@ -0,0 +1,36 @@
+package com.huigrowth.babycare.repository;
+
+import com.huigrowth.babycare.entity.AIChatSession;
+import com.huigrowth.babycare.entity.AIFeedbackDailyStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * AI回复反馈日统计数据访问层
+ * 
+ * @author HuiGrowth Team
+ */
+@Repository
+public interface AIFeedbackDailyStatRepository extends JpaRepository<AIFeedbackDailyStat, Long> {
+
+    /**
+     * 查找指定维度的统计行
+     */
+    Optional<AIFeedbackDailyStat> findByStatDateAndConsultationTypeAndReplyTemplate(
+            LocalDate statDate, AIChatSession.ConsultationType consultationType, String replyTemplate);
+
+    /**
+     * 查找多个日期的统计行
+     */
+    List<AIFeedbackDailyStat> findByStatDateIn(Collection<LocalDate> statDates);
+
+    /**
+     * 按日期范围查找统计
+     */
+    List<AIFeedbackDailyStat> findByStatDateBetweenOrderByStatDateAsc(LocalDate startDate, LocalDate endDate);
+}
@@ -9,7 +9,9 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * 宝宝数据访问层
@@ -24,11 +26,23 @@ public interface BabyRepository extends JpaRepository<Baby, Long> {
      */
     List<Baby> findByFamilyOrderByBirthdayDesc(Family family);
 
+    /**
+     * 查找宝宝所属家庭的ID
+     */
+    @Query("SELECT b.family.id FROM Baby b WHERE b.id = :babyId")
+    Optional<Long> findFamilyIdById(@Param("babyId") Long babyId);
+
     /**
      * 查找家庭的所有宝宝（简单版本）
      */
     List<Baby> findByFamily(Family family);
 
+    /**
+     * 批量查找多个家庭的宝宝
+     */
+    @Query("SELECT b FROM Baby b WHERE b.family IN :families ORDER BY b.id")
+    List<Baby> findByFamilyIn(@Param("families") Collection<Family> families);
+
     /**
      * 查找用户可访问的宝宝
      */
@@ -45,12 +59,13 @@ public interface BabyRepository extends JpaRepository<Baby, Long> {
     List<Baby> findByBirthdayBetween(LocalDate startDate, LocalDate endDate);
 
     /**
-     * 查找特定年龄范围的宝宝
+     * 查找特定年龄范围的宝宝（月龄 = 日龄 / 30）
+     * 转换为生日区间条件以使用 idx_baby_birthday 索引
      */
-    @Query("SELECT b FROM Baby b WHERE " +
-           "FUNCTION('DATEDIFF', CURRENT_DATE, b.birthday) / 30 BETWEEN :minAgeMonths AND :maxAgeMonths")
-    List<Baby> findByAgeInMonthsBetween(@Param("minAgeMonths") int minAgeMonths, 
-                                       @Param("maxAgeMonths") int maxAgeMonths);
+    default List<Baby> findByAgeInMonthsBetween(int minAgeMonths, int maxAgeMonths) {
+        LocalDate today = LocalDate.now();
+        return findByBirthdayBetween(today.minusDays(30L * (maxAgeMonths + 1) - 1), today.minusDays(30L * minAgeMonths));
+    }
 
     /**
      * 按性别查找宝宝
@@ -0,0 +1,98 @@
+package com.huigrowth.babycare.repository;
+
+import com.huigrowth.babycare.entity.BabySummary;
+import com.huigrowth.babycare.entity.GrowthRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * 宝宝概览汇总数据访问层
+ * 增量更新均为单条原子UPDATE，汇总行不存在时更新0行，由首次读取时从明细表重建
+ * 
+ * @author HuiGrowth Team
+ */
+@Repository
+public interface BabySummaryRepository extends JpaRepository<BabySummary, Long> {
+
+    /**
+     * 按宝宝ID查找汇总
+     */
+    Optional<BabySummary> findByBabyId(Long babyId);
+
+    /**
+     * 按类型累加成长记录数量
+     */
+    @Modifying
+    @Query("UPDATE BabySummary s SET s.photoCount = s.photoCount + :photo, " +
+           "s.videoCount = s.videoCount + :video, s.diaryCount = s.diaryCount + :diary, " +
+           "s.milestoneRecordCount = s.milestoneRecordCount + :milestone, s.voiceCount = s.voiceCount + :voice, " +
+           "s.updatedAt = CURRENT_TIMESTAMP WHERE s.babyId = :babyId")
+    int addRecordCounts(@Param("babyId") Long babyId, @Param("photo") long photo, @Param("video") long video,
+                        @Param("diary") long diary, @Param("milestone") long milestone, @Param("voice") long voice);
+
+    /**
+     * 新记录不早于当前最新记录时替换最新记录
+     */
+    @Modifying
+    @Query("UPDATE BabySummary s SET s.latestRecordId = :recordId, s.latestRecordTitle = :title, " +
+           "s.latestRecordType = :type, s.latestRecordAt = :createdAt, s.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE s.babyId = :babyId AND (s.latestRecordAt IS NULL OR s.latestRecordAt <= :createdAt)")
+    int offerLatestRecord(@Param("babyId") Long babyId, @Param("recordId") Long recordId,
+                          @Param("title") String title, @Param("type") GrowthRecord.RecordType type,
+                          @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * 最新记录被修改时同步标题和类型
+     */
+    @Modifying
+    @Query("UPDATE BabySummary s SET s.latestRecordTitle = :title, s.latestRecordType = :type, " +
+           "s.updatedAt = CURRENT_TIMESTAMP WHERE s.babyId = :babyId AND s.latestRecordId = :recordId")
+    int refreshLatestRecord(@Param("babyId") Long babyId, @Param("recordId") Long recordId,
+                            @Param("title") String title, @Param("type") GrowthRecord.RecordType type);
+
+    /**
+     * 设置最新记录（最新记录被删除后重新计算时使用）
+     */
+    @Modifying
+    @Query("UPDATE BabySummary s SET s.latestRecordId = :recordId, s.latestRecordTitle = :title, " +
+           "s.latestRecordType = :type, s.latestRecordAt = :createdAt, s.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE s.babyId = :babyId")
+    int setLatestRecord(@Param("babyId") Long babyId, @Param("recordId") Long recordId,
+                        @Param("title") String title, @Param("type") GrowthRecord.RecordType type,
+                        @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * 判断指定记录是否为宝宝当前的最新记录
+     */
+    boolean existsByBabyIdAndLatestRecordId(Long babyId, Long latestRecordId);
+
+    /**
+     * 替换进行中的教育计划快照
+     */
+    @Modifying
+    @Query("UPDATE BabySummary s SET s.activePlans = :activePlans, s.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE s.babyId = :babyId")
+    int setActivePlans(@Param("babyId") Long babyId, @Param("activePlans") String activePlans);
+
+    /**
+     * 替换最近里程碑快照
+     */
+    @Modifying
+    @Query("UPDATE BabySummary s SET s.recentMilestones = :recentMilestones, s.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE s.babyId = :babyId")
+    int setRecentMilestones(@Param("babyId") Long babyId, @Param("recentMilestones") String recentMilestones);
+
+    /**
+     * 累加家庭下所有宝宝汇总的未完成任务数
+     */
+    @Modifying
+    @Query("UPDATE BabySummary s SET s.pendingTaskCount = s.pendingTaskCount + :delta, " +
+           "s.updatedAt = CURRENT_TIMESTAMP WHERE s.familyId = :familyId")
+    int addPendingTasks(@Param("familyId") Long familyId, @Param("delta") long delta);
+}
@@ -0,0 +1,27 @@
+package com.huigrowth.babycare.repository;
+
+import com.huigrowth.babycare.entity.CodeSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * 编号序列数据访问层
+ * 
+ * @author HuiGrowth Team
+ */
+@Repository
+public interface CodeSequenceRepository extends JpaRepository<CodeSequence, Long> {
+
+    /**
+     * 加锁读取序列（分配计数块时使用）
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CodeSequence s WHERE s.name = :name")
+    Optional<CodeSequence> findByNameForUpdate(@Param("name") String name);
+}
@@ -1,17 +1,27 @@
 package com.huigrowth.babycare.repository;
 
+import com.huigrowth.babycare.dto.DueAssessmentRecord;
 import com.huigrowth.babycare.entity.DevelopmentAssessment;
 import com.huigrowth.babycare.entity.Baby;
 import com.huigrowth.babycare.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * 发育评估数据访问层
@@ -22,8 +32,15 @@ import java.util.List;
 public interface DevelopmentAssessmentRepository extends JpaRepository<DevelopmentAssessment, Long> {
 
     /**
-     * 查找宝宝的发育评估
+     * 按id查找评估（一并加载宝宝和创建者）
+     */
+    @EntityGraph(attributePaths = {"baby", "createdBy"})
+    Optional<DevelopmentAssessment> findWithBabyAndCreatorById(Long id);
+
+    /**
+     * 查找宝宝的发育评估（一并加载创建者）
      */
+    @EntityGraph(attributePaths = "createdBy")
     Page<DevelopmentAssessment> findByBabyOrderByAssessmentDateDesc(Baby baby, Pageable pageable);
 
     /**
@@ -73,4 +90,26 @@ public interface DevelopmentAssessmentRepository extends JpaRepository<Developme
            "AND da.status = 'COMPLETED' " +
            "ORDER BY da.nextAssessmentDate ASC")
     List<DevelopmentAssessment> findDueForNextAssessment(@Param("date") LocalDate date);
+
+    /**
+     * 流式读取游标之后到期的评估（按下次评估日期、id升序），只投影提醒所需字段
+     * 同一宝宝同一类别只取最新一次评估；调用方需在事务内消费并关闭流
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT new com.huigrowth.babycare.dto.DueAssessmentRecord(" +
+           "da.id, b.id, b.name, b.family.id, da.category, da.nextAssessmentDate) " +
+           "FROM DevelopmentAssessment da JOIN da.baby b " +
+           "WHERE da.status = 'COMPLETED' AND da.nextAssessmentDate <= :date " +
+           "AND (da.nextAssessmentDate > :afterDate OR (da.nextAssessmentDate = :afterDate AND da.id > :afterId)) " +
+           "AND NOT EXISTS (SELECT 1 FROM DevelopmentAssessment later WHERE later.baby = da.baby " +
+           "AND later.category = da.category AND later.status <> 'CANCELLED' AND later.id > da.id) " +
+           "ORDER BY da.nextAssessmentDate ASC, da.id ASC")
+    Stream<DueAssessmentRecord> streamDueAfter(@Param("date") LocalDate date,
+                                               @Param("afterDate") LocalDate afterDate,
+                                               @Param("afterId") Long afterId,
+                                               Pageable pageable);
 }
\ No newline at end of file
@@ -4,13 +4,16 @@ import com.huigrowth.babycare.entity.EducationActivity;
 import com.huigrowth.babycare.entity.EducationPlan;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * 教育活动数据访问层
@@ -20,6 +23,12 @@ import java.util.List;
 @Repository
 public interface EducationActivityRepository extends JpaRepository<EducationActivity, Long> {
 
+    /**
+     * 按id查找活动（一并加载所属计划及其宝宝）
+     */
+    @EntityGraph(attributePaths = {"educationPlan", "educationPlan.baby"})
+    Optional<EducationActivity> findWithPlanById(Long id);
+
     /**
      * 查找计划的活动
      */
@@ -59,6 +68,13 @@ public interface EducationActivityRepository extends JpaRepository<EducationActi
      */
     long countByEducationPlanAndStatus(EducationPlan educationPlan, EducationActivity.ActivityStatus status);
 
+    /**
+     * 按状态分组统计多个计划的活动数量，返回 [计划id, 状态, 数量]
+     */
+    @Query("SELECT ea.educationPlan.id, ea.status, COUNT(ea) FROM EducationActivity ea " +
+           "WHERE ea.educationPlan IN :plans GROUP BY ea.educationPlan.id, ea.status")
+    List<Object[]> countByStatusForPlans(@Param("plans") Collection<EducationPlan> plans);
+
     /**
      * 统计计划的活动总数
      */
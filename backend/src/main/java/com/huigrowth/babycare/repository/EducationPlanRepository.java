@@ -5,6 +5,7 @@ import com.huigrowth.babycare.entity.Baby;
 import com.huigrowth.babycare.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,6 +13,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * 教育计划数据访问层
@@ -22,8 +24,15 @@ import java.util.List;
 public interface EducationPlanRepository extends JpaRepository<EducationPlan, Long> {
 
     /**
-     * 查找宝宝的教育计划
+     * 按id查找教育计划（一并加载宝宝和创建者）
      */
+    @EntityGraph(attributePaths = {"baby", "createdBy"})
+    Optional<EducationPlan> findWithBabyAndCreatorById(Long id);
+
+    /**
+     * 查找宝宝的教育计划（一并加载创建者）
+     */
+    @EntityGraph(attributePaths = "createdBy")
     Page<EducationPlan> findByBabyOrderByCreatedAtDesc(Baby baby, Pageable pageable);
 
     /**
@@ -42,8 +51,9 @@ public interface EducationPlanRepository extends JpaRepository<EducationPlan, Lo
     Page<EducationPlan> findByCreatedByOrderByCreatedAtDesc(User createdBy, Pageable pageable);
 
     /**
-     * 查找进行中的教育计划
+     * 查找进行中的教育计划（一并加载创建者）
      */
+    @EntityGraph(attributePaths = "createdBy")
     @Query("SELECT ep FROM EducationPlan ep WHERE ep.baby = :baby " +
            "AND ep.status = 'ACTIVE' " +
            "AND ep.startDate <= :currentDate " +
@@ -76,4 +86,9 @@ public interface EducationPlanRepository extends JpaRepository<EducationPlan, Lo
     List<EducationPlan> findUpcomingDeadlines(@Param("babies") List<Baby> babies,
                                             @Param("startDate") LocalDate startDate,
                                             @Param("endDate") LocalDate endDate);
-}
\ No newline at end of file
+
+    /**
+     * 按宝宝ID和状态查找教育计划
+     */
+    List<EducationPlan> findByBabyIdAndStatusOrderByCreatedAtDesc(Long babyId, EducationPlan.PlanStatus status);
+}
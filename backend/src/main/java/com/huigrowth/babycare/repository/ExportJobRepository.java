@@ -0,0 +1,53 @@
+package com.huigrowth.babycare.repository;
+
+import com.huigrowth.babycare.entity.ExportJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 导出任务数据访问层
+ * 
+ * @author HuiGrowth Team
+ */
+@Repository
+public interface ExportJobRepository extends JpaRepository<ExportJob, Long> {
+
+    Optional<ExportJob> findByJobId(String jobId);
+
+    /**
+     * 宝宝是否有处于指定状态的导出任务
+     */
+    boolean existsByBabyIdAndStatusIn(Long babyId, Collection<ExportJob.ExportStatus> statuses);
+
+    /**
+     * 更新导出进度（同时刷新更新时间，作为任务仍在运行的心跳）
+     */
+    @Modifying
+    @Query("UPDATE ExportJob j SET j.processedRecords = :processed, j.mediaCount = :mediaCount, " +
+           "j.updatedAt = :now WHERE j.id = :id")
+    int updateProgress(@Param("id") Long id, @Param("processed") long processed,
+                       @Param("mediaCount") long mediaCount, @Param("now") LocalDateTime now);
+
+    /**
+     * 查询归档已过期的任务
+     */
+    @Query("SELECT j FROM ExportJob j WHERE j.status = :status AND j.expiresAt < :now ORDER BY j.id")
+    List<ExportJob> findExpired(@Param("status") ExportJob.ExportStatus status, @Param("now") LocalDateTime now,
+                                Pageable pageable);
+
+    /**
+     * 查询长时间没有心跳的任务（服务重启前未完成）
+     */
+    @Query("SELECT j FROM ExportJob j WHERE j.status IN :statuses AND j.updatedAt < :before ORDER BY j.id")
+    List<ExportJob> findStale(@Param("statuses") Collection<ExportJob.ExportStatus> statuses,
+                              @Param("before") LocalDateTime before, Pageable pageable);
+}
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -24,11 +25,23 @@ public interface FamilyMemberRepository extends JpaRepository<FamilyMember, Long
      */
     List<FamilyMember> findByUser(User user);
 
+    /**
+     * 通过用户查找家庭成员关系，同时加载家庭
+     */
+    @Query("SELECT fm FROM FamilyMember fm JOIN FETCH fm.family WHERE fm.user = :user")
+    List<FamilyMember> findByUserWithFamily(@Param("user") User user);
+
     /**
      * 通过家庭查找成员列表
      */
     List<FamilyMember> findByFamily(Family family);
 
+    /**
+     * 批量查找多个家庭的成员列表，同时加载用户
+     */
+    @Query("SELECT fm FROM FamilyMember fm JOIN FETCH fm.user WHERE fm.family IN :families ORDER BY fm.id")
+    List<FamilyMember> findByFamilyInWithUser(@Param("families") Collection<Family> families);
+
     /**
      * 检查用户是否是某个家庭的成员
      */
@@ -41,6 +54,11 @@ public interface FamilyMemberRepository extends JpaRepository<FamilyMember, Long
            "WHERE fm.user = :user AND fm.family.id = :familyId AND fm.active = true")
     boolean existsByUserAndBaby(@Param("user") User user, @Param("familyId") Long familyId);
 
+    /**
+     * 检查用户在指定家庭中是否有指定角色
+     */
+    boolean existsByUserAndFamilyIdAndRole(User user, Long familyId, FamilyMember.FamilyRole role);
+
     /**
      * 检查用户是否有指定角色
      */
@@ -5,12 +5,14 @@ import com.huigrowth.babycare.entity.Family;
 import com.huigrowth.babycare.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * 家庭动态数据访问层
@@ -21,8 +23,15 @@ import java.util.List;
 public interface FamilyPostRepository extends JpaRepository<FamilyPost, Long> {
 
     /**
-     * 查找家庭的动态
+     * 按id查找动态（一并加载家庭和作者）
      */
+    @EntityGraph(attributePaths = {"family", "author"})
+    Optional<FamilyPost> findWithFamilyAndAuthorById(Long id);
+
+    /**
+     * 查找家庭的动态（一并加载作者）
+     */
+    @EntityGraph(attributePaths = "author")
     Page<FamilyPost> findByFamilyOrderByCreatedAtDesc(Family family, Pageable pageable);
 
     /**
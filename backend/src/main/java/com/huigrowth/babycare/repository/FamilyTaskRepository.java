@@ -3,15 +3,21 @@ package com.huigrowth.babycare.repository;
 import com.huigrowth.babycare.entity.FamilyTask;
 import com.huigrowth.babycare.entity.Family;
 import com.huigrowth.babycare.entity.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * 家庭任务数据访问层
@@ -22,8 +28,15 @@ import java.util.List;
 public interface FamilyTaskRepository extends JpaRepository<FamilyTask, Long> {
 
     /**
-     * 查找家庭的任务
+     * 按id查找任务（一并加载家庭、分配人和完成人）
      */
+    @EntityGraph(attributePaths = {"family", "assignedBy", "completedBy"})
+    Optional<FamilyTask> findWithFamilyAndUsersById(Long id);
+
+    /**
+     * 查找家庭的任务（一并加载分配人和完成人）
+     */
+    @EntityGraph(attributePaths = {"assignedBy", "completedBy"})
     Page<FamilyTask> findByFamilyOrderByCreatedAtDesc(Family family, Pageable pageable);
 
     /**
@@ -42,8 +55,9 @@ public interface FamilyTaskRepository extends JpaRepository<FamilyTask, Long> {
     Page<FamilyTask> findByFamilyAndCategoryOrderByCreatedAtDesc(Family family, FamilyTask.TaskCategory category, Pageable pageable);
 
     /**
-     * 查找分配给用户的任务
+     * 查找分配给用户的任务（一并加载分配人和完成人）
      */
+    @EntityGraph(attributePaths = {"assignedBy", "completedBy"})
     @Query("SELECT ft FROM FamilyTask ft WHERE ft.family IN :families " +
            "AND ft.assignedTo LIKE CONCAT('%', :userId, '%') " +
            "ORDER BY ft.createdAt DESC")
@@ -95,4 +109,66 @@ public interface FamilyTaskRepository extends JpaRepository<FamilyTask, Long> {
             @Param("families") List<Family> families, 
             @Param("userId") Long userId, 
             @Param("status") FamilyTask.TaskStatus status);
-}
\ No newline at end of file
+
+    /**
+     * 统计家庭处于指定状态集合的任务数量
+     */
+    long countByFamilyIdAndStatusIn(Long familyId, Collection<FamilyTask.TaskStatus> statuses);
+
+    /**
+     * 加锁读取家庭内的一批任务，批量操作期间状态不会被并发修改
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ft FROM FamilyTask ft WHERE ft.id IN :ids AND ft.family.id = :familyId")
+    List<FamilyTask> findByIdInAndFamilyIdForUpdate(@Param("ids") Collection<Long> ids, @Param("familyId") Long familyId);
+
+    /**
+     * 批量更新任务状态
+     */
+    @Modifying
+    @Query("UPDATE FamilyTask ft SET ft.status = :status, ft.updatedAt = :now " +
+           "WHERE ft.id IN :ids AND ft.family.id = :familyId")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("familyId") Long familyId,
+                     @Param("status") FamilyTask.TaskStatus status, @Param("now") LocalDateTime now);
+
+    /**
+     * 批量完成任务
+     */
+    @Modifying
+    @Query("UPDATE FamilyTask ft SET ft.status = 'COMPLETED', ft.completedAt = :now, ft.completedBy = :user, " +
+           "ft.completionNotes = :notes, ft.updatedAt = :now WHERE ft.id IN :ids AND ft.family.id = :familyId")
+    int complete(@Param("ids") Collection<Long> ids, @Param("familyId") Long familyId, @Param("user") User user,
+                 @Param("notes") String notes, @Param("now") LocalDateTime now);
+
+    /**
+     * 批量删除任务
+     */
+    @Modifying
+    @Query("DELETE FROM FamilyTask ft WHERE ft.id IN :ids AND ft.family.id = :familyId")
+    int deleteByIdInAndFamilyId(@Param("ids") Collection<Long> ids, @Param("familyId") Long familyId);
+
+    /**
+     * 仅当任务仍处于读取时的状态才变更状态，返回0表示已被并发修改
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE FamilyTask ft SET ft.status = :status, ft.updatedAt = :now " +
+           "WHERE ft.id = :id AND ft.status = :expected")
+    int updateStatusIf(@Param("id") Long id, @Param("expected") FamilyTask.TaskStatus expected,
+                       @Param("status") FamilyTask.TaskStatus status, @Param("now") LocalDateTime now);
+
+    /**
+     * 仅当任务仍处于读取时的状态才完成任务，返回0表示已被并发修改
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE FamilyTask ft SET ft.status = 'COMPLETED', ft.completedAt = :now, ft.completedBy = :user, " +
+           "ft.completionNotes = :notes, ft.updatedAt = :now WHERE ft.id = :id AND ft.status = :expected")
+    int completeIf(@Param("id") Long id, @Param("expected") FamilyTask.TaskStatus expected, @Param("user") User user,
+                   @Param("notes") String notes, @Param("now") LocalDateTime now);
+
+    /**
+     * 仅当任务仍处于读取时的状态才删除任务，返回0表示已被并发修改
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM FamilyTask ft WHERE ft.id = :id AND ft.status = :expected")
+    int deleteIf(@Param("id") Long id, @Param("expected") FamilyTask.TaskStatus expected);
+}
@@ -0,0 +1,28 @@
+package com.huigrowth.babycare.repository;
+
+import com.huigrowth.babycare.entity.Baby;
+import com.huigrowth.babycare.entity.GrowthMeasurement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 生长测量数据访问层
+ * 
+ * @author HuiGrowth Team
+ */
+@Repository
+public interface GrowthMeasurementRepository extends JpaRepository<GrowthMeasurement, Long> {
+
+    /**
+     * 查找宝宝的全部测量（按测量日期升序）
+     */
+    List<GrowthMeasurement> findByBabyOrderByMeasuredAtAscIdAsc(Baby baby);
+
+    /**
+     * 查找宝宝最近一次测量
+     */
+    Optional<GrowthMeasurement> findFirstByBabyOrderByMeasuredAtDescIdDesc(Baby baby);
+}
@@ -5,6 +5,7 @@ import com.huigrowth.babycare.entity.Baby;
 import com.huigrowth.babycare.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,6 +13,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * 成长记录数据访问层
@@ -22,13 +24,21 @@ import java.util.List;
 public interface GrowthRecordRepository extends JpaRepository<GrowthRecord, Long> {
 
     /**
-     * 查找宝宝的成长记录（分页）
+     * 按id查找成长记录（一并加载宝宝和创建者）
      */
+    @EntityGraph(attributePaths = {"baby", "createdBy"})
+    Optional<GrowthRecord> findWithBabyAndCreatorById(Long id);
+
+    /**
+     * 查找宝宝的成长记录（分页，一并加载创建者）
+     */
+    @EntityGraph(attributePaths = "createdBy")
     Page<GrowthRecord> findByBabyOrderByCreatedAtDesc(Baby baby, Pageable pageable);
 
     /**
-     * 按类型查找宝宝的成长记录
+     * 按类型查找宝宝的成长记录（一并加载创建者）
      */
+    @EntityGraph(attributePaths = "createdBy")
     List<GrowthRecord> findByBabyAndTypeOrderByCreatedAtDesc(Baby baby, GrowthRecord.RecordType type);
 
     /**
@@ -52,17 +62,39 @@ public interface GrowthRecordRepository extends JpaRepository<GrowthRecord, Long
     long countByBabyAndType(Baby baby, GrowthRecord.RecordType type);
 
     /**
-     * 搜索成长记录（标题和内容）
+     * 搜索成长记录（标题和内容，一并加载创建者）
      */
+    @EntityGraph(attributePaths = "createdBy")
     @Query("SELECT gr FROM GrowthRecord gr WHERE gr.baby = :baby " +
            "AND (gr.title LIKE %:keyword% OR gr.content LIKE %:keyword%) " +
            "ORDER BY gr.createdAt DESC")
     List<GrowthRecord> searchByKeyword(@Param("baby") Baby baby, @Param("keyword") String keyword);
 
     /**
-     * 获取最近的成长记录
+     * 获取最近的成长记录（一并加载创建者）
      */
+    @EntityGraph(attributePaths = "createdBy")
     @Query("SELECT gr FROM GrowthRecord gr WHERE gr.baby IN :babies " +
            "ORDER BY gr.createdAt DESC")
     List<GrowthRecord> findRecentRecords(@Param("babies") List<Baby> babies, Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * 按类型分组统计宝宝的记录数量
+     */
+    @Query("SELECT gr.type, COUNT(gr) FROM GrowthRecord gr WHERE gr.baby.id = :babyId GROUP BY gr.type")
+    List<Object[]> countByTypeForBaby(@Param("babyId") Long babyId);
+
+    /**
+     * 查找宝宝最新的一条成长记录
+     */
+    Optional<GrowthRecord> findFirstByBabyIdOrderByCreatedAtDescIdDesc(Long babyId);
+
+    /**
+     * 按id键集分块读取宝宝的全部成长记录（导出用）
+     */
+    @Query("SELECT gr FROM GrowthRecord gr WHERE gr.baby.id = :babyId AND gr.id > :afterId ORDER BY gr.id")
+    List<GrowthRecord> findByBabyIdAfter(@Param("babyId") Long babyId, @Param("afterId") Long afterId,
+                                         Pageable pageable);
+
+    long countByBabyId(Long babyId);
+}
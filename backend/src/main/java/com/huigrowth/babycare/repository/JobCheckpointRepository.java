@@ -0,0 +1,32 @@
+package com.huigrowth.babycare.repository;
+
+import com.huigrowth.babycare.entity.JobCheckpoint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * 后台任务检查点数据访问层
+ * 
+ * @author HuiGrowth Team
+ */
+@Repository
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, Long> {
+
+    /**
+     * 通过任务名查找检查点
+     */
+    Optional<JobCheckpoint> findByJobName(String jobName);
+
+    /**
+     * 加锁读取检查点（多实例部署时同一任务串行执行）
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM JobCheckpoint c WHERE c.jobName = :jobName")
+    Optional<JobCheckpoint> findByJobNameForUpdate(@Param("jobName") String jobName);
+}
@@ -0,0 +1,88 @@
+package com.huigrowth.babycare.repository;
+
+import com.huigrowth.babycare.entity.MediaFile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 媒体文件数据访问层
+ * 
+ * @author HuiGrowth Team
+ */
+@Repository
+public interface MediaFileRepository extends JpaRepository<MediaFile, Long> {
+
+    /**
+     * 查找家庭内内容相同的媒体文件
+     */
+    Optional<MediaFile> findFirstByFamilyIdAndSha256OrderByIdAsc(Long familyId, String sha256);
+
+    /**
+     * 统计引用同一份内容的媒体文件数
+     */
+    long countBySha256(String sha256);
+
+    /**
+     * 原子调整引用计数，只作用于指定家庭的文件，计数不会减到负数；delta 为0时仅刷新更新时间
+     */
+    @Modifying
+    @Query("UPDATE MediaFile f SET f.refCount = f.refCount + :delta, f.updatedAt = :now, " +
+           "f.everReferenced = CASE WHEN :delta > 0 THEN true ELSE f.everReferenced END " +
+           "WHERE f.id IN :ids AND f.familyId = :familyId AND f.refCount + :delta >= 0")
+    int adjustRefCount(@Param("ids") Collection<Long> ids, @Param("familyId") Long familyId,
+                       @Param("delta") int delta, @Param("now") LocalDateTime now);
+
+    /**
+     * 原子调整引用计数，只作用于指定用户上传的文件（用户头像不属于某个家庭）
+     */
+    @Modifying
+    @Query("UPDATE MediaFile f SET f.refCount = f.refCount + :delta, f.updatedAt = :now, " +
+           "f.everReferenced = CASE WHEN :delta > 0 THEN true ELSE f.everReferenced END " +
+           "WHERE f.id IN :ids AND f.owner.id = :ownerId AND f.refCount + :delta >= 0")
+    int adjustRefCountByOwner(@Param("ids") Collection<Long> ids, @Param("ownerId") Long ownerId,
+                              @Param("delta") int delta, @Param("now") LocalDateTime now);
+
+    /**
+     * 键集分页查询引用计数为0且在指定时间前未再变动的文件：被引用过后归零的，或登记时即纳入引用计数但从未被引用的
+     */
+    @Query("SELECT f FROM MediaFile f WHERE f.refCount = 0 " +
+           "AND (f.everReferenced = true OR f.refTracked = true) AND f.updatedAt < :before AND f.id > :afterId ORDER BY f.id")
+    List<MediaFile> findUnreferenced(@Param("before") LocalDateTime before, @Param("afterId") Long afterId,
+                                     Pageable pageable);
+
+    /**
+     * 删除仍未被引用的文件，查询之后又被引用的会被跳过
+     */
+    @Modifying
+    @Query("DELETE FROM MediaFile f WHERE f.id IN :ids AND f.refCount = 0 " +
+           "AND (f.everReferenced = true OR f.refTracked = true) AND f.updatedAt < :before")
+    int deleteUnreferenced(@Param("ids") Collection<Long> ids, @Param("before") LocalDateTime before);
+
+    /**
+     * 查询待生成缩略图、且在指定时间前未再变动的图片（含缩略图功能上线前登记、状态为空的图片）
+     */
+    @Query("SELECT f.id FROM MediaFile f WHERE f.mediaType = :mediaType " +
+           "AND (f.thumbnailStatus = :status OR f.thumbnailStatus IS NULL) AND f.updatedAt < :before ORDER BY f.id")
+    List<Long> findThumbnailPending(@Param("mediaType") MediaFile.MediaType mediaType,
+                                    @Param("status") MediaFile.ThumbnailStatus status,
+                                    @Param("before") LocalDateTime before, Pageable pageable);
+
+    /**
+     * 记录缩略图生成结果
+     */
+    @Modifying
+    @Query("UPDATE MediaFile f SET f.thumbnailStatus = :status, f.thumbnailWidths = :widths, " +
+           "f.thumbnailAttempts = :attempts, f.updatedAt = :now WHERE f.id = :id")
+    int updateThumbnail(@Param("id") Long id, @Param("status") MediaFile.ThumbnailStatus status,
+                        @Param("widths") String widths, @Param("attempts") int attempts,
+                        @Param("now") LocalDateTime now);
+}
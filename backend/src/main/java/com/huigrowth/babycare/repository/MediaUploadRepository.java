@@ -0,0 +1,49 @@
+package com.huigrowth.babycare.repository;
+
+import com.huigrowth.babycare.entity.MediaUpload;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 分片上传会话数据访问层
+ * 
+ * @author HuiGrowth Team
+ */
+@Repository
+public interface MediaUploadRepository extends JpaRepository<MediaUpload, Long> {
+
+    /**
+     * 按上传ID查找（同时加载上传者）
+     */
+    @EntityGraph(attributePaths = "owner")
+    Optional<MediaUpload> findByUploadId(String uploadId);
+
+    /**
+     * 偏移量与预期一致时推进偏移量（乐观条件更新，防止并发写入同一上传）
+     */
+    @Modifying
+    @Query("UPDATE MediaUpload u SET u.uploadOffset = :newOffset, u.expiresAt = :expiresAt, u.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE u.uploadId = :uploadId AND u.uploadOffset = :expectedOffset AND u.status = :status")
+    int advanceOffset(@Param("uploadId") String uploadId,
+                      @Param("status") MediaUpload.UploadStatus status,
+                      @Param("expectedOffset") long expectedOffset,
+                      @Param("newOffset") long newOffset,
+                      @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * 查找已过期的未完成上传
+     */
+    @Query("SELECT u FROM MediaUpload u WHERE u.status = :status AND u.expiresAt < :now ORDER BY u.expiresAt")
+    List<MediaUpload> findExpired(@Param("status") MediaUpload.UploadStatus status,
+                                  @Param("now") LocalDateTime now,
+                                  Pageable pageable);
+}
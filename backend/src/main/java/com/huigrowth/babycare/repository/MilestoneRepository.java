@@ -0,0 +1,42 @@
+package com.huigrowth.babycare.repository;
+
+import com.huigrowth.babycare.entity.Baby;
+import com.huigrowth.babycare.entity.Milestone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 里程碑数据访问层
+ * 
+ * @author HuiGrowth Team
+ */
+@Repository
+public interface MilestoneRepository extends JpaRepository<Milestone, Long> {
+
+    /**
+     * 查找宝宝的里程碑（按达成时间倒序）
+     */
+    List<Milestone> findByBabyOrderByAchievedAtDesc(Baby baby);
+
+    /**
+     * 查找宝宝已达成的预设里程碑ID
+     */
+    @Query("SELECT m.presetMilestoneId FROM Milestone m " +
+           "WHERE m.baby.id = :babyId AND m.isPreset = true AND m.presetMilestoneId IS NOT NULL")
+    List<Long> findPresetMilestoneIdsByBabyId(@Param("babyId") Long babyId);
+
+    /**
+     * 统计宝宝的里程碑数量
+     */
+    long countByBaby(Baby baby);
+
+    /**
+     * 查找宝宝最近达成的里程碑
+     */
+    List<Milestone> findByBabyIdOrderByAchievedAtDescIdDesc(Long babyId, Pageable pageable);
+}
@@ -0,0 +1,71 @@
+package com.huigrowth.babycare.repository;
+
+import com.huigrowth.babycare.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 事务发件箱数据访问层
+ * 
+ * @author HuiGrowth Team
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * 写入发件箱；幂等键已存在时忽略（同一业务事实只投递一次），不影响业务事务
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO outbox_events " +
+                   "(idempotency_key, event_type, payload, status, attempts, available_at, created_at, updated_at) " +
+                   "VALUES (:idempotencyKey, :eventType, :payload, 'PENDING', 0, :now, :now, :now)",
+           nativeQuery = true)
+    int insertIgnore(@Param("idempotencyKey") String idempotencyKey,
+                     @Param("eventType") String eventType,
+                     @Param("payload") String payload,
+                     @Param("now") LocalDateTime now);
+
+    /**
+     * 锁定一批可投递的事件；SKIP LOCKED 跳过其他中继实例已锁定的行，多实例可并行消费
+     */
+    @Query(value = "SELECT * FROM outbox_events WHERE status = 'PENDING' AND available_at <= :now " +
+                   "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<OutboxEvent> lockPending(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * 按ID批量更新投递状态
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = :status, e.attempts = e.attempts + 1, " +
+           "e.publishedAt = :now, e.updatedAt = :now WHERE e.id IN :ids")
+    int updatePublished(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now,
+                        @Param("status") OutboxEvent.OutboxStatus status);
+
+    /**
+     * 批量标记为已投递
+     */
+    default int markPublished(Collection<Long> ids, LocalDateTime now) {
+        return updatePublished(ids, now, OutboxEvent.OutboxStatus.PUBLISHED);
+    }
+
+    /**
+     * 分批删除保留期之前已投递的事件
+     */
+    @Modifying
+    @Query(value = "DELETE FROM outbox_events WHERE status = 'PUBLISHED' AND published_at < :before LIMIT :limit",
+           nativeQuery = true)
+    int deletePublishedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    /**
+     * 统计指定状态的事件数量
+     */
+    long countByStatus(OutboxEvent.OutboxStatus status);
+}
@@ -0,0 +1,86 @@
+package com.huigrowth.babycare.security;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 媒体访问Cookie
+ * &lt;img&gt;/&lt;video&gt; 标签无法携带 Authorization 请求头，登录时额外下发一个 HttpOnly Cookie，
+ * Path 限定在媒体文件路由，只在 GET/HEAD 读取媒体时作为 Bearer 令牌的替代，其他接口仍只认请求头
+ *
+ * @author HuiGrowth Team
+ */
+@Component
+public class MediaAccessCookie {
+
+    private static final String MEDIA_PATH = "/media/files";
+
+    @Value("${server.servlet.context-path:}")
+    private String contextPath;
+
+    @Value("${app.media.serving.cookie-name:media_token}")
+    private String name;
+
+    @Value("${app.media.serving.cookie-secure:false}")
+    private boolean secure;
+
+    @Value("${app.media.serving.cookie-same-site:Lax}")
+    private String sameSite;
+
+    @Value("${app.jwt.expiration}")
+    private long jwtExpirationMs;
+
+    /**
+     * 携带令牌的Cookie，有效期与JWT一致
+     */
+    public ResponseCookie issue(String jwt) {
+        return build(jwt, Duration.ofMillis(jwtExpirationMs));
+    }
+
+    /**
+     * 登出时清除Cookie
+     */
+    public ResponseCookie clear() {
+        return build("", Duration.ZERO);
+    }
+
+    /**
+     * 读取媒体文件请求上的令牌，非媒体读取请求一律返回 null
+     */
+    public String resolve(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)) {
+            return null;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith(MEDIA_PATH + "/")) {
+            return null;
+        }
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (name.equals(cookie.getName()) && !cookie.getValue().isEmpty()) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+
+    private ResponseCookie build(String value, Duration maxAge) {
+        return ResponseCookie.from(name, value)
+                .httpOnly(true)
+                .secure(secure)
+                .sameSite(sameSite)
+                .path(contextPath + MEDIA_PATH)
+                .maxAge(maxAge)
+                .build();
+    }
+}
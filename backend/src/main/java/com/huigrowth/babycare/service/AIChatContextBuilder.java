@@ -0,0 +1,306 @@
+package com.huigrowth.babycare.service;
+
+import com.huigrowth.babycare.entity.AIChatMessage;
+import com.huigrowth.babycare.entity.AIChatSession;
+import com.huigrowth.babycare.repository.AIChatMessageRepository;
+import com.huigrowth.babycare.repository.AIChatSessionRepository;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AI多轮对话上下文构建器
+ * 每个活跃会话在内存中保留最近K条消息的滚动窗口，滑出窗口的消息增量折叠进上下文摘要（context_summary，
+ * 与用户填写的会话摘要分开），构建上下文时按token预算截取，耗时与会话总消息数无关。
+ * 缓存的窗口只包含已提交的消息：追加时先基于副本计算新状态，事务提交后才替换缓存；
+ * 折叠后的摘要用不带版本号的原子UPDATE写回，不与会话实体的乐观锁冲突
+ *
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AIChatContextBuilder {
+
+    private static final int SUMMARY_LINE_LENGTH = 60;
+
+    private final AIChatMessageRepository chatMessageRepository;
+    private final AIChatSessionRepository chatSessionRepository;
+
+    @Value("${app.ai.context.window-size:20}")
+    private int windowSize;
+
+    @Value("${app.ai.context.max-tokens:2000}")
+    private int maxTokens;
+
+    @Value("${app.ai.context.summary-max-length:1000}")
+    private int summaryMaxLength;
+
+    @Value("${app.ai.context.catch-up-limit:50}")
+    private int catchUpLimit;
+
+    @Value("${app.ai.context.cache-size:1000}")
+    private int cacheSize;
+
+    /**
+     * 会话ID -> 上下文状态（状态只读，变更时整体替换）
+     */
+    private final Map<Long, ContextState> states = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, ContextState> eldest) {
+                    return size() > cacheSize;
+                }
+            });
+
+    /**
+     * 构建本轮对话的上下文（摘要 + 最近消息 + 当前用户消息），总量不超过token预算
+     */
+    public ChatContext build(AIChatSession session, String currentMessage) {
+        ContextState state = getState(session);
+
+        int budget = maxTokens - estimateTokens(currentMessage);
+        List<Turn> turns = new ArrayList<>();
+        for (int i = state.getWindow().size() - 1; i >= 0; i--) {
+            Turn turn = state.getWindow().get(i);
+            if (turn.getTokens() > budget) {
+                break;
+            }
+            budget -= turn.getTokens();
+            turns.add(turn);
+        }
+        Collections.reverse(turns);
+
+        String summary = state.getSummary();
+        if (summary != null && estimateTokens(summary) > budget) {
+            summary = truncateToTokens(summary, Math.max(budget, 0));
+        }
+        int usedTokens = maxTokens - budget + (summary == null ? 0 : estimateTokens(summary));
+
+        return new ChatContext(summary, turns, currentMessage, usedTokens);
+    }
+
+    /**
+     * 将已保存的消息追加到会话窗口，溢出的旧消息折叠进上下文摘要
+     * 需在保存消息的事务内调用：摘要随该事务写回，缓存在事务提交后才更新，回滚时缓存不变
+     */
+    public void append(AIChatSession session, AIChatMessage... messages) {
+        Long sessionId = session.getId();
+        ContextState base = getState(session);
+
+        List<Turn> window = new ArrayList<>(base.getWindow());
+        Summary summary = new Summary(base.getSummary(), base.getSummarizedAt());
+        for (AIChatMessage message : messages) {
+            window.add(toTurn(message));
+            while (window.size() > windowSize) {
+                foldIntoSummary(summary, window.remove(0));
+            }
+        }
+        ContextState updated = new ContextState(List.copyOf(window), summary.getText(), summary.getSummarizedAt());
+        persistSummary(sessionId, base, updated);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    replaceState(sessionId, base, updated);
+                }
+            });
+        } else {
+            replaceState(sessionId, base, updated);
+        }
+    }
+
+    /**
+     * 移除会话的缓存窗口（会话结束时调用）
+     */
+    public void evict(Long sessionId) {
+        states.remove(sessionId);
+    }
+
+    /**
+     * 估算文本的token数：中文等非ASCII字符按1个token计，ASCII字符按4个字符1个token计
+     */
+    public int estimateTokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int nonAscii = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0x7F) {
+                nonAscii++;
+            }
+        }
+        int ascii = text.length() - nonAscii;
+        return nonAscii + (ascii + 3) / 4;
+    }
+
+    /**
+     * 获取会话的上下文状态，缓存未命中时通过键集查询加载最近K条消息
+     */
+    private ContextState getState(AIChatSession session) {
+        ContextState state = states.get(session.getId());
+        if (state != null) {
+            return state;
+        }
+
+        List<AIChatMessage> recent = chatMessageRepository.findRecentMessages(session, PageRequest.of(0, windowSize));
+        List<Turn> window = new ArrayList<>(recent.size());
+        for (int i = recent.size() - 1; i >= 0; i--) {
+            window.add(toTurn(recent.get(i)));
+        }
+        Summary summary = new Summary(session.getContextSummary(), session.getContextSummarizedAt());
+        if (recent.size() == windowSize) {
+            catchUpSummary(session.getId(), summary, recent.get(recent.size() - 1));
+        }
+
+        ContextState loaded = new ContextState(List.copyOf(window), summary.getText(), summary.getSummarizedAt());
+        ContextState existing = states.putIfAbsent(session.getId(), loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * 提交后替换缓存；期间缓存已被其他请求替换时（并发发送）移除，下次读取时从数据库重新加载
+     */
+    private void replaceState(Long sessionId, ContextState base, ContextState updated) {
+        if (!states.replace(sessionId, base, updated)) {
+            states.remove(sessionId);
+        }
+    }
+
+    /**
+     * 摘要有变化时写回；只会推进已折叠水位，并发请求的较旧摘要不会覆盖较新的
+     */
+    private void persistSummary(Long sessionId, ContextState base, ContextState updated) {
+        LocalDateTime summarizedAt = updated.getSummarizedAt();
+        if (summarizedAt == null || summarizedAt.equals(base.getSummarizedAt())) {
+            return;
+        }
+        chatSessionRepository.updateContextSummary(sessionId, updated.getSummary(), summarizedAt);
+    }
+
+    /**
+     * 将窗口之前、尚未折叠进摘要的消息补充折叠（最多catchUpLimit条，取最靠近窗口的部分）
+     */
+    private void catchUpSummary(Long sessionId, Summary summary, AIChatMessage oldestInWindow) {
+        LocalDateTime watermark = summary.getSummarizedAt();
+        if (watermark != null && !watermark.isBefore(oldestInWindow.getCreatedAt())) {
+            return;
+        }
+
+        List<AIChatMessage> gap = chatMessageRepository.findMessagesBefore(sessionId,
+                oldestInWindow.getCreatedAt(), oldestInWindow.getId(), watermark, PageRequest.of(0, catchUpLimit));
+        for (int i = gap.size() - 1; i >= 0; i--) {
+            foldIntoSummary(summary, toTurn(gap.get(i)));
+        }
+        log.debug("补充折叠会话摘要: sessionId={}, messages={}", sessionId, gap.size());
+    }
+
+    /**
+     * 将一条消息折叠为摘要中的一行，摘要超长时丢弃最早的行
+     */
+    private void foldIntoSummary(Summary summary, Turn turn) {
+        String content = turn.getContent().replaceAll("\\s+", " ").trim();
+        if (content.length() > SUMMARY_LINE_LENGTH) {
+            content = content.substring(0, SUMMARY_LINE_LENGTH) + "...";
+        }
+        String line = (turn.getMessageType() == AIChatMessage.MessageType.USER ? "用户：" : "助手：") + content;
+
+        String text = summary.getText();
+        text = text == null || text.isEmpty() ? line : text + "\n" + line;
+        while (text.length() > summaryMaxLength) {
+            int newline = text.indexOf('\n');
+            if (newline < 0) {
+                text = text.substring(text.length() - summaryMaxLength);
+                break;
+            }
+            text = text.substring(newline + 1);
+        }
+
+        summary.setText(text);
+        summary.setSummarizedAt(turn.getCreatedAt());
+    }
+
+    /**
+     * 按token预算截取文本末尾
+     */
+    private String truncateToTokens(String text, int tokens) {
+        int end = text.length();
+        int start = end;
+        int used = 0;
+        while (start > 0) {
+            int cost = text.charAt(start - 1) > 0x7F ? 4 : 1;
+            if (used + cost > tokens * 4) {
+                break;
+            }
+            used += cost;
+            start--;
+        }
+        return start == 0 ? text : text.substring(start);
+    }
+
+    private Turn toTurn(AIChatMessage message) {
+        return new Turn(message.getId(), message.getMessageType(), message.getContent(),
+                message.getCreatedAt(), estimateTokens(message.getContent()));
+    }
+
+    /**
+     * 对话轮次
+     */
+    @Data
+    @AllArgsConstructor
+    public static class Turn {
+        private Long messageId;
+        private AIChatMessage.MessageType messageType;
+        private String content;
+        private LocalDateTime createdAt;
+        private int tokens;
+    }
+
+    /**
+     * 会话上下文状态：已提交的最近消息窗口和折叠摘要
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class ContextState {
+        private final List<Turn> window;
+        private final String summary;
+        private final LocalDateTime summarizedAt; // 已折叠进摘要的最后一条消息时间
+    }
+
+    /**
+     * 折叠过程中的摘要
+     */
+    @Data
+    @AllArgsConstructor
+    private static class Summary {
+        private String text;
+        private LocalDateTime summarizedAt;
+    }
+
+    /**
+     * 对话上下文
+     */
+    @Data
+    @AllArgsConstructor
+    public static class ChatContext {
+        private String summary;
+        private List<Turn> history;
+        private String currentMessage;
+        private int totalTokens;
+    }
+}
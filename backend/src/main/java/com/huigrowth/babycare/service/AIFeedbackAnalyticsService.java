@@ -0,0 +1,247 @@
+package com.huigrowth.babycare.service;
+
+import com.huigrowth.babycare.dto.AIFeedbackRecord;
+import com.huigrowth.babycare.dto.AIFeedbackStatItem;
+import com.huigrowth.babycare.dto.AIFeedbackStatsResponse;
+import com.huigrowth.babycare.entity.AIChatSession;
+import com.huigrowth.babycare.entity.AIFeedbackDailyStat;
+import com.huigrowth.babycare.entity.JobCheckpoint;
+import com.huigrowth.babycare.exception.BusinessException;
+import com.huigrowth.babycare.repository.AIChatMessageRepository;
+import com.huigrowth.babycare.repository.AIFeedbackDailyStatRepository;
+import com.huigrowth.babycare.repository.JobCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * AI回复反馈统计服务
+ * 按反馈时间游标增量读取新的评价，汇总到按评价日期、咨询类型、回复模板划分的日统计表；
+ * 用户修改评价时从原先计入的日期撤销。查询接口只读汇总表，不扫描消息表
+ * 
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AIFeedbackAnalyticsService {
+
+    private static final String JOB_NAME = "ai-feedback-stats";
+    private static final String UNKNOWN_TEMPLATE = "UNKNOWN";
+    private static final LocalDateTime INITIAL_CURSOR = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final AIChatMessageRepository chatMessageRepository;
+    private final AIFeedbackDailyStatRepository dailyStatRepository;
+    private final JobCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.ai.feedback-stats.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.ai.feedback-stats.settle-seconds:60}")
+    private long settleSeconds;
+
+    /**
+     * 定时增量汇总
+     */
+    @Scheduled(fixedDelayString = "${app.ai.feedback-stats.interval:300000}", initialDelay = 60000)
+    public void scheduledAggregate() {
+        try {
+            aggregate();
+        } catch (Exception e) {
+            log.error("AI反馈统计任务执行失败", e);
+        }
+    }
+
+    /**
+     * 处理上次游标之后的全部新反馈，返回本次处理的记录数
+     * 每个分块在独立事务中完成统计累加、评价结果回写和游标推进，中途失败不会重复计数
+     */
+    public long aggregate() {
+        // 只处理稳定时间点之前的反馈，避免游标越过尚未提交的评价
+        LocalDateTime untilAt = LocalDateTime.now().minusSeconds(settleSeconds);
+        ensureCheckpoint();
+
+        long total = 0;
+        while (true) {
+            Integer processed = transactionTemplate.execute(status -> processChunk(untilAt));
+            if (processed == null || processed == 0) {
+                break;
+            }
+            total += processed;
+            if (processed < chunkSize) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("AI反馈统计完成: processed={}", total);
+        }
+        return total;
+    }
+
+    /**
+     * 查询日期范围内的反馈统计，按咨询类型、回复模板、日期分别汇总
+     */
+    public AIFeedbackStatsResponse getStats(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new BusinessException("开始日期不能晚于结束日期");
+        }
+
+        List<AIFeedbackDailyStat> stats = dailyStatRepository.findByStatDateBetweenOrderByStatDateAsc(startDate, endDate);
+
+        AIFeedbackStatsResponse response = new AIFeedbackStatsResponse();
+        response.setStartDate(startDate);
+        response.setEndDate(endDate);
+        response.setTotal(toItem("TOTAL",
+                stats.stream().mapToLong(AIFeedbackDailyStat::getHelpfulCount).sum(),
+                stats.stream().mapToLong(AIFeedbackDailyStat::getUnhelpfulCount).sum()));
+        response.setByConsultationType(rollUp(stats, stat -> stat.getConsultationType().name()));
+        response.setByReplyTemplate(rollUp(stats, AIFeedbackDailyStat::getReplyTemplate));
+        response.setByDay(rollUp(stats, stat -> stat.getStatDate().toString()));
+        return response;
+    }
+
+    private Integer processChunk(LocalDateTime untilAt) {
+        JobCheckpoint checkpoint = checkpointRepository.findByJobNameForUpdate(JOB_NAME)
+                .orElseThrow(() -> new IllegalStateException("任务检查点不存在: " + JOB_NAME));
+
+        List<AIFeedbackRecord> records = chatMessageRepository.findFeedbackAfter(
+                checkpoint.getLastProcessedAt(), checkpoint.getLastProcessedId(), untilAt, PageRequest.of(0, chunkSize));
+        if (records.isEmpty()) {
+            return 0;
+        }
+
+        Set<LocalDate> dates = new HashSet<>();
+        for (AIFeedbackRecord record : records) {
+            dates.add(record.getFeedbackAt().toLocalDate());
+            if (record.getCountedHelpful() != null) {
+                dates.add(countedDate(record));
+            }
+        }
+        Map<String, AIFeedbackDailyStat> statsByKey = new HashMap<>();
+        for (AIFeedbackDailyStat stat : dailyStatRepository.findByStatDateIn(dates)) {
+            statsByKey.put(statKey(stat.getStatDate(), stat.getConsultationType(), stat.getReplyTemplate()), stat);
+        }
+
+        // 计入结果 -> 计入日期 -> 消息ID，按组回写
+        Map<Boolean, Map<LocalDate, List<Long>>> counted = new HashMap<>();
+        for (AIFeedbackRecord record : records) {
+            Boolean helpful = record.getIsHelpful();
+            // 评价结果未变化（重复评价同一结果）时不重复计数
+            if (helpful == null || Objects.equals(helpful, record.getCountedHelpful())) {
+                continue;
+            }
+            String template = record.getReplyTemplate() != null ? record.getReplyTemplate() : UNKNOWN_TEMPLATE;
+
+            // 用户修改了评价：从之前计入的日期撤销
+            if (record.getCountedHelpful() != null) {
+                AIFeedbackDailyStat previous = findOrCreateStat(statsByKey, countedDate(record),
+                        record.getConsultationType(), template);
+                if (record.getCountedHelpful()) {
+                    previous.setHelpfulCount(previous.getHelpfulCount() - 1);
+                } else {
+                    previous.setUnhelpfulCount(previous.getUnhelpfulCount() - 1);
+                }
+            }
+
+            LocalDate statDate = record.getFeedbackAt().toLocalDate();
+            AIFeedbackDailyStat stat = findOrCreateStat(statsByKey, statDate, record.getConsultationType(), template);
+            if (helpful) {
+                stat.setHelpfulCount(stat.getHelpfulCount() + 1);
+            } else {
+                stat.setUnhelpfulCount(stat.getUnhelpfulCount() + 1);
+            }
+            counted.computeIfAbsent(helpful, key -> new HashMap<>())
+                    .computeIfAbsent(statDate, key -> new ArrayList<>())
+                    .add(record.getMessageId());
+        }
+
+        dailyStatRepository.saveAll(statsByKey.values());
+        counted.forEach((helpful, idsByDate) -> idsByDate.forEach((statDate, ids) ->
+                chatMessageRepository.updateCountedHelpful(ids, helpful, statDate)));
+
+        AIFeedbackRecord last = records.get(records.size() - 1);
+        checkpoint.setLastProcessedAt(last.getFeedbackAt());
+        checkpoint.setLastProcessedId(last.getMessageId());
+        checkpoint.setProcessedCount(checkpoint.getProcessedCount() + records.size());
+        checkpointRepository.save(checkpoint);
+
+        return records.size();
+    }
+
+    private void ensureCheckpoint() {
+        if (checkpointRepository.findByJobName(JOB_NAME).isPresent()) {
+            return;
+        }
+        JobCheckpoint checkpoint = new JobCheckpoint();
+        checkpoint.setJobName(JOB_NAME);
+        checkpoint.setLastProcessedAt(INITIAL_CURSOR);
+        checkpoint.setLastProcessedId(0L);
+        checkpointRepository.save(checkpoint);
+    }
+
+    /**
+     * 之前计入统计的日期；计入日期上线前计入的评价按消息创建日期统计
+     */
+    private LocalDate countedDate(AIFeedbackRecord record) {
+        return record.getCountedDate() != null ? record.getCountedDate() : record.getCreatedAt().toLocalDate();
+    }
+
+    private AIFeedbackDailyStat findOrCreateStat(Map<String, AIFeedbackDailyStat> statsByKey, LocalDate statDate,
+                                                 AIChatSession.ConsultationType type, String template) {
+        return statsByKey.computeIfAbsent(statKey(statDate, type, template), key -> newStat(statDate, type, template));
+    }
+
+    private AIFeedbackDailyStat newStat(LocalDate statDate, AIChatSession.ConsultationType type, String template) {
+        AIFeedbackDailyStat stat = new AIFeedbackDailyStat();
+        stat.setStatDate(statDate);
+        stat.setConsultationType(type);
+        stat.setReplyTemplate(template);
+        return stat;
+    }
+
+    private String statKey(LocalDate statDate, AIChatSession.ConsultationType type, String template) {
+        return statDate + "|" + type + "|" + template;
+    }
+
+    private List<AIFeedbackStatItem> rollUp(List<AIFeedbackDailyStat> stats,
+                                            Function<AIFeedbackDailyStat, String> keyFunction) {
+        Map<String, long[]> totals = new TreeMap<>();
+        for (AIFeedbackDailyStat stat : stats) {
+            long[] counts = totals.computeIfAbsent(keyFunction.apply(stat), key -> new long[2]);
+            counts[0] += stat.getHelpfulCount();
+            counts[1] += stat.getUnhelpfulCount();
+        }
+
+        List<AIFeedbackStatItem> items = new ArrayList<>(totals.size());
+        totals.forEach((key, counts) -> items.add(toItem(key, counts[0], counts[1])));
+        return items;
+    }
+
+    private AIFeedbackStatItem toItem(String key, long helpful, long unhelpful) {
+        AIFeedbackStatItem item = new AIFeedbackStatItem();
+        item.setKey(key);
+        item.setHelpfulCount(helpful);
+        item.setUnhelpfulCount(unhelpful);
+        long rated = helpful + unhelpful;
+        item.setHelpfulRate(rated == 0 ? 0.0 : (double) helpful / rated);
+        return item;
+    }
+}
@@ -2,10 +2,12 @@ package com.huigrowth.babycare.service;
 
 import com.huigrowth.babycare.dto.*;
 import com.huigrowth.babycare.entity.*;
+import com.huigrowth.babycare.event.AIChatSessionCompletedEvent;
 import com.huigrowth.babycare.exception.BusinessException;
 import com.huigrowth.babycare.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -26,10 +28,15 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AIParentingService {
 
+    private static final int LAST_MESSAGE_PREVIEW_LENGTH = 200;
+
     private final AIChatSessionRepository chatSessionRepository;
     private final AIChatMessageRepository chatMessageRepository;
     private final BabyRepository babyRepository;
+    private final FamilyMemberRepository familyMemberRepository;
     private final UserRepository userRepository;
+    private final AIChatContextBuilder contextBuilder;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 创建AI聊天会话
@@ -88,34 +95,41 @@ public class AIParentingService {
             throw new BusinessException("您没有权限访问该会话");
         }
 
-        // 保存用户消息
+        // 创建用户消息
         AIChatMessage userMessage = new AIChatMessage();
         userMessage.setChatSession(session);
         userMessage.setMessageType(AIChatMessage.MessageType.USER);
         userMessage.setContent(request.getContent());
-        chatMessageRepository.save(userMessage);
+
+        // 构建多轮对话上下文（在追加本条消息之前，避免重复）
+        AIChatContextBuilder.ChatContext context = contextBuilder.build(session, request.getContent());
 
         // 生成AI回复
-        String aiReply = generateAIReply(request.getContent(), session);
+        String replyTemplate = resolveReplyTemplate(request.getContent());
+        String aiReply = generateAIReply(replyTemplate, session, context);
         
-        // 保存AI消息
+        // 创建AI消息
         AIChatMessage aiMessage = new AIChatMessage();
         aiMessage.setChatSession(session);
         aiMessage.setMessageType(AIChatMessage.MessageType.AI);
         aiMessage.setContent(aiReply);
+        aiMessage.setReplyTemplate(replyTemplate);
         aiMessage.setMetadata(String.format("{\"response_time\":%d,\"confidence\":0.85}", System.currentTimeMillis()));
-        AIChatMessage savedAiMessage = chatMessageRepository.save(aiMessage);
+        // 用户消息和AI消息一次批量写入（序列主键 + JDBC批处理，一次往返）
+        chatMessageRepository.saveAll(List.of(userMessage, aiMessage));
+        contextBuilder.append(session, userMessage, aiMessage);
 
-        // 更新会话消息计数
-        session.setMessageCount(session.getMessageCount() + 2);
-        chatSessionRepository.save(session);
+        // 原子更新会话消息计数和最后一条消息（多标签页并发发送时不丢失计数）
+        chatSessionRepository.incrementMessageCount(session.getId(), 2,
+                abbreviate(aiMessage.getContent()), aiMessage.getCreatedAt(), LocalDateTime.now());
 
-        return convertToMessageResponse(savedAiMessage);
+        return convertToMessageResponse(aiMessage);
     }
 
     /**
      * 获取用户的聊天会话
      */
+    @Transactional(readOnly = true)
     public Page<AIChatSessionResponse> getUserSessions(String username, int page, int size) {
         log.info("获取用户聊天会话: username={}, page={}, size={}", username, page, size);
 
@@ -132,6 +146,7 @@ public class AIParentingService {
     /**
      * 获取会话的消息历史
      */
+    @Transactional(readOnly = true)
     public Page<AIChatMessageResponse> getSessionMessages(String username, Long sessionId, int page, int size) {
         log.info("获取会话消息: username={}, sessionId={}, page={}, size={}", username, sessionId, page, size);
 
@@ -166,7 +181,7 @@ public class AIParentingService {
                 .orElseThrow(() -> new BusinessException("用户不存在"));
 
         // 查找消息
-        AIChatMessage message = chatMessageRepository.findById(messageId)
+        AIChatMessage message = chatMessageRepository.findWithSessionById(messageId)
                 .orElseThrow(() -> new BusinessException("消息不存在"));
 
         // 验证权限
@@ -179,9 +194,8 @@ public class AIParentingService {
             throw new BusinessException("只能对AI回复进行评价");
         }
 
-        message.setIsHelpful(helpful);
-        message.setFeedback(feedback);
-        chatMessageRepository.save(message);
+        // 定向更新评价字段（feedbackAt 为反馈统计任务的增量游标），不回写统计任务维护的列
+        chatMessageRepository.updateFeedback(messageId, helpful, feedback, LocalDateTime.now());
     }
 
     /**
@@ -196,7 +210,7 @@ public class AIParentingService {
                 .orElseThrow(() -> new BusinessException("用户不存在"));
 
         // 查找会话
-        AIChatSession session = chatSessionRepository.findById(sessionId)
+        AIChatSession session = chatSessionRepository.findWithUserAndBabyById(sessionId)
                 .orElseThrow(() -> new BusinessException("聊天会话不存在"));
 
         // 验证权限
@@ -207,29 +221,55 @@ public class AIParentingService {
         session.setStatus(AIChatSession.SessionStatus.COMPLETED);
         session.setSummary(summary);
         AIChatSession savedSession = chatSessionRepository.save(session);
+        contextBuilder.evict(sessionId);
+        eventPublisher.publishEvent(new AIChatSessionCompletedEvent(sessionId, user.getId(),
+                session.getBaby() == null ? null : session.getBaby().getId()));
 
         return convertToSessionResponse(savedSession);
     }
 
     /**
-     * 生成AI回复（模拟实现）
+     * 根据用户消息选择回复模板（模拟实现）
      */
-    private String generateAIReply(String userMessage, AIChatSession session) {
-        // 这里是模拟的AI回复逻辑，实际项目中应该调用真实的AI服务
+    private String resolveReplyTemplate(String userMessage) {
         String message = userMessage.toLowerCase();
-        
+
         if (message.contains("睡眠") || message.contains("睡觉")) {
-            return "关于宝宝的睡眠问题，我建议：\n1. 建立规律的睡眠时间\n2. 创造舒适的睡眠环境\n3. 睡前进行安静的活动\n4. 避免过度刺激\n\n如果问题持续，建议咨询儿科医生。";
+            return "SLEEP";
         } else if (message.contains("喂养") || message.contains("吃奶") || message.contains("辅食")) {
-            return "关于宝宝的喂养，需要根据月龄来调整：\n1. 0-6个月：纯母乳或配方奶\n2. 6个月后：逐步添加辅食\n3. 注意营养均衡\n4. 观察宝宝的反应\n\n具体的喂养计划建议咨询儿科医生制定。";
+            return "FEEDING";
         } else if (message.contains("发育") || message.contains("成长")) {
-            return "宝宝的发育是一个渐进的过程：\n1. 每个宝宝的发育节奏都不同\n2. 关注关键的发育里程碑\n3. 提供适当的刺激和环境\n4. 定期进行发育评估\n\n如果您担心宝宝的发育情况，建议进行专业的发育评估。";
+            return "DEVELOPMENT";
         } else if (message.contains("哭闹") || message.contains("哭")) {
-            return "宝宝哭闹的常见原因包括：\n1. 饥饿或口渴\n2. 需要换尿布\n3. 感到不适或疼痛\n4. 需要安慰和陪伴\n5. 过度疲劳\n\n建议先检查基本需求，然后尝试安抚方法。如果哭闹异常持续，请及时就医。";
+            return "CRYING";
         } else if (message.contains("教育") || message.contains("学习")) {
-            return "早期教育的重点是：\n1. 通过游戏促进学习\n2. 读书给宝宝听\n3. 鼓励探索和好奇心\n4. 提供丰富的感官体验\n5. 保持耐心和积极的态度\n\n记住，玩耍就是宝宝最好的学习方式！";
+            return "EDUCATION";
         } else {
-            return "感谢您的提问！作为AI育儿助手，我会尽力为您提供专业的建议。\n\n如果您有具体的育儿问题，比如关于宝宝的睡眠、喂养、发育、教育等方面，请详细描述情况，我会给出更针对性的建议。\n\n请注意，我的建议仅供参考，如果遇到严重问题，请及时咨询专业医生。";
+            return "GENERAL";
+        }
+    }
+
+    /**
+     * 生成AI回复（模拟实现）
+     */
+    private String generateAIReply(String replyTemplate, AIChatSession session, AIChatContextBuilder.ChatContext context) {
+        // 这里是模拟的AI回复逻辑，实际项目中应该调用真实的AI服务，并将context中的摘要和历史消息作为多轮对话输入
+        log.debug("AI对话上下文: sessionId={}, historyTurns={}, tokens={}",
+                session.getId(), context.getHistory().size(), context.getTotalTokens());
+
+        switch (replyTemplate) {
+            case "SLEEP":
+                return "关于宝宝的睡眠问题，我建议：\n1. 建立规律的睡眠时间\n2. 创造舒适的睡眠环境\n3. 睡前进行安静的活动\n4. 避免过度刺激\n\n如果问题持续，建议咨询儿科医生。";
+            case "FEEDING":
+                return "关于宝宝的喂养，需要根据月龄来调整：\n1. 0-6个月：纯母乳或配方奶\n2. 6个月后：逐步添加辅食\n3. 注意营养均衡\n4. 观察宝宝的反应\n\n具体的喂养计划建议咨询儿科医生制定。";
+            case "DEVELOPMENT":
+                return "宝宝的发育是一个渐进的过程：\n1. 每个宝宝的发育节奏都不同\n2. 关注关键的发育里程碑\n3. 提供适当的刺激和环境\n4. 定期进行发育评估\n\n如果您担心宝宝的发育情况，建议进行专业的发育评估。";
+            case "CRYING":
+                return "宝宝哭闹的常见原因包括：\n1. 饥饿或口渴\n2. 需要换尿布\n3. 感到不适或疼痛\n4. 需要安慰和陪伴\n5. 过度疲劳\n\n建议先检查基本需求，然后尝试安抚方法。如果哭闹异常持续，请及时就医。";
+            case "EDUCATION":
+                return "早期教育的重点是：\n1. 通过游戏促进学习\n2. 读书给宝宝听\n3. 鼓励探索和好奇心\n4. 提供丰富的感官体验\n5. 保持耐心和积极的态度\n\n记住，玩耍就是宝宝最好的学习方式！";
+            default:
+                return "感谢您的提问！作为AI育儿助手，我会尽力为您提供专业的建议。\n\n如果您有具体的育儿问题，比如关于宝宝的睡眠、喂养、发育、教育等方面，请详细描述情况，我会给出更针对性的建议。\n\n请注意，我的建议仅供参考，如果遇到严重问题，请及时咨询专业医生。";
         }
     }
 
@@ -237,8 +277,17 @@ public class AIParentingService {
      * 检查用户是否有权限访问宝宝
      */
     private boolean hasAccessToBaby(User user, Baby baby) {
-        return baby.getFamily().getMembers().stream()
-                .anyMatch(member -> member.getUser().getId().equals(user.getId()) && member.getActive());
+        return familyMemberRepository.existsByUserAndBaby(user, baby.getFamily().getId());
+    }
+
+    /**
+     * 截取消息预览
+     */
+    private String abbreviate(String content) {
+        if (content == null || content.length() <= LAST_MESSAGE_PREVIEW_LENGTH) {
+            return content;
+        }
+        return content.substring(0, LAST_MESSAGE_PREVIEW_LENGTH - 3) + "...";
     }
 
     /**
@@ -262,13 +311,9 @@ public class AIParentingService {
             response.setBabyName(session.getBaby().getName());
         }
 
-        // 获取最后一条消息
-        List<AIChatMessage> recentMessages = chatMessageRepository.findRecentMessages(session, PageRequest.of(0, 1));
-        if (!recentMessages.isEmpty()) {
-            AIChatMessage lastMessage = recentMessages.get(0);
-            response.setLastMessage(lastMessage.getContent());
-            response.setLastMessageTime(lastMessage.getCreatedAt());
-        }
+        // 最后一条消息由会话上的冗余字段提供，无需再查询消息表
+        response.setLastMessage(session.getLastMessagePreview());
+        response.setLastMessageTime(session.getLastMessageAt());
 
         return response;
     }
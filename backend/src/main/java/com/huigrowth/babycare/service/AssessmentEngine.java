@@ -0,0 +1,245 @@
+package com.huigrowth.babycare.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.huigrowth.babycare.entity.DevelopmentAssessment;
+import com.huigrowth.babycare.exception.BusinessException;
+import com.huigrowth.babycare.util.NormalDistribution;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 发育评估计分引擎
+ * 启动时把题库JSON编译成按类别、月龄直接寻址的数组，每个题库预先计算好“原始分 -> 百分位”表；
+ * 计分只需一次遍历答案数组并查表，不解析JSON、不访问数据库
+ * 综合评估由同月龄各单项题库拼接而成，常模按各项独立相加
+ *
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@Component
+public class AssessmentEngine {
+
+    private static final String BANK_LOCATION = "assessments/question-banks.json";
+    public static final int MAX_MONTH = 72;
+
+    private final String[] optionLabels;
+    private final int[] optionWeights;
+    private final int maxOptionWeight;
+    private final Map<DevelopmentAssessment.AssessmentCategory, QuestionBank[]> banksByMonth =
+            new EnumMap<>(DevelopmentAssessment.AssessmentCategory.class);
+
+    public AssessmentEngine(ObjectMapper objectMapper) {
+        JsonNode root = load(objectMapper);
+
+        JsonNode options = root.path("options");
+        this.optionLabels = new String[options.size()];
+        this.optionWeights = new int[options.size()];
+        int maxWeight = 0;
+        for (int i = 0; i < options.size(); i++) {
+            optionLabels[i] = options.get(i).path("label").asText();
+            optionWeights[i] = options.get(i).path("weight").asInt();
+            maxWeight = Math.max(maxWeight, optionWeights[i]);
+        }
+        this.maxOptionWeight = maxWeight;
+
+        int bankCount = 0;
+        for (JsonNode node : root.path("banks")) {
+            DevelopmentAssessment.AssessmentCategory category =
+                    DevelopmentAssessment.AssessmentCategory.valueOf(node.path("category").asText());
+            int minMonth = node.path("minMonth").asInt();
+            int maxMonth = Math.min(node.path("maxMonth").asInt(), MAX_MONTH);
+            String[] questions = new String[node.path("questions").size()];
+            for (int i = 0; i < questions.length; i++) {
+                questions[i] = node.path("questions").get(i).asText();
+            }
+            QuestionBank bank = compile(category.name() + "-" + minMonth, category, minMonth, maxMonth, questions,
+                    node.path("norm").path("mean").asDouble(), node.path("norm").path("sd").asDouble());
+
+            QuestionBank[] byMonth = banksByMonth.computeIfAbsent(category, key -> new QuestionBank[MAX_MONTH + 1]);
+            for (int month = minMonth; month <= maxMonth; month++) {
+                if (byMonth[month] != null) {
+                    throw new IllegalStateException("题库月龄区间重叠: " + bank.getId());
+                }
+                byMonth[month] = bank;
+            }
+            bankCount++;
+        }
+        compileComprehensive();
+        log.info("发育评估题库已编译: banks={}, categories={}", bankCount, banksByMonth.size());
+    }
+
+    /**
+     * 获取适用于指定月龄的题库
+     */
+    public QuestionBank getBank(DevelopmentAssessment.AssessmentCategory category, int ageInMonths) {
+        QuestionBank[] byMonth = banksByMonth.get(category);
+        QuestionBank bank = byMonth == null ? null : byMonth[Math.max(0, Math.min(ageInMonths, MAX_MONTH))];
+        if (bank == null) {
+            throw new BusinessException("暂无适用于该月龄的" + category.getDescription() + "题库");
+        }
+        return bank;
+    }
+
+    /**
+     * 答案选项文字（下标即答案取值）
+     */
+    public String[] getOptionLabels() {
+        return optionLabels.clone();
+    }
+
+    /**
+     * 计分：answers[i] 为第i题所选选项的下标
+     */
+    public ScoreResult score(QuestionBank bank, List<Integer> answers) {
+        if (answers == null || answers.size() != bank.questions.length) {
+            throw new BusinessException("答案数量与题目数量不一致，请重新获取题目");
+        }
+        int rawScore = 0;
+        for (int i = 0; i < bank.questions.length; i++) {
+            Integer answer = answers.get(i);
+            if (answer == null || answer < 0 || answer >= optionWeights.length) {
+                throw new BusinessException("第" + (i + 1) + "题答案无效");
+            }
+            rawScore += optionWeights[answer];
+        }
+        int percentile = bank.percentileByScore[rawScore];
+        return new ScoreResult(rawScore, bank.maxScore, percentile, DevelopmentLevel.ofPercentile(percentile));
+    }
+
+    private void compileComprehensive() {
+        QuestionBank[] comprehensive = new QuestionBank[MAX_MONTH + 1];
+        Map<String, QuestionBank> composed = new HashMap<>();
+        for (int month = 0; month <= MAX_MONTH; month++) {
+            List<QuestionBank> parts = new ArrayList<>();
+            for (Map.Entry<DevelopmentAssessment.AssessmentCategory, QuestionBank[]> entry : banksByMonth.entrySet()) {
+                if (entry.getKey() != DevelopmentAssessment.AssessmentCategory.COMPREHENSIVE && entry.getValue()[month] != null) {
+                    parts.add(entry.getValue()[month]);
+                }
+            }
+            if (parts.isEmpty()) {
+                continue;
+            }
+            String key = parts.stream().map(QuestionBank::getId).reduce((a, b) -> a + "+" + b).orElseThrow();
+            final int currentMonth = month;
+            comprehensive[month] = composed.computeIfAbsent(key, k -> {
+                List<String> questions = new ArrayList<>();
+                double mean = 0;
+                double variance = 0;
+                int minMonth = 0;
+                int maxMonth = MAX_MONTH;
+                for (QuestionBank part : parts) {
+                    questions.addAll(List.of(part.questions));
+                    mean += part.mean;
+                    variance += part.sd * part.sd;
+                    minMonth = Math.max(minMonth, part.minMonth);
+                    maxMonth = Math.min(maxMonth, part.maxMonth);
+                }
+                return compile("COMPREHENSIVE-" + currentMonth, DevelopmentAssessment.AssessmentCategory.COMPREHENSIVE,
+                        minMonth, maxMonth, questions.toArray(new String[0]), mean, Math.sqrt(variance));
+            });
+        }
+        banksByMonth.put(DevelopmentAssessment.AssessmentCategory.COMPREHENSIVE, comprehensive);
+    }
+
+    private QuestionBank compile(String id, DevelopmentAssessment.AssessmentCategory category, int minMonth, int maxMonth,
+                                 String[] questions, double mean, double sd) {
+        if (questions.length == 0 || sd <= 0) {
+            throw new IllegalStateException("题库配置无效: " + id);
+        }
+        int maxScore = questions.length * maxOptionWeight;
+        byte[] percentileByScore = new byte[maxScore + 1];
+        for (int score = 0; score <= maxScore; score++) {
+            int percentile = (int) Math.round(NormalDistribution.cdf((score - mean) / sd) * 100);
+            percentileByScore[score] = (byte) Math.max(1, Math.min(99, percentile));
+        }
+        return new QuestionBank(id, category, minMonth, maxMonth, questions, maxScore, mean, sd, percentileByScore);
+    }
+
+    private JsonNode load(ObjectMapper objectMapper) {
+        try (InputStream in = new ClassPathResource(BANK_LOCATION).getInputStream()) {
+            return objectMapper.readTree(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("加载发育评估题库失败: " + BANK_LOCATION, e);
+        }
+    }
+
+    /**
+     * 编译后的题库（只读）
+     */
+    @AllArgsConstructor
+    public static final class QuestionBank {
+        @Getter
+        private final String id;
+        @Getter
+        private final DevelopmentAssessment.AssessmentCategory category;
+        @Getter
+        private final int minMonth;
+        @Getter
+        private final int maxMonth;
+        private final String[] questions;
+        @Getter
+        private final int maxScore;
+        private final double mean;
+        private final double sd;
+        private final byte[] percentileByScore;
+
+        public List<String> getQuestionList() {
+            return List.of(questions);
+        }
+    }
+
+    /**
+     * 计分结果
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class ScoreResult {
+        private final int rawScore;
+        private final int maxScore;
+        private final int percentile;
+        private final DevelopmentLevel level;
+    }
+
+    /**
+     * 发育水平
+     */
+    public enum DevelopmentLevel {
+        NEEDS_ATTENTION("需要关注"),
+        BELOW_AVERAGE("略低于同龄"),
+        NORMAL("正常"),
+        ADVANCED("领先");
+
+        private final String description;
+
+        DevelopmentLevel(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        static DevelopmentLevel ofPercentile(int percentile) {
+            if (percentile < 10) {
+                return NEEDS_ATTENTION;
+            } else if (percentile < 25) {
+                return BELOW_AVERAGE;
+            } else if (percentile < 75) {
+                return NORMAL;
+            }
+            return ADVANCED;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.huigrowth.babycare.service;
+
+import com.huigrowth.babycare.dto.AssessmentReminder;
+import com.huigrowth.babycare.dto.DueAssessmentRecord;
+import com.huigrowth.babycare.entity.JobCheckpoint;
+import com.huigrowth.babycare.repository.DevelopmentAssessmentRepository;
+import com.huigrowth.babycare.repository.JobCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 发育评估到期提醒任务
+ * 按 (下次评估日期, id) 键集游标分块流式读取到期评估，每块按家庭合并后交给提醒发送器，
+ * 发送成功后在同一事务内推进检查点；内存占用只与块大小有关，与积压数量无关
+ * 每条评估在到期后只提醒一次，发送失败的块在下次执行时重试
+ *
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AssessmentReminderJob {
+
+    private static final String JOB_NAME = "assessment-reminder";
+    private static final LocalDate INITIAL_CURSOR = LocalDate.of(1970, 1, 1);
+
+    private final DevelopmentAssessmentRepository assessmentRepository;
+    private final JobCheckpointRepository checkpointRepository;
+    private final AssessmentReminderNotifier reminderNotifier;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.assessment.reminder.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * 每天定时发送到期提醒
+     */
+    @Scheduled(cron = "${app.assessment.reminder.cron:0 0 9 * * *}")
+    public void scheduledRun() {
+        try {
+            run(LocalDate.now());
+        } catch (Exception e) {
+            log.error("发育评估提醒任务执行失败", e);
+        }
+    }
+
+    /**
+     * 处理截至指定日期到期、且尚未提醒过的评估，返回本次处理的评估数
+     */
+    public long run(LocalDate dueDate) {
+        ensureCheckpoint();
+
+        long total = 0;
+        while (true) {
+            Integer processed = transactionTemplate.execute(status -> processChunk(dueDate));
+            if (processed == null || processed == 0) {
+                break;
+            }
+            total += processed;
+            if (processed < chunkSize) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("发育评估提醒完成: dueDate={}, assessments={}", dueDate, total);
+        }
+        return total;
+    }
+
+    private Integer processChunk(LocalDate dueDate) {
+        JobCheckpoint checkpoint = checkpointRepository.findByJobNameForUpdate(JOB_NAME)
+                .orElseThrow(() -> new IllegalStateException("任务检查点不存在: " + JOB_NAME));
+        LocalDate afterDate = checkpoint.getLastProcessedAt().toLocalDate();
+
+        Map<Long, List<DueAssessmentRecord>> byFamily = new LinkedHashMap<>();
+        DueAssessmentRecord last = null;
+        int count = 0;
+        try (Stream<DueAssessmentRecord> stream = assessmentRepository.streamDueAfter(
+                dueDate, afterDate, checkpoint.getLastProcessedId(), PageRequest.of(0, chunkSize))) {
+            for (DueAssessmentRecord record : (Iterable<DueAssessmentRecord>) stream::iterator) {
+                byFamily.computeIfAbsent(record.getFamilyId(), key -> new ArrayList<>()).add(record);
+                last = record;
+                count++;
+            }
+        }
+        if (last == null) {
+            return 0;
+        }
+
+        byFamily.forEach((familyId, dueAssessments) ->
+                reminderNotifier.notify(new AssessmentReminder(familyId, dueAssessments)));
+
+        checkpoint.setLastProcessedAt(last.getNextAssessmentDate().atStartOfDay());
+        checkpoint.setLastProcessedId(last.getAssessmentId());
+        checkpoint.setProcessedCount(checkpoint.getProcessedCount() + count);
+        checkpointRepository.save(checkpoint);
+
+        log.debug("发育评估提醒批次: assessments={}, families={}", count, byFamily.size());
+        return count;
+    }
+
+    private void ensureCheckpoint() {
+        if (checkpointRepository.findByJobName(JOB_NAME).isPresent()) {
+            return;
+        }
+        JobCheckpoint checkpoint = new JobCheckpoint();
+        checkpoint.setJobName(JOB_NAME);
+        checkpoint.setLastProcessedAt(INITIAL_CURSOR.atStartOfDay());
+        checkpoint.setLastProcessedId(0L);
+        checkpointRepository.save(checkpoint);
+    }
+}
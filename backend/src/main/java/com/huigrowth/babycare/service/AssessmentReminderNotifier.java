@@ -0,0 +1,17 @@
+package com.huigrowth.babycare.service;
+
+import com.huigrowth.babycare.dto.AssessmentReminder;
+
+/**
+ * 评估提醒发送器
+ * 默认实现只记录日志，接入推送/短信等渠道时提供该接口的Bean即可替换
+ *
+ * @author HuiGrowth Team
+ */
+public interface AssessmentReminderNotifier {
+
+    /**
+     * 发送一个家庭的评估提醒；抛出异常时本批次回滚，下次任务重新发送
+     */
+    void notify(AssessmentReminder reminder);
+}
@@ -29,6 +29,7 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtUtils jwtUtils;
+    private final MediaReferenceService mediaReferenceService;
 
     /**
      * 用户注册
@@ -166,6 +167,7 @@ public class AuthService {
         }
 
         if (request.getAvatar() != null) {
+            mediaReferenceService.updateUserReferences(user.getId(), user.getAvatar(), request.getAvatar());
             user.setAvatar(request.getAvatar());
         }
 
@@ -202,6 +204,7 @@ public class AuthService {
     /**
      * 获取当前用户信息
      */
+    @Transactional(readOnly = true)
     public UserResponse getCurrentUser(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new BusinessException("用户不存在"));
@@ -0,0 +1,123 @@
+package com.huigrowth.babycare.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * 宝宝年龄缓存
+ * 年龄只随日期变化，每天零点生成一次当日快照（各日龄的年龄描述），宝宝响应、里程碑和发育评估按此计算日龄、月龄。
+ * 按月龄查询宝宝见 BabyRepository#findByAgeInMonthsBetween（生日区间条件，走 idx_baby_birthday 索引）
+ * 月龄沿用原有口径：日龄 / 30
+ *
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@Component
+public class BabyAgeCache {
+
+    public static final int DAYS_PER_MONTH = 30;
+    public static final int MAX_CACHED_MONTHS = 216; // 18岁
+    private static final int MAX_CACHED_DAYS = (MAX_CACHED_MONTHS + 1) * DAYS_PER_MONTH;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * 每天零点滚动快照
+     */
+    @Scheduled(cron = "0 0 0 * * *")
+    public void roll() {
+        snapshot = buildSnapshot(LocalDate.now());
+        log.info("宝宝年龄缓存已滚动: date={}", snapshot.today);
+    }
+
+    /**
+     * 今日日龄
+     */
+    public int ageInDays(LocalDate birthday) {
+        return (int) (current().today.toEpochDay() - birthday.toEpochDay());
+    }
+
+    /**
+     * 指定日期时的日龄
+     */
+    public int ageInDays(LocalDate birthday, LocalDate onDate) {
+        return (int) (onDate.toEpochDay() - birthday.toEpochDay());
+    }
+
+    /**
+     * 今日月龄
+     */
+    public int ageInMonths(LocalDate birthday) {
+        return Math.max(ageInDays(birthday), 0) / DAYS_PER_MONTH;
+    }
+
+    /**
+     * 年龄描述（如“3个月5天”、“1岁2个月”）
+     */
+    public String ageDescription(LocalDate birthday) {
+        return describe(ageInDays(birthday));
+    }
+
+    /**
+     * 指定日龄的年龄描述
+     */
+    public String describe(int ageInDays) {
+        String[] descriptions = current().descriptions;
+        if (ageInDays >= 0 && ageInDays < descriptions.length) {
+            return descriptions[ageInDays];
+        }
+        return formatAge(ageInDays);
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        LocalDate today = LocalDate.now();
+        // 定时任务延迟或未触发时，首次访问即按新日期重建
+        if (current == null || !current.today.equals(today)) {
+            current = buildSnapshot(today);
+            snapshot = current;
+        }
+        return current;
+    }
+
+    private Snapshot buildSnapshot(LocalDate today) {
+        String[] descriptions = new String[MAX_CACHED_DAYS];
+        for (int days = 0; days < MAX_CACHED_DAYS; days++) {
+            descriptions[days] = formatAge(days);
+        }
+        return new Snapshot(today, descriptions);
+    }
+
+    /**
+     * 格式化年龄描述
+     */
+    private static String formatAge(long ageInDays) {
+        if (ageInDays < 30) {
+            return ageInDays + "天";
+        } else if (ageInDays < 365) {
+            long months = ageInDays / 30;
+            long days = ageInDays % 30;
+            return months + "个月" + (days > 0 ? days + "天" : "");
+        } else {
+            long years = ageInDays / 365;
+            long months = (ageInDays % 365) / 30;
+            return years + "岁" + (months > 0 ? months + "个月" : "");
+        }
+    }
+
+    /**
+     * 当日快照（不可变）
+     */
+    private static final class Snapshot {
+        private final LocalDate today;
+        private final String[] descriptions;
+
+        private Snapshot(LocalDate today, String[] descriptions) {
+            this.today = today;
+            this.descriptions = descriptions;
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.huigrowth.babycare.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.huigrowth.babycare.dto.BabySummaryResponse;
+import com.huigrowth.babycare.entity.Baby;
+import com.huigrowth.babycare.entity.BabySummary;
+import com.huigrowth.babycare.entity.EducationPlan;
+import com.huigrowth.babycare.entity.FamilyTask;
+import com.huigrowth.babycare.entity.GrowthRecord;
+import com.huigrowth.babycare.entity.User;
+import com.huigrowth.babycare.event.BabyCreatedEvent;
+import com.huigrowth.babycare.event.EducationPlansChangedEvent;
+import com.huigrowth.babycare.event.FamilyTasksChangedEvent;
+import com.huigrowth.babycare.event.GrowthRecordCreatedEvent;
+import com.huigrowth.babycare.event.GrowthRecordDeletedEvent;
+import com.huigrowth.babycare.event.GrowthRecordUpdatedEvent;
+import com.huigrowth.babycare.event.GrowthRecordsImportedEvent;
+import com.huigrowth.babycare.event.MilestonesChangedEvent;
+import com.huigrowth.babycare.exception.BusinessException;
+import com.huigrowth.babycare.repository.BabyRepository;
+import com.huigrowth.babycare.repository.BabySummaryRepository;
+import com.huigrowth.babycare.repository.EducationPlanRepository;
+import com.huigrowth.babycare.repository.FamilyMemberRepository;
+import com.huigrowth.babycare.repository.FamilyTaskRepository;
+import com.huigrowth.babycare.repository.GrowthRecordRepository;
+import com.huigrowth.babycare.repository.MilestoneRepository;
+import com.huigrowth.babycare.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 宝宝概览服务
+ * 成长记录、里程碑、教育计划和家庭任务的服务在各自事务内发布领域事件，本服务同步监听并以原子UPDATE
+ * 增量维护 baby_summaries 汇总行；概览接口只读取一行，代替分别调用各模块的列表接口。
+ * 汇总行在宝宝创建时建立，历史宝宝在首次读取时从明细表重建
+ *
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BabySummaryService {
+
+    /**
+     * 计入未完成任务数的任务状态
+     */
+    public static final Set<FamilyTask.TaskStatus> OPEN_TASK_STATUSES = Collections.unmodifiableSet(EnumSet.of(
+            FamilyTask.TaskStatus.PENDING, FamilyTask.TaskStatus.IN_PROGRESS, FamilyTask.TaskStatus.OVERDUE));
+
+    private final BabySummaryRepository babySummaryRepository;
+    private final BabyRepository babyRepository;
+    private final GrowthRecordRepository growthRecordRepository;
+    private final MilestoneRepository milestoneRepository;
+    private final EducationPlanRepository educationPlanRepository;
+    private final FamilyTaskRepository familyTaskRepository;
+    private final FamilyMemberRepository familyMemberRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.baby-summary.recent-milestones:5}")
+    private int recentMilestoneLimit;
+
+    /**
+     * 获取宝宝概览
+     * 不开启外层事务：汇总行缺失时在独立事务中重建，并发重建触发唯一约束冲突时重新读取对方写入的行。
+     * 先校验家庭成员身份再重建，非成员不能触发重建
+     */
+    public BabySummaryResponse getSummary(String username, Long babyId) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new BusinessException("用户不存在"));
+
+        BabySummary summary = babySummaryRepository.findByBabyId(babyId).orElse(null);
+        Long familyId = summary != null ? summary.getFamilyId()
+                : babyRepository.findFamilyIdById(babyId).orElseThrow(() -> new BusinessException("宝宝不存在"));
+
+        if (!familyMemberRepository.existsByUserAndBaby(user, familyId)) {
+            throw new BusinessException("您没有权限查看该宝宝的概览");
+        }
+        if (summary == null) {
+            summary = rebuild(babyId);
+        }
+        return convertToResponse(summary);
+    }
+
+    @EventListener
+    public void onBabyCreated(BabyCreatedEvent event) {
+        BabySummary summary = new BabySummary();
+        summary.setBabyId(event.getBabyId());
+        summary.setFamilyId(event.getFamilyId());
+        summary.setActivePlans(toJson(Collections.emptyList()));
+        summary.setRecentMilestones(toJson(Collections.emptyList()));
+        summary.setPendingTaskCount(familyTaskRepository.countByFamilyIdAndStatusIn(event.getFamilyId(), OPEN_TASK_STATUSES));
+        babySummaryRepository.save(summary);
+    }
+
+    @EventListener
+    public void onGrowthRecordCreated(GrowthRecordCreatedEvent event) {
+        addRecordCount(event.getBabyId(), event.getType(), 1);
+        babySummaryRepository.offerLatestRecord(event.getBabyId(), event.getRecordId(),
+                event.getTitle(), event.getType(), event.getCreatedAt());
+    }
+
+    @EventListener
+    public void onGrowthRecordsImported(GrowthRecordsImportedEvent event) {
+        addRecordCounts(event.getBabyId(), event.getTypeCounts());
+        babySummaryRepository.offerLatestRecord(event.getBabyId(), event.getLatestRecordId(),
+                event.getLatestTitle(), event.getLatestType(), event.getLatestCreatedAt());
+    }
+
+    @EventListener
+    public void onGrowthRecordUpdated(GrowthRecordUpdatedEvent event) {
+        if (event.getOldType() != event.getNewType()) {
+            long[] deltas = new long[GrowthRecord.RecordType.values().length];
+            deltas[event.getOldType().ordinal()]--;
+            deltas[event.getNewType().ordinal()]++;
+            addRecordCounts(event.getBabyId(), deltas);
+        }
+        babySummaryRepository.refreshLatestRecord(event.getBabyId(), event.getRecordId(),
+                event.getTitle(), event.getNewType());
+    }
+
+    @EventListener
+    public void onGrowthRecordDeleted(GrowthRecordDeletedEvent event) {
+        addRecordCount(event.getBabyId(), event.getType(), -1);
+        if (babySummaryRepository.existsByBabyIdAndLatestRecordId(event.getBabyId(), event.getRecordId())) {
+            GrowthRecord latest = growthRecordRepository.findFirstByBabyIdOrderByCreatedAtDescIdDesc(event.getBabyId())
+                    .orElse(null);
+            babySummaryRepository.setLatestRecord(event.getBabyId(),
+                    latest == null ? null : latest.getId(),
+                    latest == null ? null : latest.getTitle(),
+                    latest == null ? null : latest.getType(),
+                    latest == null ? null : latest.getCreatedAt());
+        }
+    }
+
+    @EventListener
+    public void onMilestonesChanged(MilestonesChangedEvent event) {
+        babySummaryRepository.setRecentMilestones(event.getBabyId(), toJson(loadRecentMilestones(event.getBabyId())));
+    }
+
+    @EventListener
+    public void onEducationPlansChanged(EducationPlansChangedEvent event) {
+        babySummaryRepository.setActivePlans(event.getBabyId(), toJson(loadActivePlans(event.getBabyId())));
+    }
+
+    @EventListener
+    public void onFamilyTasksChanged(FamilyTasksChangedEvent event) {
+        if (event.getPendingDelta() != 0) {
+            babySummaryRepository.addPendingTasks(event.getFamilyId(), event.getPendingDelta());
+        }
+    }
+
+    /**
+     * 从明细表重建汇总行
+     */
+    private BabySummary rebuild(Long babyId) {
+        try {
+            return transactionTemplate.execute(status -> {
+                Baby baby = babyRepository.findById(babyId)
+                        .orElseThrow(() -> new BusinessException("宝宝不存在"));
+
+                BabySummary summary = new BabySummary();
+                summary.setBabyId(babyId);
+                summary.setFamilyId(baby.getFamily().getId());
+                for (Object[] row : growthRecordRepository.countByTypeForBaby(babyId)) {
+                    setRecordCount(summary, (GrowthRecord.RecordType) row[0], (Long) row[1]);
+                }
+                growthRecordRepository.findFirstByBabyIdOrderByCreatedAtDescIdDesc(babyId).ifPresent(latest -> {
+                    summary.setLatestRecordId(latest.getId());
+                    summary.setLatestRecordTitle(latest.getTitle());
+                    summary.setLatestRecordType(latest.getType());
+                    summary.setLatestRecordAt(latest.getCreatedAt());
+                });
+                summary.setActivePlans(toJson(loadActivePlans(babyId)));
+                summary.setRecentMilestones(toJson(loadRecentMilestones(babyId)));
+                summary.setPendingTaskCount(
+                        familyTaskRepository.countByFamilyIdAndStatusIn(summary.getFamilyId(), OPEN_TASK_STATUSES));
+
+                log.info("重建宝宝概览: babyId={}", babyId);
+                return babySummaryRepository.save(summary);
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("宝宝概览已被并发重建: babyId={}", babyId);
+            return babySummaryRepository.findByBabyId(babyId)
+                    .orElseThrow(() -> new BusinessException("宝宝概览加载失败"));
+        }
+    }
+
+    private List<BabySummaryResponse.ActivePlan> loadActivePlans(Long babyId) {
+        return educationPlanRepository.findByBabyIdAndStatusOrderByCreatedAtDesc(babyId, EducationPlan.PlanStatus.ACTIVE)
+                .stream()
+                .map(plan -> new BabySummaryResponse.ActivePlan(plan.getId(), plan.getName(),
+                        plan.getCategory(), plan.getProgressPercentage()))
+                .collect(Collectors.toList());
+    }
+
+    private List<BabySummaryResponse.RecentMilestone> loadRecentMilestones(Long babyId) {
+        return milestoneRepository.findByBabyIdOrderByAchievedAtDescIdDesc(babyId, PageRequest.of(0, recentMilestoneLimit))
+                .stream()
+                .map(milestone -> new BabySummaryResponse.RecentMilestone(milestone.getId(), milestone.getTitle(),
+                        milestone.getCategory(), milestone.getAchievedAt()))
+                .collect(Collectors.toList());
+    }
+
+    private void addRecordCount(Long babyId, GrowthRecord.RecordType type, long delta) {
+        long[] deltas = new long[GrowthRecord.RecordType.values().length];
+        deltas[type.ordinal()] = delta;
+        addRecordCounts(babyId, deltas);
+    }
+
+    private void addRecordCounts(Long babyId, long[] deltas) {
+        babySummaryRepository.addRecordCounts(babyId,
+                deltas[GrowthRecord.RecordType.PHOTO.ordinal()],
+                deltas[GrowthRecord.RecordType.VIDEO.ordinal()],
+                deltas[GrowthRecord.RecordType.DIARY.ordinal()],
+                deltas[GrowthRecord.RecordType.MILESTONE.ordinal()],
+                deltas[GrowthRecord.RecordType.VOICE.ordinal()]);
+    }
+
+    private static void setRecordCount(BabySummary summary, GrowthRecord.RecordType type, long count) {
+        switch (type) {
+            case PHOTO -> summary.setPhotoCount(count);
+            case VIDEO -> summary.setVideoCount(count);
+            case DIARY -> summary.setDiaryCount(count);
+            case MILESTONE -> summary.setMilestoneRecordCount(count);
+            case VOICE -> summary.setVoiceCount(count);
+        }
+    }
+
+    private static long getRecordCount(BabySummary summary, GrowthRecord.RecordType type) {
+        return switch (type) {
+            case PHOTO -> summary.getPhotoCount();
+            case VIDEO -> summary.getVideoCount();
+            case DIARY -> summary.getDiaryCount();
+            case MILESTONE -> summary.getMilestoneRecordCount();
+            case VOICE -> summary.getVoiceCount();
+        };
+    }
+
+    private String toJson(List<?> items) {
+        try {
+            return objectMapper.writeValueAsString(items);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("序列化宝宝概览失败", e);
+        }
+    }
+
+    private <T> List<T> fromJson(String json, TypeReference<List<T>> type) {
+        if (json == null || json.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            log.error("解析宝宝概览失败", e);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * 转换为宝宝概览响应DTO
+     */
+    private BabySummaryResponse convertToResponse(BabySummary summary) {
+        BabySummaryResponse response = new BabySummaryResponse();
+        response.setBabyId(summary.getBabyId());
+
+        Map<GrowthRecord.RecordType, Long> counts = new EnumMap<>(GrowthRecord.RecordType.class);
+        long total = 0;
+        for (GrowthRecord.RecordType type : GrowthRecord.RecordType.values()) {
+            long count = getRecordCount(summary, type);
+            counts.put(type, count);
+            total += count;
+        }
+        response.setRecordCounts(counts);
+        response.setTotalRecords(total);
+
+        if (summary.getLatestRecordId() != null) {
+            response.setLatestRecord(new BabySummaryResponse.LatestRecord(summary.getLatestRecordId(),
+                    summary.getLatestRecordTitle(), summary.getLatestRecordType(), summary.getLatestRecordAt()));
+        }
+        response.setActivePlans(fromJson(summary.getActivePlans(),
+                new TypeReference<List<BabySummaryResponse.ActivePlan>>() {}));
+        response.setRecentMilestones(fromJson(summary.getRecentMilestones(),
+                new TypeReference<List<BabySummaryResponse.RecentMilestone>>() {}));
+        response.setPendingTaskCount(summary.getPendingTaskCount());
+        response.setUpdatedAt(summary.getUpdatedAt());
+        return response;
+    }
+}
@@ -0,0 +1,244 @@
+package com.huigrowth.babycare.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.huigrowth.babycare.dto.AssessmentQuestionnaireResponse;
+import com.huigrowth.babycare.dto.AssessmentSubmitRequest;
+import com.huigrowth.babycare.dto.DevelopmentAssessmentResponse;
+import com.huigrowth.babycare.entity.Baby;
+import com.huigrowth.babycare.entity.DevelopmentAssessment;
+import com.huigrowth.babycare.entity.User;
+import com.huigrowth.babycare.exception.BusinessException;
+import com.huigrowth.babycare.repository.BabyRepository;
+import com.huigrowth.babycare.repository.DevelopmentAssessmentRepository;
+import com.huigrowth.babycare.repository.FamilyMemberRepository;
+import com.huigrowth.babycare.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 发育评估服务
+ * 
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DevelopmentAssessmentService {
+
+    private final DevelopmentAssessmentRepository assessmentRepository;
+    private final BabyRepository babyRepository;
+    private final UserRepository userRepository;
+    private final FamilyMemberRepository familyMemberRepository;
+    private final AssessmentEngine assessmentEngine;
+    private final BabyAgeCache babyAgeCache;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 获取适合宝宝当前月龄的评估题目
+     */
+    public AssessmentQuestionnaireResponse getQuestionnaire(String username, Long babyId, String category) {
+        log.info("获取发育评估题目: username={}, babyId={}, category={}", username, babyId, category);
+
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new BusinessException("用户不存在"));
+        Baby baby = findAccessibleBaby(user, babyId);
+
+        int ageInMonths = babyAgeCache.ageInMonths(baby.getBirthday());
+        AssessmentEngine.QuestionBank bank = assessmentEngine.getBank(parseCategory(category), ageInMonths);
+
+        AssessmentQuestionnaireResponse response = new AssessmentQuestionnaireResponse();
+        response.setBabyId(baby.getId());
+        response.setCategory(bank.getCategory());
+        response.setAgeInMonths(ageInMonths);
+        response.setBankId(bank.getId());
+        response.setQuestions(bank.getQuestionList());
+        response.setOptions(List.of(assessmentEngine.getOptionLabels()));
+        return response;
+    }
+
+    /**
+     * 提交评估答案：计分、保存并安排下次评估日期
+     */
+    @Transactional
+    public DevelopmentAssessmentResponse submitAssessment(String username, AssessmentSubmitRequest request) {
+        log.info("提交发育评估: username={}, babyId={}, category={}", username, request.getBabyId(), request.getCategory());
+
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new BusinessException("用户不存在"));
+        Baby baby = findAccessibleBaby(user, request.getBabyId());
+
+        DevelopmentAssessment.AssessmentCategory category = parseCategory(request.getCategory());
+        int ageInMonths = babyAgeCache.ageInMonths(baby.getBirthday());
+        AssessmentEngine.QuestionBank bank = assessmentEngine.getBank(category, ageInMonths);
+        if (request.getBankId() != null && !request.getBankId().equals(bank.getId())) {
+            throw new BusinessException("宝宝月龄对应的题目已更新，请重新获取题目");
+        }
+
+        AssessmentEngine.ScoreResult result = assessmentEngine.score(bank, request.getAnswers());
+        LocalDate today = LocalDate.now();
+
+        DevelopmentAssessment assessment = new DevelopmentAssessment();
+        assessment.setBaby(baby);
+        assessment.setCreatedBy(user);
+        assessment.setCategory(category);
+        assessment.setTitle(request.getTitle() != null && !request.getTitle().isBlank()
+                ? request.getTitle() : category.getDescription() + "（" + ageInMonths + "个月）");
+        assessment.setAssessmentDate(today);
+        assessment.setBabyAgeMonths(ageInMonths);
+        assessment.setScore(result.getRawScore());
+        assessment.setMaxScore(result.getMaxScore());
+        assessment.setPercentile(result.getPercentile());
+        assessment.setDevelopmentLevel(result.getLevel().name());
+        assessment.setQuestions(toJson(Map.of("bankId", bank.getId(), "answers", request.getAnswers())));
+        assessment.setResults(toJson(buildResults(result)));
+        assessment.setRecommendations(buildRecommendation(category, result.getLevel()));
+        assessment.setStatus(DevelopmentAssessment.AssessmentStatus.COMPLETED);
+        assessment.setNextAssessmentDate(nextAssessmentDate(today, ageInMonths));
+
+        DevelopmentAssessment savedAssessment = assessmentRepository.save(assessment);
+        log.info("成功完成发育评估: id={}, score={}/{}, percentile={}",
+                savedAssessment.getId(), result.getRawScore(), result.getMaxScore(), result.getPercentile());
+
+        return convertToResponse(savedAssessment);
+    }
+
+    /**
+     * 获取宝宝的评估记录（分页）
+     */
+    @Transactional(readOnly = true)
+    public Page<DevelopmentAssessmentResponse> getBabyAssessments(String username, Long babyId, int page, int size) {
+        log.info("获取宝宝发育评估: username={}, babyId={}, page={}, size={}", username, babyId, page, size);
+
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new BusinessException("用户不存在"));
+        Baby baby = findAccessibleBaby(user, babyId);
+
+        Pageable pageable = PageRequest.of(page, size);
+        return assessmentRepository.findByBabyOrderByAssessmentDateDesc(baby, pageable)
+                .map(this::convertToResponse);
+    }
+
+    /**
+     * 获取评估详情
+     */
+    @Transactional(readOnly = true)
+    public DevelopmentAssessmentResponse getAssessmentDetail(String username, Long assessmentId) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new BusinessException("用户不存在"));
+
+        DevelopmentAssessment assessment = assessmentRepository.findWithBabyAndCreatorById(assessmentId)
+                .orElseThrow(() -> new BusinessException("评估记录不存在"));
+
+        if (!hasAccessToBaby(user, assessment.getBaby())) {
+            throw new BusinessException("您没有权限查看该评估");
+        }
+
+        return convertToResponse(assessment);
+    }
+
+    /**
+     * 下次评估日期：1岁以内每月一次，3岁以内每3个月一次，之后每半年一次
+     */
+    private LocalDate nextAssessmentDate(LocalDate assessmentDate, int ageInMonths) {
+        if (ageInMonths < 12) {
+            return assessmentDate.plusMonths(1);
+        } else if (ageInMonths < 36) {
+            return assessmentDate.plusMonths(3);
+        }
+        return assessmentDate.plusMonths(6);
+    }
+
+    private Map<String, Object> buildResults(AssessmentEngine.ScoreResult result) {
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("rawScore", result.getRawScore());
+        results.put("maxScore", result.getMaxScore());
+        results.put("percentile", result.getPercentile());
+        results.put("level", result.getLevel().name());
+        return results;
+    }
+
+    private String buildRecommendation(DevelopmentAssessment.AssessmentCategory category,
+                                       AssessmentEngine.DevelopmentLevel level) {
+        String area = category.getDescription();
+        switch (level) {
+            case NEEDS_ATTENTION:
+                return area + "得分明显低于同龄宝宝，建议在日常生活中增加相关练习，并咨询儿童保健医生进行专业评估。";
+            case BELOW_AVERAGE:
+                return area + "略低于同龄宝宝，每个宝宝的发育节奏不同，建议多提供相关的游戏和练习机会，下次评估时再观察。";
+            case ADVANCED:
+                return area + "表现领先于同龄宝宝，可以适当提供更有挑战性的活动，保持宝宝的兴趣。";
+            default:
+                return area + "处于同龄宝宝的正常范围，继续通过游戏和互动促进宝宝全面发展。";
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            log.error("序列化评估数据失败", e);
+            throw new BusinessException("评估数据格式错误");
+        }
+    }
+
+    private DevelopmentAssessment.AssessmentCategory parseCategory(String category) {
+        try {
+            return DevelopmentAssessment.AssessmentCategory.valueOf(category.toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new BusinessException("不支持的评估类别: " + category);
+        }
+    }
+
+    private Baby findAccessibleBaby(User user, Long babyId) {
+        Baby baby = babyRepository.findById(babyId)
+                .orElseThrow(() -> new BusinessException("宝宝不存在"));
+
+        if (!hasAccessToBaby(user, baby)) {
+            throw new BusinessException("您没有权限访问该宝宝");
+        }
+        return baby;
+    }
+
+    /**
+     * 检查用户是否有权限访问宝宝
+     */
+    private boolean hasAccessToBaby(User user, Baby baby) {
+        return familyMemberRepository.existsByUserAndBaby(user, baby.getFamily().getId());
+    }
+
+    /**
+     * 转换为响应DTO
+     */
+    private DevelopmentAssessmentResponse convertToResponse(DevelopmentAssessment assessment) {
+        DevelopmentAssessmentResponse response = new DevelopmentAssessmentResponse();
+        response.setId(assessment.getId());
+        response.setBabyId(assessment.getBaby().getId());
+        response.setTitle(assessment.getTitle());
+        response.setCategory(assessment.getCategory());
+        response.setAssessmentDate(assessment.getAssessmentDate());
+        response.setBabyAgeMonths(assessment.getBabyAgeMonths());
+        response.setScore(assessment.getScore());
+        response.setMaxScore(assessment.getMaxScore());
+        response.setPercentile(assessment.getPercentile());
+        if (assessment.getDevelopmentLevel() != null) {
+            response.setLevel(AssessmentEngine.DevelopmentLevel.valueOf(assessment.getDevelopmentLevel()).getDescription());
+        }
+        response.setStatus(assessment.getStatus());
+        response.setRecommendations(assessment.getRecommendations());
+        response.setNextAssessmentDate(assessment.getNextAssessmentDate());
+        response.setCreatedBy(assessment.getCreatedBy().getUsername());
+        response.setCreatedAt(assessment.getCreatedAt());
+        return response;
+    }
+}
@@ -2,10 +2,13 @@ package com.huigrowth.babycare.service;
 
 import com.huigrowth.babycare.dto.*;
 import com.huigrowth.babycare.entity.*;
+import com.huigrowth.babycare.event.ActivityCompletedEvent;
+import com.huigrowth.babycare.event.EducationPlansChangedEvent;
 import com.huigrowth.babycare.exception.BusinessException;
 import com.huigrowth.babycare.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -14,7 +17,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -30,7 +36,9 @@ public class EducationPlanService {
     private final EducationPlanRepository educationPlanRepository;
     private final EducationActivityRepository educationActivityRepository;
     private final BabyRepository babyRepository;
+    private final FamilyMemberRepository familyMemberRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 创建教育计划
@@ -66,6 +74,7 @@ public class EducationPlanService {
         plan.setCreatedBy(user);
 
         EducationPlan savedPlan = educationPlanRepository.save(plan);
+        eventPublisher.publishEvent(new EducationPlansChangedEvent(plan.getBaby().getId()));
         log.info("成功创建教育计划: id={}", savedPlan.getId());
 
         return convertToPlanResponse(savedPlan);
@@ -83,7 +92,7 @@ public class EducationPlanService {
                 .orElseThrow(() -> new BusinessException("用户不存在"));
 
         // 查找计划
-        EducationPlan plan = educationPlanRepository.findById(planId)
+        EducationPlan plan = educationPlanRepository.findWithBabyAndCreatorById(planId)
                 .orElseThrow(() -> new BusinessException("教育计划不存在"));
 
         // 验证权限
@@ -102,6 +111,7 @@ public class EducationPlanService {
         plan.setGoals(request.getGoals());
 
         EducationPlan savedPlan = educationPlanRepository.save(plan);
+        eventPublisher.publishEvent(new EducationPlansChangedEvent(plan.getBaby().getId()));
         log.info("成功更新教育计划: id={}", savedPlan.getId());
 
         return convertToPlanResponse(savedPlan);
@@ -132,12 +142,14 @@ public class EducationPlanService {
         
         // 删除计划
         educationPlanRepository.delete(plan);
+        eventPublisher.publishEvent(new EducationPlansChangedEvent(plan.getBaby().getId()));
         log.info("成功删除教育计划: id={}", planId);
     }
 
     /**
      * 获取宝宝的教育计划（分页）
      */
+    @Transactional(readOnly = true)
     public Page<EducationPlanResponse> getBabyPlans(String username, Long babyId, int page, int size) {
         log.info("获取宝宝教育计划: username={}, babyId={}, page={}, size={}", username, babyId, page, size);
 
@@ -157,12 +169,14 @@ public class EducationPlanService {
         Pageable pageable = PageRequest.of(page, size);
         Page<EducationPlan> plans = educationPlanRepository.findByBabyOrderByCreatedAtDesc(baby, pageable);
 
-        return plans.map(this::convertToPlanResponse);
+        Map<Long, Map<EducationActivity.ActivityStatus, Long>> activityCounts = countActivities(plans.getContent());
+        return plans.map(plan -> convertToPlanResponse(plan, activityCounts.getOrDefault(plan.getId(), Map.of())));
     }
 
     /**
      * 获取进行中的计划
      */
+    @Transactional(readOnly = true)
     public List<EducationPlanResponse> getActivePlans(String username, Long babyId) {
         log.info("获取进行中的教育计划: username={}, babyId={}", username, babyId);
 
@@ -180,8 +194,9 @@ public class EducationPlanService {
         }
 
         List<EducationPlan> plans = educationPlanRepository.findActivePlans(baby, LocalDate.now());
+        Map<Long, Map<EducationActivity.ActivityStatus, Long>> activityCounts = countActivities(plans);
         return plans.stream()
-                .map(this::convertToPlanResponse)
+                .map(plan -> convertToPlanResponse(plan, activityCounts.getOrDefault(plan.getId(), Map.of())))
                 .collect(Collectors.toList());
     }
 
@@ -197,7 +212,7 @@ public class EducationPlanService {
                 .orElseThrow(() -> new BusinessException("用户不存在"));
 
         // 查找计划
-        EducationPlan plan = educationPlanRepository.findById(planId)
+        EducationPlan plan = educationPlanRepository.findWithBabyAndCreatorById(planId)
                 .orElseThrow(() -> new BusinessException("教育计划不存在"));
 
         // 验证权限
@@ -208,6 +223,7 @@ public class EducationPlanService {
         // 更新状态
         plan.setStatus(EducationPlan.PlanStatus.ACTIVE);
         EducationPlan savedPlan = educationPlanRepository.save(plan);
+        eventPublisher.publishEvent(new EducationPlansChangedEvent(plan.getBaby().getId()));
 
         return convertToPlanResponse(savedPlan);
     }
@@ -224,7 +240,7 @@ public class EducationPlanService {
                 .orElseThrow(() -> new BusinessException("用户不存在"));
 
         // 查找计划
-        EducationPlan plan = educationPlanRepository.findById(planId)
+        EducationPlan plan = educationPlanRepository.findWithBabyAndCreatorById(planId)
                 .orElseThrow(() -> new BusinessException("教育计划不存在"));
 
         // 验证权限
@@ -236,6 +252,7 @@ public class EducationPlanService {
         plan.setStatus(EducationPlan.PlanStatus.COMPLETED);
         plan.setProgressPercentage(100);
         EducationPlan savedPlan = educationPlanRepository.save(plan);
+        eventPublisher.publishEvent(new EducationPlansChangedEvent(plan.getBaby().getId()));
 
         return convertToPlanResponse(savedPlan);
     }
@@ -280,6 +297,7 @@ public class EducationPlanService {
     /**
      * 获取计划的活动
      */
+    @Transactional(readOnly = true)
     public Page<EducationActivityResponse> getPlanActivities(String username, Long planId, int page, int size) {
         log.info("获取计划活动: username={}, planId={}, page={}, size={}", username, planId, page, size);
 
@@ -314,7 +332,7 @@ public class EducationPlanService {
                 .orElseThrow(() -> new BusinessException("用户不存在"));
 
         // 查找活动
-        EducationActivity activity = educationActivityRepository.findById(activityId)
+        EducationActivity activity = educationActivityRepository.findWithPlanById(activityId)
                 .orElseThrow(() -> new BusinessException("教育活动不存在"));
 
         // 验证权限
@@ -337,6 +355,8 @@ public class EducationPlanService {
 
         // 更新计划进度
         updatePlanProgress(activity.getEducationPlan());
+        eventPublisher.publishEvent(new ActivityCompletedEvent(activity.getId(), activity.getEducationPlan().getId(),
+                activity.getEducationPlan().getBaby().getId(), rating));
 
         return convertToActivityResponse(savedActivity);
     }
@@ -345,8 +365,7 @@ public class EducationPlanService {
      * 检查用户是否有权限访问宝宝
      */
     private boolean hasAccessToBaby(User user, Baby baby) {
-        return baby.getFamily().getMembers().stream()
-                .anyMatch(member -> member.getUser().getId().equals(user.getId()) && member.getActive());
+        return familyMemberRepository.existsByUserAndBaby(user, baby.getFamily().getId());
     }
 
     /**
@@ -360,6 +379,7 @@ public class EducationPlanService {
             int progress = (int) ((completedActivities * 100) / totalActivities);
             plan.setProgressPercentage(progress);
             educationPlanRepository.save(plan);
+            eventPublisher.publishEvent(new EducationPlansChangedEvent(plan.getBaby().getId()));
         }
     }
 
@@ -367,6 +387,29 @@ public class EducationPlanService {
      * 转换为计划响应DTO
      */
     private EducationPlanResponse convertToPlanResponse(EducationPlan plan) {
+        return convertToPlanResponse(plan, countActivities(List.of(plan)).getOrDefault(plan.getId(), Map.of()));
+    }
+
+    /**
+     * 按状态批量统计计划的活动数量，整页只查询一次活动表
+     */
+    private Map<Long, Map<EducationActivity.ActivityStatus, Long>> countActivities(Collection<EducationPlan> plans) {
+        Map<Long, Map<EducationActivity.ActivityStatus, Long>> counts = new HashMap<>();
+        if (plans.isEmpty()) {
+            return counts;
+        }
+        for (Object[] row : educationActivityRepository.countByStatusForPlans(plans)) {
+            counts.computeIfAbsent((Long) row[0], planId -> new HashMap<>())
+                    .put((EducationActivity.ActivityStatus) row[1], (Long) row[2]);
+        }
+        return counts;
+    }
+
+    /**
+     * 使用已统计的活动数量转换为计划响应DTO
+     */
+    private EducationPlanResponse convertToPlanResponse(EducationPlan plan,
+                                                        Map<EducationActivity.ActivityStatus, Long> activityCounts) {
         EducationPlanResponse response = new EducationPlanResponse();
         response.setId(plan.getId());
         response.setBabyId(plan.getBaby().getId());
@@ -386,10 +429,10 @@ public class EducationPlanService {
         response.setCreatedAt(plan.getCreatedAt());
         response.setUpdatedAt(plan.getUpdatedAt());
 
-        // 统计活动数量
-        long totalActivities = educationActivityRepository.countByEducationPlan(plan);
-        long completedActivities = educationActivityRepository.countByEducationPlanAndStatus(plan, EducationActivity.ActivityStatus.COMPLETED);
-        long pendingActivities = educationActivityRepository.countByEducationPlanAndStatus(plan, EducationActivity.ActivityStatus.PENDING);
+        // 活动数量
+        long totalActivities = activityCounts.values().stream().mapToLong(Long::longValue).sum();
+        long completedActivities = activityCounts.getOrDefault(EducationActivity.ActivityStatus.COMPLETED, 0L);
+        long pendingActivities = activityCounts.getOrDefault(EducationActivity.ActivityStatus.PENDING, 0L);
         
         response.setTotalActivities((int) totalActivities);
         response.setCompletedActivities((int) completedActivities);
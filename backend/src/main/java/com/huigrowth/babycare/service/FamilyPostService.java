@@ -6,14 +6,18 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.huigrowth.babycare.dto.FamilyPostCreateRequest;
 import com.huigrowth.babycare.dto.FamilyPostResponse;
 import com.huigrowth.babycare.entity.Family;
+import com.huigrowth.babycare.entity.FamilyMember;
 import com.huigrowth.babycare.entity.FamilyPost;
 import com.huigrowth.babycare.entity.User;
+import com.huigrowth.babycare.event.PostLikedEvent;
 import com.huigrowth.babycare.exception.BusinessException;
+import com.huigrowth.babycare.repository.FamilyMemberRepository;
 import com.huigrowth.babycare.repository.FamilyPostRepository;
 import com.huigrowth.babycare.repository.FamilyRepository;
 import com.huigrowth.babycare.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -21,7 +25,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -36,7 +42,11 @@ public class FamilyPostService {
 
     private final FamilyPostRepository familyPostRepository;
     private final FamilyRepository familyRepository;
+    private final FamilyMemberRepository familyMemberRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MediaReferenceService mediaReferenceService;
+    private final ThumbnailService thumbnailService;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     /**
@@ -73,9 +83,10 @@ public class FamilyPostService {
         post.setViewCount(0);
 
         FamilyPost savedPost = familyPostRepository.save(post);
+        mediaReferenceService.updateReferences(family.getId(), List.of(), getMediaUrls(savedPost));
         log.info("成功创建家庭动态: id={}", savedPost.getId());
 
-        return convertToPostResponse(savedPost);
+        return attachMediaVariants(convertToPostResponse(savedPost));
     }
 
     /**
@@ -90,7 +101,7 @@ public class FamilyPostService {
                 .orElseThrow(() -> new BusinessException("用户不存在"));
 
         // 查找动态
-        FamilyPost post = familyPostRepository.findById(postId)
+        FamilyPost post = familyPostRepository.findWithFamilyAndAuthorById(postId)
                 .orElseThrow(() -> new BusinessException("动态不存在"));
 
         // 验证权限（只有作者可以更新）
@@ -99,19 +110,22 @@ public class FamilyPostService {
         }
 
         // 更新家庭动态
+        List<String> oldMediaUrls = getMediaUrls(post);
         post.setContent(request.getContent());
         post.setImages(objectMapper.writeValueAsString(request.getImages()));
         post.setVideos(objectMapper.writeValueAsString(request.getVideos()));
 
         FamilyPost savedPost = familyPostRepository.save(post);
+        mediaReferenceService.updateReferences(post.getFamily().getId(), oldMediaUrls, getMediaUrls(savedPost));
         log.info("成功更新家庭动态: id={}", savedPost.getId());
 
-        return convertToPostResponse(savedPost);
+        return attachMediaVariants(convertToPostResponse(savedPost));
     }
 
     /**
      * 获取家庭的动态
      */
+    @Transactional(readOnly = true)
     public Page<FamilyPostResponse> getFamilyPosts(String username, Long familyId, int page, int size) {
         log.info("获取家庭动态: username={}, familyId={}, page={}, size={}", username, familyId, page, size);
 
@@ -131,7 +145,9 @@ public class FamilyPostService {
         Pageable pageable = PageRequest.of(page, size);
         Page<FamilyPost> posts = familyPostRepository.findByFamilyOrderByCreatedAtDesc(family, pageable);
 
-        return posts.map(this::convertToPostResponse);
+        Page<FamilyPostResponse> responses = posts.map(this::convertToPostResponse);
+        attachMediaVariants(responses.getContent());
+        return responses;
     }
 
     /**
@@ -146,7 +162,7 @@ public class FamilyPostService {
                 .orElseThrow(() -> new BusinessException("用户不存在"));
 
         // 查找动态
-        FamilyPost post = familyPostRepository.findById(postId)
+        FamilyPost post = familyPostRepository.findWithFamilyAndAuthorById(postId)
                 .orElseThrow(() -> new BusinessException("动态不存在"));
 
         // 验证权限
@@ -164,13 +180,15 @@ public class FamilyPostService {
         } else {
             likedUserIds.add(user.getId());
             post.setLikeCount(post.getLikeCount() + 1);
+            eventPublisher.publishEvent(new PostLikedEvent(post.getId(), post.getFamily().getId(),
+                    post.getAuthor().getId(), user.getId()));
         }
         
         // 更新点赞列表
         post.setLikes(objectMapper.writeValueAsString(likedUserIds));
         FamilyPost savedPost = familyPostRepository.save(post);
 
-        return convertToPostResponse(savedPost);
+        return attachMediaVariants(convertToPostResponse(savedPost));
     }
 
     /**
@@ -185,7 +203,7 @@ public class FamilyPostService {
                 .orElseThrow(() -> new BusinessException("用户不存在"));
 
         // 查找动态
-        FamilyPost post = familyPostRepository.findById(postId)
+        FamilyPost post = familyPostRepository.findWithFamilyAndAuthorById(postId)
                 .orElseThrow(() -> new BusinessException("动态不存在"));
 
         // 验证权限
@@ -202,10 +220,10 @@ public class FamilyPostService {
             post.setLikeCount(Math.max(0, post.getLikeCount() - 1));
             post.setLikes(objectMapper.writeValueAsString(likedUserIds));
             FamilyPost savedPost = familyPostRepository.save(post);
-            return convertToPostResponse(savedPost);
+            return attachMediaVariants(convertToPostResponse(savedPost));
         }
 
-        return convertToPostResponse(post);
+        return attachMediaVariants(convertToPostResponse(post));
     }
 
     /**
@@ -220,7 +238,7 @@ public class FamilyPostService {
                 .orElseThrow(() -> new BusinessException("用户不存在"));
 
         // 查找动态
-        FamilyPost post = familyPostRepository.findById(postId)
+        FamilyPost post = familyPostRepository.findWithFamilyAndAuthorById(postId)
                 .orElseThrow(() -> new BusinessException("动态不存在"));
 
         // 验证权限（只有作者或家庭创建者可以删除）
@@ -230,24 +248,47 @@ public class FamilyPostService {
         }
 
         familyPostRepository.delete(post);
+        mediaReferenceService.updateReferences(post.getFamily().getId(), getMediaUrls(post), List.of());
         log.info("成功删除动态: id={}", postId);
     }
 
+    /**
+     * 动态引用的全部图片和视频地址
+     */
+    private List<String> getMediaUrls(FamilyPost post) {
+        List<String> urls = new ArrayList<>();
+        try {
+            if (post.getImages() != null) {
+                List<String> images = objectMapper.readValue(post.getImages(), new TypeReference<List<String>>() {});
+                if (images != null) {
+                    urls.addAll(images);
+                }
+            }
+            if (post.getVideos() != null) {
+                List<String> videos = objectMapper.readValue(post.getVideos(), new TypeReference<List<String>>() {});
+                if (videos != null) {
+                    urls.addAll(videos);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            log.error("解析媒体文件列表失败", e);
+        }
+        return urls;
+    }
+
     /**
      * 检查用户是否有权限访问家庭
      */
     private boolean hasAccessToFamily(User user, Family family) {
-        return family.getMembers().stream()
-                .anyMatch(member -> member.getUser().getId().equals(user.getId()) && member.getActive());
+        return familyMemberRepository.existsByUserAndBaby(user, family.getId());
     }
 
     /**
      * 检查用户是否为家庭创建者
      */
     private boolean isFamilyCreator(User user, Family family) {
-        return family.getMembers().stream()
-                .anyMatch(member -> member.getUser().getId().equals(user.getId()) && 
-                                   member.getRole() == com.huigrowth.babycare.entity.FamilyMember.FamilyRole.CREATOR);
+        return familyMemberRepository.existsByUserAndFamilyIdAndRole(user, family.getId(),
+                FamilyMember.FamilyRole.CREATOR);
     }
 
     /**
@@ -266,6 +307,33 @@ public class FamilyPostService {
         }
     }
 
+    /**
+     * 批量填充图片缩略图地址，整页只查询一次媒体文件表
+     */
+    private void attachMediaVariants(List<FamilyPostResponse> responses) {
+        List<String> urls = responses.stream()
+                .filter(response -> response.getImages() != null)
+                .flatMap(response -> response.getImages().stream())
+                .toList();
+        Map<String, Map<Integer, String>> variants = thumbnailService.resolveVariants(urls);
+        for (FamilyPostResponse response : responses) {
+            Map<String, Map<Integer, String>> postVariants = new LinkedHashMap<>();
+            if (response.getImages() != null) {
+                for (String url : response.getImages()) {
+                    if (variants.containsKey(url)) {
+                        postVariants.put(url, variants.get(url));
+                    }
+                }
+            }
+            response.setMediaVariants(postVariants);
+        }
+    }
+
+    private FamilyPostResponse attachMediaVariants(FamilyPostResponse response) {
+        attachMediaVariants(List.of(response));
+        return response;
+    }
+
     /**
      * 转换为动态响应DTO
      */
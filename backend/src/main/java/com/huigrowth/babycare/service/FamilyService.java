@@ -2,17 +2,22 @@ package com.huigrowth.babycare.service;
 
 import com.huigrowth.babycare.dto.*;
 import com.huigrowth.babycare.entity.*;
+import com.huigrowth.babycare.event.BabyCreatedEvent;
+import com.huigrowth.babycare.event.MemberJoinedEvent;
 import com.huigrowth.babycare.exception.BusinessException;
 import com.huigrowth.babycare.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -25,16 +30,45 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class FamilyService {
 
+    /**
+     * 邀请码与历史数据冲突时的最大尝试次数
+     */
+    private static final int INVITE_CODE_ATTEMPTS = 5;
+
     private final FamilyRepository familyRepository;
     private final FamilyMemberRepository familyMemberRepository;
     private final UserRepository userRepository;
     private final BabyRepository babyRepository;
+    private final InviteCodeAllocator inviteCodeAllocator;
+    private final BabyAgeCache babyAgeCache;
+    private final MediaReferenceService mediaReferenceService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * 创建家庭
+     * 不开启外层事务：邀请码分配器领取计数块时使用独立事务，在这里先分配好邀请码再开启写事务，
+     * 同一请求不会同时占用两个连接。分配器生成的邀请码互不重复，但可能与历史随机生成的邀请码冲突，
+     * 冲突时换下一个邀请码重试
      */
-    @Transactional
     public FamilyResponse createFamily(String username, FamilyCreateRequest request) {
+        for (int attempt = 1; ; attempt++) {
+            String inviteCode = inviteCodeAllocator.nextCode();
+            try {
+                return transactionTemplate.execute(status -> insertFamily(username, request, inviteCode));
+            } catch (DataIntegrityViolationException e) {
+                if (!familyRepository.existsByInviteCode(inviteCode)) {
+                    throw e;
+                }
+                log.warn("邀请码与已有家庭冲突，重新分配: inviteCode={}, attempt={}", inviteCode, attempt);
+                if (attempt >= INVITE_CODE_ATTEMPTS) {
+                    throw new BusinessException("邀请码生成失败，请稍后重试");
+                }
+            }
+        }
+    }
+
+    private FamilyResponse insertFamily(String username, FamilyCreateRequest request, String inviteCode) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new BusinessException("用户不存在"));
 
@@ -48,8 +82,8 @@ public class FamilyService {
         Family family = new Family();
         family.setName(request.getName());
         family.setDescription(request.getDescription());
-        family.setInviteCode(generateInviteCode());
-        Family savedFamily = familyRepository.save(family);
+        family.setInviteCode(inviteCode);
+        Family savedFamily = familyRepository.saveAndFlush(family);
 
         // 添加创建者为家庭成员
         FamilyMember creator = new FamilyMember();
@@ -94,6 +128,7 @@ public class FamilyService {
         member.setRole(FamilyMember.FamilyRole.PARENT);
         member.setNickname(user.getNickname());
         familyMemberRepository.save(member);
+        eventPublisher.publishEvent(new MemberJoinedEvent(family.getId(), user.getId()));
 
         log.info("用户 {} 加入了家庭: {}", username, family.getName());
 
@@ -103,20 +138,36 @@ public class FamilyService {
     /**
      * 获取用户的家庭列表
      */
+    @Transactional(readOnly = true)
     public List<FamilyResponse> getUserFamilies(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new BusinessException("用户不存在"));
 
-        List<FamilyMember> memberships = familyMemberRepository.findByUser(user);
-        
-        return memberships.stream()
-                .map(member -> convertToFamilyResponse(member.getFamily()))
+        // 批量加载：成员关系+家庭、所有家庭的成员+用户、所有家庭的宝宝，共三条查询
+        List<FamilyMember> memberships = familyMemberRepository.findByUserWithFamily(user);
+        if (memberships.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Family> families = memberships.stream()
+                .map(FamilyMember::getFamily)
+                .collect(Collectors.toList());
+
+        Map<Long, List<FamilyMember>> membersByFamily = familyMemberRepository.findByFamilyInWithUser(families).stream()
+                .collect(Collectors.groupingBy(member -> member.getFamily().getId()));
+        Map<Long, List<Baby>> babiesByFamily = babyRepository.findByFamilyIn(families).stream()
+                .collect(Collectors.groupingBy(baby -> baby.getFamily().getId()));
+
+        return families.stream()
+                .map(family -> convertToFamilyResponse(family,
+                        membersByFamily.getOrDefault(family.getId(), List.of()),
+                        babiesByFamily.getOrDefault(family.getId(), List.of())))
                 .collect(Collectors.toList());
     }
 
     /**
      * 获取家庭详情
      */
+    @Transactional(readOnly = true)
     public FamilyResponse getFamilyDetail(String username, Long familyId) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new BusinessException("用户不存在"));
@@ -164,6 +215,8 @@ public class FamilyService {
         baby.setAvatar(request.getAvatar());
         baby.setFamily(family);
         Baby savedBaby = babyRepository.save(baby);
+        mediaReferenceService.updateReferences(family.getId(), List.of(), Collections.singletonList(savedBaby.getAvatar()));
+        eventPublisher.publishEvent(new BabyCreatedEvent(savedBaby.getId(), family.getId()));
 
         log.info("用户 {} 在家庭 {} 中添加了宝宝: {}", username, family.getName(), savedBaby.getName());
 
@@ -173,6 +226,7 @@ public class FamilyService {
     /**
      * 获取家庭宝宝列表
      */
+    @Transactional(readOnly = true)
     public List<BabyResponse> getFamilyBabies(String username, Long familyId) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new BusinessException("用户不存在"));
@@ -193,32 +247,17 @@ public class FamilyService {
     }
 
     /**
-     * 生成邀请码
+     * 转换为家庭响应DTO
      */
-    private String generateInviteCode() {
-        String characters = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789"; // 排除容易混淆的字符
-        Random random = new Random();
-        StringBuilder code = new StringBuilder();
-        
-        for (int i = 0; i < 6; i++) {
-            code.append(characters.charAt(random.nextInt(characters.length())));
-        }
-        
-        // 确保邀请码唯一
-        while (familyRepository.existsByInviteCode(code.toString())) {
-            code = new StringBuilder();
-            for (int i = 0; i < 6; i++) {
-                code.append(characters.charAt(random.nextInt(characters.length())));
-            }
-        }
-        
-        return code.toString();
+    private FamilyResponse convertToFamilyResponse(Family family) {
+        return convertToFamilyResponse(family, familyMemberRepository.findByFamilyInWithUser(List.of(family)),
+                babyRepository.findByFamily(family));
     }
 
     /**
-     * 转换为家庭响应DTO
+     * 使用已加载的成员和宝宝转换为家庭响应DTO
      */
-    private FamilyResponse convertToFamilyResponse(Family family) {
+    private FamilyResponse convertToFamilyResponse(Family family, List<FamilyMember> members, List<Baby> babies) {
         FamilyResponse response = new FamilyResponse();
         response.setId(family.getId());
         response.setName(family.getName());
@@ -227,16 +266,14 @@ public class FamilyService {
         response.setCreatedAt(family.getCreatedAt());
         response.setUpdatedAt(family.getUpdatedAt());
 
-        // 获取家庭成员
-        List<FamilyMember> members = familyMemberRepository.findByFamily(family);
+        // 家庭成员
         List<FamilyMemberResponse> memberResponses = members.stream()
                 .map(this::convertToFamilyMemberResponse)
                 .collect(Collectors.toList());
         response.setMembers(memberResponses);
         response.setMemberCount(memberResponses.size());
 
-        // 获取家庭宝宝
-        List<Baby> babies = babyRepository.findByFamily(family);
+        // 家庭宝宝
         List<BabyResponse> babyResponses = babies.stream()
                 .map(this::convertToBabyResponse)
                 .collect(Collectors.toList());
@@ -274,28 +311,11 @@ public class FamilyService {
         response.setFamilyId(baby.getFamily().getId());
         response.setCreatedAt(baby.getCreatedAt());
 
-        // 计算年龄
-        long ageInDays = ChronoUnit.DAYS.between(baby.getBirthday(), LocalDate.now());
-        response.setAgeInDays((int) ageInDays);
-        response.setAgeDescription(formatAge(ageInDays));
+        // 年龄（按日缓存）
+        int ageInDays = babyAgeCache.ageInDays(baby.getBirthday());
+        response.setAgeInDays(ageInDays);
+        response.setAgeDescription(babyAgeCache.describe(ageInDays));
 
         return response;
     }
-
-    /**
-     * 格式化年龄描述
-     */
-    private String formatAge(long ageInDays) {
-        if (ageInDays < 30) {
-            return ageInDays + "天";
-        } else if (ageInDays < 365) {
-            long months = ageInDays / 30;
-            long days = ageInDays % 30;
-            return months + "个月" + (days > 0 ? days + "天" : "");
-        } else {
-            long years = ageInDays / 365;
-            long months = (ageInDays % 365) / 30;
-            return years + "岁" + (months > 0 ? months + "个月" : "");
-        }
-    }
-}
\ No newline at end of file
+}
@@ -3,17 +3,25 @@ package com.huigrowth.babycare.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.huigrowth.babycare.dto.FamilyTaskBulkRequest;
+import com.huigrowth.babycare.dto.FamilyTaskBulkResponse;
 import com.huigrowth.babycare.dto.FamilyTaskCreateRequest;
 import com.huigrowth.babycare.dto.FamilyTaskResponse;
 import com.huigrowth.babycare.entity.Family;
+import com.huigrowth.babycare.entity.FamilyMember;
 import com.huigrowth.babycare.entity.FamilyTask;
 import com.huigrowth.babycare.entity.User;
+import com.huigrowth.babycare.event.FamilyTasksChangedEvent;
+import com.huigrowth.babycare.event.ReliableEventBatch;
+import com.huigrowth.babycare.event.TaskCompletedEvent;
 import com.huigrowth.babycare.exception.BusinessException;
+import com.huigrowth.babycare.repository.FamilyMemberRepository;
 import com.huigrowth.babycare.repository.FamilyTaskRepository;
 import com.huigrowth.babycare.repository.FamilyRepository;
 import com.huigrowth.babycare.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -22,7 +30,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -35,11 +48,36 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class FamilyTaskService {
 
+    private static final String CONCURRENT_MODIFICATION_MESSAGE = "任务状态已被其他成员修改，请刷新后重试";
+
     private final FamilyTaskRepository familyTaskRepository;
     private final FamilyRepository familyRepository;
+    private final FamilyMemberRepository familyMemberRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    /**
+     * 批量操作类型
+     */
+    public enum BulkOperation {
+        START("开始", FamilyTask.TaskStatus.IN_PROGRESS,
+                EnumSet.of(FamilyTask.TaskStatus.PENDING, FamilyTask.TaskStatus.OVERDUE)),
+        COMPLETE("完成", FamilyTask.TaskStatus.COMPLETED, BabySummaryService.OPEN_TASK_STATUSES),
+        CANCEL("取消", FamilyTask.TaskStatus.CANCELLED, BabySummaryService.OPEN_TASK_STATUSES),
+        DELETE("删除", null, EnumSet.allOf(FamilyTask.TaskStatus.class));
+
+        private final String description;
+        private final FamilyTask.TaskStatus targetStatus;
+        private final Set<FamilyTask.TaskStatus> fromStatuses;
+
+        BulkOperation(String description, FamilyTask.TaskStatus targetStatus, Set<FamilyTask.TaskStatus> fromStatuses) {
+            this.description = description;
+            this.targetStatus = targetStatus;
+            this.fromStatuses = fromStatuses;
+        }
+    }
+
     /**
      * 创建家庭任务
      */
@@ -84,6 +122,7 @@ public class FamilyTaskService {
         task.setIsRecurring(false);
 
         FamilyTask savedTask = familyTaskRepository.save(task);
+        eventPublisher.publishEvent(new FamilyTasksChangedEvent(task.getFamily().getId(), 1));
         log.info("成功创建家庭任务: id={}", savedTask.getId());
 
         return convertToTaskResponse(savedTask);
@@ -101,7 +140,7 @@ public class FamilyTaskService {
                 .orElseThrow(() -> new BusinessException("用户不存在"));
 
         // 查找任务
-        FamilyTask task = familyTaskRepository.findById(taskId)
+        FamilyTask task = familyTaskRepository.findWithFamilyAndUsersById(taskId)
                 .orElseThrow(() -> new BusinessException("任务不存在"));
 
         // 验证权限（只有分配者或家庭创建者可以更新）
@@ -137,6 +176,7 @@ public class FamilyTaskService {
     /**
      * 获取家庭的任务
      */
+    @Transactional(readOnly = true)
     public Page<FamilyTaskResponse> getFamilyTasks(String username, Long familyId, int page, int size) {
         log.info("获取家庭任务: username={}, familyId={}, page={}, size={}", username, familyId, page, size);
 
@@ -162,6 +202,7 @@ public class FamilyTaskService {
     /**
      * 获取我的任务
      */
+    @Transactional(readOnly = true)
     public Page<FamilyTaskResponse> getMyTasks(String username, int page, int size) {
         log.info("获取我的任务: username={}, page={}, size={}", username, page, size);
 
@@ -170,9 +211,9 @@ public class FamilyTaskService {
                 .orElseThrow(() -> new BusinessException("用户不存在"));
 
         // 获取用户所属的所有家庭
-        List<Family> families = user.getFamilyMembers().stream()
-                .filter(member -> member.getActive())
-                .map(member -> member.getFamily())
+        List<Family> families = familyMemberRepository.findByUserWithFamily(user).stream()
+                .filter(FamilyMember::getActive)
+                .map(FamilyMember::getFamily)
                 .collect(Collectors.toList());
 
         if (families.isEmpty()) {
@@ -200,7 +241,7 @@ public class FamilyTaskService {
                 .orElseThrow(() -> new BusinessException("用户不存在"));
 
         // 查找任务
-        FamilyTask task = familyTaskRepository.findById(taskId)
+        FamilyTask task = familyTaskRepository.findWithFamilyAndUsersById(taskId)
                 .orElseThrow(() -> new BusinessException("任务不存在"));
 
         // 验证权限
@@ -209,10 +250,9 @@ public class FamilyTaskService {
         }
 
         // 更新任务状态
-        task.setStatus(FamilyTask.TaskStatus.IN_PROGRESS);
-        FamilyTask savedTask = familyTaskRepository.save(task);
+        transitionStatus(task, FamilyTask.TaskStatus.IN_PROGRESS);
 
-        return convertToTaskResponse(savedTask);
+        return convertToTaskResponse(task);
     }
 
     /**
@@ -227,7 +267,7 @@ public class FamilyTaskService {
                 .orElseThrow(() -> new BusinessException("用户不存在"));
 
         // 查找任务
-        FamilyTask task = familyTaskRepository.findById(taskId)
+        FamilyTask task = familyTaskRepository.findWithFamilyAndUsersById(taskId)
                 .orElseThrow(() -> new BusinessException("任务不存在"));
 
         // 验证权限
@@ -236,13 +276,21 @@ public class FamilyTaskService {
         }
 
         // 更新任务状态
+        FamilyTask.TaskStatus expected = task.getStatus();
+        LocalDateTime now = LocalDateTime.now();
+        if (familyTaskRepository.completeIf(taskId, expected, user, completionNotes, now) == 0) {
+            throw new BusinessException(CONCURRENT_MODIFICATION_MESSAGE);
+        }
         task.setStatus(FamilyTask.TaskStatus.COMPLETED);
-        task.setCompletedAt(LocalDateTime.now());
+        task.setCompletedAt(now);
         task.setCompletedBy(user);
         task.setCompletionNotes(completionNotes);
-        FamilyTask savedTask = familyTaskRepository.save(task);
+        task.setUpdatedAt(now);
+        publishPendingDelta(task, expected);
+        eventPublisher.publishEvent(new TaskCompletedEvent(task.getId(), task.getFamily().getId(),
+                task.getAssignedBy().getId(), user.getId()));
 
-        return convertToTaskResponse(savedTask);
+        return convertToTaskResponse(task);
     }
 
     /**
@@ -257,7 +305,7 @@ public class FamilyTaskService {
                 .orElseThrow(() -> new BusinessException("用户不存在"));
 
         // 查找任务
-        FamilyTask task = familyTaskRepository.findById(taskId)
+        FamilyTask task = familyTaskRepository.findWithFamilyAndUsersById(taskId)
                 .orElseThrow(() -> new BusinessException("任务不存在"));
 
         // 验证权限
@@ -266,10 +314,9 @@ public class FamilyTaskService {
         }
 
         // 更新任务状态
-        task.setStatus(FamilyTask.TaskStatus.CANCELLED);
-        FamilyTask savedTask = familyTaskRepository.save(task);
+        transitionStatus(task, FamilyTask.TaskStatus.CANCELLED);
 
-        return convertToTaskResponse(savedTask);
+        return convertToTaskResponse(task);
     }
 
     /**
@@ -293,25 +340,160 @@ public class FamilyTaskService {
             throw new BusinessException("您没有权限删除该任务");
         }
 
-        familyTaskRepository.delete(task);
+        if (familyTaskRepository.deleteIf(taskId, task.getStatus()) == 0) {
+            throw new BusinessException(CONCURRENT_MODIFICATION_MESSAGE);
+        }
+        if (isOpen(task)) {
+            eventPublisher.publishEvent(new FamilyTasksChangedEvent(task.getFamily().getId(), -1));
+        }
         log.info("成功删除任务: id={}", taskId);
     }
 
+    /**
+     * 批量操作家庭任务
+     * 用户和家庭权限只校验一次；加锁读取这批任务后按状态逐个判定结果，
+     * 可执行的任务用一条UPDATE或DELETE完成，汇总计数按总变化量只更新一次。
+     * 已处于目标状态的任务视为成功且不重复写入，其余不满足条件的任务在结果中给出原因
+     */
+    @Transactional
+    public FamilyTaskBulkResponse bulkOperate(String username, Long familyId, FamilyTaskBulkRequest request) {
+        log.info("批量操作家庭任务: username={}, familyId={}, operation={}, count={}",
+                username, familyId, request.getOperation(), request.getTaskIds().size());
+
+        BulkOperation operation;
+        try {
+            operation = BulkOperation.valueOf(request.getOperation());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("不支持的操作类型: " + request.getOperation());
+        }
+
+        // 查找用户并验证家庭权限
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new BusinessException("用户不存在"));
+
+        if (!familyMemberRepository.existsByUserAndBaby(user, familyId)) {
+            throw new BusinessException("您没有权限操作该家庭的任务");
+        }
+
+        Set<Long> taskIds = new LinkedHashSet<>(request.getTaskIds());
+        taskIds.remove(null);
+        if (taskIds.isEmpty()) {
+            throw new BusinessException("任务ID列表不能为空");
+        }
+        Map<Long, FamilyTask> tasks = familyTaskRepository.findByIdInAndFamilyIdForUpdate(taskIds, familyId).stream()
+                .collect(Collectors.toMap(FamilyTask::getId, Function.identity()));
+
+        // 删除只允许分配者或家庭创建者操作，创建者身份按需查询一次
+        Boolean creator = null;
+        List<FamilyTaskBulkResponse.TaskResult> results = new ArrayList<>(taskIds.size());
+        List<FamilyTask> applicable = new ArrayList<>();
+        for (Long taskId : taskIds) {
+            FamilyTask task = tasks.get(taskId);
+            if (task == null) {
+                results.add(new FamilyTaskBulkResponse.TaskResult(taskId, false, null, "任务不存在"));
+                continue;
+            }
+            FamilyTask.TaskStatus status = task.getStatus();
+            if (operation == BulkOperation.DELETE && !task.getAssignedBy().getId().equals(user.getId())) {
+                if (creator == null) {
+                    creator = familyMemberRepository.existsByUserAndFamilyIdAndRole(user, familyId,
+                            FamilyMember.FamilyRole.CREATOR);
+                }
+                if (!creator) {
+                    results.add(new FamilyTaskBulkResponse.TaskResult(taskId, false, status, "您没有权限删除该任务"));
+                    continue;
+                }
+            }
+            if (status == operation.targetStatus) {
+                results.add(new FamilyTaskBulkResponse.TaskResult(taskId, true, status, "任务已是该状态"));
+            } else if (operation.fromStatuses.contains(status)) {
+                applicable.add(task);
+                results.add(new FamilyTaskBulkResponse.TaskResult(taskId, true, operation.targetStatus, null));
+            } else {
+                results.add(new FamilyTaskBulkResponse.TaskResult(taskId, false, status,
+                        "任务" + status.getDescription() + "，不能" + operation.description));
+            }
+        }
+
+        if (!applicable.isEmpty()) {
+            List<Long> ids = applicable.stream().map(FamilyTask::getId).collect(Collectors.toList());
+            LocalDateTime now = LocalDateTime.now();
+            switch (operation) {
+                case START -> familyTaskRepository.updateStatus(ids, familyId, FamilyTask.TaskStatus.IN_PROGRESS, now);
+                case COMPLETE -> familyTaskRepository.complete(ids, familyId, user, request.getCompletionNotes(), now);
+                case CANCEL -> familyTaskRepository.updateStatus(ids, familyId, FamilyTask.TaskStatus.CANCELLED, now);
+                case DELETE -> familyTaskRepository.deleteByIdInAndFamilyId(ids, familyId);
+            }
+
+            int pendingDelta = operation == BulkOperation.START ? 0
+                    : -(int) applicable.stream().filter(this::isOpen).count();
+            if (pendingDelta != 0) {
+                eventPublisher.publishEvent(new FamilyTasksChangedEvent(familyId, pendingDelta));
+            }
+            if (operation == BulkOperation.COMPLETE) {
+                eventPublisher.publishEvent(new ReliableEventBatch(applicable.stream()
+                        .map(task -> new TaskCompletedEvent(task.getId(), familyId, task.getAssignedBy().getId(),
+                                user.getId()))
+                        .toList()));
+            }
+        }
+
+        FamilyTaskBulkResponse response = new FamilyTaskBulkResponse();
+        response.setFamilyId(familyId);
+        response.setOperation(operation.name());
+        response.setResults(results);
+        response.setSucceeded((int) results.stream().filter(FamilyTaskBulkResponse.TaskResult::getSuccess).count());
+        response.setFailed(results.size() - response.getSucceeded());
+        log.info("批量操作家庭任务完成: familyId={}, operation={}, applied={}, succeeded={}, failed={}",
+                familyId, operation, applicable.size(), response.getSucceeded(), response.getFailed());
+        return response;
+    }
+
+    /**
+     * 以读取时的状态为条件变更任务状态，并按实际发生的状态变化调整未完成任务数。
+     * 并发请求中只有一个能匹配原状态，其余返回提示而不是重复计数
+     */
+    private void transitionStatus(FamilyTask task, FamilyTask.TaskStatus status) {
+        FamilyTask.TaskStatus expected = task.getStatus();
+        LocalDateTime now = LocalDateTime.now();
+        if (familyTaskRepository.updateStatusIf(task.getId(), expected, status, now) == 0) {
+            throw new BusinessException(CONCURRENT_MODIFICATION_MESSAGE);
+        }
+        task.setStatus(status);
+        task.setUpdatedAt(now);
+        publishPendingDelta(task, expected);
+    }
+
+    /**
+     * 任务从 expected 变为当前状态后，发布未完成任务数的变化量
+     */
+    private void publishPendingDelta(FamilyTask task, FamilyTask.TaskStatus expected) {
+        int pendingDelta = (isOpen(task) ? 1 : 0) - (BabySummaryService.OPEN_TASK_STATUSES.contains(expected) ? 1 : 0);
+        if (pendingDelta != 0) {
+            eventPublisher.publishEvent(new FamilyTasksChangedEvent(task.getFamily().getId(), pendingDelta));
+        }
+    }
+
     /**
      * 检查用户是否有权限访问家庭
      */
     private boolean hasAccessToFamily(User user, Family family) {
-        return family.getMembers().stream()
-                .anyMatch(member -> member.getUser().getId().equals(user.getId()) && member.getActive());
+        return familyMemberRepository.existsByUserAndBaby(user, family.getId());
+    }
+
+    /**
+     * 任务是否计入未完成任务数
+     */
+    private boolean isOpen(FamilyTask task) {
+        return BabySummaryService.OPEN_TASK_STATUSES.contains(task.getStatus());
     }
 
     /**
      * 检查用户是否为家庭创建者
      */
     private boolean isFamilyCreator(User user, Family family) {
-        return family.getMembers().stream()
-                .anyMatch(member -> member.getUser().getId().equals(user.getId()) && 
-                                   member.getRole() == com.huigrowth.babycare.entity.FamilyMember.FamilyRole.CREATOR);
+        return familyMemberRepository.existsByUserAndFamilyIdAndRole(user, family.getId(),
+                FamilyMember.FamilyRole.CREATOR);
     }
 
     /**
@@ -0,0 +1,189 @@
+package com.huigrowth.babycare.service;
+
+import com.huigrowth.babycare.dto.GrowthCurvePoint;
+import com.huigrowth.babycare.dto.GrowthCurveResponse;
+import com.huigrowth.babycare.dto.GrowthMeasurementCreateRequest;
+import com.huigrowth.babycare.entity.Baby;
+import com.huigrowth.babycare.entity.GrowthMeasurement;
+import com.huigrowth.babycare.entity.User;
+import com.huigrowth.babycare.exception.BusinessException;
+import com.huigrowth.babycare.repository.BabyRepository;
+import com.huigrowth.babycare.repository.FamilyMemberRepository;
+import com.huigrowth.babycare.repository.GrowthMeasurementRepository;
+import com.huigrowth.babycare.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 生长测量服务
+ * 
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GrowthMeasurementService {
+
+    private final GrowthMeasurementRepository measurementRepository;
+    private final BabyRepository babyRepository;
+    private final UserRepository userRepository;
+    private final FamilyMemberRepository familyMemberRepository;
+    private final GrowthStandards growthStandards;
+    private final BabyAgeCache babyAgeCache;
+
+    /**
+     * 添加测量记录
+     */
+    @Transactional
+    public GrowthCurvePoint addMeasurement(String username, GrowthMeasurementCreateRequest request) {
+        log.info("添加生长测量: username={}, request={}", username, request);
+
+        if (request.getWeight() == null && request.getHeight() == null && request.getHeadCircumference() == null) {
+            throw new BusinessException("体重、身长、头围至少填写一项");
+        }
+
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new BusinessException("用户不存在"));
+
+        Baby baby = babyRepository.findById(request.getBabyId())
+                .orElseThrow(() -> new BusinessException("宝宝不存在"));
+
+        if (!hasAccessToBaby(user, baby)) {
+            throw new BusinessException("您没有权限为该宝宝添加测量记录");
+        }
+        if (request.getMeasuredAt().isBefore(baby.getBirthday())) {
+            throw new BusinessException("测量日期不能早于宝宝出生日期");
+        }
+
+        GrowthMeasurement measurement = new GrowthMeasurement();
+        measurement.setBaby(baby);
+        measurement.setMeasuredAt(request.getMeasuredAt());
+        measurement.setWeight(request.getWeight());
+        measurement.setHeight(request.getHeight());
+        measurement.setHeadCircumference(request.getHeadCircumference());
+        measurement.setNote(request.getNote());
+        measurement.setCreatedBy(user);
+
+        GrowthMeasurement savedMeasurement = measurementRepository.save(measurement);
+        refreshCurrentMeasurements(baby);
+        log.info("成功添加生长测量: id={}", savedMeasurement.getId());
+
+        return convertToPoint(savedMeasurement, baby);
+    }
+
+    /**
+     * 删除测量记录
+     */
+    @Transactional
+    public void deleteMeasurement(String username, Long measurementId) {
+        log.info("删除生长测量: username={}, measurementId={}", username, measurementId);
+
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new BusinessException("用户不存在"));
+
+        GrowthMeasurement measurement = measurementRepository.findById(measurementId)
+                .orElseThrow(() -> new BusinessException("测量记录不存在"));
+
+        Baby baby = measurement.getBaby();
+        if (!hasAccessToBaby(user, baby)) {
+            throw new BusinessException("您没有权限删除该测量记录");
+        }
+
+        measurementRepository.delete(measurement);
+        measurementRepository.flush();
+        refreshCurrentMeasurements(baby);
+        log.info("成功删除生长测量: id={}", measurementId);
+    }
+
+    /**
+     * 获取宝宝的生长曲线：一次查询取出全部测量，z值和百分位在内存中按查表计算
+     */
+    @Transactional(readOnly = true)
+    public GrowthCurveResponse getGrowthCurve(String username, Long babyId) {
+        log.info("获取生长曲线: username={}, babyId={}", username, babyId);
+
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new BusinessException("用户不存在"));
+
+        Baby baby = babyRepository.findById(babyId)
+                .orElseThrow(() -> new BusinessException("宝宝不存在"));
+
+        if (!hasAccessToBaby(user, baby)) {
+            throw new BusinessException("您没有权限查看该宝宝的生长曲线");
+        }
+
+        List<GrowthMeasurement> measurements = measurementRepository.findByBabyOrderByMeasuredAtAscIdAsc(baby);
+        List<GrowthCurvePoint> points = new ArrayList<>(measurements.size());
+        for (GrowthMeasurement measurement : measurements) {
+            points.add(convertToPoint(measurement, baby));
+        }
+
+        GrowthCurveResponse response = new GrowthCurveResponse();
+        response.setBabyId(baby.getId());
+        response.setGender(baby.getGender());
+        response.setPoints(points);
+        return response;
+    }
+
+    /**
+     * 用最近一次测量刷新宝宝的当前体重、身高
+     */
+    private void refreshCurrentMeasurements(Baby baby) {
+        measurementRepository.findFirstByBabyOrderByMeasuredAtDescIdDesc(baby).ifPresent(latest -> {
+            if (latest.getWeight() != null) {
+                baby.setCurrentWeight(latest.getWeight().doubleValue());
+            }
+            if (latest.getHeight() != null) {
+                baby.setCurrentHeight(latest.getHeight());
+            }
+        });
+    }
+
+    /**
+     * 检查用户是否有权限访问宝宝
+     */
+    private boolean hasAccessToBaby(User user, Baby baby) {
+        return familyMemberRepository.existsByUserAndBaby(user, baby.getFamily().getId());
+    }
+
+    /**
+     * 转换为曲线数据点
+     */
+    private GrowthCurvePoint convertToPoint(GrowthMeasurement measurement, Baby baby) {
+        int ageInDays = babyAgeCache.ageInDays(baby.getBirthday(), measurement.getMeasuredAt());
+
+        GrowthCurvePoint point = new GrowthCurvePoint();
+        point.setId(measurement.getId());
+        point.setMeasuredAt(measurement.getMeasuredAt());
+        point.setAgeInDays(ageInDays);
+        point.setNote(measurement.getNote());
+
+        if (measurement.getWeight() != null) {
+            Double z = growthStandards.zScore(GrowthStandards.Indicator.WEIGHT, baby.getGender(), ageInDays,
+                    measurement.getWeight() / 1000.0);
+            point.setWeight(measurement.getWeight());
+            point.setWeightZScore(z);
+            point.setWeightPercentile(growthStandards.percentile(z));
+        }
+        if (measurement.getHeight() != null) {
+            Double z = growthStandards.zScore(GrowthStandards.Indicator.LENGTH, baby.getGender(), ageInDays,
+                    measurement.getHeight());
+            point.setHeight(measurement.getHeight());
+            point.setHeightZScore(z);
+            point.setHeightPercentile(growthStandards.percentile(z));
+        }
+        if (measurement.getHeadCircumference() != null) {
+            Double z = growthStandards.zScore(GrowthStandards.Indicator.HEAD_CIRCUMFERENCE, baby.getGender(), ageInDays,
+                    measurement.getHeadCircumference());
+            point.setHeadCircumference(measurement.getHeadCircumference());
+            point.setHeadCircumferenceZScore(z);
+            point.setHeadCircumferencePercentile(growthStandards.percentile(z));
+        }
+        return point;
+    }
+}
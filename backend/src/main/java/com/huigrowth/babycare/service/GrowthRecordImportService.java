@@ -0,0 +1,576 @@
+package com.huigrowth.babycare.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.huigrowth.babycare.dto.GrowthRecordImportResponse;
+import com.huigrowth.babycare.dto.GrowthRecordImportRow;
+import com.huigrowth.babycare.entity.Baby;
+import com.huigrowth.babycare.entity.GrowthRecord;
+import com.huigrowth.babycare.entity.User;
+import com.huigrowth.babycare.event.GrowthRecordsImportedEvent;
+import com.huigrowth.babycare.exception.BusinessException;
+import com.huigrowth.babycare.repository.BabyRepository;
+import com.huigrowth.babycare.repository.FamilyMemberRepository;
+import com.huigrowth.babycare.repository.UserRepository;
+import com.huigrowth.babycare.util.CsvReader;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * 成长记录批量导入服务
+ * 请求体按CSV或JSON流式解析，逐行校验后按块写入：权限只在开始时校验一次，
+ * 主键从实体序列预先分配，每块一个事务、一次JDBC批量插入（MySQL驱动改写为多行INSERT），
+ * 汇总计数和媒体引用计数也按块聚合更新；校验或写入失败的行记录行号和原因，不影响其他行。
+ * 整块写入失败时逐行重试该块，只有真正写不进去的行记为失败；CSV单个字段或整行超过长度上限时跳过该行
+ *
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GrowthRecordImportService {
+
+    private static final String INSERT_SQL = "INSERT INTO growth_records (id, baby_id, type, title, content, " +
+            "media_urls, tags, created_by, location, weather, mood, view_count, like_count, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0, ?, ?)";
+    private static final String LIST_SEPARATOR = "\\|";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_TITLE_LENGTH = 100;
+    private static final int MAX_CONTENT_LENGTH = 2000;
+    private static final int MAX_LOCATION_LENGTH = 100;
+    private static final int MAX_SHORT_FIELD_LENGTH = 50;
+    private static final DateTimeFormatter SPACED_DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm[:ss]");
+
+    private final UserRepository userRepository;
+    private final BabyRepository babyRepository;
+    private final FamilyMemberRepository familyMemberRepository;
+    private final MediaReferenceService mediaReferenceService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.import.max-rows:200000}")
+    private long maxRows;
+
+    @Value("${app.import.max-errors:1000}")
+    private int maxErrors;
+
+    @Value("${app.import.csv.max-field-length:8192}")
+    private int maxCsvFieldLength;
+
+    @Value("${app.import.csv.max-record-length:65536}")
+    private int maxCsvRecordLength;
+
+    /**
+     * 导入格式
+     */
+    public enum Format {
+        CSV, JSON
+    }
+
+    /**
+     * 导入成长记录
+     * CSV首行为表头，列名与 {@link GrowthRecordImportRow} 字段一致，至少包含 type 和 title；
+     * JSON为对象数组。每块独立提交，文件中途格式错误时已写入的块保留，错误列表中给出中断位置
+     */
+    public GrowthRecordImportResponse importRecords(String username, Long babyId, Format format, InputStream input) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new BusinessException("用户不存在"));
+
+        Baby baby = babyRepository.findById(babyId)
+                .orElseThrow(() -> new BusinessException("宝宝不存在"));
+
+        Long familyId = baby.getFamily().getId();
+        if (!familyMemberRepository.existsByUserAndBaby(user, familyId)) {
+            throw new BusinessException("您没有权限为该宝宝导入记录");
+        }
+
+        log.info("开始导入成长记录: username={}, babyId={}, format={}", username, babyId, format);
+        long startedAt = System.nanoTime();
+        ImportContext context = new ImportContext(babyId, familyId, user.getId());
+        try {
+            if (format == Format.CSV) {
+                readCsv(input, context);
+            } else {
+                readJson(input, context);
+            }
+            context.flush();
+        } catch (IOException e) {
+            context.flush();
+            String reason = e instanceof JsonProcessingException jsonError ? jsonError.getOriginalMessage() : e.getMessage();
+            context.reject(context.rowNumber + 1, "文件格式错误，此行及之后的内容未导入: " + reason);
+        }
+
+        GrowthRecordImportResponse response = context.response;
+        response.getErrors().sort(Comparator.comparing(GrowthRecordImportResponse.RowError::getRow));
+        response.setTotalRows(context.rowNumber);
+        response.setImportedRows(context.imported);
+        response.setFailedRows(context.failed);
+        response.setErrorsTruncated(context.failed > response.getErrors().size());
+        response.setDurationMs((System.nanoTime() - startedAt) / 1_000_000);
+        log.info("成长记录导入完成: babyId={}, total={}, imported={}, failed={}, durationMs={}",
+                babyId, context.rowNumber, context.imported, context.failed, response.getDurationMs());
+        return response;
+    }
+
+    private void readCsv(InputStream input, ImportContext context) throws IOException {
+        CsvReader reader = new CsvReader(new BufferedReader(
+                new InputStreamReader(input, StandardCharsets.UTF_8), BUFFER_SIZE),
+                maxCsvFieldLength, maxCsvRecordLength);
+        List<String> header;
+        try {
+            header = reader.readRecord();
+        } catch (CsvReader.OversizedRecordException e) {
+            throw new BusinessException("CSV表头过长: " + e.getMessage());
+        }
+        if (header == null) {
+            throw new BusinessException("导入文件为空");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("type") || !columns.containsKey("title")) {
+            throw new BusinessException("CSV表头必须包含 type 和 title 列");
+        }
+
+        while (true) {
+            List<String> fields;
+            try {
+                fields = reader.readRecord();
+            } catch (CsvReader.OversizedRecordException e) {
+                if (!context.next()) {
+                    return;
+                }
+                context.reject(context.rowNumber, e.getMessage());
+                continue;
+            }
+            if (fields == null) {
+                return;
+            }
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            if (!context.next()) {
+                return;
+            }
+            GrowthRecordImportRow row = new GrowthRecordImportRow();
+            row.setType(column(fields, columns, "type"));
+            row.setTitle(column(fields, columns, "title"));
+            row.setContent(column(fields, columns, "content"));
+            row.setMediaUrls(splitList(column(fields, columns, "mediaurls")));
+            row.setTags(splitList(column(fields, columns, "tags")));
+            row.setLocation(column(fields, columns, "location"));
+            row.setWeather(column(fields, columns, "weather"));
+            row.setMood(column(fields, columns, "mood"));
+            row.setCreatedAt(column(fields, columns, "createdat"));
+            context.add(row);
+        }
+    }
+
+    private void readJson(InputStream input, ImportContext context) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new BusinessException("JSON导入内容必须是对象数组");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new IOException("JSON数组未闭合");
+                }
+                if (!context.next()) {
+                    return;
+                }
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    context.reject(context.rowNumber, "每一行必须是JSON对象");
+                    continue;
+                }
+                JsonNode node = parser.readValueAsTree();
+                GrowthRecordImportRow row;
+                try {
+                    row = objectMapper.treeToValue(node, GrowthRecordImportRow.class);
+                } catch (JsonProcessingException e) {
+                    context.reject(context.rowNumber, "字段格式错误: " + e.getOriginalMessage());
+                    continue;
+                }
+                context.add(row);
+            }
+        }
+    }
+
+    /**
+     * 校验一行并转换为待写入记录
+     */
+    private PendingRow validate(long rowNumber, GrowthRecordImportRow row, LocalDateTime now) {
+        GrowthRecord.RecordType type = parseType(row.getType());
+        String title = trimToNull(row.getTitle());
+        if (title == null) {
+            throw new InvalidRowException("标题不能为空");
+        }
+        checkLength(title, MAX_TITLE_LENGTH, "标题");
+        String content = trimToNull(row.getContent());
+        checkLength(content, MAX_CONTENT_LENGTH, "内容");
+        String location = trimToNull(row.getLocation());
+        checkLength(location, MAX_LOCATION_LENGTH, "地点");
+        String weather = trimToNull(row.getWeather());
+        checkLength(weather, MAX_SHORT_FIELD_LENGTH, "天气");
+        String mood = trimToNull(row.getMood());
+        checkLength(mood, MAX_SHORT_FIELD_LENGTH, "心情");
+        List<String> mediaUrls = cleanList(row.getMediaUrls());
+        List<String> tags = cleanList(row.getTags());
+        LocalDateTime createdAt = parseCreatedAt(row.getCreatedAt(), now);
+
+        return new PendingRow(rowNumber, type, title, content, mediaUrls, toJson(mediaUrls), toJson(tags),
+                location, weather, mood, createdAt);
+    }
+
+    private static GrowthRecord.RecordType parseType(String value) {
+        String type = trimToNull(value);
+        if (type == null) {
+            throw new InvalidRowException("记录类型不能为空");
+        }
+        for (GrowthRecord.RecordType candidate : GrowthRecord.RecordType.values()) {
+            if (candidate.name().equalsIgnoreCase(type) || candidate.getDescription().equals(type)) {
+                return candidate;
+            }
+        }
+        throw new InvalidRowException("不支持的记录类型: " + type);
+    }
+
+    private static LocalDateTime parseCreatedAt(String value, LocalDateTime now) {
+        String text = trimToNull(value);
+        if (text == null) {
+            return now;
+        }
+        LocalDateTime createdAt;
+        try {
+            if (text.length() == 10) {
+                createdAt = LocalDate.parse(text).atStartOfDay();
+            } else if (text.indexOf('T') > 0) {
+                createdAt = LocalDateTime.parse(text);
+            } else {
+                createdAt = LocalDateTime.parse(text, SPACED_DATE_TIME);
+            }
+        } catch (DateTimeParseException e) {
+            throw new InvalidRowException("记录时间格式错误: " + text);
+        }
+        if (createdAt.isAfter(now)) {
+            throw new InvalidRowException("记录时间不能晚于当前时间: " + text);
+        }
+        return createdAt;
+    }
+
+    private static void checkLength(String value, int maxLength, String name) {
+        if (value != null && value.length() > maxLength) {
+            throw new InvalidRowException(name + "长度不能超过" + maxLength + "个字符");
+        }
+    }
+
+    private static List<String> cleanList(List<String> values) {
+        if (values == null) {
+            return List.of();
+        }
+        List<String> cleaned = new ArrayList<>(values.size());
+        for (String value : values) {
+            String trimmed = trimToNull(value);
+            if (trimmed != null) {
+                cleaned.add(trimmed);
+            }
+        }
+        return cleaned;
+    }
+
+    private String toJson(List<String> values) {
+        if (values.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(values);
+        } catch (JsonProcessingException e) {
+            throw new InvalidRowException("列表字段格式错误");
+        }
+    }
+
+    private static String column(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+
+    private static List<String> splitList(String value) {
+        return value == null || value.isBlank() ? null : Arrays.asList(value.split(LIST_SEPARATOR));
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /**
+     * 写入一块记录：主键在事务外分配（序列推进不占用事务锁），插入、引用计数和汇总事件在同一事务内
+     *
+     * @return 写入成功时为true，整块失败时为false
+     */
+    private boolean writeChunk(ImportContext context, List<PendingRow> rows) {
+        long[] ids;
+        try {
+            ids = allocateIds(rows.size());
+        } catch (RuntimeException e) {
+            log.error("成长记录导入分配主键失败: babyId={}", context.babyId, e);
+            return false;
+        }
+
+        Calendar calendar = jdbcCalendar();
+        Timestamp updatedAt = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        PendingRow row = rows.get(i);
+                        ps.setLong(1, ids[i]);
+                        ps.setLong(2, context.babyId);
+                        ps.setString(3, row.type.name());
+                        ps.setString(4, row.title);
+                        setNullableString(ps, 5, row.content);
+                        setNullableString(ps, 6, row.mediaUrlsJson);
+                        setNullableString(ps, 7, row.tagsJson);
+                        ps.setLong(8, context.userId);
+                        setNullableString(ps, 9, row.location);
+                        setNullableString(ps, 10, row.weather);
+                        setNullableString(ps, 11, row.mood);
+                        ps.setTimestamp(12, Timestamp.valueOf(row.createdAt), calendar);
+                        ps.setTimestamp(13, updatedAt, calendar);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                });
+
+                mediaReferenceService.addReferences(context.familyId,
+                        rows.stream().map(row -> row.mediaUrls).toList());
+
+                long[] typeCounts = new long[GrowthRecord.RecordType.values().length];
+                int latest = 0;
+                for (int i = 0; i < rows.size(); i++) {
+                    typeCounts[rows.get(i).type.ordinal()]++;
+                    if (!rows.get(i).createdAt.isBefore(rows.get(latest).createdAt)) {
+                        latest = i;
+                    }
+                }
+                PendingRow latestRow = rows.get(latest);
+                eventPublisher.publishEvent(new GrowthRecordsImportedEvent(context.babyId, typeCounts, ids[latest],
+                        latestRow.title, latestRow.type, latestRow.createdAt));
+            });
+            return true;
+        } catch (DataAccessException e) {
+            log.error("成长记录导入写入失败: babyId={}, rows={}-{}", context.babyId,
+                    rows.get(0).rowNumber, rows.get(rows.size() - 1).rowNumber, e);
+            return false;
+        }
+    }
+
+    /**
+     * 通过实体自身的主键生成器分配id，与JPA写入共用同一个pooled分配块，
+     * 每50个id才访问一次序列，无需关心序列在当前数据库上的实现方式
+     */
+    private long[] allocateIds(int count) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        IdentifierGenerator generator = (IdentifierGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(GrowthRecord.class).getGenerator();
+        long[] ids = new long[count];
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            SharedSessionContractImplementor implementor = (SharedSessionContractImplementor) session;
+            for (int i = 0; i < count; i++) {
+                ids[i] = ((Number) generator.generate(implementor, null)).longValue();
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 与Hibernate写入时间字段时使用相同的JDBC时区
+     */
+    private Calendar jdbcCalendar() {
+        TimeZone timeZone = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getSessionFactoryOptions().getJdbcTimeZone();
+        return timeZone == null ? Calendar.getInstance() : Calendar.getInstance(timeZone);
+    }
+
+    private static void setNullableString(PreparedStatement ps, int index, String value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.VARCHAR);
+        } else {
+            ps.setString(index, value);
+        }
+    }
+
+    /**
+     * 单次导入的状态：当前行号、待写入的块和结果汇总
+     */
+    private class ImportContext {
+
+        private final Long babyId;
+        private final Long familyId;
+        private final Long userId;
+        private final LocalDateTime now = LocalDateTime.now();
+        private final GrowthRecordImportResponse response = new GrowthRecordImportResponse();
+        private final List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        private long rowNumber;
+        private long imported;
+        private long failed;
+
+        private ImportContext(Long babyId, Long familyId, Long userId) {
+            this.babyId = babyId;
+            this.familyId = familyId;
+            this.userId = userId;
+            response.setBabyId(babyId);
+        }
+
+        /**
+         * 推进到下一行，超过单次导入上限时记录错误并返回false
+         */
+        private boolean next() {
+            if (rowNumber >= maxRows) {
+                reject(rowNumber + 1, "超过单次导入上限" + maxRows + "行，此行及之后的内容未导入");
+                return false;
+            }
+            rowNumber++;
+            return true;
+        }
+
+        private void add(GrowthRecordImportRow row) {
+            try {
+                chunk.add(validate(rowNumber, row, now));
+            } catch (InvalidRowException e) {
+                reject(rowNumber, e.getMessage());
+                return;
+            }
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            if (writeChunk(this, chunk)) {
+                imported += chunk.size();
+            } else if (chunk.size() == 1) {
+                reject(chunk.get(0).rowNumber, "写入失败");
+            } else {
+                // 个别行导致整块回滚时逐行重试，其余行照常导入
+                log.warn("成长记录导入整块写入失败，逐行重试: babyId={}, rows={}-{}", babyId,
+                        chunk.get(0).rowNumber, chunk.get(chunk.size() - 1).rowNumber);
+                for (PendingRow row : chunk) {
+                    if (writeChunk(this, List.of(row))) {
+                        imported++;
+                    } else {
+                        reject(row.rowNumber, "写入失败");
+                    }
+                }
+            }
+            chunk.clear();
+        }
+
+        private void reject(long row, String message) {
+            failed++;
+            if (response.getErrors().size() < maxErrors) {
+                response.getErrors().add(new GrowthRecordImportResponse.RowError(row, message));
+            }
+        }
+    }
+
+    /**
+     * 已通过校验、等待写入的行
+     */
+    private static class PendingRow {
+
+        private final long rowNumber;
+        private final GrowthRecord.RecordType type;
+        private final String title;
+        private final String content;
+        private final List<String> mediaUrls;
+        private final String mediaUrlsJson;
+        private final String tagsJson;
+        private final String location;
+        private final String weather;
+        private final String mood;
+        private final LocalDateTime createdAt;
+
+        private PendingRow(long rowNumber, GrowthRecord.RecordType type, String title, String content,
+                           List<String> mediaUrls, String mediaUrlsJson, String tagsJson, String location,
+                           String weather, String mood, LocalDateTime createdAt) {
+            this.rowNumber = rowNumber;
+            this.type = type;
+            this.title = title;
+            this.content = content;
+            this.mediaUrls = mediaUrls;
+            this.mediaUrlsJson = mediaUrlsJson;
+            this.tagsJson = tagsJson;
+            this.location = location;
+            this.weather = weather;
+            this.mood = mood;
+            this.createdAt = createdAt;
+        }
+    }
+
+    /**
+     * 行校验失败，不记录堆栈
+     */
+    private static class InvalidRowException extends RuntimeException {
+
+        private InvalidRowException(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
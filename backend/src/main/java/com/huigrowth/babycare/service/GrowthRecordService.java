@@ -8,6 +8,9 @@ import com.huigrowth.babycare.dto.GrowthRecordResponse;
 import com.huigrowth.babycare.entity.Baby;
 import com.huigrowth.babycare.entity.GrowthRecord;
 import com.huigrowth.babycare.entity.User;
+import com.huigrowth.babycare.event.GrowthRecordCreatedEvent;
+import com.huigrowth.babycare.event.GrowthRecordDeletedEvent;
+import com.huigrowth.babycare.event.GrowthRecordUpdatedEvent;
 import com.huigrowth.babycare.exception.BusinessException;
 import com.huigrowth.babycare.repository.BabyRepository;
 import com.huigrowth.babycare.repository.FamilyMemberRepository;
@@ -15,6 +18,7 @@ import com.huigrowth.babycare.repository.GrowthRecordRepository;
 import com.huigrowth.babycare.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -23,7 +27,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -41,6 +47,9 @@ public class GrowthRecordService {
     private final UserRepository userRepository;
     private final FamilyMemberRepository familyMemberRepository;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MediaReferenceService mediaReferenceService;
+    private final ThumbnailService thumbnailService;
 
     /**
      * 创建成长记录
@@ -91,9 +100,14 @@ public class GrowthRecordService {
         }
 
         GrowthRecord savedRecord = growthRecordRepository.save(record);
+        mediaReferenceService.updateReferences(baby.getFamily().getId(), List.of(), request.getMediaUrls());
+        eventPublisher.publishEvent(new GrowthRecordCreatedEvent(baby.getId(), savedRecord.getId(),
+                savedRecord.getTitle(), savedRecord.getType(), savedRecord.getCreatedAt()));
         log.info("成功创建成长记录: id={}", savedRecord.getId());
 
-        return convertToResponse(savedRecord);
+        GrowthRecordResponse response = convertToResponse(savedRecord);
+        attachMediaVariants(List.of(response));
+        return response;
     }
 
     /**
@@ -108,7 +122,7 @@ public class GrowthRecordService {
                 .orElseThrow(() -> new BusinessException("用户不存在"));
 
         // 查找记录
-        GrowthRecord record = growthRecordRepository.findById(recordId)
+        GrowthRecord record = growthRecordRepository.findWithBabyAndCreatorById(recordId)
                 .orElseThrow(() -> new BusinessException("记录不存在"));
 
         // 验证用户是否有权限更新该记录
@@ -117,6 +131,8 @@ public class GrowthRecordService {
         }
 
         // 更新成长记录
+        GrowthRecord.RecordType oldType = record.getType();
+        List<String> oldMediaUrls = record.getMediaUrlList();
         record.setType(GrowthRecord.RecordType.valueOf(request.getType()));
         record.setTitle(request.getTitle());
         record.setContent(request.getContent());
@@ -142,9 +158,15 @@ public class GrowthRecordService {
         }
 
         GrowthRecord savedRecord = growthRecordRepository.save(record);
+        mediaReferenceService.updateReferences(record.getBaby().getFamily().getId(), oldMediaUrls,
+                savedRecord.getMediaUrlList());
+        eventPublisher.publishEvent(new GrowthRecordUpdatedEvent(record.getBaby().getId(), savedRecord.getId(),
+                savedRecord.getTitle(), oldType, savedRecord.getType()));
         log.info("成功更新成长记录: id={}", savedRecord.getId());
 
-        return convertToResponse(savedRecord);
+        GrowthRecordResponse response = convertToResponse(savedRecord);
+        attachMediaVariants(List.of(response));
+        return response;
     }
 
     /**
@@ -168,12 +190,15 @@ public class GrowthRecordService {
         }
 
         growthRecordRepository.delete(record);
+        mediaReferenceService.updateReferences(record.getBaby().getFamily().getId(), record.getMediaUrlList(), List.of());
+        eventPublisher.publishEvent(new GrowthRecordDeletedEvent(record.getBaby().getId(), recordId, record.getType()));
         log.info("成功删除成长记录: id={}", recordId);
     }
 
     /**
      * 获取宝宝的成长记录（分页）
      */
+    @Transactional(readOnly = true)
     public Page<GrowthRecordResponse> getBabyRecords(String username, Long babyId, int page, int size) {
         log.info("获取宝宝成长记录: username={}, babyId={}, page={}, size={}", username, babyId, page, size);
 
@@ -193,12 +218,15 @@ public class GrowthRecordService {
         Pageable pageable = PageRequest.of(page, size);
         Page<GrowthRecord> records = growthRecordRepository.findByBabyOrderByCreatedAtDesc(baby, pageable);
 
-        return records.map(this::convertToResponse);
+        Page<GrowthRecordResponse> responses = records.map(this::convertToResponse);
+        attachMediaVariants(responses.getContent());
+        return responses;
     }
 
     /**
      * 按类型获取成长记录
      */
+    @Transactional(readOnly = true)
     public List<GrowthRecordResponse> getRecordsByType(String username, Long babyId, String type) {
         log.info("按类型获取成长记录: username={}, babyId={}, type={}", username, babyId, type);
 
@@ -223,14 +251,15 @@ public class GrowthRecordService {
         }
 
         List<GrowthRecord> records = growthRecordRepository.findByBabyAndTypeOrderByCreatedAtDesc(baby, recordType);
-        return records.stream()
+        return attachMediaVariants(records.stream()
                 .map(this::convertToResponse)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     /**
      * 搜索成长记录
      */
+    @Transactional(readOnly = true)
     public List<GrowthRecordResponse> searchRecords(String username, Long babyId, String keyword) {
         log.info("搜索成长记录: username={}, babyId={}, keyword={}", username, babyId, keyword);
 
@@ -248,14 +277,15 @@ public class GrowthRecordService {
         }
 
         List<GrowthRecord> records = growthRecordRepository.searchByKeyword(baby, keyword);
-        return records.stream()
+        return attachMediaVariants(records.stream()
                 .map(this::convertToResponse)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     /**
      * 获取最近的成长记录
      */
+    @Transactional(readOnly = true)
     public List<GrowthRecordResponse> getRecentRecords(String username, int limit) {
         log.info("获取最近的成长记录: username={}, limit={}", username, limit);
 
@@ -272,9 +302,9 @@ public class GrowthRecordService {
         Pageable pageable = PageRequest.of(0, limit);
         List<GrowthRecord> records = growthRecordRepository.findRecentRecords(babies, pageable);
 
-        return records.stream()
+        return attachMediaVariants(records.stream()
                 .map(this::convertToResponse)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     /**
@@ -297,6 +327,26 @@ public class GrowthRecordService {
         return familyMemberRepository.existsByUserAndBaby(user, baby.getFamily().getId());
     }
 
+    /**
+     * 批量填充媒体缩略图地址，整页只查询一次媒体文件表
+     */
+    private List<GrowthRecordResponse> attachMediaVariants(List<GrowthRecordResponse> responses) {
+        List<String> urls = responses.stream()
+                .flatMap(response -> response.getMediaUrls().stream())
+                .toList();
+        Map<String, Map<Integer, String>> variants = thumbnailService.resolveVariants(urls);
+        for (GrowthRecordResponse response : responses) {
+            Map<String, Map<Integer, String>> recordVariants = new LinkedHashMap<>();
+            for (String url : response.getMediaUrls()) {
+                if (variants.containsKey(url)) {
+                    recordVariants.put(url, variants.get(url));
+                }
+            }
+            response.setMediaVariants(recordVariants);
+        }
+        return responses;
+    }
+
     /**
      * 转换为响应DTO
      */
@@ -0,0 +1,133 @@
+package com.huigrowth.babycare.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.huigrowth.babycare.entity.Baby;
+import com.huigrowth.babycare.util.NormalDistribution;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * WHO儿童生长标准
+ * 启动时把各指标、各性别的LMS月龄节点线性插值成按日龄下标的 double 数组，
+ * 计算 z 值只需一次数组访问和几次浮点运算
+ * z = ((X/M)^L - 1) / (L*S)，L为0时 z = ln(X/M) / S
+ *
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@Component
+public class GrowthStandards {
+
+    private static final String TABLE_LOCATION = "growth/who-lms.json";
+    private static final double DAYS_PER_MONTH = 30.4375; // WHO标准的月长
+
+    private final Map<Indicator, Map<Baby.Gender, LmsTable>> tables = new EnumMap<>(Indicator.class);
+
+    public GrowthStandards(ObjectMapper objectMapper) {
+        JsonNode root = load(objectMapper);
+        for (JsonNode indicatorNode : root.path("indicators")) {
+            Indicator indicator = Indicator.valueOf(indicatorNode.path("indicator").asText());
+            Map<Baby.Gender, LmsTable> bySex = new EnumMap<>(Baby.Gender.class);
+            indicatorNode.path("sexes").fields().forEachRemaining(entry ->
+                    bySex.put(Baby.Gender.valueOf(entry.getKey()), interpolate(indicator, entry.getValue())));
+            tables.put(indicator, bySex);
+        }
+        log.info("WHO生长标准已加载: indicators={}", tables.keySet());
+    }
+
+    /**
+     * 计算 z 值；日龄超出标准覆盖范围或测量值无效时返回 null
+     */
+    public Double zScore(Indicator indicator, Baby.Gender gender, int ageInDays, double value) {
+        Map<Baby.Gender, LmsTable> bySex = tables.get(indicator);
+        LmsTable table = bySex == null ? null : bySex.get(gender);
+        if (table == null || ageInDays < 0 || ageInDays >= table.m.length || value <= 0) {
+            return null;
+        }
+        double l = table.l[ageInDays];
+        double m = table.m[ageInDays];
+        double s = table.s[ageInDays];
+        double z = Math.abs(l) < 1e-9 ? Math.log(value / m) / s : (Math.pow(value / m, l) - 1) / (l * s);
+        return Math.round(z * 100) / 100.0;
+    }
+
+    /**
+     * z 值对应的百分位（保留一位小数）
+     */
+    public Double percentile(Double zScore) {
+        if (zScore == null) {
+            return null;
+        }
+        return Math.round(NormalDistribution.cdf(zScore) * 1000) / 10.0;
+    }
+
+    private LmsTable interpolate(Indicator indicator, JsonNode knots) {
+        int knotCount = knots.size();
+        double[] knotDays = new double[knotCount];
+        double[][] knotValues = new double[3][knotCount];
+        for (int i = 0; i < knotCount; i++) {
+            JsonNode knot = knots.get(i);
+            knotDays[i] = knot.get(0).asDouble() * DAYS_PER_MONTH;
+            for (int k = 0; k < 3; k++) {
+                knotValues[k][i] = knot.get(k + 1).asDouble();
+            }
+            if (i > 0 && knotDays[i] <= knotDays[i - 1]) {
+                throw new IllegalStateException("生长标准节点未按月龄递增: " + indicator);
+            }
+        }
+
+        int days = (int) Math.floor(knotDays[knotCount - 1]) + 1;
+        double[][] values = new double[3][days];
+        int segment = 0;
+        for (int day = 0; day < days; day++) {
+            while (segment < knotCount - 2 && day > knotDays[segment + 1]) {
+                segment++;
+            }
+            double span = knotDays[segment + 1] - knotDays[segment];
+            double t = Math.max(0, Math.min(1, (day - knotDays[segment]) / span));
+            for (int k = 0; k < 3; k++) {
+                values[k][day] = knotValues[k][segment] + t * (knotValues[k][segment + 1] - knotValues[k][segment]);
+            }
+        }
+        return new LmsTable(values[0], values[1], values[2]);
+    }
+
+    private JsonNode load(ObjectMapper objectMapper) {
+        try (InputStream in = new ClassPathResource(TABLE_LOCATION).getInputStream()) {
+            return objectMapper.readTree(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("加载WHO生长标准失败: " + TABLE_LOCATION, e);
+        }
+    }
+
+    /**
+     * 生长指标（体重单位kg，身长和头围单位cm）
+     */
+    public enum Indicator {
+        WEIGHT,
+        LENGTH,
+        HEAD_CIRCUMFERENCE
+    }
+
+    /**
+     * 按日龄下标的LMS参数
+     */
+    private static final class LmsTable {
+        private final double[] l;
+        private final double[] m;
+        private final double[] s;
+
+        private LmsTable(double[] l, double[] m, double[] s) {
+            this.l = l;
+            this.m = m;
+            this.s = s;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.huigrowth.babycare.service;
+
+import com.huigrowth.babycare.entity.CodeSequence;
+import com.huigrowth.babycare.exception.BusinessException;
+import com.huigrowth.babycare.repository.CodeSequenceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 家庭邀请码分配器
+ * 从数据库按块领取计数值（每块一次加锁更新），再用带密钥的Feistel置换把计数值映射为30位整数，
+ * 编码成6位邀请码。置换是双射，不同计数值必然得到不同邀请码，因此无需逐个查库判重；
+ * 数据库唯一约束作为兜底（与历史随机邀请码冲突时由调用方换码重试）。
+ * 领取计数块使用独立事务，调用方不应在持有连接的事务内调用，否则一个请求会同时占用两个连接
+ *
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@Component
+public class InviteCodeAllocator {
+
+    private static final String SEQUENCE_NAME = "family_invite_code";
+    private static final String ALPHABET = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789"; // 排除容易混淆的字符
+    private static final int CODE_LENGTH = 6;
+    private static final int HALF_BITS = 15;
+    private static final int HALF_MASK = (1 << HALF_BITS) - 1;
+    private static final long CODE_SPACE = 1L << (2 * HALF_BITS); // 32^6
+    private static final int ROUNDS = 4;
+
+    private final CodeSequenceRepository codeSequenceRepository;
+    private final TransactionTemplate requiresNewTemplate;
+    private final int blockSize;
+    private final int[] roundKeys;
+
+    private long nextValue;
+    private long blockEnd;
+
+    public InviteCodeAllocator(CodeSequenceRepository codeSequenceRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.invite-code.secret}") String secret,
+                               @Value("${app.invite-code.block-size:100}") int blockSize) {
+        this.codeSequenceRepository = codeSequenceRepository;
+        this.requiresNewTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+        this.roundKeys = deriveRoundKeys(secret);
+    }
+
+    /**
+     * 分配一个新的邀请码
+     */
+    public String nextCode() {
+        return encode(permute(nextCounter()));
+    }
+
+    private synchronized long nextCounter() {
+        if (nextValue >= blockEnd) {
+            long start = allocateBlock();
+            nextValue = start;
+            blockEnd = Math.min(start + blockSize, CODE_SPACE);
+        }
+        return nextValue++;
+    }
+
+    /**
+     * 在独立事务中领取一个计数块，锁只持有到该事务提交
+     */
+    private long allocateBlock() {
+        Long start;
+        try {
+            start = requiresNewTemplate.execute(status -> reserveBlock());
+        } catch (DataIntegrityViolationException e) {
+            // 并发首次创建序列行，另一节点已创建成功，重试一次
+            start = requiresNewTemplate.execute(status -> reserveBlock());
+        }
+        if (start == null || start >= CODE_SPACE) {
+            throw new BusinessException("邀请码已分配完毕");
+        }
+        log.info("领取邀请码计数块: start={}, size={}", start, blockSize);
+        return start;
+    }
+
+    private Long reserveBlock() {
+        CodeSequence sequence = codeSequenceRepository.findByNameForUpdate(SEQUENCE_NAME)
+                .orElseGet(() -> {
+                    CodeSequence created = new CodeSequence();
+                    created.setName(SEQUENCE_NAME);
+                    return codeSequenceRepository.saveAndFlush(created);
+                });
+        long start = sequence.getNextValue();
+        sequence.setNextValue(start + blockSize);
+        codeSequenceRepository.save(sequence);
+        return start;
+    }
+
+    /**
+     * 30位平衡Feistel置换
+     */
+    private long permute(long value) {
+        int left = (int) (value >>> HALF_BITS) & HALF_MASK;
+        int right = (int) value & HALF_MASK;
+        for (int round = 0; round < ROUNDS; round++) {
+            int next = left ^ roundFunction(right, roundKeys[round]);
+            left = right;
+            right = next;
+        }
+        return ((long) left << HALF_BITS) | right;
+    }
+
+    private int roundFunction(int half, int key) {
+        int x = half ^ key;
+        x *= 0x45d9f3b;
+        x ^= x >>> 16;
+        x *= 0x45d9f3b;
+        x ^= x >>> 16;
+        return x & HALF_MASK;
+    }
+
+    private String encode(long value) {
+        char[] code = new char[CODE_LENGTH];
+        for (int i = CODE_LENGTH - 1; i >= 0; i--) {
+            code[i] = ALPHABET.charAt((int) (value & 0x1F));
+            value >>>= 5;
+        }
+        return new String(code);
+    }
+
+    private int[] deriveRoundKeys(String secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            ByteBuffer buffer = ByteBuffer.wrap(digest);
+            int[] keys = new int[ROUNDS];
+            for (int i = 0; i < ROUNDS; i++) {
+                keys[i] = buffer.getInt();
+            }
+            return keys;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+}
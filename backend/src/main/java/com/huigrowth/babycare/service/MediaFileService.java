@@ -0,0 +1,98 @@
+package com.huigrowth.babycare.service;
+
+import com.huigrowth.babycare.entity.MediaFile;
+import com.huigrowth.babycare.entity.User;
+import com.huigrowth.babycare.exception.BusinessException;
+import com.huigrowth.babycare.repository.FamilyMemberRepository;
+import com.huigrowth.babycare.repository.MediaFileRepository;
+import com.huigrowth.babycare.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * 媒体文件服务
+ * 负责媒体文件及其缩略图的访问校验和按字节区间输出
+ *
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MediaFileService {
+
+    private final MediaFileRepository mediaFileRepository;
+    private final FamilyMemberRepository familyMemberRepository;
+    private final UserRepository userRepository;
+    private final MediaStorage mediaStorage;
+
+    /**
+     * 获取当前用户有权访问的媒体文件
+     */
+    public MediaFile getAccessibleFile(String username, Long fileId) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new BusinessException("用户不存在"));
+
+        MediaFile file = mediaFileRepository.findById(fileId)
+                .orElseThrow(() -> new BusinessException("媒体文件不存在"));
+
+        if (!familyMemberRepository.existsByUserAndBaby(user, file.getFamilyId())) {
+            throw new BusinessException("您没有权限访问该媒体文件");
+        }
+        return file;
+    }
+
+    /**
+     * 媒体文件在磁盘上的绝对路径
+     */
+    public Path resolvePath(MediaFile file) {
+        Path path = mediaStorage.resolve(file.getStoragePath());
+        if (!Files.isRegularFile(path)) {
+            log.warn("媒体文件在磁盘上不存在: fileId={}, path={}", file.getId(), path);
+            throw new BusinessException("媒体文件不存在");
+        }
+        return path;
+    }
+
+    /**
+     * 指定宽度缩略图在磁盘上的绝对路径
+     */
+    public Path resolveVariantPath(MediaFile file, int width) {
+        String widths = file.getThumbnailWidths();
+        if (file.getThumbnailStatus() != MediaFile.ThumbnailStatus.READY || widths == null
+                || !Arrays.asList(widths.split(",")).contains(String.valueOf(width))) {
+            throw new BusinessException("缩略图不存在");
+        }
+        Path path = mediaStorage.resolve(mediaStorage.variantPath(file.getSha256(), width));
+        if (!Files.isRegularFile(path)) {
+            log.warn("缩略图在磁盘上不存在: fileId={}, width={}, path={}", file.getId(), width, path);
+            throw new BusinessException("缩略图不存在");
+        }
+        return path;
+    }
+
+    /**
+     * 将文件的 [position, position + count) 区间写入目标通道
+     * 由 FileChannel.transferTo 完成拷贝，目标为套接字或文件时内核可直接传输
+     */
+    public void transfer(Path path, long position, long count, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long end = position + count;
+            while (position < end) {
+                long transferred = channel.transferTo(position, end - position, target);
+                if (transferred <= 0) {
+                    throw new IOException("媒体文件在传输过程中被截断: " + path);
+                }
+                position += transferred;
+            }
+        }
+    }
+}
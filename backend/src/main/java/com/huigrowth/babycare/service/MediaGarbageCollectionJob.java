@@ -0,0 +1,99 @@
+package com.huigrowth.babycare.service;
+
+import com.huigrowth.babycare.entity.MediaFile;
+import com.huigrowth.babycare.repository.MediaFileRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 媒体文件垃圾回收任务
+ * 按id键集分批扫描引用计数为0且超过宽限期未再变动的媒体文件（被引用过后归零的，以及上传后一直未使用的），
+ * 条件删除记录后，对不再有任何记录引用的内容删除磁盘文件及其缩略图。
+ * 引用计数上线前登记的文件引用数未知，从未被引用时不会被回收；宽限期覆盖上传到首次引用、以及编辑时先解除再重新引用的间隔；
+ * 磁盘文件在宽限期内被复用过（修改时间被刷新）时保留，防止与并发上传相同内容的请求冲突
+ *
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MediaGarbageCollectionJob {
+
+    private final MediaFileRepository mediaFileRepository;
+    private final MediaStorage mediaStorage;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.media.gc.grace-period:PT24H}")
+    private Duration gracePeriod;
+
+    @Value("${app.media.gc.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 每天定时回收
+     */
+    @Scheduled(cron = "${app.media.gc.cron:0 45 3 * * *}")
+    public void scheduledRun() {
+        try {
+            run();
+        } catch (Exception e) {
+            log.error("媒体文件垃圾回收执行失败", e);
+        }
+    }
+
+    /**
+     * 回收未被引用的媒体文件，返回删除的磁盘文件数
+     */
+    public long run() {
+        LocalDateTime before = LocalDateTime.now().minus(gracePeriod);
+        Instant idleSince = Instant.now().minus(gracePeriod);
+
+        long deletedRows = 0;
+        long deletedBlobs = 0;
+        long afterId = 0;
+        while (true) {
+            List<MediaFile> candidates = mediaFileRepository.findUnreferenced(before, afterId,
+                    PageRequest.of(0, batchSize));
+            if (candidates.isEmpty()) {
+                break;
+            }
+            afterId = candidates.get(candidates.size() - 1).getId();
+
+            List<Long> ids = candidates.stream().map(MediaFile::getId).toList();
+            Integer deleted = transactionTemplate.execute(status -> mediaFileRepository.deleteUnreferenced(ids, before));
+            deletedRows += deleted == null ? 0 : deleted;
+
+            Map<String, String> blobs = candidates.stream().collect(Collectors.toMap(
+                    MediaFile::getSha256, MediaFile::getStoragePath, (a, b) -> a, LinkedHashMap::new));
+            for (Map.Entry<String, String> blob : blobs.entrySet()) {
+                if (mediaFileRepository.countBySha256(blob.getKey()) == 0
+                        && mediaStorage.deleteIfIdleSince(blob.getValue(), idleSince)) {
+                    mediaStorage.deleteVariants(blob.getKey());
+                    deletedBlobs++;
+                }
+            }
+
+            if (candidates.size() < batchSize) {
+                break;
+            }
+        }
+
+        if (deletedRows > 0 || deletedBlobs > 0) {
+            log.info("媒体文件垃圾回收完成: records={}, blobs={}", deletedRows, deletedBlobs);
+        }
+        return deletedBlobs;
+    }
+}
@@ -0,0 +1,142 @@
+package com.huigrowth.babycare.service;
+
+import com.huigrowth.babycare.repository.MediaFileRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 媒体引用计数服务
+ * 成长记录、家庭动态、里程碑照片以及宝宝和用户头像保存媒体地址时，按新旧地址列表的差集调整
+ * /media/files/{id} 的引用计数；同一条记录多次引用同一文件只计一次，外部地址和旧的 /uploads 地址不参与计数。
+ * 新增可保存媒体地址的字段时必须在此登记引用，否则文件被引用后又归零时会被垃圾回收
+ *
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MediaReferenceService {
+
+    private static final Pattern MEDIA_FILE_URL = Pattern.compile("/media/files/(\\d+)(?:[?#].*)?$");
+
+    private final MediaFileRepository mediaFileRepository;
+
+    /**
+     * 按地址列表的变化调整引用计数，需在保存业务数据的事务内调用
+     *
+     * @param familyId 业务数据所属家庭，其他家庭的文件不会被计数
+     */
+    @Transactional
+    public void updateReferences(Long familyId, Collection<String> oldUrls, Collection<String> newUrls) {
+        Set<Long> oldIds = parseFileIds(oldUrls);
+        Set<Long> newIds = parseFileIds(newUrls);
+
+        Set<Long> added = new LinkedHashSet<>(newIds);
+        added.removeAll(oldIds);
+        Set<Long> removed = new LinkedHashSet<>(oldIds);
+        removed.removeAll(newIds);
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!added.isEmpty()) {
+            int updated = mediaFileRepository.adjustRefCount(added, familyId, 1, now);
+            if (updated < added.size()) {
+                log.warn("部分媒体文件不存在或不属于该家庭: familyId={}, fileIds={}", familyId, added);
+            }
+        }
+        if (!removed.isEmpty()) {
+            mediaFileRepository.adjustRefCount(removed, familyId, -1, now);
+        }
+    }
+
+    /**
+     * 用户头像变化时调整引用计数，只计用户本人上传的文件
+     */
+    @Transactional
+    public void updateUserReferences(Long userId, String oldUrl, String newUrl) {
+        Long oldId = parseFileId(oldUrl);
+        Long newId = parseFileId(newUrl);
+        if (Objects.equals(oldId, newId)) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (newId != null && mediaFileRepository.adjustRefCountByOwner(List.of(newId), userId, 1, now) == 0) {
+            log.warn("媒体文件不存在或不属于该用户: userId={}, fileId={}", userId, newId);
+        }
+        if (oldId != null) {
+            mediaFileRepository.adjustRefCountByOwner(List.of(oldId), userId, -1, now);
+        }
+    }
+
+    /**
+     * 批量新增记录时累加引用计数，每条记录对同一文件只计一次；
+     * 按增量分组后每组一条UPDATE，而不是每条记录一次
+     *
+     * @param urlLists 每条新记录的媒体地址列表
+     */
+    @Transactional
+    public void addReferences(Long familyId, Collection<? extends Collection<String>> urlLists) {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (Collection<String> urls : urlLists) {
+            for (Long id : parseFileIds(urls)) {
+                counts.merge(id, 1, Integer::sum);
+            }
+        }
+        if (counts.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, List<Long>> idsByDelta = new TreeMap<>();
+        counts.forEach((id, delta) -> idsByDelta.computeIfAbsent(delta, d -> new ArrayList<>()).add(id));
+        LocalDateTime now = LocalDateTime.now();
+        idsByDelta.forEach((delta, ids) -> {
+            int updated = mediaFileRepository.adjustRefCount(ids, familyId, delta, now);
+            if (updated < ids.size()) {
+                log.warn("部分媒体文件不存在或不属于该家庭: familyId={}, fileIds={}", familyId, ids);
+            }
+        });
+    }
+
+    /**
+     * 从地址列表中解析媒体文件ID
+     */
+    public static Set<Long> parseFileIds(Collection<String> urls) {
+        Set<Long> ids = new LinkedHashSet<>();
+        if (urls == null) {
+            return ids;
+        }
+        for (String url : urls) {
+            Long id = parseFileId(url);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 解析 /media/files/{id} 地址中的媒体文件ID，不是媒体文件地址时返回null
+     */
+    public static Long parseFileId(String url) {
+        if (url == null) {
+            return null;
+        }
+        Matcher matcher = MEDIA_FILE_URL.matcher(url);
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : null;
+    }
+}
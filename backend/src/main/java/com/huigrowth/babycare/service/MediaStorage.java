@@ -0,0 +1,216 @@
+package com.huigrowth.babycare.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 媒体文件存储
+ * 统一管理上传目录下的分片临时文件（tmp/uploads）、正式媒体文件（media）和上传目录之外的导出归档，数据库只保存相对路径。
+ * 正式文件按SHA-256内容寻址，存放在 media/{前2位}/{3-4位}/{摘要}，相同内容在磁盘上只保存一份；
+ * 缩略图与原文件同目录，命名为 {摘要}_w{宽度}.jpg。media 和 tmp 不经 /uploads/** 静态映射对外暴露
+ *
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@Component
+public class MediaStorage {
+
+    /**
+     * 上传目录下不由 /uploads/** 静态映射对外暴露的子目录，其中的文件只能经鉴权接口读取
+     */
+    private static final Set<String> PRIVATE_DIRS = Set.of("media", "tmp");
+
+    private final Path root;
+    private final Path partDir;
+    private final Path exportDir;
+
+    public MediaStorage(@Value("${app.file.upload-dir:./uploads}") String uploadDir,
+                        @Value("${app.export.dir:./exports}") String exportDir) {
+        this.root = Path.of(uploadDir).toAbsolutePath().normalize();
+        this.partDir = root.resolve("tmp").resolve("uploads");
+        this.exportDir = Path.of(exportDir).toAbsolutePath().normalize();
+        if (this.exportDir.startsWith(root)) {
+            throw new IllegalStateException("导出目录不能位于上传目录内: " + this.exportDir);
+        }
+        try {
+            Files.createDirectories(partDir);
+            Files.createDirectories(this.exportDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("无法创建上传目录: " + root, e);
+        }
+    }
+
+    /**
+     * 分片上传的临时文件
+     */
+    public Path partPath(String uploadId) {
+        return partDir.resolve(uploadId + ".part");
+    }
+
+    /**
+     * 导出任务的归档文件
+     */
+    public Path exportPath(String jobId) {
+        return exportDir.resolve(jobId + ".zip");
+    }
+
+    /**
+     * 导出任务的工作目录（生成过程中的临时文件）
+     */
+    public Path exportDir() {
+        return exportDir;
+    }
+
+    /**
+     * 旧版 /uploads/** 地址对应的文件；不是该类地址、越出上传目录或指向内容寻址目录、临时目录时返回null，
+     * 这些文件必须经文件id和家庭校验访问
+     */
+    public Path resolveLegacyUrl(String url) {
+        int index = url == null ? -1 : url.indexOf("/uploads/");
+        if (index < 0) {
+            return null;
+        }
+        try {
+            Path path = resolve(url.substring(index + "/uploads/".length()));
+            return isLegacyFile(path) ? path : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 是否为旧版平铺上传文件：位于上传目录内且不在内容寻址目录或临时目录下，可由静态映射直接访问
+     */
+    public boolean isLegacyFile(Path path) {
+        Path normalized = path.toAbsolutePath().normalize();
+        if (!normalized.startsWith(root) || normalized.equals(root)) {
+            return false;
+        }
+        String topDir = root.relativize(normalized).getName(0).toString().toLowerCase(Locale.ROOT);
+        return !PRIVATE_DIRS.contains(topDir);
+    }
+
+    /**
+     * 把上传完成的临时文件按内容摘要移入正式目录，返回相对存储路径
+     * 相同内容已存在时丢弃临时文件，并刷新已有文件的修改时间，避免其被垃圾回收按空闲时间删除
+     */
+    public String store(Path source, String sha256) throws IOException {
+        String storagePath = blobPath(sha256);
+        Path target = resolve(storagePath);
+        if (Files.exists(target)) {
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            deleteQuietly(source);
+            log.debug("媒体内容已存在，复用磁盘文件: sha256={}", sha256);
+            return storagePath;
+        }
+
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return storagePath;
+    }
+
+    /**
+     * 内容摘要对应的相对存储路径，按摘要前4位分两级子目录
+     */
+    public String blobPath(String sha256) {
+        return "media/" + sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256;
+    }
+
+    /**
+     * 缩略图的相对存储路径
+     */
+    public String variantPath(String sha256, int width) {
+        return blobPath(sha256) + "_w" + width + ".jpg";
+    }
+
+    /**
+     * 写入缩略图：先写同目录临时文件再原子改名，读取方不会看到写了一半的文件
+     */
+    public void storeVariant(String sha256, int width, byte[] content) throws IOException {
+        Path target = resolve(variantPath(sha256, width));
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), sha256, ".tmp");
+        try {
+            Files.write(temp, content);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * 删除内容对应的全部缩略图
+     */
+    public void deleteVariants(String sha256) {
+        Path dir = resolve(blobPath(sha256)).getParent();
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (DirectoryStream<Path> variants = Files.newDirectoryStream(dir, sha256 + "_w*")) {
+            for (Path variant : variants) {
+                deleteQuietly(variant);
+            }
+        } catch (IOException e) {
+            log.warn("删除缩略图失败: sha256={}", sha256, e);
+        }
+    }
+
+    /**
+     * 删除在指定时间之后未被写入或复用的文件，返回是否已删除
+     */
+    public boolean deleteIfIdleSince(String storagePath, Instant idleSince) {
+        Path path = resolve(storagePath);
+        try {
+            if (!Files.exists(path) || Files.getLastModifiedTime(path).toInstant().isAfter(idleSince)) {
+                return false;
+            }
+            return Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("删除媒体文件失败: path={}", path, e);
+            return false;
+        }
+    }
+
+    /**
+     * 相对存储路径转为绝对路径，拒绝越出上传目录的路径
+     */
+    public Path resolve(String storagePath) {
+        Path path = root.resolve(storagePath).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("非法的存储路径: " + storagePath);
+        }
+        return path;
+    }
+
+    /**
+     * 删除文件，失败只记录日志
+     */
+    public void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("删除文件失败: path={}", path, e);
+        }
+    }
+}
@@ -0,0 +1,485 @@
+package com.huigrowth.babycare.service;
+
+import com.huigrowth.babycare.dto.MediaUploadCreateRequest;
+import com.huigrowth.babycare.dto.MediaUploadResponse;
+import com.huigrowth.babycare.entity.MediaFile;
+import com.huigrowth.babycare.entity.MediaUpload;
+import com.huigrowth.babycare.entity.User;
+import com.huigrowth.babycare.event.MediaFileRegisteredEvent;
+import com.huigrowth.babycare.exception.BusinessException;
+import com.huigrowth.babycare.exception.UploadConflictException;
+import com.huigrowth.babycare.repository.FamilyMemberRepository;
+import com.huigrowth.babycare.repository.MediaFileRepository;
+import com.huigrowth.babycare.repository.MediaUploadRepository;
+import com.huigrowth.babycare.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 分片上传服务（tus风格的可续传上传）
+ * 创建上传会话后，客户端按偏移量依次提交分片；分片数据经 FileChannel 直接从请求流写入临时文件，
+ * 内存占用只有传输缓冲区，与文件大小无关。整文件SHA-256随分片增量计算（摘要状态缓存在内存，
+ * 重启后从已写入的临时文件恢复），分片可附带 Upload-Checksum 单独校验；写完最后一个分片后
+ * 校验整文件摘要并登记为媒体文件。分片写入失败时回退到分片起点，客户端从 HEAD 返回的偏移量重传
+ *
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MediaUploadService {
+
+    private static final String CHECKSUM_ALGORITHM = "sha256";
+    private static final int RECOVER_BUFFER_SIZE = 64 * 1024;
+
+    private final MediaUploadRepository mediaUploadRepository;
+    private final MediaFileRepository mediaFileRepository;
+    private final FamilyMemberRepository familyMemberRepository;
+    private final UserRepository userRepository;
+    private final MediaStorage mediaStorage;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<String, MessageDigest> digests = new ConcurrentHashMap<>();
+    private final Set<String> activeWrites = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.media.upload.max-size:4294967296}")
+    private long maxSize;
+
+    @Value("${app.media.upload.max-chunk-size:67108864}")
+    private long maxChunkSize;
+
+    @Value("${app.media.upload.expiration:PT24H}")
+    private Duration expiration;
+
+    @Value("${app.media.upload.allowed-types:image/,video/,audio/}")
+    private List<String> allowedTypes;
+
+    /**
+     * 创建上传会话
+     */
+    public MediaUploadResponse createUpload(String username, MediaUploadCreateRequest request) {
+        log.info("创建分片上传: username={}, request={}", username, request);
+
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new BusinessException("用户不存在"));
+
+        if (!familyMemberRepository.existsByUserAndBaby(user, request.getFamilyId())) {
+            throw new BusinessException("您不是该家庭的成员");
+        }
+        if (request.getTotalSize() > maxSize) {
+            throw new BusinessException("文件大小超过上限");
+        }
+        String contentType = request.getContentType().toLowerCase();
+        if (allowedTypes.stream().noneMatch(contentType::startsWith)) {
+            throw new BusinessException("不支持的文件类型: " + request.getContentType());
+        }
+
+        MediaUpload upload = new MediaUpload();
+        upload.setUploadId(UUID.randomUUID().toString());
+        upload.setOwner(user);
+        upload.setFamilyId(request.getFamilyId());
+        upload.setFileName(request.getFileName());
+        upload.setContentType(contentType);
+        upload.setTotalSize(request.getTotalSize());
+        upload.setExpectedSha256(request.getSha256() == null ? null : request.getSha256().toLowerCase());
+        upload.setExpiresAt(LocalDateTime.now().plus(expiration));
+
+        // 声明了摘要且家庭内已有相同内容时秒传，不再创建临时文件
+        if (upload.getExpectedSha256() != null) {
+            MediaUpload instant = transactionTemplate.execute(status -> completeFromExisting(upload));
+            if (instant != null) {
+                log.info("文件已存在，秒传完成: uploadId={}, mediaFileId={}", instant.getUploadId(), instant.getMediaFileId());
+                return convertToResponse(instant);
+            }
+        }
+
+        try {
+            Files.createFile(mediaStorage.partPath(upload.getUploadId())); // 创建空的临时文件
+        } catch (IOException e) {
+            throw new UncheckedIOException("创建上传临时文件失败", e);
+        }
+
+        MediaUpload savedUpload = mediaUploadRepository.save(upload);
+        digests.put(savedUpload.getUploadId(), newDigest());
+        log.info("成功创建分片上传: uploadId={}, totalSize={}", savedUpload.getUploadId(), savedUpload.getTotalSize());
+
+        return convertToResponse(savedUpload);
+    }
+
+    /**
+     * 查询上传进度
+     */
+    public MediaUploadResponse getUpload(String username, String uploadId) {
+        return convertToResponse(findOwnedUpload(username, uploadId));
+    }
+
+    /**
+     * 追加一个分片
+     *
+     * @param offset        客户端认为的当前偏移量，必须与服务端一致
+     * @param contentLength 分片长度，未知时为-1（分块传输编码）
+     * @param checksum      可选的分片校验，格式为 "sha256 &lt;Base64摘要&gt;"
+     */
+    public MediaUploadResponse appendChunk(String username, String uploadId, long offset, long contentLength,
+                                           String checksum, InputStream body) {
+        MediaUpload owned = findOwnedUpload(username, uploadId);
+        byte[] expectedChunkDigest = parseChecksum(checksum);
+
+        if (!activeWrites.add(uploadId)) {
+            throw new UploadConflictException("该上传正在写入中", owned.getUploadOffset());
+        }
+        try {
+            // 取得写入标记后重新读取：标记之前读到的偏移量可能已被刚结束的另一个请求推进，据此写入会覆盖已提交的数据
+            MediaUpload upload = mediaUploadRepository.findByUploadId(uploadId)
+                    .orElseThrow(() -> new BusinessException("上传不存在"));
+            if (upload.getStatus() != MediaUpload.UploadStatus.UPLOADING) {
+                throw new BusinessException("上传已结束");
+            }
+            if (offset != upload.getUploadOffset()) {
+                throw new UploadConflictException("偏移量不一致", upload.getUploadOffset());
+            }
+
+            long remaining = upload.getTotalSize() - offset;
+            long limit = Math.min(remaining, maxChunkSize);
+            if (contentLength > limit) {
+                throw new BusinessException(contentLength > remaining ? "分片超出文件大小" : "分片大小超过上限");
+            }
+
+            long written = contentLength < 0
+                    ? writeChunk(upload, offset, limit, false, expectedChunkDigest, body)
+                    : writeChunk(upload, offset, contentLength, true, expectedChunkDigest, body);
+            long newOffset = offset + written;
+
+            Integer advanced = transactionTemplate.execute(status -> mediaUploadRepository.advanceOffset(uploadId,
+                    MediaUpload.UploadStatus.UPLOADING, offset, newOffset, LocalDateTime.now().plus(expiration)));
+            if (advanced == null || advanced == 0) {
+                digests.remove(uploadId);
+                throw new UploadConflictException("上传状态已变化", offset);
+            }
+            upload.setUploadOffset(newOffset);
+
+            if (newOffset == upload.getTotalSize()) {
+                completeUpload(upload);
+            }
+            return convertToResponse(upload);
+        } finally {
+            activeWrites.remove(uploadId);
+        }
+    }
+
+    /**
+     * 取消上传，删除临时文件
+     */
+    public void cancelUpload(String username, String uploadId) {
+        log.info("取消分片上传: username={}, uploadId={}", username, uploadId);
+
+        MediaUpload upload = findOwnedUpload(username, uploadId);
+        if (upload.getStatus() != MediaUpload.UploadStatus.UPLOADING) {
+            throw new BusinessException("上传已结束");
+        }
+        if (!activeWrites.add(uploadId)) {
+            throw new UploadConflictException("该上传正在写入中", upload.getUploadOffset());
+        }
+        try {
+            discard(upload);
+        } finally {
+            activeWrites.remove(uploadId);
+        }
+    }
+
+    /**
+     * 每小时清理过期未完成的上传
+     */
+    @Scheduled(cron = "${app.media.upload.cleanup-cron:0 30 * * * *}")
+    public void cleanupExpired() {
+        List<MediaUpload> expired;
+        int cleaned = 0;
+        do {
+            expired = mediaUploadRepository.findExpired(MediaUpload.UploadStatus.UPLOADING, LocalDateTime.now(),
+                    PageRequest.of(0, 100));
+            for (MediaUpload upload : expired) {
+                if (activeWrites.add(upload.getUploadId())) {
+                    try {
+                        discard(upload);
+                        cleaned++;
+                    } finally {
+                        activeWrites.remove(upload.getUploadId());
+                    }
+                }
+            }
+        } while (expired.size() == 100 && cleaned > 0);
+
+        if (cleaned > 0) {
+            log.info("清理过期分片上传: count={}", cleaned);
+        }
+    }
+
+    /**
+     * 把请求体写入临时文件的 [offset, offset+length) 区间，返回写入的字节数；失败时截断回 offset
+     *
+     * @param exact 长度是否由 Content-Length 确定；为false时 length 只是上限，读到流结束为止
+     */
+    private long writeChunk(MediaUpload upload, long offset, long length, boolean exact, byte[] expectedChunkDigest,
+                            InputStream body) {
+        Path part = mediaStorage.partPath(upload.getUploadId());
+        MessageDigest fileDigest = currentDigest(upload, part);
+        MessageDigest working = cloneDigest(fileDigest);
+        MessageDigest chunkDigest = expectedChunkDigest == null ? null : newDigest();
+
+        InputStream in = new DigestInputStream(body, working);
+        if (chunkDigest != null) {
+            in = new DigestInputStream(in, chunkDigest);
+        }
+
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.WRITE)) {
+            ReadableByteChannel source = Channels.newChannel(in);
+            long written = 0;
+            while (written < length) {
+                long transferred = channel.transferFrom(source, offset + written, length - written);
+                if (transferred <= 0) {
+                    break;
+                }
+                written += transferred;
+            }
+            if (exact && written < length) {
+                throw new IOException("请求体不完整: expected=" + length + ", received=" + written);
+            }
+            if (!exact && written == length && in.read() != -1) {
+                throw new BusinessException("分片超出允许的大小");
+            }
+            if (chunkDigest != null && !MessageDigest.isEqual(chunkDigest.digest(), expectedChunkDigest)) {
+                throw new BusinessException("CHECKSUM_MISMATCH", "分片校验失败");
+            }
+            channel.force(false);
+
+            digests.put(upload.getUploadId(), working);
+            return written;
+        } catch (IOException | RuntimeException e) {
+            truncateQuietly(part, offset);
+            if (e instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new BusinessException("UPLOAD_INTERRUPTED", "分片传输中断，请从偏移量 " + offset + " 重新上传");
+        }
+    }
+
+    /**
+     * 校验整文件摘要并登记媒体文件
+     */
+    private void completeUpload(MediaUpload upload) {
+        MessageDigest digest = digests.remove(upload.getUploadId());
+        if (digest == null) {
+            digest = currentDigest(upload, mediaStorage.partPath(upload.getUploadId()));
+            digests.remove(upload.getUploadId());
+        }
+        String sha256 = HexFormat.of().formatHex(digest.digest());
+
+        if (upload.getExpectedSha256() != null && !upload.getExpectedSha256().equals(sha256)) {
+            discard(upload);
+            throw new BusinessException("CHECKSUM_MISMATCH", "文件校验失败，请重新上传");
+        }
+
+        String storagePath;
+        try {
+            storagePath = mediaStorage.store(mediaStorage.partPath(upload.getUploadId()), sha256);
+        } catch (IOException e) {
+            throw new UncheckedIOException("保存媒体文件失败", e);
+        }
+
+        MediaFile mediaFile = transactionTemplate.execute(status -> {
+            MediaFile file = findReusable(upload.getFamilyId(), sha256).orElseGet(() -> {
+                MediaFile created = new MediaFile();
+                created.setOwner(upload.getOwner());
+                created.setFamilyId(upload.getFamilyId());
+                created.setFileName(upload.getFileName());
+                created.setContentType(upload.getContentType());
+                created.setMediaType(MediaFile.MediaType.of(upload.getContentType()));
+                created.setSize(upload.getTotalSize());
+                created.setSha256(sha256);
+                created.setStoragePath(storagePath);
+                created.setRefTracked(true);
+                created.setThumbnailStatus(created.getMediaType() == MediaFile.MediaType.IMAGE
+                        ? MediaFile.ThumbnailStatus.PENDING : MediaFile.ThumbnailStatus.NONE);
+                MediaFile savedFile = mediaFileRepository.save(created);
+                eventPublisher.publishEvent(new MediaFileRegisteredEvent(savedFile.getId(),
+                        savedFile.getFamilyId(), savedFile.getMediaType()));
+                return savedFile;
+            });
+
+            upload.setStatus(MediaUpload.UploadStatus.COMPLETED);
+            upload.setMediaFileId(file.getId());
+            mediaUploadRepository.save(upload);
+            return file;
+        });
+        log.info("分片上传完成: uploadId={}, mediaFileId={}, size={}", upload.getUploadId(),
+                mediaFile.getId(), mediaFile.getSize());
+    }
+
+    /**
+     * 家庭内已有相同内容时直接把上传登记为完成，需在事务内调用；没有可复用的文件时返回null
+     */
+    private MediaUpload completeFromExisting(MediaUpload upload) {
+        return findReusable(upload.getFamilyId(), upload.getExpectedSha256())
+                .filter(file -> file.getSize().equals(upload.getTotalSize()))
+                .map(file -> {
+                    upload.setUploadOffset(upload.getTotalSize());
+                    upload.setStatus(MediaUpload.UploadStatus.COMPLETED);
+                    upload.setMediaFileId(file.getId());
+                    return mediaUploadRepository.save(upload);
+                })
+                .orElse(null);
+    }
+
+    /**
+     * 查找家庭内内容相同的媒体文件，并刷新其更新时间，避免在被引用之前就被垃圾回收
+     */
+    private Optional<MediaFile> findReusable(Long familyId, String sha256) {
+        Optional<MediaFile> existing = mediaFileRepository.findFirstByFamilyIdAndSha256OrderByIdAsc(familyId, sha256);
+        existing.ifPresent(file -> mediaFileRepository.adjustRefCount(List.of(file.getId()), familyId, 0,
+                LocalDateTime.now()));
+        return existing;
+    }
+
+    /**
+     * 标记为已取消并删除临时文件
+     */
+    private void discard(MediaUpload upload) {
+        upload.setStatus(MediaUpload.UploadStatus.CANCELLED);
+        mediaUploadRepository.save(upload);
+        digests.remove(upload.getUploadId());
+        mediaStorage.deleteQuietly(mediaStorage.partPath(upload.getUploadId()));
+    }
+
+    /**
+     * 获取上传当前的整文件摘要状态；缓存丢失（如服务重启）时从临时文件已写入部分重新计算
+     */
+    private MessageDigest currentDigest(MediaUpload upload, Path part) {
+        return digests.computeIfAbsent(upload.getUploadId(), id -> {
+            MessageDigest digest = newDigest();
+            ByteBuffer buffer = ByteBuffer.allocate(RECOVER_BUFFER_SIZE);
+            try (FileChannel channel = FileChannel.open(part, StandardOpenOption.READ)) {
+                long position = 0;
+                while (position < upload.getUploadOffset()) {
+                    buffer.clear();
+                    buffer.limit((int) Math.min(buffer.capacity(), upload.getUploadOffset() - position));
+                    int read = channel.read(buffer, position);
+                    if (read < 0) {
+                        throw new BusinessException("上传临时文件已损坏");
+                    }
+                    buffer.flip();
+                    digest.update(buffer);
+                    position += read;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("读取上传临时文件失败", e);
+            }
+            log.info("恢复上传摘要状态: uploadId={}, offset={}", id, upload.getUploadOffset());
+            return digest;
+        });
+    }
+
+    private void truncateQuietly(Path part, long size) {
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+        } catch (IOException e) {
+            log.warn("回退上传临时文件失败: path={}, size={}", part, size, e);
+        }
+    }
+
+    private MediaUpload findOwnedUpload(String username, String uploadId) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new BusinessException("用户不存在"));
+
+        MediaUpload upload = mediaUploadRepository.findByUploadId(uploadId)
+                .orElseThrow(() -> new BusinessException("上传不存在"));
+
+        if (!upload.getOwner().getId().equals(user.getId())) {
+            throw new BusinessException("您没有权限操作该上传");
+        }
+        return upload;
+    }
+
+    /**
+     * 解析 "sha256 &lt;Base64摘要&gt;" 格式的分片校验头
+     */
+    private byte[] parseChecksum(String checksum) {
+        if (checksum == null || checksum.isBlank()) {
+            return null;
+        }
+        String[] parts = checksum.trim().split("\\s+");
+        if (parts.length != 2 || !CHECKSUM_ALGORITHM.equalsIgnoreCase(parts[0])) {
+            throw new BusinessException("不支持的分片校验算法");
+        }
+        try {
+            return Base64.getDecoder().decode(parts[1]);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("分片校验格式错误");
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MessageDigest cloneDigest(MessageDigest digest) {
+        try {
+            return (MessageDigest) digest.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 转换为上传响应DTO
+     */
+    private MediaUploadResponse convertToResponse(MediaUpload upload) {
+        MediaUploadResponse response = new MediaUploadResponse();
+        response.setUploadId(upload.getUploadId());
+        response.setFileName(upload.getFileName());
+        response.setContentType(upload.getContentType());
+        response.setTotalSize(upload.getTotalSize());
+        response.setUploadOffset(upload.getUploadOffset());
+        response.setStatus(upload.getStatus());
+        response.setExpiresAt(upload.getExpiresAt());
+        response.setMediaFileId(upload.getMediaFileId());
+        if (upload.getMediaFileId() != null) {
+            response.setMediaUrl("/media/files/" + upload.getMediaFileId());
+        }
+        return response;
+    }
+}
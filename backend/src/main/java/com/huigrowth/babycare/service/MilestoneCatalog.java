@@ -0,0 +1,148 @@
+package com.huigrowth.babycare.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.huigrowth.babycare.entity.Milestone;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 预设里程碑目录
+ * 启动时从 classpath 加载一次，按典型达成起始月龄排序后建立不可变索引：
+ * 月龄 m 之前已进入窗口的里程碑是一个前缀，m 之后 h 个月内将进入窗口的里程碑是一个连续区间，
+ * 查询只需数组下标运算，无需访问数据库
+ *
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@Component
+public class MilestoneCatalog {
+
+    private static final String CATALOG_LOCATION = "milestones/preset-milestones.json";
+
+    private final List<PresetMilestone> presets;
+    private final Map<Long, PresetMilestone> presetsById;
+    private final int[] startedCount; // 下标为月龄，值为起始月龄不大于该月龄的预设数量
+    private final int maxMonth;
+
+    public MilestoneCatalog(ObjectMapper objectMapper) {
+        List<PresetMilestone> loaded = load(objectMapper);
+        loaded.sort(Comparator.comparingInt(PresetMilestone::getStartMonth).thenComparing(PresetMilestone::getId));
+
+        Map<Long, PresetMilestone> byId = new HashMap<>();
+        for (int i = 0; i < loaded.size(); i++) {
+            PresetMilestone preset = loaded.get(i);
+            if (preset.getStartMonth() < 0 || preset.getEndMonth() < preset.getStartMonth()) {
+                throw new IllegalStateException("预设里程碑月龄区间无效: id=" + preset.getId());
+            }
+            if (byId.put(preset.getId(), preset) != null) {
+                throw new IllegalStateException("预设里程碑ID重复: id=" + preset.getId());
+            }
+            preset.setIndex(i);
+        }
+
+        this.maxMonth = loaded.isEmpty() ? 0 : loaded.get(loaded.size() - 1).getStartMonth();
+        this.startedCount = new int[maxMonth + 1];
+        int cursor = 0;
+        for (int month = 0; month <= maxMonth; month++) {
+            while (cursor < loaded.size() && loaded.get(cursor).getStartMonth() <= month) {
+                cursor++;
+            }
+            startedCount[month] = cursor;
+        }
+
+        this.presets = Collections.unmodifiableList(loaded);
+        this.presetsById = Collections.unmodifiableMap(byId);
+        log.info("预设里程碑目录已加载: count={}, maxStartMonth={}", presets.size(), maxMonth);
+    }
+
+    /**
+     * 全部预设里程碑（按起始月龄排序）
+     */
+    public List<PresetMilestone> getAll() {
+        return presets;
+    }
+
+    /**
+     * 预设里程碑数量（也是位图下标的上界）
+     */
+    public int size() {
+        return presets.size();
+    }
+
+    /**
+     * 通过ID查找预设里程碑
+     */
+    public PresetMilestone findById(Long presetId) {
+        return presetId == null ? null : presetsById.get(presetId);
+    }
+
+    /**
+     * 月龄为 ageInMonths 时已进入达成窗口的预设里程碑（含已过窗口的）
+     */
+    public List<PresetMilestone> startedBy(int ageInMonths) {
+        return presets.subList(0, countStartedBy(ageInMonths));
+    }
+
+    /**
+     * 月龄 (ageInMonths, ageInMonths + horizonMonths] 内将进入达成窗口的预设里程碑
+     */
+    public List<PresetMilestone> startingWithin(int ageInMonths, int horizonMonths) {
+        return presets.subList(countStartedBy(ageInMonths), countStartedBy(ageInMonths + horizonMonths));
+    }
+
+    private int countStartedBy(int month) {
+        if (month < 0) {
+            return 0;
+        }
+        return month > maxMonth ? presets.size() : startedCount[month];
+    }
+
+    private List<PresetMilestone> load(ObjectMapper objectMapper) {
+        try (InputStream in = new ClassPathResource(CATALOG_LOCATION).getInputStream()) {
+            PresetMilestone[] loaded = objectMapper.readValue(in, new TypeReference<PresetMilestone[]>() {});
+            return new ArrayList<>(Arrays.asList(loaded));
+        } catch (IOException e) {
+            throw new IllegalStateException("加载预设里程碑目录失败: " + CATALOG_LOCATION, e);
+        }
+    }
+
+    /**
+     * 预设里程碑（加载后只读）
+     */
+    @Getter
+    @Setter(AccessLevel.PRIVATE)
+    public static class PresetMilestone {
+        private Long id;
+        private String title;
+        private String description;
+        private Milestone.MilestoneCategory category;
+        private int startMonth; // 典型达成窗口起始月龄
+        private int endMonth; // 典型达成窗口结束月龄
+        private String celebrationMessage;
+        @JsonIgnore
+        private int index; // 目录内的位置，用作达成位图下标
+
+        /**
+         * 月龄超过窗口仍未达成
+         */
+        public boolean isOverdueAt(int ageInMonths) {
+            return ageInMonths > endMonth;
+        }
+    }
+}
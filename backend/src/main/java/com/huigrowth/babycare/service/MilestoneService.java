@@ -0,0 +1,422 @@
+package com.huigrowth.babycare.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.huigrowth.babycare.config.ReadWriteRoutingDataSource;
+import com.huigrowth.babycare.dto.MilestoneChecklistResponse;
+import com.huigrowth.babycare.dto.MilestoneCreateRequest;
+import com.huigrowth.babycare.dto.MilestoneResponse;
+import com.huigrowth.babycare.dto.PresetMilestoneResponse;
+import com.huigrowth.babycare.entity.Baby;
+import com.huigrowth.babycare.entity.Milestone;
+import com.huigrowth.babycare.entity.User;
+import com.huigrowth.babycare.event.MilestonesChangedEvent;
+import com.huigrowth.babycare.exception.BusinessException;
+import com.huigrowth.babycare.repository.BabyRepository;
+import com.huigrowth.babycare.repository.FamilyMemberRepository;
+import com.huigrowth.babycare.repository.MilestoneRepository;
+import com.huigrowth.babycare.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 里程碑服务
+ * 预设里程碑目录常驻内存（见 {@link MilestoneCatalog}），每个宝宝已达成的预设里程碑以位图缓存，
+ * 清单和“接下来的里程碑”只做内存计算。
+ * 预设里程碑变更提交后使缓存失效并推进版本号；读取开始时记下版本号，加载完成时版本号已变化说明
+ * 期间有提交，加载结果可能早于该提交，不写入缓存
+ * 
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MilestoneService {
+
+    private final MilestoneRepository milestoneRepository;
+    private final BabyRepository babyRepository;
+    private final UserRepository userRepository;
+    private final FamilyMemberRepository familyMemberRepository;
+    private final MilestoneCatalog milestoneCatalog;
+    private final BabyAgeCache babyAgeCache;
+    private final ObjectMapper objectMapper;
+    private final MediaReferenceService mediaReferenceService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.milestone.upcoming-months:3}")
+    private int defaultUpcomingMonths;
+
+    @Value("${app.milestone.cache-size:5000}")
+    private int cacheSize;
+
+    /**
+     * 宝宝ID -> 已达成预设里程碑位图（位图只读，变更时整体替换）
+     */
+    private final Map<Long, BitSet> achievedCache = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, BitSet> eldest) {
+                    return size() > cacheSize;
+                }
+            });
+
+    /**
+     * 已达成位图的版本号，每次预设里程碑变更提交后递增
+     */
+    private final AtomicLong achievedGeneration = new AtomicLong();
+
+    /**
+     * 记录里程碑
+     */
+    @Transactional
+    public MilestoneResponse recordMilestone(String username, MilestoneCreateRequest request) {
+        log.info("记录里程碑: username={}, babyId={}, presetMilestoneId={}",
+                username, request.getBabyId(), request.getPresetMilestoneId());
+
+        long generation = achievedGeneration.get();
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new BusinessException("用户不存在"));
+
+        Baby baby = babyRepository.findById(request.getBabyId())
+                .orElseThrow(() -> new BusinessException("宝宝不存在"));
+
+        if (!hasAccessToBaby(user, baby)) {
+            throw new BusinessException("您没有权限为该宝宝记录里程碑");
+        }
+
+        Milestone milestone = new Milestone();
+        milestone.setBaby(baby);
+        milestone.setAchievedAt(request.getAchievedAt());
+        milestone.setDescription(request.getDescription());
+        milestone.setCelebrationMessage(request.getCelebrationMessage());
+
+        MilestoneCatalog.PresetMilestone preset = null;
+        if (request.getPresetMilestoneId() != null) {
+            preset = milestoneCatalog.findById(request.getPresetMilestoneId());
+            if (preset == null) {
+                throw new BusinessException("预设里程碑不存在");
+            }
+            if (getAchieved(baby.getId(), generation).get(preset.getIndex())) {
+                throw new BusinessException("该里程碑已经记录过了");
+            }
+            milestone.setIsPreset(true);
+            milestone.setPresetMilestoneId(preset.getId());
+            milestone.setTitle(request.getTitle() != null ? request.getTitle() : preset.getTitle());
+            milestone.setCategory(preset.getCategory());
+            if (milestone.getDescription() == null) {
+                milestone.setDescription(preset.getDescription());
+            }
+            if (milestone.getCelebrationMessage() == null) {
+                milestone.setCelebrationMessage(preset.getCelebrationMessage());
+            }
+        } else {
+            if (request.getTitle() == null || request.getTitle().isBlank()) {
+                throw new BusinessException("里程碑标题不能为空");
+            }
+            milestone.setTitle(request.getTitle());
+            milestone.setCategory(parseCategory(request.getCategory()));
+        }
+
+        // 达成时的年龄
+        int ageInDays = babyAgeCache.ageInDays(baby.getBirthday(), request.getAchievedAt().toLocalDate());
+        if (ageInDays < 0) {
+            throw new BusinessException("达成时间不能早于宝宝出生日期");
+        }
+        milestone.setAgeInDays(ageInDays);
+        milestone.setAgeInMonths(ageInDays / BabyAgeCache.DAYS_PER_MONTH);
+
+        if (request.getPhotos() != null && !request.getPhotos().isEmpty()) {
+            try {
+                milestone.setPhotos(objectMapper.writeValueAsString(request.getPhotos()));
+            } catch (JsonProcessingException e) {
+                log.error("序列化里程碑照片失败", e);
+                throw new BusinessException("照片格式错误");
+            }
+        }
+
+        Milestone savedMilestone;
+        try {
+            savedMilestone = milestoneRepository.saveAndFlush(milestone);
+        } catch (DataIntegrityViolationException e) {
+            // 并发记录同一预设里程碑时，位图检查都会通过，由唯一约束兜底
+            log.info("预设里程碑重复记录: babyId={}, presetMilestoneId={}", baby.getId(), milestone.getPresetMilestoneId());
+            throw new BusinessException("该里程碑已经记录过了");
+        }
+        mediaReferenceService.updateReferences(baby.getFamily().getId(), List.of(), request.getPhotos());
+        if (preset != null) {
+            invalidateAchievedAfterCommit(baby.getId());
+        }
+        eventPublisher.publishEvent(new MilestonesChangedEvent(baby.getId()));
+        log.info("成功记录里程碑: id={}", savedMilestone.getId());
+
+        return convertToResponse(savedMilestone);
+    }
+
+    /**
+     * 删除里程碑
+     */
+    @Transactional
+    public void deleteMilestone(String username, Long milestoneId) {
+        log.info("删除里程碑: username={}, milestoneId={}", username, milestoneId);
+
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new BusinessException("用户不存在"));
+
+        Milestone milestone = milestoneRepository.findById(milestoneId)
+                .orElseThrow(() -> new BusinessException("里程碑不存在"));
+
+        if (!hasAccessToBaby(user, milestone.getBaby())) {
+            throw new BusinessException("您没有权限删除该里程碑");
+        }
+
+        milestoneRepository.delete(milestone);
+        mediaReferenceService.updateReferences(milestone.getBaby().getFamily().getId(), getPhotoList(milestone), List.of());
+        MilestoneCatalog.PresetMilestone preset = milestoneCatalog.findById(milestone.getPresetMilestoneId());
+        if (preset != null) {
+            invalidateAchievedAfterCommit(milestone.getBaby().getId());
+        }
+        eventPublisher.publishEvent(new MilestonesChangedEvent(milestone.getBaby().getId()));
+        log.info("成功删除里程碑: id={}", milestoneId);
+    }
+
+    /**
+     * 获取宝宝已记录的里程碑
+     */
+    @Transactional(readOnly = true)
+    public List<MilestoneResponse> getBabyMilestones(String username, Long babyId) {
+        log.info("获取宝宝里程碑: username={}, babyId={}", username, babyId);
+
+        Baby baby = findAccessibleBaby(username, babyId);
+
+        return milestoneRepository.findByBabyOrderByAchievedAtDesc(baby).stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 获取宝宝的里程碑清单：当前月龄前已进入达成窗口的全部预设里程碑及达成情况
+     */
+    @Transactional(readOnly = true)
+    public MilestoneChecklistResponse getChecklist(String username, Long babyId) {
+        log.info("获取里程碑清单: username={}, babyId={}", username, babyId);
+
+        long generation = achievedGeneration.get();
+        Baby baby = findAccessibleBaby(username, babyId);
+        int ageInMonths = babyAgeCache.ageInMonths(baby.getBirthday());
+        BitSet achieved = getAchieved(baby.getId(), generation);
+
+        List<PresetMilestoneResponse> items = new ArrayList<>();
+        int achievedCount = 0;
+        for (MilestoneCatalog.PresetMilestone preset : milestoneCatalog.startedBy(ageInMonths)) {
+            boolean isAchieved = achieved.get(preset.getIndex());
+            if (isAchieved) {
+                achievedCount++;
+            }
+            items.add(convertToPresetResponse(preset, isAchieved, ageInMonths));
+        }
+
+        MilestoneChecklistResponse response = new MilestoneChecklistResponse();
+        response.setBabyId(baby.getId());
+        response.setAgeInMonths(ageInMonths);
+        response.setAgeDescription(babyAgeCache.ageDescription(baby.getBirthday()));
+        response.setAchievedCount(achievedCount);
+        response.setTotalCount(items.size());
+        response.setItems(items);
+        return response;
+    }
+
+    /**
+     * 获取宝宝接下来预期的里程碑：窗口内尚未达成的，以及未来几个月将进入窗口的
+     */
+    @Transactional(readOnly = true)
+    public List<PresetMilestoneResponse> getUpcomingMilestones(String username, Long babyId, Integer months) {
+        log.info("获取接下来的里程碑: username={}, babyId={}, months={}", username, babyId, months);
+
+        long generation = achievedGeneration.get();
+        Baby baby = findAccessibleBaby(username, babyId);
+        int ageInMonths = babyAgeCache.ageInMonths(baby.getBirthday());
+        int horizon = months != null && months > 0 ? months : defaultUpcomingMonths;
+        BitSet achieved = getAchieved(baby.getId(), generation);
+
+        List<PresetMilestoneResponse> upcoming = new ArrayList<>();
+        for (MilestoneCatalog.PresetMilestone preset : milestoneCatalog.startedBy(ageInMonths)) {
+            if (!achieved.get(preset.getIndex()) && !preset.isOverdueAt(ageInMonths)) {
+                upcoming.add(convertToPresetResponse(preset, false, ageInMonths));
+            }
+        }
+        for (MilestoneCatalog.PresetMilestone preset : milestoneCatalog.startingWithin(ageInMonths, horizon)) {
+            if (!achieved.get(preset.getIndex())) {
+                upcoming.add(convertToPresetResponse(preset, false, ageInMonths));
+            }
+        }
+        return upcoming;
+    }
+
+    /**
+     * 获取预设里程碑目录，可按月龄过滤出该月龄前已进入窗口的部分
+     */
+    public List<PresetMilestoneResponse> getPresets(Integer ageInMonths) {
+        List<MilestoneCatalog.PresetMilestone> presets = ageInMonths != null
+                ? milestoneCatalog.startedBy(ageInMonths) : milestoneCatalog.getAll();
+        return presets.stream()
+                .map(preset -> convertToPresetResponse(preset, null, null))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 获取宝宝已达成的预设里程碑位图，未缓存时从数据库加载。
+     * generation 须在本次请求第一次读库之前取得；缓存由全家共享，从库读到的位图可能落后于刚提交的记录，
+     * 加载期间有变更提交时同样可能读到旧数据，这两种情况只用于本次响应，不写入缓存
+     */
+    private BitSet getAchieved(Long babyId, long generation) {
+        BitSet achieved = achievedCache.get(babyId);
+        if (achieved != null) {
+            return achieved;
+        }
+        BitSet loaded = new BitSet(milestoneCatalog.size());
+        for (Long presetId : milestoneRepository.findPresetMilestoneIdsByBabyId(babyId)) {
+            MilestoneCatalog.PresetMilestone preset = milestoneCatalog.findById(presetId);
+            if (preset != null) {
+                loaded.set(preset.getIndex());
+            }
+        }
+        if (!ReadWriteRoutingDataSource.isReplicaRead()) {
+            synchronized (achievedCache) {
+                if (achievedGeneration.get() == generation) {
+                    achievedCache.put(babyId, loaded);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * 事务提交后推进版本号并移除缓存，下次读取时从数据库加载
+     */
+    private void invalidateAchievedAfterCommit(Long babyId) {
+        Runnable invalidate = () -> {
+            synchronized (achievedCache) {
+                achievedGeneration.incrementAndGet();
+                achievedCache.remove(babyId);
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate.run();
+                }
+            });
+        } else {
+            invalidate.run();
+        }
+    }
+
+    private Baby findAccessibleBaby(String username, Long babyId) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new BusinessException("用户不存在"));
+
+        Baby baby = babyRepository.findById(babyId)
+                .orElseThrow(() -> new BusinessException("宝宝不存在"));
+
+        if (!hasAccessToBaby(user, baby)) {
+            throw new BusinessException("您没有权限查看该宝宝的里程碑");
+        }
+        return baby;
+    }
+
+    private Milestone.MilestoneCategory parseCategory(String category) {
+        if (category == null || category.isBlank()) {
+            return Milestone.MilestoneCategory.OTHER;
+        }
+        try {
+            return Milestone.MilestoneCategory.valueOf(category.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("不支持的里程碑类别: " + category);
+        }
+    }
+
+    /**
+     * 检查用户是否有权限访问宝宝
+     */
+    private boolean hasAccessToBaby(User user, Baby baby) {
+        return familyMemberRepository.existsByUserAndBaby(user, baby.getFamily().getId());
+    }
+
+    /**
+     * 转换为预设里程碑响应DTO
+     */
+    private PresetMilestoneResponse convertToPresetResponse(MilestoneCatalog.PresetMilestone preset,
+                                                            Boolean achieved, Integer ageInMonths) {
+        PresetMilestoneResponse response = new PresetMilestoneResponse();
+        response.setId(preset.getId());
+        response.setTitle(preset.getTitle());
+        response.setDescription(preset.getDescription());
+        response.setCategory(preset.getCategory());
+        response.setStartMonth(preset.getStartMonth());
+        response.setEndMonth(preset.getEndMonth());
+        response.setCelebrationMessage(preset.getCelebrationMessage());
+        response.setAchieved(achieved);
+        if (achieved != null && ageInMonths != null) {
+            response.setOverdue(!achieved && preset.isOverdueAt(ageInMonths));
+        }
+        return response;
+    }
+
+    /**
+     * 转换为响应DTO
+     */
+    private MilestoneResponse convertToResponse(Milestone milestone) {
+        MilestoneResponse response = new MilestoneResponse();
+        response.setId(milestone.getId());
+        response.setBabyId(milestone.getBaby().getId());
+        response.setTitle(milestone.getTitle());
+        response.setDescription(milestone.getDescription());
+        response.setAchievedAt(milestone.getAchievedAt());
+        response.setCategory(milestone.getCategory());
+        response.setAgeInMonths(milestone.getAgeInMonths());
+        response.setAgeInDays(milestone.getAgeInDays());
+        if (milestone.getAgeInDays() != null) {
+            response.setAgeDescription(babyAgeCache.describe(milestone.getAgeInDays()));
+        }
+        response.setIsPreset(milestone.getIsPreset());
+        response.setPresetMilestoneId(milestone.getPresetMilestoneId());
+        response.setCelebrationMessage(milestone.getCelebrationMessage());
+        response.setCreatedAt(milestone.getCreatedAt());
+        response.setPhotos(getPhotoList(milestone));
+        return response;
+    }
+
+    /**
+     * 解析里程碑照片地址列表
+     */
+    private List<String> getPhotoList(Milestone milestone) {
+        if (milestone.getPhotos() == null || milestone.getPhotos().isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            return objectMapper.readValue(milestone.getPhotos(), new TypeReference<List<String>>() {});
+        } catch (JsonProcessingException e) {
+            log.error("反序列化里程碑照片失败: milestoneId={}", milestone.getId(), e);
+            return new ArrayList<>();
+        }
+    }
+}
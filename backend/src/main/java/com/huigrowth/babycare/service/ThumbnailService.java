@@ -0,0 +1,444 @@
+package com.huigrowth.babycare.service;
+
+import com.huigrowth.babycare.entity.MediaFile;
+import com.huigrowth.babycare.event.DomainEventHandler;
+import com.huigrowth.babycare.event.MediaFileRegisteredEvent;
+import com.huigrowth.babycare.repository.MediaFileRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.w3c.dom.Node;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 缩略图服务
+ * 图片登记后在独立的有界线程池中生成多种宽度的JPEG缩略图（纯Java ImageIO，不依赖本地库），
+ * 与原文件同目录保存；相同内容的缩略图只生成一次。失败的图片保持待生成状态，
+ * 由定时补偿扫描在重试间隔后重新提交，超过最大次数标记为失败。视频和音频不生成缩略图
+ *
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@Service
+public class ThumbnailService implements DomainEventHandler<MediaFileRegisteredEvent> {
+
+    private static final int MAX_ERROR_LENGTH = 200;
+    private static final String JPEG_METADATA_FORMAT = "javax_imageio_jpeg_image_1.0";
+    private static final int APP1_MARKER = 0xE1;
+    private static final byte[] EXIF_HEADER = {'E', 'x', 'i', 'f', 0, 0};
+    private static final int ORIENTATION_TAG = 0x0112;
+
+    private final MediaFileRepository mediaFileRepository;
+    private final MediaStorage mediaStorage;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final Counter generatedCounter;
+    private final Counter failureCounter;
+    private final Counter rejectedCounter;
+    private final Timer generateTimer;
+
+    @Value("${app.media.thumbnail.widths:160,480,960}")
+    private List<Integer> widths;
+
+    @Value("${app.media.thumbnail.quality:0.8}")
+    private float quality;
+
+    @Value("${app.media.thumbnail.max-pixels:50000000}")
+    private long maxPixels;
+
+    @Value("${app.media.thumbnail.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.media.thumbnail.retry-delay:PT5M}")
+    private Duration retryDelay;
+
+    @Value("${app.media.thumbnail.sweep-batch-size:200}")
+    private int sweepBatchSize;
+
+    public ThumbnailService(MediaFileRepository mediaFileRepository, MediaStorage mediaStorage,
+                            TransactionTemplate transactionTemplate,
+                            @Qualifier("thumbnailExecutor") ThreadPoolExecutor executor,
+                            MeterRegistry meterRegistry) {
+        this.mediaFileRepository = mediaFileRepository;
+        this.mediaStorage = mediaStorage;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+        this.generatedCounter = Counter.builder("media.thumbnails.generated")
+                .description("成功生成缩略图的图片数").register(meterRegistry);
+        this.failureCounter = Counter.builder("media.thumbnails.failures")
+                .description("缩略图生成失败次数").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("media.thumbnails.rejected")
+                .description("线程池已满、留待补偿扫描的提交次数").register(meterRegistry);
+        this.generateTimer = Timer.builder("media.thumbnails.duration")
+                .description("单张图片解码、缩放和写入耗时").register(meterRegistry);
+    }
+
+    @Override
+    public void handle(MediaFileRegisteredEvent event) {
+        if (event.getMediaType() == MediaFile.MediaType.IMAGE) {
+            submit(event.getMediaFileId());
+        }
+    }
+
+    /**
+     * 定时补偿：重新提交失败待重试、被线程池拒绝或服务重启前未完成的图片
+     */
+    @Scheduled(fixedDelayString = "${app.media.thumbnail.sweep-interval:60000}")
+    public void sweep() {
+        try {
+            List<Long> pending = mediaFileRepository.findThumbnailPending(MediaFile.MediaType.IMAGE,
+                    MediaFile.ThumbnailStatus.PENDING, LocalDateTime.now().minus(retryDelay),
+                    PageRequest.of(0, sweepBatchSize));
+            pending.forEach(this::submit);
+            if (!pending.isEmpty()) {
+                log.info("重新提交待生成缩略图的图片: count={}", pending.size());
+            }
+        } catch (Exception e) {
+            log.error("缩略图补偿扫描失败", e);
+        }
+    }
+
+    /**
+     * 提交一张图片的缩略图生成任务；同一图片已在队列或处理中时忽略
+     */
+    public void submit(Long mediaFileId) {
+        if (!inFlight.add(mediaFileId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(mediaFileId);
+                } finally {
+                    inFlight.remove(mediaFileId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(mediaFileId);
+            rejectedCounter.increment();
+            log.warn("缩略图线程池已满，留待补偿扫描: mediaFileId={}", mediaFileId);
+        }
+    }
+
+    /**
+     * 批量解析媒体地址对应的缩略图地址：原图地址 -> {宽度: 缩略图地址}，只包含已生成缩略图的图片
+     */
+    public Map<String, Map<Integer, String>> resolveVariants(Collection<String> urls) {
+        Map<String, Long> idsByUrl = new LinkedHashMap<>();
+        for (String url : urls) {
+            Long id = MediaReferenceService.parseFileId(url);
+            if (id != null) {
+                idsByUrl.put(url, id);
+            }
+        }
+        if (idsByUrl.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<Long, MediaFile> files = mediaFileRepository.findAllById(new ArrayList<>(idsByUrl.values())).stream()
+                .filter(file -> file.getThumbnailStatus() == MediaFile.ThumbnailStatus.READY)
+                .collect(Collectors.toMap(MediaFile::getId, Function.identity()));
+
+        Map<String, Map<Integer, String>> variants = new HashMap<>();
+        idsByUrl.forEach((url, id) -> {
+            MediaFile file = files.get(id);
+            if (file == null || file.getThumbnailWidths() == null || file.getThumbnailWidths().isEmpty()) {
+                return;
+            }
+            Map<Integer, String> byWidth = new TreeMap<>();
+            for (String width : file.getThumbnailWidths().split(",")) {
+                byWidth.put(Integer.parseInt(width), "/media/files/" + id + "/variants/" + width);
+            }
+            variants.put(url, byWidth);
+        });
+        return variants;
+    }
+
+    /**
+     * 生成缩略图并记录结果
+     */
+    private void generate(Long mediaFileId) {
+        MediaFile file = mediaFileRepository.findById(mediaFileId).orElse(null);
+        if (file == null || (file.getThumbnailStatus() != null
+                && file.getThumbnailStatus() != MediaFile.ThumbnailStatus.PENDING)) {
+            return;
+        }
+
+        int attempts = file.getThumbnailAttempts() == null ? 1 : file.getThumbnailAttempts() + 1;
+        try {
+            List<Integer> generated = generateTimer.recordCallable(() -> generateVariants(file));
+            MediaFile.ThumbnailStatus status = generated == null
+                    ? MediaFile.ThumbnailStatus.NONE : MediaFile.ThumbnailStatus.READY;
+            String generatedWidths = generated == null ? null
+                    : generated.stream().map(String::valueOf).collect(Collectors.joining(","));
+            saveResult(mediaFileId, status, generatedWidths, attempts);
+            if (status == MediaFile.ThumbnailStatus.READY) {
+                generatedCounter.increment();
+            }
+            log.debug("缩略图生成完成: mediaFileId={}, widths={}", mediaFileId, generatedWidths);
+        } catch (Exception e) {
+            failureCounter.increment();
+            boolean exhausted = attempts >= maxAttempts;
+            saveResult(mediaFileId, exhausted ? MediaFile.ThumbnailStatus.FAILED : MediaFile.ThumbnailStatus.PENDING,
+                    null, attempts);
+            String message = String.valueOf(e.getMessage());
+            log.warn("缩略图生成失败: mediaFileId={}, attempts={}, exhausted={}, reason={}", mediaFileId, attempts,
+                    exhausted, message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+        }
+    }
+
+    private void saveResult(Long mediaFileId, MediaFile.ThumbnailStatus status, String generatedWidths, int attempts) {
+        transactionTemplate.executeWithoutResult(tx -> mediaFileRepository.updateThumbnail(mediaFileId, status,
+                generatedWidths, attempts, LocalDateTime.now()));
+    }
+
+    /**
+     * 为小于原图宽度的每个尺寸生成缩略图，已存在的文件直接复用；返回已生成的宽度，
+     * 图片格式无法解码或像素数超限时返回null
+     */
+    private List<Integer> generateVariants(MediaFile file) throws IOException {
+        List<Integer> targets = widths.stream().sorted().toList();
+        List<Integer> missing = targets.stream()
+                .filter(width -> !Files.exists(mediaStorage.resolve(mediaStorage.variantPath(file.getSha256(), width))))
+                .toList();
+
+        BufferedImage source = null;
+        if (!missing.isEmpty()) {
+            source = read(mediaStorage.resolve(file.getStoragePath()), targets.get(targets.size() - 1));
+            if (source == null) {
+                return null;
+            }
+        }
+
+        List<Integer> generated = new ArrayList<>();
+        for (int width : targets) {
+            if (missing.contains(width)) {
+                if (width >= source.getWidth()) {
+                    continue;
+                }
+                mediaStorage.storeVariant(file.getSha256(), width, encode(scale(source, width)));
+            }
+            generated.add(width);
+        }
+        return generated;
+    }
+
+    /**
+     * 解码图片并按EXIF方向旋转为正向；原图远大于最大缩略图时按整数倍降采样解码，降低大图的内存占用
+     */
+    private BufferedImage read(Path path, int maxWidth) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            throw new NoSuchFileException(path.toString());
+        }
+        try (ImageInputStream input = ImageIO.createImageInputStream(path.toFile())) {
+            Iterator<ImageReader> readers = input == null ? Collections.emptyIterator() : ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                log.info("不支持的图片格式，跳过缩略图: path={}", path);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, false);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    log.info("图片像素数超限，跳过缩略图: path={}, size={}x{}", path, width, height);
+                    return null;
+                }
+
+                int orientation = exifOrientation(reader);
+                // 方向5-8需要转置，旋转后的宽度是原图的高度
+                int displayWidth = orientation >= 5 ? height : width;
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, displayWidth / (maxWidth * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return orient(reader.read(0, param), orientation);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 读取JPEG中APP1段EXIF的Orientation标签（IFD0，0x0112），取值1-8；无EXIF、非JPEG或数据损坏时返回1
+     */
+    private int exifOrientation(ImageReader reader) {
+        try {
+            IIOMetadata metadata = reader.getImageMetadata(0);
+            if (metadata == null || !Arrays.asList(metadata.getMetadataFormatNames()).contains(JPEG_METADATA_FORMAT)) {
+                return 1;
+            }
+            Node root = metadata.getAsTree(JPEG_METADATA_FORMAT);
+            for (Node sequence = root.getFirstChild(); sequence != null; sequence = sequence.getNextSibling()) {
+                if (!"markerSequence".equals(sequence.getNodeName())) {
+                    continue;
+                }
+                for (Node marker = sequence.getFirstChild(); marker != null; marker = marker.getNextSibling()) {
+                    if ("unknown".equals(marker.getNodeName()) && marker instanceof IIOMetadataNode node
+                            && String.valueOf(APP1_MARKER).equals(node.getAttribute("MarkerTag"))
+                            && node.getUserObject() instanceof byte[] data) {
+                        int orientation = parseExifOrientation(data);
+                        if (orientation != 0) {
+                            return orientation;
+                        }
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("读取EXIF方向失败，按原方向处理: {}", e.getMessage());
+        }
+        return 1;
+    }
+
+    /**
+     * 解析以 Exif 标识加两个空字节开头的APP1数据，返回Orientation取值；不是EXIF段或没有该标签时返回0
+     */
+    private static int parseExifOrientation(byte[] data) {
+        if (data.length < EXIF_HEADER.length + 8 || !Arrays.equals(data, 0, EXIF_HEADER.length, EXIF_HEADER, 0, EXIF_HEADER.length)) {
+            return 0;
+        }
+        ByteBuffer tiff = ByteBuffer.wrap(data, EXIF_HEADER.length, data.length - EXIF_HEADER.length).slice();
+        short byteOrder = tiff.getShort(0);
+        if (byteOrder == 0x4949) {
+            tiff.order(ByteOrder.LITTLE_ENDIAN);
+        } else if (byteOrder != 0x4D4D) {
+            return 0;
+        }
+        long ifdOffset = Integer.toUnsignedLong(tiff.getInt(4));
+        if (ifdOffset + 2 > tiff.limit()) {
+            return 0;
+        }
+        int entries = Short.toUnsignedInt(tiff.getShort((int) ifdOffset));
+        for (int i = 0; i < entries; i++) {
+            int entry = (int) ifdOffset + 2 + i * 12;
+            if (entry + 12 > tiff.limit()) {
+                return 0;
+            }
+            if (Short.toUnsignedInt(tiff.getShort(entry)) == ORIENTATION_TAG) {
+                int value = Short.toUnsignedInt(tiff.getShort(entry + 8));
+                return value >= 1 && value <= 8 ? value : 0;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 按EXIF方向翻转/旋转图片，坐标映射为整数像素，直接用最近邻绘制即可无损变换
+     */
+    private static BufferedImage orient(BufferedImage image, int orientation) {
+        if (orientation <= 1) {
+            return image;
+        }
+        int w = image.getWidth();
+        int h = image.getHeight();
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w);
+            default -> new AffineTransform(0, -1, 1, 0, 0, w);
+        };
+        boolean transposed = orientation >= 5;
+        BufferedImage oriented = new BufferedImage(transposed ? h : w, transposed ? w : h,
+                image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = oriented.createGraphics();
+        try {
+            graphics.drawImage(image, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return oriented;
+    }
+
+    /**
+     * 逐级减半缩放到目标宽度，每级双线性插值，缩小倍数较大时比一次缩放清晰；透明背景填充为白色
+     */
+    private BufferedImage scale(BufferedImage source, int targetWidth) {
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(output)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+}
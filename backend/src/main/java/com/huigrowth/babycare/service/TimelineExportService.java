@@ -0,0 +1,532 @@
+package com.huigrowth.babycare.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.huigrowth.babycare.dto.ExportJobResponse;
+import com.huigrowth.babycare.entity.Baby;
+import com.huigrowth.babycare.entity.ExportJob;
+import com.huigrowth.babycare.entity.GrowthRecord;
+import com.huigrowth.babycare.entity.MediaFile;
+import com.huigrowth.babycare.entity.User;
+import com.huigrowth.babycare.exception.BusinessException;
+import com.huigrowth.babycare.repository.BabyRepository;
+import com.huigrowth.babycare.repository.ExportJobRepository;
+import com.huigrowth.babycare.repository.FamilyMemberRepository;
+import com.huigrowth.babycare.repository.GrowthRecordRepository;
+import com.huigrowth.babycare.repository.MediaFileRepository;
+import com.huigrowth.babycare.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 宝宝时间线导出服务
+ * 后台按id键集分块读取成长记录，每块处理完即丢弃，媒体文件通过 FileChannel.transferTo 流式写入ZIP条目，
+ * index.json 和 index.html 边处理边写入临时文件，最后作为归档条目追加；
+ * 内存占用只与块大小有关，与记录和媒体文件总数无关
+ *
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@Service
+public class TimelineExportService {
+
+    private static final List<ExportJob.ExportStatus> ACTIVE_STATUSES =
+            List.of(ExportJob.ExportStatus.PENDING, ExportJob.ExportStatus.RUNNING);
+    private static final int MAX_ERROR_LENGTH = 500;
+    private static final int MAX_ENTRY_NAME_LENGTH = 100;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ExportJobRepository exportJobRepository;
+    private final GrowthRecordRepository growthRecordRepository;
+    private final MediaFileRepository mediaFileRepository;
+    private final BabyRepository babyRepository;
+    private final UserRepository userRepository;
+    private final FamilyMemberRepository familyMemberRepository;
+    private final MediaStorage mediaStorage;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final ObjectMapper objectMapper;
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.export.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${app.export.retention:PT24H}")
+    private Duration retention;
+
+    @Value("${app.export.stale-after:PT30M}")
+    private Duration staleAfter;
+
+    public TimelineExportService(ExportJobRepository exportJobRepository,
+                                 GrowthRecordRepository growthRecordRepository,
+                                 MediaFileRepository mediaFileRepository, BabyRepository babyRepository,
+                                 UserRepository userRepository, FamilyMemberRepository familyMemberRepository,
+                                 MediaStorage mediaStorage, TransactionTemplate transactionTemplate,
+                                 @Qualifier("exportExecutor") ThreadPoolExecutor executor,
+                                 ObjectMapper objectMapper) {
+        this.exportJobRepository = exportJobRepository;
+        this.growthRecordRepository = growthRecordRepository;
+        this.mediaFileRepository = mediaFileRepository;
+        this.babyRepository = babyRepository;
+        this.userRepository = userRepository;
+        this.familyMemberRepository = familyMemberRepository;
+        this.mediaStorage = mediaStorage;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 创建导出任务，同一宝宝同时只能有一个进行中的任务
+     */
+    public ExportJobResponse createExport(String username, Long babyId) {
+        log.info("创建时间线导出: username={}, babyId={}", username, babyId);
+
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new BusinessException("用户不存在"));
+
+        Baby baby = babyRepository.findById(babyId)
+                .orElseThrow(() -> new BusinessException("宝宝不存在"));
+
+        if (!familyMemberRepository.existsByUserAndBaby(user, baby.getFamily().getId())) {
+            throw new BusinessException("您没有权限导出该宝宝的记录");
+        }
+        if (exportJobRepository.existsByBabyIdAndStatusIn(babyId, ACTIVE_STATUSES)) {
+            throw new BusinessException("该宝宝已有进行中的导出任务");
+        }
+
+        ExportJob job = new ExportJob();
+        job.setJobId(UUID.randomUUID().toString());
+        job.setOwner(user);
+        job.setBabyId(babyId);
+        job.setTotalRecords(growthRecordRepository.countByBabyId(babyId));
+        ExportJob savedJob = exportJobRepository.save(job);
+
+        try {
+            executor.execute(() -> runExport(savedJob.getId()));
+        } catch (RejectedExecutionException e) {
+            savedJob.setStatus(ExportJob.ExportStatus.FAILED);
+            savedJob.setErrorMessage("导出任务繁忙");
+            exportJobRepository.save(savedJob);
+            throw new BusinessException("导出任务繁忙，请稍后再试");
+        }
+        log.info("成功创建时间线导出: jobId={}, totalRecords={}", savedJob.getJobId(), savedJob.getTotalRecords());
+
+        return convertToResponse(savedJob);
+    }
+
+    /**
+     * 查询导出进度
+     */
+    public ExportJobResponse getExport(String username, String jobId) {
+        return convertToResponse(findAccessibleJob(username, jobId));
+    }
+
+    /**
+     * 获取已完成的归档文件
+     */
+    public Path getArchive(String username, String jobId) {
+        ExportJob job = findAccessibleJob(username, jobId);
+        if (job.getStatus() != ExportJob.ExportStatus.COMPLETED) {
+            throw new BusinessException("导出尚未完成");
+        }
+        Path archive = mediaStorage.exportPath(job.getJobId());
+        if (!Files.isRegularFile(archive)) {
+            throw new BusinessException("导出文件不存在");
+        }
+        return archive;
+    }
+
+    /**
+     * 每小时删除过期归档，并把服务重启前中断的任务标记为失败
+     */
+    @Scheduled(cron = "${app.export.cleanup-cron:0 20 * * * *}")
+    public void cleanup() {
+        LocalDateTime now = LocalDateTime.now();
+        for (ExportJob job : exportJobRepository.findExpired(ExportJob.ExportStatus.COMPLETED, now,
+                PageRequest.of(0, 100))) {
+            mediaStorage.deleteQuietly(mediaStorage.exportPath(job.getJobId()));
+            job.setStatus(ExportJob.ExportStatus.EXPIRED);
+            exportJobRepository.save(job);
+            log.info("删除过期导出归档: jobId={}", job.getJobId());
+        }
+
+        for (ExportJob job : exportJobRepository.findStale(ACTIVE_STATUSES, now.minus(staleAfter),
+                PageRequest.of(0, 100))) {
+            if (!running.contains(job.getId())) {
+                job.setStatus(ExportJob.ExportStatus.FAILED);
+                job.setErrorMessage("导出中断，请重新发起");
+                exportJobRepository.save(job);
+                log.warn("导出任务长时间无进展，标记为失败: jobId={}", job.getJobId());
+            }
+        }
+    }
+
+    /**
+     * 执行导出
+     */
+    private void runExport(Long id) {
+        ExportJob job = exportJobRepository.findById(id).orElse(null);
+        if (job == null || job.getStatus() != ExportJob.ExportStatus.PENDING) {
+            return;
+        }
+        running.add(id);
+        job.setStatus(ExportJob.ExportStatus.RUNNING);
+        job = exportJobRepository.save(job);
+
+        Path archive = mediaStorage.exportPath(job.getJobId());
+        Path part = archive.resolveSibling(job.getJobId() + ".zip.part");
+        Path jsonIndex = null;
+        Path htmlIndex = null;
+        try {
+            Baby baby = babyRepository.findById(job.getBabyId())
+                    .orElseThrow(() -> new BusinessException("宝宝不存在"));
+            jsonIndex = Files.createTempFile(mediaStorage.exportDir(), job.getJobId(), ".json");
+            htmlIndex = Files.createTempFile(mediaStorage.exportDir(), job.getJobId(), ".html");
+
+            ExportProgress progress = writeArchive(job, baby, part, jsonIndex, htmlIndex);
+            try {
+                Files.move(part, archive, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(part, archive, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            ExportJob completed = exportJobRepository.findById(id).orElseThrow();
+            completed.setStatus(ExportJob.ExportStatus.COMPLETED);
+            completed.setProcessedRecords(progress.records);
+            completed.setTotalRecords(Math.max(completed.getTotalRecords(), progress.records));
+            completed.setMediaCount(progress.media);
+            completed.setArchiveSize(Files.size(archive));
+            completed.setCompletedAt(LocalDateTime.now());
+            completed.setExpiresAt(completed.getCompletedAt().plus(retention));
+            exportJobRepository.save(completed);
+            log.info("时间线导出完成: jobId={}, records={}, media={}, size={}", completed.getJobId(),
+                    progress.records, progress.media, completed.getArchiveSize());
+        } catch (Exception e) {
+            log.error("时间线导出失败: jobId={}", job.getJobId(), e);
+            mediaStorage.deleteQuietly(part);
+            exportJobRepository.findById(id).ifPresent(failed -> {
+                String message = String.valueOf(e.getMessage());
+                failed.setStatus(ExportJob.ExportStatus.FAILED);
+                failed.setErrorMessage(message.length() > MAX_ERROR_LENGTH
+                        ? message.substring(0, MAX_ERROR_LENGTH) : message);
+                exportJobRepository.save(failed);
+            });
+        } finally {
+            if (jsonIndex != null) {
+                mediaStorage.deleteQuietly(jsonIndex);
+            }
+            if (htmlIndex != null) {
+                mediaStorage.deleteQuietly(htmlIndex);
+            }
+            running.remove(id);
+        }
+    }
+
+    /**
+     * 写出ZIP归档：先逐块写入媒体条目并同时生成两个索引文件，最后追加索引条目
+     */
+    private ExportProgress writeArchive(ExportJob job, Baby baby, Path part, Path jsonIndex, Path htmlIndex)
+            throws IOException {
+        Long familyId = baby.getFamily().getId();
+        ExportProgress progress = new ExportProgress();
+
+        try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(part), BUFFER_SIZE), StandardCharsets.UTF_8)) {
+            WritableByteChannel zipChannel = Channels.newChannel(zip);
+
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(
+                         Files.newBufferedWriter(jsonIndex, StandardCharsets.UTF_8));
+                 Writer html = Files.newBufferedWriter(htmlIndex, StandardCharsets.UTF_8)) {
+                writeIndexHeader(json, html, baby);
+
+                long afterId = 0;
+                while (true) {
+                    List<GrowthRecord> chunk = growthRecordRepository.findByBabyIdAfter(baby.getId(), afterId,
+                            PageRequest.of(0, chunkSize));
+                    if (chunk.isEmpty()) {
+                        break;
+                    }
+
+                    Map<Long, MediaFile> files = loadMediaFiles(chunk, familyId);
+                    for (GrowthRecord record : chunk) {
+                        List<String> entries = writeMediaEntries(zip, zipChannel, record, files);
+                        progress.media += entries.size();
+                        writeIndexRecord(json, html, record, entries);
+                    }
+
+                    progress.records += chunk.size();
+                    afterId = chunk.get(chunk.size() - 1).getId();
+                    long processed = progress.records;
+                    long media = progress.media;
+                    transactionTemplate.executeWithoutResult(status -> exportJobRepository.updateProgress(
+                            job.getId(), processed, media, LocalDateTime.now()));
+                    if (chunk.size() < chunkSize) {
+                        break;
+                    }
+                }
+                writeIndexFooter(json, html);
+            }
+
+            zip.setLevel(Deflater.DEFAULT_COMPRESSION);
+            copyEntry(zip, zipChannel, "index.json", jsonIndex, System.currentTimeMillis());
+            copyEntry(zip, zipChannel, "index.html", htmlIndex, System.currentTimeMillis());
+        }
+        return progress;
+    }
+
+    /**
+     * 批量加载本块记录引用的媒体文件，只包含宝宝所在家庭的文件
+     */
+    private Map<Long, MediaFile> loadMediaFiles(List<GrowthRecord> chunk, Long familyId) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (GrowthRecord record : chunk) {
+            ids.addAll(MediaReferenceService.parseFileIds(record.getMediaUrlList()));
+        }
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return mediaFileRepository.findAllById(ids).stream()
+                .filter(file -> familyId.equals(file.getFamilyId()))
+                .collect(Collectors.toMap(MediaFile::getId, Function.identity()));
+    }
+
+    /**
+     * 写入一条记录的媒体文件，返回写入的条目名；外部地址和磁盘上不存在的文件只保留在索引中
+     */
+    private List<String> writeMediaEntries(ZipOutputStream zip, WritableByteChannel zipChannel, GrowthRecord record,
+                                           Map<Long, MediaFile> files) throws IOException {
+        List<String> entries = new ArrayList<>();
+        List<String> urls = record.getMediaUrlList();
+        long time = record.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        for (int i = 0; i < urls.size(); i++) {
+            String url = urls.get(i);
+            Long fileId = MediaReferenceService.parseFileId(url);
+            Path source;
+            String fileName;
+            if (fileId != null) {
+                MediaFile file = files.get(fileId);
+                if (file == null) {
+                    continue;
+                }
+                source = mediaStorage.resolve(file.getStoragePath());
+                fileName = file.getFileName();
+            } else {
+                source = mediaStorage.resolveLegacyUrl(url);
+                fileName = source == null ? null : source.getFileName().toString();
+            }
+            if (source == null || !Files.isRegularFile(source)) {
+                continue;
+            }
+
+            String entryName = "media/" + record.getId() + "/" + (i + 1) + "-" + sanitize(fileName);
+            // 图片和视频本身已压缩，只存储不再压缩
+            zip.setLevel(Deflater.NO_COMPRESSION);
+            copyEntry(zip, zipChannel, entryName, source, time);
+            entries.add(entryName);
+        }
+        return entries;
+    }
+
+    /**
+     * 以 FileChannel.transferTo 把文件内容写入一个ZIP条目
+     */
+    private void copyEntry(ZipOutputStream zip, WritableByteChannel zipChannel, String entryName, Path source,
+                           long time) throws IOException {
+        ZipEntry entry = new ZipEntry(entryName);
+        entry.setTime(time);
+        zip.putNextEntry(entry);
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long transferred = channel.transferTo(position, size - position, zipChannel);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+            }
+        }
+        zip.closeEntry();
+    }
+
+    private void writeIndexHeader(JsonGenerator json, Writer html, Baby baby) throws IOException {
+        json.writeStartObject();
+        json.writeObjectFieldStart("baby");
+        json.writeNumberField("id", baby.getId());
+        json.writeStringField("name", baby.getName());
+        json.writeStringField("birthday", baby.getBirthday() == null ? null : baby.getBirthday().toString());
+        json.writeEndObject();
+        json.writeStringField("exportedAt", LocalDateTime.now().toString());
+        json.writeArrayFieldStart("records");
+
+        String title = HtmlUtils.htmlEscape(baby.getName()) + "的成长时间线";
+        html.write("<!DOCTYPE html>\n<html lang=\"zh-CN\">\n<head>\n<meta charset=\"UTF-8\">\n<title>");
+        html.write(title);
+        html.write("</title>\n<style>body{font-family:sans-serif;max-width:960px;margin:auto;padding:16px}"
+                + "section{border-bottom:1px solid #eee;padding:12px 0}img,video{max-width:300px;margin:4px}"
+                + "time{color:#888}</style>\n</head>\n<body>\n<h1>");
+        html.write(title);
+        html.write("</h1>\n");
+    }
+
+    private void writeIndexRecord(JsonGenerator json, Writer html, GrowthRecord record, List<String> entries)
+            throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", record.getId());
+        json.writeStringField("type", record.getType().name());
+        json.writeStringField("title", record.getTitle());
+        json.writeStringField("content", record.getContent());
+        json.writeStringField("location", record.getLocation());
+        json.writeStringField("weather", record.getWeather());
+        json.writeStringField("mood", record.getMood());
+        json.writeStringField("createdAt", record.getCreatedAt().toString());
+        json.writeArrayFieldStart("tags");
+        for (String tag : record.getTagList()) {
+            json.writeString(tag);
+        }
+        json.writeEndArray();
+        json.writeArrayFieldStart("mediaUrls");
+        for (String url : record.getMediaUrlList()) {
+            json.writeString(url);
+        }
+        json.writeEndArray();
+        json.writeArrayFieldStart("files");
+        for (String entry : entries) {
+            json.writeString(entry);
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+
+        html.write("<section>\n<h2>");
+        html.write(HtmlUtils.htmlEscape(String.valueOf(record.getTitle())));
+        html.write("</h2>\n<time>");
+        html.write(record.getCreatedAt().toString().replace('T', ' '));
+        html.write(" · ");
+        html.write(record.getType().getDescription());
+        html.write("</time>\n");
+        if (record.getContent() != null) {
+            html.write("<p>");
+            html.write(HtmlUtils.htmlEscape(record.getContent()).replace("\n", "<br>"));
+            html.write("</p>\n");
+        }
+        for (String entry : entries) {
+            String src = HtmlUtils.htmlEscape(entry);
+            if (isVideo(entry)) {
+                html.write("<video controls src=\"" + src + "\"></video>\n");
+            } else {
+                html.write("<a href=\"" + src + "\"><img src=\"" + src + "\" loading=\"lazy\"></a>\n");
+            }
+        }
+        html.write("</section>\n");
+    }
+
+    private void writeIndexFooter(JsonGenerator json, Writer html) throws IOException {
+        json.writeEndArray();
+        json.writeEndObject();
+        html.write("</body>\n</html>\n");
+    }
+
+    private boolean isVideo(String entryName) {
+        String lower = entryName.toLowerCase();
+        return lower.endsWith(".mp4") || lower.endsWith(".mov") || lower.endsWith(".webm") || lower.endsWith(".m4v");
+    }
+
+    /**
+     * 清理条目文件名中的路径分隔符和非法字符
+     */
+    private String sanitize(String fileName) {
+        if (fileName == null || fileName.isBlank()) {
+            return "file";
+        }
+        String sanitized = fileName.replaceAll("[\\\\/:*?\"<>|\\p{Cntrl}]", "_");
+        if (sanitized.length() > MAX_ENTRY_NAME_LENGTH) {
+            sanitized = sanitized.substring(sanitized.length() - MAX_ENTRY_NAME_LENGTH);
+        }
+        return sanitized;
+    }
+
+    private ExportJob findAccessibleJob(String username, String jobId) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new BusinessException("用户不存在"));
+
+        ExportJob job = exportJobRepository.findByJobId(jobId)
+                .orElseThrow(() -> new BusinessException("导出任务不存在"));
+
+        Baby baby = babyRepository.findById(job.getBabyId())
+                .orElseThrow(() -> new BusinessException("宝宝不存在"));
+        if (!familyMemberRepository.existsByUserAndBaby(user, baby.getFamily().getId())) {
+            throw new BusinessException("您没有权限查看该导出任务");
+        }
+        return job;
+    }
+
+    private ExportJobResponse convertToResponse(ExportJob job) {
+        ExportJobResponse response = new ExportJobResponse();
+        response.setJobId(job.getJobId());
+        response.setBabyId(job.getBabyId());
+        response.setStatus(job.getStatus());
+        response.setTotalRecords(job.getTotalRecords());
+        response.setProcessedRecords(job.getProcessedRecords());
+        response.setMediaCount(job.getMediaCount());
+        if (job.getStatus() == ExportJob.ExportStatus.COMPLETED) {
+            response.setProgress(100);
+            response.setDownloadUrl("/exports/" + job.getJobId() + "/download");
+        } else if (job.getTotalRecords() == null || job.getTotalRecords() == 0) {
+            response.setProgress(0);
+        } else {
+            response.setProgress((int) Math.min(99, job.getProcessedRecords() * 100 / job.getTotalRecords()));
+        }
+        response.setArchiveSize(job.getArchiveSize());
+        response.setErrorMessage(job.getErrorMessage());
+        response.setCreatedAt(job.getCreatedAt());
+        response.setCompletedAt(job.getCompletedAt());
+        response.setExpiresAt(job.getExpiresAt());
+        return response;
+    }
+
+    /**
+     * 导出计数
+     */
+    private static class ExportProgress {
+        private long records;
+        private long media;
+    }
+}
@@ -0,0 +1,144 @@
+package com.huigrowth.babycare.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 流式CSV读取器（RFC 4180）
+ * 逐条读取记录，支持双引号包裹的字段、字段内换行和 "" 转义，兼容 CRLF/LF 换行和 UTF-8 BOM；
+ * 调用方应传入带缓冲的 Reader。
+ * 单个字段或整条记录超过长度上限时不再缓存内容，读到记录末尾后抛出 {@link OversizedRecordException}，
+ * 调用方可以跳过该记录继续读取
+ *
+ * @author HuiGrowth Team
+ */
+public class CsvReader {
+
+    private static final char BOM = '\uFEFF';
+
+    private final Reader reader;
+    private final int maxFieldLength;
+    private final int maxRecordLength;
+    private int pending = -2; // -2 表示没有预读字符
+    private boolean started;
+
+    public CsvReader(Reader reader) {
+        this(reader, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param maxFieldLength  单个字段的最大字符数
+     * @param maxRecordLength 一条记录所有字段的最大字符数之和
+     */
+    public CsvReader(Reader reader, int maxFieldLength, int maxRecordLength) {
+        this.reader = reader;
+        this.maxFieldLength = maxFieldLength;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * 读取下一条记录，到达末尾时返回null；空行返回只含一个空字段的列表
+     *
+     * @throws OversizedRecordException 字段或记录超过长度上限，该记录已被完整跳过
+     * @throws IOException 读取失败，或文件在引号字段中结束
+     */
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if (!started) {
+            started = true;
+            if (c == BOM) {
+                c = read();
+            }
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean afterQuote = false;
+        int fieldLength = 0;
+        int recordLength = 0;
+        String oversized = null;
+        while (true) {
+            if (c != -1 && ++recordLength > maxRecordLength && oversized == null) {
+                oversized = "记录长度超过" + maxRecordLength + "个字符";
+            }
+            int content = -1;
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("CSV引号字段未闭合");
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        content = '"';
+                    } else {
+                        quoted = false;
+                        afterQuote = true;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    content = c;
+                }
+            } else if (c == ',') {
+                if (oversized == null) {
+                    fields.add(field.toString());
+                }
+                field.setLength(0);
+                fieldLength = 0;
+                afterQuote = false;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pending = next;
+                    }
+                }
+                if (oversized != null) {
+                    throw new OversizedRecordException(oversized);
+                }
+                fields.add(field.toString());
+                return fields;
+            } else if (c == '"' && fieldLength == 0 && !afterQuote) {
+                quoted = true;
+            } else {
+                content = c;
+            }
+
+            if (content != -1) {
+                if (++fieldLength > maxFieldLength && oversized == null) {
+                    oversized = "字段长度超过" + maxFieldLength + "个字符";
+                }
+                // 超限后剩余内容只解析不保存
+                if (oversized == null) {
+                    field.append((char) content);
+                }
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    /**
+     * 记录超过长度上限，记录内容已被读过，可以继续读取下一条
+     */
+    public static class OversizedRecordException extends IOException {
+
+        public OversizedRecordException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.huigrowth.babycare.util;
+
+/**
+ * 标准正态分布工具类
+ * 
+ * @author HuiGrowth Team
+ */
+public final class NormalDistribution {
+
+    private NormalDistribution() {
+    }
+
+    /**
+     * 标准正态分布函数 Φ(z)（Abramowitz-Stegun 7.1.26 误差函数近似，误差小于1.5e-7）
+     */
+    public static double cdf(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1 / (1 + 0.3275911 * x);
+        double erf = 1 - t * (0.254829592 + t * (-0.284496736 + t * (1.421413741
+                + t * (-1.453152027 + t * 1.061405429)))) * Math.exp(-x * x);
+        return z >= 0 ? (1 + erf) / 2 : (1 - erf) / 2;
+    }
+}
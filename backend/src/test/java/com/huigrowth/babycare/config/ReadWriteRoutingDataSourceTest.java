@@ -0,0 +1,199 @@
+package com.huigrowth.babycare.config;
+
+import com.huigrowth.babycare.BabyCareApplication;
+import com.huigrowth.babycare.dto.BabyCreateRequest;
+import com.huigrowth.babycare.dto.FamilyCreateRequest;
+import com.huigrowth.babycare.dto.FamilyResponse;
+import com.huigrowth.babycare.dto.MilestoneCreateRequest;
+import com.huigrowth.babycare.dto.PresetMilestoneResponse;
+import com.huigrowth.babycare.dto.UpdateProfileRequest;
+import com.huigrowth.babycare.repository.UserRepository;
+import com.huigrowth.babycare.service.AuthService;
+import com.huigrowth.babycare.service.FamilyService;
+import com.huigrowth.babycare.service.MilestoneService;
+import com.huigrowth.babycare.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 读写分离路由测试：第二个H2内存库充当从库，通过整库复制模拟复制追上主库
+ *
+ * @author HuiGrowth Team
+ */
+@SpringBootTest(classes = BabyCareApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing_primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.url=" + ReadWriteRoutingDataSourceTest.REPLICA_URL,
+        "app.datasource.replica.lag-query=",
+        "app.datasource.replica.lag-check-interval=3600000",
+        "app.datasource.replica.sticky-window=PT1M"})
+@ActiveProfiles("test")
+class ReadWriteRoutingDataSourceTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private FamilyService familyService;
+
+    @Autowired
+    private MilestoneService milestoneService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * 请求线程上的只读事务走从库；写事务、后台线程和从库延迟过大时走主库
+     */
+    @Test
+    void routesReadOnlyRequestsToReplica() throws IOException {
+        String reader = TestData.registerUser(authService);
+        syncReplica();
+        String primaryOnly = TestData.registerUser(authService);
+
+        assertThat(asRequest(reader, () -> existsByUsername(primaryOnly, true))).isFalse();
+        assertThat(asRequest(reader, () -> existsByUsername(primaryOnly, false))).isTrue();
+        assertThat(existsByUsername(primaryOnly, true)).isTrue();
+
+        routingDataSource.updateReplicaLag(-1);
+        try {
+            assertThat(asRequest(reader, () -> existsByUsername(primaryOnly, true))).isTrue();
+        } finally {
+            routingDataSource.updateReplicaLag(0);
+        }
+    }
+
+    /**
+     * 写入者提交后的只读请求粘滞主库，其他用户仍走从库
+     */
+    @Test
+    void writerReadsStickToPrimary() throws IOException {
+        String writer = TestData.registerUser(authService);
+        String other = TestData.registerUser(authService);
+        syncReplica();
+        String primaryOnly = TestData.registerUser(authService);
+
+        asRequest(writer, () -> {
+            UpdateProfileRequest request = new UpdateProfileRequest();
+            request.setCity("杭州");
+            return authService.updateProfile(userRepository.findByUsername(writer).orElseThrow().getId(), request);
+        });
+
+        assertThat(asRequest(writer, () -> existsByUsername(primaryOnly, true))).isTrue();
+        assertThat(asRequest(other, () -> existsByUsername(primaryOnly, true))).isFalse();
+    }
+
+    /**
+     * 家庭其他成员从从库读到的旧位图不写入共享缓存，从库追上后读到最新状态
+     */
+    @Test
+    void staleReplicaReadDoesNotPopulateMilestoneCache() throws IOException {
+        String creator = TestData.registerUser(authService);
+        String member = TestData.registerUser(authService);
+        FamilyCreateRequest familyRequest = new FamilyCreateRequest();
+        familyRequest.setName("测试家庭");
+        FamilyResponse family = familyService.createFamily(creator, familyRequest);
+        familyService.joinFamily(member, family.getInviteCode());
+        BabyCreateRequest babyRequest = new BabyCreateRequest();
+        babyRequest.setName("宝宝");
+        babyRequest.setGender("FEMALE");
+        babyRequest.setBirthday(LocalDate.now().minusMonths(8));
+        Long babyId = familyService.addBaby(creator, family.getId(), babyRequest).getId();
+        syncReplica();
+
+        PresetMilestoneResponse preset = milestoneService.getPresets(null).get(0);
+        MilestoneCreateRequest milestoneRequest = new MilestoneCreateRequest();
+        milestoneRequest.setBabyId(babyId);
+        milestoneRequest.setPresetMilestoneId(preset.getId());
+        milestoneRequest.setAchievedAt(LocalDateTime.now().minusDays(1));
+        asRequest(creator, () -> milestoneService.recordMilestone(creator, milestoneRequest));
+        // 模拟缓存被淘汰，下一次读取重新加载
+        ((Map<?, ?>) ReflectionTestUtils.getField(milestoneService, "achievedCache")).clear();
+
+        // 从库尚未复制到新记录
+        assertThat(asRequest(member, () -> isAchieved(member, babyId, preset.getId()))).isFalse();
+
+        syncReplica();
+        assertThat(asRequest(member, () -> isAchieved(member, babyId, preset.getId()))).isTrue();
+        assertThat(isAchieved(member, babyId, preset.getId())).isTrue();
+    }
+
+    private boolean isAchieved(String username, Long babyId, Long presetId) {
+        return milestoneService.getChecklist(username, babyId).getItems().stream()
+                .filter(item -> item.getId().equals(presetId))
+                .findFirst().orElseThrow()
+                .getAchieved();
+    }
+
+    private boolean existsByUsername(String username, boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return Boolean.TRUE.equals(template.execute(status -> userRepository.existsByUsername(username)));
+    }
+
+    /**
+     * 在带登录用户的请求线程上下文中执行
+     */
+    private <T> T asRequest(String username, Supplier<T> action) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+        try {
+            return action.get();
+        } finally {
+            SecurityContextHolder.clearContext();
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    /**
+     * 用主库的当前快照整体覆盖从库
+     */
+    private void syncReplica() throws IOException {
+        File script = File.createTempFile("replica", ".sql");
+        try {
+            new JdbcTemplate(primaryDataSource).execute("SCRIPT TO '" + script.getAbsolutePath() + "'");
+            JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+            replica.execute("DROP ALL OBJECTS");
+            replica.execute("RUNSCRIPT FROM '" + script.getAbsolutePath() + "'");
+        } finally {
+            script.delete();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.huigrowth.babycare.config;
+
+import com.huigrowth.babycare.BabyCareApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.options;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 跨域配置测试：分片上传协议的预检请求和响应头
+ *
+ * @author HuiGrowth Team
+ */
+@SpringBootTest(classes = BabyCareApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SecurityConfigCorsTest {
+
+    private static final String ORIGIN = "http://localhost:3000";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void preflightAllowsPatchAndHead() throws Exception {
+        for (String method : new String[]{"PATCH", "HEAD"}) {
+            mockMvc.perform(options("/media/uploads/abc")
+                            .header(HttpHeaders.ORIGIN, ORIGIN)
+                            .header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, method))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS, containsString(method)));
+        }
+    }
+
+    @Test
+    void exposesUploadHeaders() throws Exception {
+        mockMvc.perform(head("/media/uploads/abc").header(HttpHeaders.ORIGIN, ORIGIN))
+                .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, containsString("Upload-Offset")))
+                .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, containsString("Upload-Length")));
+    }
+}
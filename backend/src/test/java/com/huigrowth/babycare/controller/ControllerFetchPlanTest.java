@@ -0,0 +1,225 @@
+package com.huigrowth.babycare.controller;
+
+import com.huigrowth.babycare.BabyCareApplication;
+import com.huigrowth.babycare.dto.AIChatMessageRequest;
+import com.huigrowth.babycare.dto.AIChatSessionCreateRequest;
+import com.huigrowth.babycare.dto.BabyCreateRequest;
+import com.huigrowth.babycare.dto.EducationPlanCreateRequest;
+import com.huigrowth.babycare.dto.FamilyCreateRequest;
+import com.huigrowth.babycare.dto.FamilyPostCreateRequest;
+import com.huigrowth.babycare.dto.FamilyTaskCreateRequest;
+import com.huigrowth.babycare.dto.GrowthRecordCreateRequest;
+import com.huigrowth.babycare.dto.MilestoneCreateRequest;
+import com.huigrowth.babycare.entity.Family;
+import com.huigrowth.babycare.exception.ErrorResponse;
+import com.huigrowth.babycare.exception.GlobalExceptionHandler;
+import com.huigrowth.babycare.repository.FamilyRepository;
+import com.huigrowth.babycare.service.AIParentingService;
+import com.huigrowth.babycare.service.AuthService;
+import com.huigrowth.babycare.service.EducationPlanService;
+import com.huigrowth.babycare.service.FamilyPostService;
+import com.huigrowth.babycare.service.FamilyService;
+import com.huigrowth.babycare.service.FamilyTaskService;
+import com.huigrowth.babycare.service.GrowthRecordService;
+import com.huigrowth.babycare.service.MilestoneService;
+import com.huigrowth.babycare.support.TestData;
+import com.huigrowth.babycare.util.JwtUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 接口抓取计划测试：关闭 open-in-view 且懒加载检测为 fail 时，读取接口不触发事务外懒加载
+ *
+ * @author HuiGrowth Team
+ */
+@SpringBootTest(classes = BabyCareApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ControllerFetchPlanTest {
+
+    private static final String LAZY_LOAD_METRIC = "jpa.lazy.load.outside.transaction";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private FamilyService familyService;
+
+    @Autowired
+    private GrowthRecordService growthRecordService;
+
+    @Autowired
+    private FamilyPostService familyPostService;
+
+    @Autowired
+    private FamilyTaskService familyTaskService;
+
+    @Autowired
+    private MilestoneService milestoneService;
+
+    @Autowired
+    private EducationPlanService educationPlanService;
+
+    @Autowired
+    private AIParentingService aiParentingService;
+
+    @Autowired
+    private FamilyRepository familyRepository;
+
+    @Autowired
+    private GlobalExceptionHandler globalExceptionHandler;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String username;
+    private String token;
+    private Long familyId;
+    private Long babyId;
+    private Long planId;
+    private Long sessionId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        username = TestData.registerUser(authService);
+        token = jwtUtils.generateJwtToken(username);
+        Long userId = authService.getCurrentUser(username).getId();
+
+        FamilyCreateRequest familyRequest = new FamilyCreateRequest();
+        familyRequest.setName("测试家庭");
+        familyId = familyService.createFamily(username, familyRequest).getId();
+        familyService.joinFamily(TestData.registerUser(authService),
+                familyService.getFamilyDetail(username, familyId).getInviteCode());
+
+        BabyCreateRequest babyRequest = new BabyCreateRequest();
+        babyRequest.setName("宝宝");
+        babyRequest.setGender("MALE");
+        babyRequest.setBirthday(LocalDate.now().minusMonths(8));
+        babyId = familyService.addBaby(username, familyId, babyRequest).getId();
+
+        GrowthRecordCreateRequest recordRequest = new GrowthRecordCreateRequest();
+        recordRequest.setBabyId(babyId);
+        recordRequest.setType("DIARY");
+        recordRequest.setTitle("第一次翻身");
+        recordRequest.setContent("今天自己翻身了");
+        growthRecordService.createRecord(username, recordRequest);
+
+        FamilyPostCreateRequest postRequest = new FamilyPostCreateRequest();
+        postRequest.setFamilyId(familyId);
+        postRequest.setContent("周末去公园");
+        familyPostService.createPost(username, postRequest);
+
+        FamilyTaskCreateRequest taskRequest = new FamilyTaskCreateRequest();
+        taskRequest.setFamilyId(familyId);
+        taskRequest.setTitle("买奶粉");
+        taskRequest.setAssigneeId(userId);
+        taskRequest.setCategory("FEEDING");
+        familyTaskService.createTask(username, taskRequest);
+
+        MilestoneCreateRequest milestoneRequest = new MilestoneCreateRequest();
+        milestoneRequest.setBabyId(babyId);
+        milestoneRequest.setTitle("会坐了");
+        milestoneRequest.setCategory("MOTOR");
+        milestoneRequest.setAchievedAt(LocalDateTime.now().minusDays(1));
+        milestoneService.recordMilestone(username, milestoneRequest);
+
+        EducationPlanCreateRequest planRequest = new EducationPlanCreateRequest();
+        planRequest.setBabyId(babyId);
+        planRequest.setName("绘本阅读");
+        planRequest.setCategory("READING");
+        planRequest.setStartDate(LocalDate.now());
+        planRequest.setTargetAgeMonths(8);
+        planId = educationPlanService.createPlan(username, planRequest).getId();
+
+        AIChatSessionCreateRequest sessionRequest = new AIChatSessionCreateRequest();
+        sessionRequest.setTitle("睡眠咨询");
+        sessionRequest.setConsultationType("SLEEP");
+        sessionId = aiParentingService.createChatSession(username, sessionRequest).getId();
+        AIChatMessageRequest messageRequest = new AIChatMessageRequest();
+        messageRequest.setContent("宝宝晚上总是醒");
+        aiParentingService.sendMessage(username, sessionId, messageRequest);
+    }
+
+    /**
+     * 读取接口全部成功，且没有计入任何事务外懒加载
+     */
+    @Test
+    void readEndpointsUseExplicitFetchPlans() throws Exception {
+        double before = lazyLoads();
+        List<String> paths = List.of(
+                "/family/my-families",
+                "/family/" + familyId,
+                "/family/" + familyId + "/babies",
+                "/growth-record/baby/" + babyId,
+                "/growth-record/recent",
+                "/family-post/family/" + familyId,
+                "/family-task/family/" + familyId,
+                "/family-task/my-tasks",
+                "/milestone/baby/" + babyId,
+                "/milestone/baby/" + babyId + "/checklist",
+                "/education-plan/baby/" + babyId,
+                "/education-plan/" + planId + "/activities",
+                "/ai-parenting/sessions",
+                "/ai-parenting/session/" + sessionId + "/messages",
+                "/baby/" + babyId + "/summary");
+
+        for (String path : paths) {
+            mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.success").value(true));
+        }
+        assertThat(lazyLoads()).isEqualTo(before);
+    }
+
+    /**
+     * 会话关闭后的懒加载由 Hibernate 抛出，全局异常处理器交给检测器计数
+     */
+    @Test
+    void detachedLazyLoadIsCounted() {
+        Family family = familyRepository.findById(familyId).orElseThrow();
+        LazyInitializationException ex = catchThrowableOfType(() -> family.getMembers().size(),
+                LazyInitializationException.class);
+        double before = lazyLoads();
+
+        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleLazyInitialization(ex,
+                new ServletWebRequest(new MockHttpServletRequest("GET", "/family/" + familyId)));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(lazyLoads()).isEqualTo(before + 1);
+        assertThat(meterRegistry.find(LAZY_LOAD_METRIC).tag("target", Family.class.getName() + ".members").counter())
+                .isNotNull();
+    }
+
+    private double lazyLoads() {
+        return meterRegistry.find(LAZY_LOAD_METRIC).counters().stream().mapToDouble(Counter::count).sum();
+    }
+}
@@ -0,0 +1,146 @@
+package com.huigrowth.babycare.controller;
+
+import com.huigrowth.babycare.BabyCareApplication;
+import com.huigrowth.babycare.dto.FamilyCreateRequest;
+import com.huigrowth.babycare.entity.MediaFile;
+import com.huigrowth.babycare.entity.User;
+import com.huigrowth.babycare.repository.MediaFileRepository;
+import com.huigrowth.babycare.repository.UserRepository;
+import com.huigrowth.babycare.service.AuthService;
+import com.huigrowth.babycare.service.FamilyService;
+import com.huigrowth.babycare.service.MediaStorage;
+import com.huigrowth.babycare.support.TestData;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 媒体文件读取测试：媒体访问Cookie鉴权，静态映射不暴露媒体目录
+ *
+ * @author HuiGrowth Team
+ */
+@SpringBootTest(classes = BabyCareApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MediaFileControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private FamilyService familyService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MediaFileRepository mediaFileRepository;
+
+    @Autowired
+    private MediaStorage mediaStorage;
+
+    /**
+     * 登录下发的Cookie只用于读取媒体文件，不能替代其他接口的 Authorization 请求头
+     */
+    @Test
+    void mediaCookieAuthenticatesOnlyMediaReads() throws Exception {
+        String username = TestData.registerUser(authService);
+        byte[] content = randomBytes(64 * 1024);
+        Long fileId = createFile(username, content);
+
+        MockHttpServletResponse login = mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"emailOrUsername\":\"" + username + "\",\"password\":\"secret123\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        Cookie cookie = login.getCookie("media_token");
+        assertThat(cookie).isNotNull();
+        assertThat(cookie.isHttpOnly()).isTrue();
+        assertThat(cookie.getPath()).isEqualTo("/api/media/files");
+
+        mockMvc.perform(get("/media/files/{id}", fileId)).andExpect(status().isUnauthorized());
+        byte[] body = mockMvc.perform(get("/media/files/{id}", fileId).cookie(cookie))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(body).isEqualTo(content);
+
+        mockMvc.perform(get("/family/my-families").cookie(cookie)).andExpect(status().isUnauthorized());
+
+        Cookie cleared = mockMvc.perform(post("/auth/logout").cookie(cookie))
+                .andReturn().getResponse().getCookie("media_token");
+        assertThat(cleared).isNotNull();
+        assertThat(cleared.getMaxAge()).isZero();
+    }
+
+    /**
+     * /uploads/** 只暴露旧版平铺文件，内容寻址的媒体文件和临时文件不能绕过鉴权直接下载
+     */
+    @Test
+    void staticUploadsExcludePrivateDirs() throws Exception {
+        String username = TestData.registerUser(authService);
+        Long fileId = createFile(username, randomBytes(1024));
+        String storagePath = mediaFileRepository.findById(fileId).orElseThrow().getStoragePath();
+
+        String legacyName = "legacy-" + UUID.randomUUID() + ".jpg";
+        Files.write(mediaStorage.resolve(legacyName), randomBytes(16));
+        Path part = mediaStorage.partPath(UUID.randomUUID().toString());
+        Files.write(part, randomBytes(16));
+        try {
+            mockMvc.perform(get("/uploads/" + legacyName)).andExpect(status().isOk());
+            mockMvc.perform(get("/uploads/" + storagePath)).andExpect(status().isNotFound());
+            mockMvc.perform(get("/uploads/MEDIA/" + storagePath.substring("media/".length())))
+                    .andExpect(status().isNotFound());
+            mockMvc.perform(get("/uploads/tmp/uploads/" + part.getFileName())).andExpect(status().isNotFound());
+        } finally {
+            mediaStorage.deleteQuietly(mediaStorage.resolve(legacyName));
+            mediaStorage.deleteQuietly(part);
+        }
+    }
+
+    private Long createFile(String username, byte[] content) throws Exception {
+        User owner = userRepository.findByUsername(username).orElseThrow();
+        FamilyCreateRequest familyRequest = new FamilyCreateRequest();
+        familyRequest.setName("测试家庭");
+        Long familyId = familyService.createFamily(username, familyRequest).getId();
+
+        String sha256 = (UUID.randomUUID().toString() + UUID.randomUUID()).replace("-", "");
+        Path source = Files.createTempFile("media", ".bin");
+        Files.write(source, content);
+
+        MediaFile file = new MediaFile();
+        file.setOwner(owner);
+        file.setFamilyId(familyId);
+        file.setFileName("video.mp4");
+        file.setContentType("video/mp4");
+        file.setMediaType(MediaFile.MediaType.VIDEO);
+        file.setSize((long) content.length);
+        file.setSha256(sha256);
+        file.setStoragePath(mediaStorage.store(source, sha256));
+        return mediaFileRepository.save(file).getId();
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+}
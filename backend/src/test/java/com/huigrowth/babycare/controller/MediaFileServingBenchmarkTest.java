@@ -0,0 +1,209 @@
+package com.huigrowth.babycare.controller;
+
+import com.huigrowth.babycare.BabyCareApplication;
+import com.huigrowth.babycare.dto.FamilyCreateRequest;
+import com.huigrowth.babycare.dto.LoginRequest;
+import com.huigrowth.babycare.entity.MediaFile;
+import com.huigrowth.babycare.entity.User;
+import com.huigrowth.babycare.repository.MediaFileRepository;
+import com.huigrowth.babycare.repository.UserRepository;
+import com.huigrowth.babycare.service.AuthService;
+import com.huigrowth.babycare.service.FamilyService;
+import com.huigrowth.babycare.service.MediaStorage;
+import com.huigrowth.babycare.support.TestData;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 媒体文件区间读取基准：在真实的内嵌 Tomcat 上用 HTTP 客户端并发随机拖动，
+ * 分别测量 sendfile 和 FileChannel.transferTo 两条输出路径的吞吐
+ *
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@SpringBootTest(classes = BabyCareApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class MediaFileServingBenchmarkTest {
+
+    private static final int FILE_SIZE = 8 * 1024 * 1024;
+    private static final int RANGE_SIZE = 128 * 1024;
+    private static final int THREADS = 8;
+    private static final int REQUESTS_PER_THREAD = 100;
+    private static final int ROUNDS = 2;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private FamilyService familyService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MediaFileRepository mediaFileRepository;
+
+    @Autowired
+    private MediaStorage mediaStorage;
+
+    @Autowired
+    private MediaFileController mediaFileController;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    /**
+     * 多个播放器并发随机拖动：全部返回正确区间；sendfile 路径的吞吐不低于 transferTo 路径的一半
+     */
+    @Test
+    void concurrentScrubbingThroughput() throws Exception {
+        String username = TestData.registerUser(authService);
+        byte[] content = randomBytes(FILE_SIZE);
+        Long fileId = createFile(username, content);
+        String cookie = "media_token=" + authService.login(loginRequest(username)).getToken();
+
+        MediaFileController controller = AopTestUtils.getTargetObject(mediaFileController);
+        long threshold = (long) ReflectionTestUtils.getField(controller, "sendfileThreshold");
+        assertThat(RANGE_SIZE).isGreaterThanOrEqualTo((int) threshold);
+
+        long sendfile = 0;
+        long transferTo = 0;
+        try {
+            // 第一轮预热
+            for (int round = 0; round < ROUNDS; round++) {
+                ReflectionTestUtils.setField(controller, "sendfileThreshold", threshold);
+                sendfile = measure(fileId, cookie, content);
+                ReflectionTestUtils.setField(controller, "sendfileThreshold", Long.MAX_VALUE);
+                transferTo = measure(fileId, cookie, content);
+            }
+        } finally {
+            ReflectionTestUtils.setField(controller, "sendfileThreshold", threshold);
+        }
+
+        int requests = THREADS * REQUESTS_PER_THREAD;
+        log.info("拖动读取基准: threads={}, requests={}, rangeKB={}, sendfile[ms={}, requests/s={}, MB/s={}], "
+                        + "transferTo[ms={}, requests/s={}, MB/s={}]",
+                THREADS, requests, RANGE_SIZE / 1024,
+                sendfile / 1_000_000, requests * 1_000_000_000L / sendfile,
+                (long) requests * RANGE_SIZE * 1_000_000_000L / sendfile / (1024 * 1024),
+                transferTo / 1_000_000, requests * 1_000_000_000L / transferTo,
+                (long) requests * RANGE_SIZE * 1_000_000_000L / transferTo / (1024 * 1024));
+        assertThat(sendfile).isLessThanOrEqualTo(transferTo * 2);
+    }
+
+    /**
+     * 一轮并发拖动，返回耗时（纳秒）
+     */
+    private long measure(Long fileId, String cookie, byte[] content) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return scrub(fileId, cookie, content, REQUESTS_PER_THREAD);
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            long bytes = 0;
+            for (Future<Long> future : futures) {
+                bytes += future.get(60, TimeUnit.SECONDS);
+            }
+            long nanos = System.nanoTime() - begin;
+            assertThat(bytes).isEqualTo((long) THREADS * REQUESTS_PER_THREAD * RANGE_SIZE);
+            return nanos;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 随机区间读取，校验 206、Content-Range 和内容，返回读取的字节数
+     */
+    private long scrub(Long fileId, String cookie, byte[] content, int requests) throws Exception {
+        URI uri = URI.create("http://localhost:" + port + "/api/media/files/" + fileId);
+        long bytes = 0;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < requests; i++) {
+            int offset = random.nextInt(FILE_SIZE - RANGE_SIZE);
+            int end = offset + RANGE_SIZE - 1;
+            HttpResponse<byte[]> response = httpClient.send(HttpRequest.newBuilder(uri)
+                            .header(HttpHeaders.COOKIE, cookie)
+                            .header(HttpHeaders.RANGE, "bytes=" + offset + "-" + end)
+                            .GET().build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            assertThat(response.statusCode()).isEqualTo(206);
+            assertThat(response.headers().firstValue(HttpHeaders.CONTENT_RANGE))
+                    .hasValue("bytes " + offset + "-" + end + "/" + FILE_SIZE);
+            assertThat(response.body()).isEqualTo(Arrays.copyOfRange(content, offset, end + 1));
+            bytes += response.body().length;
+        }
+        return bytes;
+    }
+
+    private Long createFile(String username, byte[] content) throws Exception {
+        User owner = userRepository.findByUsername(username).orElseThrow();
+        FamilyCreateRequest familyRequest = new FamilyCreateRequest();
+        familyRequest.setName("测试家庭");
+        Long familyId = familyService.createFamily(username, familyRequest).getId();
+
+        String sha256 = (UUID.randomUUID().toString() + UUID.randomUUID()).replace("-", "");
+        Path source = Files.createTempFile("media", ".bin");
+        Files.write(source, content);
+
+        MediaFile file = new MediaFile();
+        file.setOwner(owner);
+        file.setFamilyId(familyId);
+        file.setFileName("video.mp4");
+        file.setContentType("video/mp4");
+        file.setMediaType(MediaFile.MediaType.VIDEO);
+        file.setSize((long) content.length);
+        file.setSha256(sha256);
+        file.setStoragePath(mediaStorage.store(source, sha256));
+        return mediaFileRepository.save(file).getId();
+    }
+
+    private LoginRequest loginRequest(String username) {
+        LoginRequest request = new LoginRequest();
+        request.setEmailOrUsername(username);
+        request.setPassword("secret123");
+        return request;
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+}
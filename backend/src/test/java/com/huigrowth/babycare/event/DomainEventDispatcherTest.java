@@ -0,0 +1,119 @@
+package com.huigrowth.babycare.event;
+
+import com.huigrowth.babycare.BabyCareApplication;
+import com.huigrowth.babycare.entity.JobCheckpoint;
+import com.huigrowth.babycare.repository.JobCheckpointRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 领域事件分发器测试
+ *
+ * @author HuiGrowth Team
+ */
+@SpringBootTest(classes = BabyCareApplication.class)
+@ActiveProfiles("test")
+class DomainEventDispatcherTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JobCheckpointRepository jobCheckpointRepository;
+
+    /**
+     * 线程池饱和时处理器在提交线程上执行，其写入不能加入发布方已提交的事务
+     */
+    @Test
+    void callerRunsHandlerCommitsItsOwnWrites() throws InterruptedException {
+        String jobName = "dispatcher-" + UUID.randomUUID();
+        CheckpointHandler handler = new CheckpointHandler(transactionTemplate, jobCheckpointRepository);
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("checkpointHandler", handler);
+
+        CountDownLatch release = new CountDownLatch(1);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            executor.execute(() -> awaitQuietly(release)); // 占满线程池
+            DomainEventDispatcher dispatcher = new DomainEventDispatcher(
+                    handlerProvider(beanFactory),
+                    executor, new SimpleMeterRegistry(), transactionManager, 100);
+
+            transactionTemplate.executeWithoutResult(status ->
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            dispatcher.dispatch(new CheckpointEvent(jobName));
+                        }
+                    }));
+
+            assertThat(handler.handledOn).isEqualTo(Thread.currentThread());
+            assertThat(jobCheckpointRepository.findByJobName(jobName)).isPresent();
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ObjectProvider<DomainEventHandler<?>> handlerProvider(StaticListableBeanFactory beanFactory) {
+        return (ObjectProvider) beanFactory.getBeanProvider(DomainEventHandler.class);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    record CheckpointEvent(String jobName) implements DomainEvent {
+    }
+
+    /**
+     * 以 REQUIRED 传播写库的处理器（等同于标注 @Transactional）
+     */
+    static class CheckpointHandler implements DomainEventHandler<CheckpointEvent> {
+
+        private final TransactionTemplate transactionTemplate;
+        private final JobCheckpointRepository jobCheckpointRepository;
+        private volatile Thread handledOn;
+
+        CheckpointHandler(TransactionTemplate transactionTemplate, JobCheckpointRepository jobCheckpointRepository) {
+            this.transactionTemplate = transactionTemplate;
+            this.jobCheckpointRepository = jobCheckpointRepository;
+        }
+
+        @Override
+        public void handle(CheckpointEvent event) {
+            handledOn = Thread.currentThread();
+            transactionTemplate.executeWithoutResult(status -> {
+                JobCheckpoint checkpoint = new JobCheckpoint();
+                checkpoint.setJobName(event.jobName());
+                jobCheckpointRepository.save(checkpoint);
+            });
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.huigrowth.babycare.event;
+
+import com.huigrowth.babycare.BabyCareApplication;
+import com.huigrowth.babycare.entity.OutboxEvent;
+import com.huigrowth.babycare.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 发件箱中继测试：失败重试、批量写入和单节点投递吞吐
+ *
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@SpringBootTest(classes = BabyCareApplication.class)
+@ActiveProfiles("test")
+@Import(OutboxRelayTest.HandlerConfig.class)
+class OutboxRelayTest {
+
+    private static final int EVENTS = 5000;
+    private static final int ROUNDS = 2;
+    private static final long MIN_EVENTS_PER_SECOND = 1000;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private FlakyHandler flakyHandler;
+
+    @Autowired
+    private CountingHandler countingHandler;
+
+    /**
+     * 处理器失败时事件保持待投递，重试只调用失败的处理器，全部成功后才标记为已投递
+     */
+    @Test
+    void eventStaysPendingUntilEveryHandlerSucceeds() {
+        String key = "relay-test:" + UUID.randomUUID();
+        long flakyBefore = flakyHandler.handled.get();
+        long countingBefore = countingHandler.handled.get();
+        flakyHandler.failuresLeft.set(1);
+        transactionTemplate.executeWithoutResult(status -> eventPublisher.publishEvent(new RelayTestEvent(key)));
+
+        outboxRelay.relay();
+
+        OutboxEvent pending = findByKey(key);
+        assertThat(pending.getStatus()).isEqualTo(OutboxEvent.OutboxStatus.PENDING);
+        assertThat(pending.getAttempts()).isEqualTo(1);
+        assertThat(pending.getAvailableAt()).isAfter(LocalDateTime.now());
+        assertThat(countingHandler.handled.get() - countingBefore).isEqualTo(1);
+
+        // 退避结束后重试
+        pending.setAvailableAt(LocalDateTime.now().minusSeconds(1));
+        outboxEventRepository.save(pending);
+        outboxRelay.relay();
+
+        assertThat(findByKey(key).getStatus()).isEqualTo(OutboxEvent.OutboxStatus.PUBLISHED);
+        assertThat(flakyHandler.handled.get() - flakyBefore).isEqualTo(1);
+        assertThat(countingHandler.handled.get() - countingBefore).isEqualTo(1);
+    }
+
+    /**
+     * 批量发布的事件一次写入发件箱，每个事件一行；已存在的幂等键被忽略，其余事件正常投递
+     */
+    @Test
+    void batchIsWrittenOneRowPerEvent() {
+        String prefix = "relay-batch:" + UUID.randomUUID() + ":";
+        transactionTemplate.executeWithoutResult(status -> eventPublisher.publishEvent(new RelayTestEvent(prefix + 0)));
+        transactionTemplate.executeWithoutResult(status -> eventPublisher.publishEvent(new ReliableEventBatch(List.of(
+                new RelayTestEvent(prefix + 0), new RelayTestEvent(prefix + 1), new RelayTestEvent(prefix + 2)))));
+
+        List<OutboxEvent> written = outboxEventRepository.findAll().stream()
+                .filter(event -> event.getIdempotencyKey().startsWith(prefix))
+                .toList();
+        assertThat(written).extracting(OutboxEvent::getIdempotencyKey)
+                .containsExactlyInAnyOrder(prefix + 0, prefix + 1, prefix + 2);
+        assertThat(written).allSatisfy(event -> {
+            assertThat(event.getStatus()).isEqualTo(OutboxEvent.OutboxStatus.PENDING);
+            assertThat(event.getEventType()).isEqualTo(RelayTestEvent.class.getName());
+        });
+
+        long handledBefore = countingHandler.handled.get();
+        while (outboxRelay.relay() > 0) {
+            // 投递全部待投递事件
+        }
+        assertThat(countingHandler.handled.get() - handledBefore).isEqualTo(3);
+        assertThat(findByKey(prefix + 1).getStatus()).isEqualTo(OutboxEvent.OutboxStatus.PUBLISHED);
+    }
+
+    /**
+     * 中继吞吐基准：一个事务内发布大量可靠事件，计时 relay() 投递全部事件（每个事件调用两个处理器），
+     * 单节点需达到每秒数千个事件
+     */
+    @Test
+    void relayThroughput() {
+        String prefix = "relay-bench:" + UUID.randomUUID() + ":";
+        long handledBefore = countingHandler.handled.get();
+
+        long published = 0;
+        long nanos = 0;
+        // 第一轮预热
+        for (int round = 0; round < ROUNDS; round++) {
+            String roundPrefix = prefix + round + ":";
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < EVENTS; i++) {
+                    eventPublisher.publishEvent(new RelayTestEvent(roundPrefix + i));
+                }
+            });
+
+            long begin = System.nanoTime();
+            published = 0;
+            long relayed;
+            do {
+                relayed = outboxRelay.relay();
+                published += relayed;
+            } while (relayed > 0);
+            nanos = System.nanoTime() - begin;
+        }
+
+        long eventsPerSecond = published * 1_000_000_000L / nanos;
+        log.info("发件箱中继基准: events={}, ms={}, events/s={}", published, nanos / 1_000_000, eventsPerSecond);
+        assertThat(published).isGreaterThanOrEqualTo(EVENTS);
+        assertThat(countingHandler.handled.get() - handledBefore).isEqualTo((long) EVENTS * ROUNDS);
+        assertThat(eventsPerSecond).isGreaterThanOrEqualTo(MIN_EVENTS_PER_SECOND);
+    }
+
+    private OutboxEvent findByKey(String key) {
+        return outboxEventRepository.findAll().stream()
+                .filter(event -> event.getIdempotencyKey().equals(key))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    record RelayTestEvent(String key) implements ReliableEvent {
+
+        @Override
+        public String idempotencyKey() {
+            return key;
+        }
+    }
+
+    static class FlakyHandler implements DomainEventHandler<RelayTestEvent> {
+
+        private final AtomicInteger failuresLeft = new AtomicInteger();
+        private final AtomicInteger handled = new AtomicInteger();
+
+        @Override
+        public void handle(RelayTestEvent event) {
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new IllegalStateException("模拟处理失败");
+            }
+            handled.incrementAndGet();
+        }
+    }
+
+    static class CountingHandler implements DomainEventHandler<RelayTestEvent> {
+
+        private final AtomicInteger handled = new AtomicInteger();
+
+        @Override
+        public void handle(RelayTestEvent event) {
+            handled.incrementAndGet();
+        }
+    }
+
+    @TestConfiguration
+    static class HandlerConfig {
+
+        @Bean
+        FlakyHandler flakyHandler() {
+            return new FlakyHandler();
+        }
+
+        @Bean
+        CountingHandler countingHandler() {
+            return new CountingHandler();
+        }
+    }
+}
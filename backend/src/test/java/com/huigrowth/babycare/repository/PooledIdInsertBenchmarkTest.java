@@ -0,0 +1,125 @@
+package com.huigrowth.babycare.repository;
+
+import com.huigrowth.babycare.BabyCareApplication;
+import com.huigrowth.babycare.entity.AIChatMessage;
+import com.huigrowth.babycare.entity.AIChatSession;
+import com.huigrowth.babycare.entity.PooledIdEntity;
+import com.huigrowth.babycare.entity.User;
+import com.huigrowth.babycare.service.AuthService;
+import com.huigrowth.babycare.support.TestData;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 序列主键批量插入基准：同一事务内写入大量行，对比序列主键（pooled + JDBC批处理）与自增主键的语句数和吞吐
+ *
+ * @author HuiGrowth Team
+ */
+@Slf4j
+@SpringBootTest(classes = BabyCareApplication.class)
+@ActiveProfiles("test")
+class PooledIdInsertBenchmarkTest {
+
+    private static final int ROWS = 2000;
+    private static final int ROUNDS = 3;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int batchSize;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AIChatSessionRepository chatSessionRepository;
+
+    @Autowired
+    private AIChatMessageRepository chatMessageRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void pooledIdsBatchInserts() {
+        User user = userRepository.findByUsername(TestData.registerUser(authService)).orElseThrow();
+        AIChatSession session = chatSessionRepository.save(newSession(user, 0));
+
+        Result pooled = null;
+        Result identity = null;
+        // 第一轮预热
+        for (int round = 0; round < ROUNDS; round++) {
+            pooled = measure(i -> newMessage(session, i), chatMessageRepository::saveAll);
+            identity = measure(i -> newSession(user, i), chatSessionRepository::saveAll);
+        }
+
+        log.info("插入基准: rows={}, pooled[statements={}, ms={}, rows/s={}], identity[statements={}, ms={}, rows/s={}]",
+                ROWS, pooled.statements(), pooled.millis(), pooled.rowsPerSecond(),
+                identity.statements(), identity.millis(), identity.rowsPerSecond());
+
+        // 每批一条插入语句 + 每个分配块一次取序列
+        long expected = (long) Math.ceil((double) ROWS / batchSize)
+                + (long) Math.ceil((double) ROWS / PooledIdEntity.ALLOCATION_SIZE) + 1;
+        assertThat(pooled.statements()).isLessThanOrEqualTo(expected);
+        assertThat(identity.statements()).isGreaterThanOrEqualTo(ROWS);
+    }
+
+    private <T> Result measure(IntFunction<T> factory, Consumer<List<T>> saveAll) {
+        List<T> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(factory.apply(i));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> saveAll.accept(rows));
+        long nanos = System.nanoTime() - start;
+        return new Result(statistics.getPrepareStatementCount(), nanos);
+    }
+
+    private AIChatMessage newMessage(AIChatSession session, int i) {
+        AIChatMessage message = new AIChatMessage();
+        message.setChatSession(session);
+        message.setMessageType(i % 2 == 0 ? AIChatMessage.MessageType.USER : AIChatMessage.MessageType.AI);
+        message.setContent("基准消息" + i);
+        return message;
+    }
+
+    private AIChatSession newSession(User user, int i) {
+        AIChatSession session = new AIChatSession();
+        session.setUser(user);
+        session.setTitle("基准会话" + i);
+        session.setConsultationType(AIChatSession.ConsultationType.SLEEP);
+        return session;
+    }
+
+    private record Result(long statements, long nanos) {
+
+        long millis() {
+            return nanos / 1_000_000;
+        }
+
+        long rowsPerSecond() {
+            return nanos == 0 ? 0 : ROWS * 1_000_000_000L / nanos;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.huigrowth.babycare.service;
+
+import com.huigrowth.babycare.BabyCareApplication;
+import com.huigrowth.babycare.dto.AIChatMessageRequest;
+import com.huigrowth.babycare.dto.AIChatSessionCreateRequest;
+import com.huigrowth.babycare.entity.AIChatSession;
+import com.huigrowth.babycare.repository.AIChatSessionRepository;
+import com.huigrowth.babycare.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * AI多轮对话上下文测试
+ *
+ * @author HuiGrowth Team
+ */
+@SpringBootTest(classes = BabyCareApplication.class)
+@ActiveProfiles("test")
+class AIChatContextBuilderTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private AIParentingService aiParentingService;
+
+    @Autowired
+    private AIChatContextBuilder contextBuilder;
+
+    @Autowired
+    private AIChatSessionRepository chatSessionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * 未提交和回滚的发送都不会出现在其他请求构建的上下文里
+     */
+    @Test
+    void uncommittedSendLeavesNoPhantomTurns() throws Exception {
+        String username = TestData.registerUser(authService);
+        Long sessionId = createSession(username);
+        send(username, sessionId, "宝宝几点睡觉合适");
+
+        AtomicReference<List<AIChatContextBuilder.Turn>> seenBeforeCommit = new AtomicReference<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            send(username, sessionId, "这条消息会回滚");
+            // 另一个请求在本事务提交前读取同一会话的上下文
+            CompletableFuture.runAsync(() -> seenBeforeCommit.set(buildContext(sessionId).getHistory())).join();
+            status.setRollbackOnly();
+        });
+
+        assertThat(seenBeforeCommit.get()).hasSize(2)
+                .noneMatch(turn -> turn.getContent().contains("回滚"));
+        assertThat(buildContext(sessionId).getHistory()).hasSize(2)
+                .noneMatch(turn -> turn.getContent().contains("回滚"));
+    }
+
+    /**
+     * 折叠的上下文摘要不覆盖用户填写的会话摘要
+     */
+    @Test
+    void foldedSummaryIsKeptApartFromSessionSummary() {
+        String username = TestData.registerUser(authService);
+        Long sessionId = createSession(username);
+        for (int i = 0; i < 12; i++) {
+            send(username, sessionId, "第" + i + "个问题");
+        }
+        aiParentingService.completeSession(username, sessionId, "用户填写的摘要");
+
+        AIChatSession session = chatSessionRepository.findById(sessionId).orElseThrow();
+        assertThat(session.getSummary()).isEqualTo("用户填写的摘要");
+        assertThat(session.getContextSummary()).contains("用户：第0个问题");
+        assertThat(contextBuilder.build(session, "继续").getSummary()).doesNotContain("用户填写的摘要");
+    }
+
+    private AIChatContextBuilder.ChatContext buildContext(Long sessionId) {
+        AIChatSession session = chatSessionRepository.findById(sessionId).orElseThrow();
+        return contextBuilder.build(session, "下一条消息");
+    }
+
+    private Long createSession(String username) {
+        AIChatSessionCreateRequest request = new AIChatSessionCreateRequest();
+        request.setTitle("睡眠咨询");
+        request.setConsultationType("SLEEP");
+        return aiParentingService.createChatSession(username, request).getId();
+    }
+
+    private void send(String username, Long sessionId, String content) {
+        AIChatMessageRequest request = new AIChatMessageRequest();
+        request.setContent(content);
+        aiParentingService.sendMessage(username, sessionId, request);
+    }
+}
@@ -0,0 +1,103 @@
+package com.huigrowth.babycare.service;
+
+import com.huigrowth.babycare.BabyCareApplication;
+import com.huigrowth.babycare.dto.AIChatMessageRequest;
+import com.huigrowth.babycare.dto.AIChatSessionCreateRequest;
+import com.huigrowth.babycare.dto.AIFeedbackStatItem;
+import com.huigrowth.babycare.entity.AIChatMessage;
+import com.huigrowth.babycare.repository.AIChatMessageRepository;
+import com.huigrowth.babycare.support.TestData;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * AI回复反馈统计测试
+ *
+ * @author HuiGrowth Team
+ */
+@SpringBootTest(classes = BabyCareApplication.class)
+@ActiveProfiles("test")
+class AIFeedbackAnalyticsServiceTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private AIParentingService aiParentingService;
+
+    @Autowired
+    private AIFeedbackAnalyticsService analyticsService;
+
+    @Autowired
+    private AIChatMessageRepository chatMessageRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * 评价按评价日期统计；修改评价时从原先计入的日期撤销，且用户评价不会覆盖统计任务回写的列
+     */
+    @Test
+    void countsFeedbackOnTheDayItWasGiven() {
+        String username = TestData.registerUser(authService);
+        AIChatSessionCreateRequest sessionRequest = new AIChatSessionCreateRequest();
+        sessionRequest.setTitle("睡眠咨询");
+        sessionRequest.setConsultationType("SLEEP");
+        Long sessionId = aiParentingService.createChatSession(username, sessionRequest).getId();
+        AIChatMessageRequest messageRequest = new AIChatMessageRequest();
+        messageRequest.setContent("宝宝晚上总是醒怎么办");
+        Long messageId = aiParentingService.sendMessage(username, sessionId, messageRequest).getId();
+
+        LocalDate today = LocalDate.now();
+        LocalDate firstDay = today.minusDays(5);
+        // 消息是十天前的，第一次评价在五天前
+        aiParentingService.markMessageHelpful(username, messageId, true, null);
+        shiftTimes(messageId, today.minusDays(10).atTime(12, 0), firstDay.atTime(12, 0));
+        analyticsService.aggregate();
+
+        assertThat(chatMessageRepository.findById(messageId)).hasValueSatisfying(message -> {
+            assertThat(message.getCountedHelpful()).isTrue();
+            assertThat(message.getCountedDate()).isEqualTo(firstDay);
+        });
+        assertThat(day(firstDay)).extracting(AIFeedbackStatItem::getHelpfulCount).isEqualTo(1L);
+
+        // 今天改为没有帮助
+        aiParentingService.markMessageHelpful(username, messageId, false, "没有用");
+        AIChatMessage changed = chatMessageRepository.findById(messageId).orElseThrow();
+        assertThat(changed.getCountedHelpful()).isTrue();
+        shiftTimes(messageId, changed.getCreatedAt(), LocalDateTime.now().minusMinutes(5));
+        analyticsService.aggregate();
+
+        assertThat(day(firstDay)).extracting(AIFeedbackStatItem::getHelpfulCount).isEqualTo(0L);
+        assertThat(day(today)).extracting(AIFeedbackStatItem::getUnhelpfulCount).isEqualTo(1L);
+        assertThat(day(today.minusDays(10))).isNull();
+    }
+
+    private void shiftTimes(Long messageId, LocalDateTime createdAt, LocalDateTime feedbackAt) {
+        transactionTemplate.executeWithoutResult(status -> entityManager
+                .createQuery("UPDATE AIChatMessage m SET m.createdAt = :createdAt, m.feedbackAt = :feedbackAt "
+                        + "WHERE m.id = :id")
+                .setParameter("createdAt", createdAt)
+                .setParameter("feedbackAt", feedbackAt)
+                .setParameter("id", messageId)
+                .executeUpdate());
+    }
+
+    private AIFeedbackStatItem day(LocalDate date) {
+        List<AIFeedbackStatItem> byDay = analyticsService.getStats(date, date).getByDay();
+        return byDay.isEmpty() ? null : byDay.get(0);
+    }
+}
@@ -0,0 +1,91 @@
+package com.huigrowth.babycare.service;
+
+import com.huigrowth.babycare.BabyCareApplication;
+import com.huigrowth.babycare.dto.AIChatMessageRequest;
+import com.huigrowth.babycare.dto.AIChatSessionCreateRequest;
+import com.huigrowth.babycare.entity.AIChatSession;
+import com.huigrowth.babycare.repository.AIChatSessionRepository;
+import com.huigrowth.babycare.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * AI聊天并发发送测试
+ *
+ * @author HuiGrowth Team
+ */
+@SpringBootTest(classes = BabyCareApplication.class)
+@ActiveProfiles("test")
+class AIParentingServiceConcurrencyTest {
+
+    private static final int THREADS = 4;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private AIParentingService aiParentingService;
+
+    @Autowired
+    private AIChatSessionRepository chatSessionRepository;
+
+    /**
+     * 会话超过窗口大小后（每次发送都会折叠摘要），多个标签页并发发送全部成功且计数不丢失
+     */
+    @Test
+    void parallelSendsOnLongSessionAllSucceed() throws Exception {
+        String username = TestData.registerUser(authService);
+        AIChatSessionCreateRequest sessionRequest = new AIChatSessionCreateRequest();
+        sessionRequest.setTitle("喂养咨询");
+        sessionRequest.setConsultationType("NUTRITION");
+        Long sessionId = aiParentingService.createChatSession(username, sessionRequest).getId();
+        for (int i = 0; i < 11; i++) {
+            send(username, sessionId, "第" + i + "个问题");
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    String content = "第" + round + "轮标签页" + t;
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        send(username, sessionId, content);
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get(30, TimeUnit.SECONDS);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        AIChatSession session = chatSessionRepository.findById(sessionId).orElseThrow();
+        assertThat(session.getMessageCount()).isEqualTo((11 + THREADS * ROUNDS) * 2);
+        assertThat(session.getContextSummary()).isNotBlank();
+    }
+
+    private void send(String username, Long sessionId, String content) {
+        AIChatMessageRequest request = new AIChatMessageRequest();
+        request.setContent(content);
+        aiParentingService.sendMessage(username, sessionId, request);
+    }
+}
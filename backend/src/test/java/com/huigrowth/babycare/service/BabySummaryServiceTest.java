@@ -0,0 +1,144 @@
+package com.huigrowth.babycare.service;
+
+import com.huigrowth.babycare.BabyCareApplication;
+import com.huigrowth.babycare.dto.BabyCreateRequest;
+import com.huigrowth.babycare.dto.FamilyCreateRequest;
+import com.huigrowth.babycare.dto.FamilyTaskCreateRequest;
+import com.huigrowth.babycare.exception.BusinessException;
+import com.huigrowth.babycare.repository.BabySummaryRepository;
+import com.huigrowth.babycare.repository.UserRepository;
+import com.huigrowth.babycare.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 宝宝概览测试：权限校验先于重建，并发变更任务状态时未完成任务数只调整一次
+ *
+ * @author HuiGrowth Team
+ */
+@SpringBootTest(classes = BabyCareApplication.class)
+@ActiveProfiles("test")
+class BabySummaryServiceTest {
+
+    private static final int THREADS = 4;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private FamilyService familyService;
+
+    @Autowired
+    private FamilyTaskService familyTaskService;
+
+    @Autowired
+    private BabySummaryService babySummaryService;
+
+    @Autowired
+    private BabySummaryRepository babySummaryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * 非家庭成员读取缺失汇总行的宝宝时直接拒绝，不触发重建
+     */
+    @Test
+    void nonMemberCannotTriggerRebuild() {
+        String creator = TestData.registerUser(authService);
+        String stranger = TestData.registerUser(authService);
+        Long familyId = createFamily(creator);
+        Long babyId = addBaby(creator, familyId);
+        babySummaryRepository.delete(babySummaryRepository.findByBabyId(babyId).orElseThrow());
+
+        assertThatThrownBy(() -> babySummaryService.getSummary(stranger, babyId))
+                .isInstanceOf(BusinessException.class);
+        assertThat(babySummaryRepository.findByBabyId(babyId)).isEmpty();
+
+        assertThat(babySummaryService.getSummary(creator, babyId).getBabyId()).isEqualTo(babyId);
+        assertThat(babySummaryRepository.findByBabyId(babyId)).isPresent();
+    }
+
+    /**
+     * 多个成员同时完成同一个任务，只有一个成功，未完成任务数只减一
+     */
+    @Test
+    void concurrentCompletesDecrementPendingCountOnce() throws Exception {
+        String creator = TestData.registerUser(authService);
+        Long familyId = createFamily(creator);
+        Long babyId = addBaby(creator, familyId);
+        Long keptTaskId = createTask(creator, familyId);
+        Long taskId = createTask(creator, familyId);
+        assertThat(babySummaryService.getSummary(creator, babyId).getPendingTaskCount()).isEqualTo(2);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        int succeeded = 0;
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return familyTaskService.completeTask(creator, taskId, "完成");
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                try {
+                    future.get(30, TimeUnit.SECONDS);
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    // 其余请求因状态已变化失败
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(succeeded).isGreaterThanOrEqualTo(1);
+        assertThat(babySummaryService.getSummary(creator, babyId).getPendingTaskCount()).isEqualTo(1);
+
+        familyTaskService.startTask(creator, taskId);
+        assertThat(babySummaryService.getSummary(creator, babyId).getPendingTaskCount()).isEqualTo(2);
+        familyTaskService.cancelTask(creator, keptTaskId);
+        assertThat(babySummaryService.getSummary(creator, babyId).getPendingTaskCount()).isEqualTo(1);
+    }
+
+    private Long createFamily(String username) {
+        FamilyCreateRequest request = new FamilyCreateRequest();
+        request.setName("测试家庭");
+        return familyService.createFamily(username, request).getId();
+    }
+
+    private Long addBaby(String username, Long familyId) {
+        BabyCreateRequest request = new BabyCreateRequest();
+        request.setName("宝宝");
+        request.setGender("MALE");
+        request.setBirthday(LocalDate.now().minusMonths(6));
+        return familyService.addBaby(username, familyId, request).getId();
+    }
+
+    private Long createTask(String username, Long familyId) {
+        FamilyTaskCreateRequest request = new FamilyTaskCreateRequest();
+        request.setTitle("洗澡");
+        request.setFamilyId(familyId);
+        request.setAssigneeId(userRepository.findByUsername(username).orElseThrow().getId());
+        request.setCategory("BATH");
+        return familyTaskService.createTask(username, request).getId();
+    }
+}
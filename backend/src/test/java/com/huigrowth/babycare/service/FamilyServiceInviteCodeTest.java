@@ -0,0 +1,72 @@
+package com.huigrowth.babycare.service;
+
+import com.huigrowth.babycare.BabyCareApplication;
+import com.huigrowth.babycare.dto.FamilyCreateRequest;
+import com.huigrowth.babycare.dto.FamilyResponse;
+import com.huigrowth.babycare.entity.Family;
+import com.huigrowth.babycare.repository.FamilyRepository;
+import com.huigrowth.babycare.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doReturn;
+
+/**
+ * 创建家庭时的邀请码分配测试：连接池只有一个连接时领取计数块不死锁，与历史邀请码冲突时换码重试
+ *
+ * @author HuiGrowth Team
+ */
+@SpringBootTest(classes = BabyCareApplication.class, properties = {
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.minimum-idle=1",
+        "spring.datasource.hikari.connection-timeout=3000",
+        "app.invite-code.block-size=1"})
+@ActiveProfiles("test")
+class FamilyServiceInviteCodeTest {
+
+    private static final String LEGACY_CODE = "LEGACY";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private FamilyService familyService;
+
+    @Autowired
+    private FamilyRepository familyRepository;
+
+    @SpyBean
+    private InviteCodeAllocator inviteCodeAllocator;
+
+    /**
+     * 每次创建都领取新计数块；冲突的历史邀请码被跳过，家庭使用下一个邀请码创建成功
+     */
+    @Test
+    void retriesOnLegacyCollisionWithSingleConnection() {
+        Family legacy = new Family();
+        legacy.setName("历史家庭");
+        legacy.setInviteCode(LEGACY_CODE);
+        familyRepository.save(legacy);
+
+        FamilyResponse first = createFamily(TestData.registerUser(authService));
+        assertThat(first.getInviteCode()).hasSize(6);
+
+        doReturn(LEGACY_CODE).doCallRealMethod().when(inviteCodeAllocator).nextCode();
+        FamilyResponse second = createFamily(TestData.registerUser(authService));
+
+        assertThat(second.getInviteCode()).isNotEqualTo(LEGACY_CODE).isNotEqualTo(first.getInviteCode());
+        assertThat(familyRepository.findByInviteCode(second.getInviteCode()))
+                .hasValueSatisfying(family -> assertThat(family.getId()).isEqualTo(second.getId()));
+    }
+
+    private FamilyResponse createFamily(String username) {
+        FamilyCreateRequest request = new FamilyCreateRequest();
+        request.setName("测试家庭");
+        return familyService.createFamily(username, request);
+    }
+}
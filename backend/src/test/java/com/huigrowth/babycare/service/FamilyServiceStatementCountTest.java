@@ -0,0 +1,89 @@
+package com.huigrowth.babycare.service;
+
+import com.huigrowth.babycare.BabyCareApplication;
+import com.huigrowth.babycare.dto.BabyCreateRequest;
+import com.huigrowth.babycare.dto.FamilyCreateRequest;
+import com.huigrowth.babycare.dto.FamilyResponse;
+import com.huigrowth.babycare.support.TestData;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 家庭列表查询语句数回归测试
+ *
+ * @author HuiGrowth Team
+ */
+@SpringBootTest(classes = BabyCareApplication.class)
+@ActiveProfiles("test")
+class FamilyServiceStatementCountTest {
+
+    /**
+     * 用户查询 + 成员关系和家庭 + 成员和用户 + 宝宝
+     */
+    private static final long EXPECTED_STATEMENTS = 4;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private FamilyService familyService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * 语句数与家庭数、成员数无关
+     */
+    @Test
+    void getUserFamiliesUsesConstantStatements() {
+        String username = TestData.registerUser(authService);
+        createFamilyWithMembers(username, 2);
+
+        assertThat(countStatements(username)).isEqualTo(EXPECTED_STATEMENTS);
+
+        for (int i = 0; i < 3; i++) {
+            String creator = TestData.registerUser(authService);
+            FamilyResponse family = createFamilyWithMembers(creator, 3);
+            familyService.joinFamily(username, family.getInviteCode());
+        }
+
+        List<FamilyResponse> families = familyService.getUserFamilies(username);
+        assertThat(families).hasSize(4);
+        assertThat(families).allSatisfy(family -> assertThat(family.getMembers()).isNotEmpty());
+        assertThat(countStatements(username)).isEqualTo(EXPECTED_STATEMENTS);
+    }
+
+    private long countStatements(String username) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        familyService.getUserFamilies(username);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private FamilyResponse createFamilyWithMembers(String creator, int extraMembers) {
+        FamilyCreateRequest request = new FamilyCreateRequest();
+        request.setName("测试家庭");
+        FamilyResponse family = familyService.createFamily(creator, request);
+
+        BabyCreateRequest baby = new BabyCreateRequest();
+        baby.setName("宝宝");
+        baby.setGender("FEMALE");
+        baby.setBirthday(LocalDate.now().minusMonths(6));
+        familyService.addBaby(creator, family.getId(), baby);
+
+        for (int i = 0; i < extraMembers; i++) {
+            familyService.joinFamily(TestData.registerUser(authService), family.getInviteCode());
+        }
+        return family;
+    }
+}
@@ -0,0 +1,111 @@
+package com.huigrowth.babycare.service;
+
+import com.huigrowth.babycare.BabyCareApplication;
+import com.huigrowth.babycare.dto.BabyCreateRequest;
+import com.huigrowth.babycare.dto.FamilyCreateRequest;
+import com.huigrowth.babycare.dto.GrowthRecordImportResponse;
+import com.huigrowth.babycare.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * 成长记录导入测试：单行写入失败不拖累整块，超长CSV行被跳过
+ *
+ * @author HuiGrowth Team
+ */
+@SpringBootTest(classes = BabyCareApplication.class, properties = {
+        "app.import.csv.max-field-length=100",
+        "app.import.csv.max-record-length=300"})
+@ActiveProfiles("test")
+class GrowthRecordImportServiceTest {
+
+    private static final String BAD_TITLE = "数据库拒绝的行";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private FamilyService familyService;
+
+    @Autowired
+    private GrowthRecordImportService importService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 块内一行被数据库拒绝时，其余行逐行重试后全部导入
+     */
+    @Test
+    void failedChunkIsRetriedRowByRow() {
+        String username = TestData.registerUser(authService);
+        Long babyId = addBaby(username);
+        String csv = "type,title\n"
+                + "DIARY,第一行\n"
+                + "DIARY,第二行\n"
+                + "DIARY," + BAD_TITLE + "\n"
+                + "PHOTO,第四行\n";
+
+        jdbcTemplate.execute("ALTER TABLE growth_records ADD CONSTRAINT chk_import_test CHECK (title <> '" + BAD_TITLE + "')");
+        GrowthRecordImportResponse response;
+        try {
+            response = importCsv(username, babyId, csv);
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE growth_records DROP CONSTRAINT chk_import_test");
+        }
+
+        assertThat(response.getImportedRows()).isEqualTo(3);
+        assertThat(response.getFailedRows()).isEqualTo(1);
+        assertThat(response.getErrors()).extracting(GrowthRecordImportResponse.RowError::getRow,
+                GrowthRecordImportResponse.RowError::getMessage).containsExactly(tuple(3L, "写入失败"));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM growth_records WHERE baby_id = ?",
+                Long.class, babyId)).isEqualTo(3);
+    }
+
+    /**
+     * 超长字段和超长行被跳过并给出原因，后续行继续导入
+     */
+    @Test
+    void oversizedRowsAreRejected() {
+        String username = TestData.registerUser(authService);
+        Long babyId = addBaby(username);
+        String csv = "type,title,content\n"
+                + "DIARY,第一行,\"" + "长".repeat(500) + "\"\n"
+                + "DIARY,第二行," + "短,".repeat(200) + "\n"
+                + "DIARY,第三行,正常内容\n";
+
+        GrowthRecordImportResponse response = importCsv(username, babyId, csv);
+
+        assertThat(response.getTotalRows()).isEqualTo(3);
+        assertThat(response.getImportedRows()).isEqualTo(1);
+        assertThat(response.getErrors()).extracting(GrowthRecordImportResponse.RowError::getRow,
+                        GrowthRecordImportResponse.RowError::getMessage)
+                .containsExactly(tuple(1L, "字段长度超过100个字符"), tuple(2L, "记录长度超过300个字符"));
+    }
+
+    private GrowthRecordImportResponse importCsv(String username, Long babyId, String csv) {
+        return importService.importRecords(username, babyId, GrowthRecordImportService.Format.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Long addBaby(String username) {
+        FamilyCreateRequest familyRequest = new FamilyCreateRequest();
+        familyRequest.setName("测试家庭");
+        Long familyId = familyService.createFamily(username, familyRequest).getId();
+        BabyCreateRequest babyRequest = new BabyCreateRequest();
+        babyRequest.setName("宝宝");
+        babyRequest.setGender("MALE");
+        babyRequest.setBirthday(LocalDate.now().minusMonths(3));
+        return familyService.addBaby(username, familyId, babyRequest).getId();
+    }
+}
@@ -0,0 +1,127 @@
+package com.huigrowth.babycare.service;
+
+import com.huigrowth.babycare.BabyCareApplication;
+import com.huigrowth.babycare.entity.MediaFile;
+import com.huigrowth.babycare.entity.User;
+import com.huigrowth.babycare.repository.MediaFileRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 媒体文件垃圾回收测试
+ *
+ * @author HuiGrowth Team
+ */
+@SpringBootTest(classes = BabyCareApplication.class)
+@ActiveProfiles("test")
+class MediaGarbageCollectionJobTest {
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private MediaReferenceService mediaReferenceService;
+
+    @Autowired
+    private MediaFileRepository mediaFileRepository;
+
+    @Autowired
+    private MediaGarbageCollectionJob mediaGarbageCollectionJob;
+
+    @Test
+    void collectsReleasedAndAbandonedFilesButKeepsLegacyOnes() {
+        List<Long> ids = transactionTemplate.execute(status -> {
+            User owner = new User();
+            owner.setUsername("gc_" + UUID.randomUUID().toString().substring(0, 8));
+            owner.setEmail(owner.getUsername() + "@example.com");
+            owner.setPassword("secret1");
+            owner.setNickname("gc");
+            entityManager.persist(owner);
+
+            MediaFile released = newFile(owner);
+            MediaFile neverReferenced = newFile(owner);
+            MediaFile avatar = newFile(owner);
+            // 引用计数上线后登记、上传后一直未使用的文件
+            MediaFile abandoned = newFile(owner);
+            abandoned.setRefTracked(true);
+            entityManager.persist(released);
+            entityManager.persist(neverReferenced);
+            entityManager.persist(avatar);
+            entityManager.persist(abandoned);
+            return List.of(owner.getId(), released.getId(), neverReferenced.getId(), avatar.getId(),
+                    abandoned.getId());
+        });
+        Long ownerId = ids.get(0);
+        String releasedUrl = "/api/media/files/" + ids.get(1);
+        String avatarUrl = "/api/media/files/" + ids.get(3);
+
+        // 头像先引用一个文件，再换成另一个
+        transactionTemplate.executeWithoutResult(status ->
+                mediaReferenceService.updateUserReferences(ownerId, null, releasedUrl));
+        transactionTemplate.executeWithoutResult(status ->
+                mediaReferenceService.updateUserReferences(ownerId, releasedUrl, avatarUrl));
+        transactionTemplate.executeWithoutResult(status -> entityManager
+                .createQuery("UPDATE MediaFile f SET f.updatedAt = :time WHERE f.id IN :ids")
+                .setParameter("time", LocalDateTime.now().minusDays(3))
+                .setParameter("ids", ids.subList(1, 5))
+                .executeUpdate());
+
+        mediaGarbageCollectionJob.run();
+
+        assertThat(mediaFileRepository.findById(ids.get(1))).isEmpty();
+        assertThat(mediaFileRepository.findById(ids.get(2))).isPresent();
+        assertThat(mediaFileRepository.findById(ids.get(3)))
+                .hasValueSatisfying(file -> assertThat(file.getRefCount()).isEqualTo(1));
+        assertThat(mediaFileRepository.findById(ids.get(4))).isEmpty();
+    }
+
+    /**
+     * 登记后未使用的文件在宽限期内保留
+     */
+    @Test
+    void keepsRecentUnusedUploadsWithinGracePeriod() {
+        Long fileId = transactionTemplate.execute(status -> {
+            User owner = new User();
+            owner.setUsername("gc_" + UUID.randomUUID().toString().substring(0, 8));
+            owner.setEmail(owner.getUsername() + "@example.com");
+            owner.setPassword("secret1");
+            owner.setNickname("gc");
+            entityManager.persist(owner);
+
+            MediaFile recent = newFile(owner);
+            recent.setRefTracked(true);
+            entityManager.persist(recent);
+            return recent.getId();
+        });
+
+        mediaGarbageCollectionJob.run();
+
+        assertThat(mediaFileRepository.findById(fileId)).isPresent();
+    }
+
+    private MediaFile newFile(User owner) {
+        MediaFile file = new MediaFile();
+        file.setOwner(owner);
+        file.setFamilyId(0L);
+        file.setFileName("photo.jpg");
+        file.setContentType("image/jpeg");
+        file.setMediaType(MediaFile.MediaType.IMAGE);
+        file.setSize(1L);
+        file.setSha256(UUID.randomUUID().toString().replace("-", ""));
+        file.setStoragePath("missing/photo.jpg");
+        return file;
+    }
+}
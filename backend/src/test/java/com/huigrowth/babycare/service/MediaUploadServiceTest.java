@@ -0,0 +1,231 @@
+package com.huigrowth.babycare.service;
+
+import com.huigrowth.babycare.BabyCareApplication;
+import com.huigrowth.babycare.dto.FamilyCreateRequest;
+import com.huigrowth.babycare.dto.LoginRequest;
+import com.huigrowth.babycare.dto.MediaUploadCreateRequest;
+import com.huigrowth.babycare.dto.MediaUploadResponse;
+import com.huigrowth.babycare.entity.MediaUpload;
+import com.huigrowth.babycare.exception.BusinessException;
+import com.huigrowth.babycare.exception.UploadConflictException;
+import com.huigrowth.babycare.repository.MediaFileRepository;
+import com.huigrowth.babycare.repository.MediaUploadRepository;
+import com.huigrowth.babycare.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 分片上传测试：偏移量冲突、分片校验失败后的回退，以及重启后从临时文件恢复摘要
+ *
+ * @author HuiGrowth Team
+ */
+@SpringBootTest(classes = BabyCareApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MediaUploadServiceTest {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private FamilyService familyService;
+
+    @Autowired
+    private MediaUploadService mediaUploadService;
+
+    @Autowired
+    private MediaFileRepository mediaFileRepository;
+
+    @Autowired
+    private MediaStorage mediaStorage;
+
+    /**
+     * 偏移量与服务端不一致时返回409，并在 Upload-Offset 中告知服务端偏移量
+     */
+    @Test
+    void offsetMismatchReturnsConflict() throws Exception {
+        String username = TestData.registerUser(authService);
+        byte[] content = randomBytes(2 * CHUNK_SIZE);
+        String uploadId = createUpload(username, content, false).getUploadId();
+        mediaUploadService.appendChunk(username, uploadId, 0, CHUNK_SIZE, null, chunk(content, 0));
+
+        String token = authService.login(loginRequest(username)).getToken();
+        mockMvc.perform(patch("/media/uploads/{uploadId}", uploadId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .header("Upload-Offset", 0)
+                        .contentType("application/offset+octet-stream")
+                        .content(Arrays.copyOfRange(content, 0, CHUNK_SIZE)))
+                .andExpect(status().isConflict())
+                .andExpect(header().string("Upload-Offset", String.valueOf(CHUNK_SIZE)));
+    }
+
+    /**
+     * 重试请求在上一个请求提交前读到旧偏移量：取得写入标记后重新校验，不覆盖已提交的数据
+     */
+    @Test
+    void staleRetryDoesNotOverwriteCommittedChunk() throws Exception {
+        String username = TestData.registerUser(authService);
+        byte[] content = randomBytes(2 * CHUNK_SIZE);
+        String uploadId = createUpload(username, content, false).getUploadId();
+
+        // 重试请求读取上传之后、取得写入标记之前，原请求完成提交
+        MediaUploadService target = AopTestUtils.getTargetObject(mediaUploadService);
+        MediaUploadRepository repository = (MediaUploadRepository) ReflectionTestUtils.getField(target,
+                "mediaUploadRepository");
+        MediaUploadRepository racing = mock(MediaUploadRepository.class, delegatesTo(repository));
+        AtomicBoolean raced = new AtomicBoolean();
+        doAnswer(invocation -> {
+            Optional<MediaUpload> result = repository.findByUploadId(invocation.getArgument(0));
+            if (raced.compareAndSet(false, true)) {
+                CompletableFuture.runAsync(() -> mediaUploadService.appendChunk(username, uploadId, 0, CHUNK_SIZE,
+                        null, chunk(content, 0))).get(30, TimeUnit.SECONDS);
+            }
+            return result;
+        }).when(racing).findByUploadId(anyString());
+
+        ReflectionTestUtils.setField(target, "mediaUploadRepository", racing);
+        try {
+            byte[] garbage = randomBytes(CHUNK_SIZE + 1);
+            assertThatThrownBy(() -> mediaUploadService.appendChunk(username, uploadId, 0, CHUNK_SIZE, null,
+                    new ByteArrayInputStream(garbage, 0, CHUNK_SIZE)))
+                    .isInstanceOfSatisfying(UploadConflictException.class,
+                            e -> assertThat(e.getCurrentOffset()).isEqualTo(CHUNK_SIZE));
+        } finally {
+            ReflectionTestUtils.setField(target, "mediaUploadRepository", repository);
+        }
+        assertThat(Files.readAllBytes(mediaStorage.partPath(uploadId)))
+                .isEqualTo(Arrays.copyOfRange(content, 0, CHUNK_SIZE));
+
+        MediaUploadResponse response = mediaUploadService.appendChunk(username, uploadId, CHUNK_SIZE, CHUNK_SIZE,
+                null, chunk(content, CHUNK_SIZE));
+        assertThat(response.getStatus()).isEqualTo(MediaUpload.UploadStatus.COMPLETED);
+        assertThat(storedSha256(response)).isEqualTo(sha256Hex(content));
+    }
+
+    /**
+     * 分片校验失败时临时文件截断回分片起点，偏移量不变，重传后正常完成
+     */
+    @Test
+    void checksumMismatchTruncatesPartFile() throws Exception {
+        String username = TestData.registerUser(authService);
+        byte[] content = randomBytes(2 * CHUNK_SIZE);
+        String uploadId = createUpload(username, content, true).getUploadId();
+        mediaUploadService.appendChunk(username, uploadId, 0, CHUNK_SIZE, checksum(content, 0), chunk(content, 0));
+
+        String wrongChecksum = checksum(content, 0);
+        assertThatThrownBy(() -> mediaUploadService.appendChunk(username, uploadId, CHUNK_SIZE, CHUNK_SIZE,
+                wrongChecksum, chunk(content, CHUNK_SIZE)))
+                .isInstanceOfSatisfying(BusinessException.class,
+                        e -> assertThat(e.getCode()).isEqualTo("CHECKSUM_MISMATCH"));
+        assertThat(Files.size(mediaStorage.partPath(uploadId))).isEqualTo(CHUNK_SIZE);
+        assertThat(mediaUploadService.getUpload(username, uploadId).getUploadOffset()).isEqualTo(CHUNK_SIZE);
+
+        MediaUploadResponse response = mediaUploadService.appendChunk(username, uploadId, CHUNK_SIZE, CHUNK_SIZE,
+                checksum(content, CHUNK_SIZE), chunk(content, CHUNK_SIZE));
+        assertThat(response.getStatus()).isEqualTo(MediaUpload.UploadStatus.COMPLETED);
+        assertThat(storedSha256(response)).isEqualTo(sha256Hex(content));
+    }
+
+    /**
+     * 内存中的摘要状态丢失（模拟服务重启）后，从临时文件已写入部分恢复，整文件校验仍然通过
+     */
+    @Test
+    void digestIsRecoveredFromPartFileAfterRestart() throws Exception {
+        String username = TestData.registerUser(authService);
+        byte[] content = randomBytes(3 * CHUNK_SIZE);
+        String uploadId = createUpload(username, content, true).getUploadId();
+        mediaUploadService.appendChunk(username, uploadId, 0, CHUNK_SIZE, null, chunk(content, 0));
+        mediaUploadService.appendChunk(username, uploadId, CHUNK_SIZE, CHUNK_SIZE, null, chunk(content, CHUNK_SIZE));
+
+        ((Map<?, ?>) ReflectionTestUtils.getField(mediaUploadService, "digests")).clear();
+
+        MediaUploadResponse response = mediaUploadService.appendChunk(username, uploadId, 2 * CHUNK_SIZE, CHUNK_SIZE,
+                null, chunk(content, 2 * CHUNK_SIZE));
+        assertThat(response.getStatus()).isEqualTo(MediaUpload.UploadStatus.COMPLETED);
+        assertThat(storedSha256(response)).isEqualTo(sha256Hex(content));
+    }
+
+    private MediaUploadResponse createUpload(String username, byte[] content, boolean declareSha256) {
+        FamilyCreateRequest familyRequest = new FamilyCreateRequest();
+        familyRequest.setName("测试家庭");
+        Long familyId = familyService.createFamily(username, familyRequest).getId();
+
+        MediaUploadCreateRequest request = new MediaUploadCreateRequest();
+        request.setFamilyId(familyId);
+        request.setFileName("video.mp4");
+        request.setContentType("video/mp4");
+        request.setTotalSize((long) content.length);
+        request.setSha256(declareSha256 ? sha256Hex(content) : null);
+        return mediaUploadService.createUpload(username, request);
+    }
+
+    private String storedSha256(MediaUploadResponse response) {
+        return mediaFileRepository.findById(response.getMediaFileId()).orElseThrow().getSha256();
+    }
+
+    private static ByteArrayInputStream chunk(byte[] content, int offset) {
+        return new ByteArrayInputStream(content, offset, CHUNK_SIZE);
+    }
+
+    private static String checksum(byte[] content, int offset) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update(content, offset, CHUNK_SIZE);
+        return "sha256 " + Base64.getEncoder().encodeToString(digest.digest());
+    }
+
+    private static String sha256Hex(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private LoginRequest loginRequest(String username) {
+        LoginRequest request = new LoginRequest();
+        request.setEmailOrUsername(username);
+        request.setPassword("secret123");
+        return request;
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+}
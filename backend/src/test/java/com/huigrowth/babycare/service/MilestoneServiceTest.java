@@ -0,0 +1,148 @@
+package com.huigrowth.babycare.service;
+
+import com.huigrowth.babycare.BabyCareApplication;
+import com.huigrowth.babycare.dto.BabyCreateRequest;
+import com.huigrowth.babycare.dto.FamilyCreateRequest;
+import com.huigrowth.babycare.dto.MilestoneCreateRequest;
+import com.huigrowth.babycare.dto.PresetMilestoneResponse;
+import com.huigrowth.babycare.exception.BusinessException;
+import com.huigrowth.babycare.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 里程碑服务测试：位图缓存版本校验和重复记录
+ *
+ * @author HuiGrowth Team
+ */
+@SpringBootTest(classes = BabyCareApplication.class)
+@ActiveProfiles("test")
+class MilestoneServiceTest {
+
+    private static final int THREADS = 4;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private FamilyService familyService;
+
+    @Autowired
+    private MilestoneService milestoneService;
+
+    /**
+     * 加载期间有变更提交时，加载结果不写入缓存
+     */
+    @Test
+    void loadRacingACommitIsNotCached() {
+        String username = TestData.registerUser(authService);
+        Long babyId = addBaby(username);
+        Long presetId = milestoneService.getPresets(null).get(0).getId();
+
+        // 模拟读取在记录提交之前开始
+        long generation = ((AtomicLong) ReflectionTestUtils.getField(milestoneService, "achievedGeneration")).get();
+        milestoneService.recordMilestone(username, request(babyId, presetId));
+        MilestoneService target = AopTestUtils.getTargetObject(milestoneService);
+        ReflectionTestUtils.invokeMethod(target, "getAchieved", babyId, generation);
+        assertThat(achievedCache()).doesNotContainKey(babyId);
+
+        assertThat(isAchieved(username, babyId, presetId)).isTrue();
+        assertThat(achievedCache()).containsKey(babyId);
+    }
+
+    /**
+     * 位图未命中时重复记录由唯一约束兜底，返回业务异常
+     */
+    @Test
+    void duplicatePresetIsRejected() throws Exception {
+        String username = TestData.registerUser(authService);
+        Long babyId = addBaby(username);
+        Long presetId = milestoneService.getPresets(null).get(1).getId();
+
+        milestoneService.recordMilestone(username, request(babyId, presetId));
+        // 缓存中的旧位图让检查通过，插入时触发唯一约束
+        achievedCache().put(babyId, new BitSet());
+        assertThatThrownBy(() -> milestoneService.recordMilestone(username, request(babyId, presetId)))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("该里程碑已经记录过了");
+
+        Long concurrentPresetId = milestoneService.getPresets(null).get(2).getId();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        int succeeded = 0;
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return milestoneService.recordMilestone(username, request(babyId, concurrentPresetId));
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                try {
+                    future.get(30, TimeUnit.SECONDS);
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(BusinessException.class);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(succeeded).isEqualTo(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, BitSet> achievedCache() {
+        return (Map<Long, BitSet>) ReflectionTestUtils.getField(milestoneService, "achievedCache");
+    }
+
+    private boolean isAchieved(String username, Long babyId, Long presetId) {
+        return milestoneService.getChecklist(username, babyId).getItems().stream()
+                .filter(item -> item.getId().equals(presetId))
+                .findFirst()
+                .map(PresetMilestoneResponse::getAchieved)
+                .orElseThrow();
+    }
+
+    private Long addBaby(String username) {
+        FamilyCreateRequest familyRequest = new FamilyCreateRequest();
+        familyRequest.setName("测试家庭");
+        Long familyId = familyService.createFamily(username, familyRequest).getId();
+        BabyCreateRequest babyRequest = new BabyCreateRequest();
+        babyRequest.setName("宝宝");
+        babyRequest.setGender("FEMALE");
+        babyRequest.setBirthday(LocalDate.now().minusMonths(24));
+        return familyService.addBaby(username, familyId, babyRequest).getId();
+    }
+
+    private MilestoneCreateRequest request(Long babyId, Long presetId) {
+        MilestoneCreateRequest request = new MilestoneCreateRequest();
+        request.setBabyId(babyId);
+        request.setPresetMilestoneId(presetId);
+        request.setAchievedAt(LocalDateTime.now().minusDays(1));
+        return request;
+    }
+}
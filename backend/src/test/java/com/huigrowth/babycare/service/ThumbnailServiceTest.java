@@ -0,0 +1,117 @@
+package com.huigrowth.babycare.service;
+
+import com.huigrowth.babycare.BabyCareApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 缩略图服务测试：解码时按EXIF方向旋转
+ *
+ * @author HuiGrowth Team
+ */
+@SpringBootTest(classes = BabyCareApplication.class)
+@ActiveProfiles("test")
+class ThumbnailServiceTest {
+
+    private static final int WIDTH = 400;
+    private static final int HEIGHT = 200;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * 方向6（顺时针旋转90度）：横拍的传感器图像解码后变为竖图，原图左侧朝上
+     */
+    @Test
+    void rotatesByExifOrientation() throws Exception {
+        BufferedImage image = read(writeJpeg(6));
+
+        assertThat(image.getWidth()).isEqualTo(HEIGHT);
+        assertThat(image.getHeight()).isEqualTo(WIDTH);
+        assertThat(isRed(image.getRGB(HEIGHT / 2, WIDTH / 4))).isTrue();
+        assertThat(isRed(image.getRGB(HEIGHT / 2, WIDTH * 3 / 4))).isFalse();
+    }
+
+    /**
+     * 方向3（旋转180度）保持宽高，左右上下互换；没有EXIF时保持原样
+     */
+    @Test
+    void keepsSizeForUprightAndUpsideDown() throws Exception {
+        BufferedImage upsideDown = read(writeJpeg(3));
+        assertThat(upsideDown.getWidth()).isEqualTo(WIDTH);
+        assertThat(isRed(upsideDown.getRGB(WIDTH * 3 / 4, HEIGHT / 2))).isTrue();
+
+        BufferedImage upright = read(writeJpeg(0));
+        assertThat(upright.getWidth()).isEqualTo(WIDTH);
+        assertThat(isRed(upright.getRGB(WIDTH / 4, HEIGHT / 2))).isTrue();
+    }
+
+    private BufferedImage read(Path path) {
+        ThumbnailService target = AopTestUtils.getTargetObject(thumbnailService);
+        return ReflectionTestUtils.invokeMethod(target, "read", path, 160);
+    }
+
+    /**
+     * 左半红、右半蓝的JPEG；orientation大于0时在APP0之后插入只含Orientation标签的EXIF段
+     */
+    private Path writeJpeg(int orientation) throws Exception {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, WIDTH / 2, HEIGHT);
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(WIDTH / 2, 0, WIDTH / 2, HEIGHT);
+        graphics.dispose();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", output);
+        byte[] jpeg = output.toByteArray();
+
+        Path path = tempDir.resolve("photo-" + orientation + ".jpg");
+        if (orientation == 0) {
+            Files.write(path, jpeg);
+            return path;
+        }
+        // TIFF头(8) + 条目数(2) + 一个条目(12) + 下一个IFD偏移(4)，大端序
+        ByteBuffer tiff = ByteBuffer.allocate(26);
+        tiff.put((byte) 'M').put((byte) 'M').putShort((short) 42).putInt(8);
+        tiff.putShort((short) 1);
+        tiff.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+        tiff.putInt(0);
+        byte[] exif = ByteBuffer.allocate(6 + tiff.capacity())
+                .put(new byte[]{'E', 'x', 'i', 'f', 0, 0}).put(tiff.array()).array();
+
+        int app0End = 4 + (((jpeg[4] & 0xFF) << 8) | (jpeg[5] & 0xFF));
+        ByteArrayOutputStream withExif = new ByteArrayOutputStream();
+        withExif.write(jpeg, 0, app0End);
+        int length = exif.length + 2;
+        withExif.write(new byte[]{(byte) 0xFF, (byte) 0xE1, (byte) (length >> 8), (byte) length});
+        withExif.write(exif);
+        withExif.write(jpeg, app0End, jpeg.length - app0End);
+        Files.write(path, withExif.toByteArray());
+        return path;
+    }
+
+    private static boolean isRed(int rgb) {
+        Color color = new Color(rgb);
+        return color.getRed() > 200 && color.getBlue() < 60;
+    }
+}
@@ -0,0 +1,114 @@
+package com.huigrowth.babycare.service;
+
+import com.huigrowth.babycare.BabyCareApplication;
+import com.huigrowth.babycare.dto.BabyCreateRequest;
+import com.huigrowth.babycare.dto.ExportJobResponse;
+import com.huigrowth.babycare.dto.FamilyCreateRequest;
+import com.huigrowth.babycare.dto.GrowthRecordCreateRequest;
+import com.huigrowth.babycare.entity.ExportJob;
+import com.huigrowth.babycare.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 时间线导出测试：归档不在上传目录内，旧版地址不能引用内容寻址文件或其他导出归档
+ *
+ * @author HuiGrowth Team
+ */
+@SpringBootTest(classes = BabyCareApplication.class)
+@ActiveProfiles("test")
+class TimelineExportServiceTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private FamilyService familyService;
+
+    @Autowired
+    private GrowthRecordService growthRecordService;
+
+    @Autowired
+    private TimelineExportService timelineExportService;
+
+    @Autowired
+    private MediaStorage mediaStorage;
+
+    @Test
+    void legacyUrlsCannotReachPrivateFiles() throws Exception {
+        String username = TestData.registerUser(authService);
+        Long babyId = addBaby(username);
+
+        // 其他家庭的内容寻址文件
+        String sha256 = (UUID.randomUUID().toString() + UUID.randomUUID()).replace("-", "");
+        Path source = Files.createTempFile("media", ".bin");
+        Files.write(source, new byte[]{1, 2, 3});
+        String blobPath = mediaStorage.store(source, sha256);
+        String legacyName = "legacy-" + UUID.randomUUID() + ".jpg";
+        Files.write(mediaStorage.resolve(legacyName), new byte[]{4, 5, 6});
+
+        GrowthRecordCreateRequest request = new GrowthRecordCreateRequest();
+        request.setBabyId(babyId);
+        request.setType("PHOTO");
+        request.setTitle("照片");
+        request.setMediaUrls(List.of("/api/uploads/" + legacyName, "/api/uploads/" + blobPath,
+                "/api/uploads/tmp/uploads/x.part", "/api/uploads/../" + legacyName));
+        growthRecordService.createRecord(username, request);
+
+        try {
+            String jobId = timelineExportService.createExport(username, babyId).getJobId();
+            awaitCompleted(username, jobId);
+            Path archive = timelineExportService.getArchive(username, jobId);
+            assertThat(mediaStorage.isLegacyFile(archive)).isFalse();
+            assertThat(archive.startsWith(mediaStorage.resolve(""))).isFalse();
+
+            List<String> mediaEntries = new ArrayList<>();
+            try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(archive))) {
+                for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                    if (entry.getName().startsWith("media/")) {
+                        mediaEntries.add(entry.getName());
+                    }
+                }
+            }
+            assertThat(mediaEntries).hasSize(1);
+            assertThat(mediaEntries.get(0)).endsWith(legacyName);
+        } finally {
+            mediaStorage.deleteQuietly(mediaStorage.resolve(legacyName));
+        }
+    }
+
+    private void awaitCompleted(String username, String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        ExportJobResponse response = timelineExportService.getExport(username, jobId);
+        while (response.getStatus() != ExportJob.ExportStatus.COMPLETED && System.currentTimeMillis() < deadline) {
+            assertThat(response.getStatus()).isNotEqualTo(ExportJob.ExportStatus.FAILED);
+            Thread.sleep(50);
+            response = timelineExportService.getExport(username, jobId);
+        }
+        assertThat(response.getStatus()).isEqualTo(ExportJob.ExportStatus.COMPLETED);
+    }
+
+    private Long addBaby(String username) {
+        FamilyCreateRequest familyRequest = new FamilyCreateRequest();
+        familyRequest.setName("测试家庭");
+        Long familyId = familyService.createFamily(username, familyRequest).getId();
+        BabyCreateRequest babyRequest = new BabyCreateRequest();
+        babyRequest.setName("宝宝");
+        babyRequest.setGender("FEMALE");
+        babyRequest.setBirthday(LocalDate.now().minusMonths(8));
+        return familyService.addBaby(username, familyId, babyRequest).getId();
+    }
+}
@@ -0,0 +1,31 @@
+package com.huigrowth.babycare.support;
+
+import com.huigrowth.babycare.dto.RegisterRequest;
+import com.huigrowth.babycare.service.AuthService;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 测试数据辅助方法
+ *
+ * @author HuiGrowth Team
+ */
+public final class TestData {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private TestData() {
+    }
+
+    /**
+     * 注册一个新用户，返回用户名（测试共享同一个内存库，用户名按序号区分）
+     */
+    public static String registerUser(AuthService authService) {
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername("u" + System.currentTimeMillis() % 1_000_000_000L + "_" + SEQUENCE.incrementAndGet());
+        request.setPassword("secret123");
+        request.setNickname("测试用户");
+        authService.register(request);
+        return request.getUsername();
+    }
+}
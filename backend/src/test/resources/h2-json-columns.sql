@@ -0,0 +1,14 @@
+-- H2 的 JSON 类型会把绑定的字符串参数存成 JSON 字符串字面量（带引号），
+-- 与 MySQL 解析 JSON 文本的行为不同；测试库中把 JSON 列改为普通文本列
+ALTER TABLE outbox_events ALTER COLUMN payload SET DATA TYPE VARCHAR(1000000);
+ALTER TABLE family_tasks ALTER COLUMN assigned_to SET DATA TYPE VARCHAR(1000000);
+ALTER TABLE family_posts ALTER COLUMN images SET DATA TYPE VARCHAR(1000000);
+ALTER TABLE family_posts ALTER COLUMN videos SET DATA TYPE VARCHAR(1000000);
+ALTER TABLE family_posts ALTER COLUMN likes SET DATA TYPE VARCHAR(1000000);
+ALTER TABLE family_posts ALTER COLUMN comments SET DATA TYPE VARCHAR(1000000);
+ALTER TABLE milestones ALTER COLUMN photos SET DATA TYPE VARCHAR(1000000);
+ALTER TABLE growth_records ALTER COLUMN media_urls SET DATA TYPE VARCHAR(1000000);
+ALTER TABLE growth_records ALTER COLUMN tags SET DATA TYPE VARCHAR(1000000);
+ALTER TABLE baby_summaries ALTER COLUMN active_plans SET DATA TYPE VARCHAR(1000000);
+ALTER TABLE baby_summaries ALTER COLUMN recent_milestones SET DATA TYPE VARCHAR(1000000);
+ALTER TABLE ai_chats ALTER COLUMN messages SET DATA TYPE VARCHAR(1000000);